@@ -124,6 +124,8 @@ public class TimeboundaryRefreshMessageHandlerFactory implements MessageHandlerF
                         String table = tableItr.next();
                         _logger.info("Update time boundary info for table {} ", table);
                         _helixExternalViewBasedRouting.updateTimeBoundary(table);
+                        // Segment ZK metadata used by the segment selector might also change on segment refresh
+                        _helixExternalViewBasedRouting.updateSegmentSelector(table);
                         // Remove the table name from the underlying hashmap.
                         tableItr.remove();
                     }
@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.broker.pruner;
+
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.metadata.segment.ColumnMinMaxMetadata;
+import com.linkedin.pinot.common.metadata.segment.SegmentColumnMinMaxMetadata;
+import com.linkedin.pinot.common.metadata.segment.SegmentZKMetadata;
+import com.linkedin.pinot.common.request.FilterOperator;
+import com.linkedin.pinot.common.utils.request.FilterQueryTree;
+import com.linkedin.pinot.core.common.predicate.RangePredicate;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Implementation of {@link SegmentZKMetadataPruner} that prunes segment based on the column min/max values published
+ * in the segment ZK metadata:
+ * <ul>
+ *   <li> Walks the filter query tree and compares the EQUALITY and RANGE predicates against the column min/max.</li>
+ *   <li> Prunes segment when no value within its min/max range can satisfy the predicate(s) in the query.</li>
+ * </ul>
+ * <p>Unlike the server side column value pruner, values that cannot be parsed with the column data type never cause
+ * the segment to be pruned, and the query error is left to the servers to report.
+ */
+public class ColumnValueZKMetadataPruner implements SegmentZKMetadataPruner {
+
+  @Override
+  public boolean prune(SegmentZKMetadata segmentZKMetadata, SegmentPrunerContext prunerContext) {
+    SegmentColumnMinMaxMetadata columnMinMaxMetadata = segmentZKMetadata.getColumnMinMaxMetadata();
+    if (columnMinMaxMetadata == null) {
+      return false;
+    }
+
+    FilterQueryTree filterQueryTree = prunerContext.getFilterQueryTree();
+    return pruneSegment(filterQueryTree, columnMinMaxMetadata);
+  }
+
+  /**
+   * Helper method to prune a segment based on the filter query tree and column min/max metadata.
+   *
+   * @param filterQueryTree Filter tree for the predicates in the query
+   * @param columnMinMaxMetadata Column min/max metadata for the segment.
+   *
+   * @return True if the segment can be pruned, false otherwise.
+   */
+  private boolean pruneSegment(FilterQueryTree filterQueryTree, SegmentColumnMinMaxMetadata columnMinMaxMetadata) {
+    if (filterQueryTree == null) {
+      return false;
+    }
+
+    List<FilterQueryTree> children = filterQueryTree.getChildren();
+
+    // Non-leaf node
+    if (children != null && !children.isEmpty()) {
+      return pruneNonLeaf(filterQueryTree, columnMinMaxMetadata);
+    }
+
+    // Leaf node
+    FilterOperator filterOperator = filterQueryTree.getOperator();
+    if (filterOperator != FilterOperator.EQUALITY && filterOperator != FilterOperator.RANGE) {
+      return false;
+    }
+
+    ColumnMinMaxMetadata metadata = columnMinMaxMetadata.getColumnMinMaxMetadata(filterQueryTree.getColumn());
+    if (metadata == null) {
+      return false;
+    }
+
+    FieldSpec.DataType dataType = metadata.getDataType();
+    Comparable minValue = getValue(metadata.getMinValue(), dataType);
+    Comparable maxValue = getValue(metadata.getMaxValue(), dataType);
+    if (minValue == null || maxValue == null) {
+      return false;
+    }
+
+    if (filterOperator == FilterOperator.EQUALITY) {
+      Comparable value = getValue(filterQueryTree.getValue().get(0), dataType);
+      return value != null && (value.compareTo(minValue) < 0 || value.compareTo(maxValue) > 0);
+    }
+
+    // RANGE
+    RangePredicate rangePredicate = new RangePredicate(null, filterQueryTree.getValue());
+    String lowerBoundary = rangePredicate.getLowerBoundary();
+    if (!lowerBoundary.equals(RangePredicate.UNBOUNDED)) {
+      Comparable lowerBoundaryValue = getValue(lowerBoundary, dataType);
+      if (lowerBoundaryValue != null) {
+        int compareResult = lowerBoundaryValue.compareTo(maxValue);
+        if (compareResult > 0 || (compareResult == 0 && !rangePredicate.includeLowerBoundary())) {
+          return true;
+        }
+      }
+    }
+    String upperBoundary = rangePredicate.getUpperBoundary();
+    if (!upperBoundary.equals(RangePredicate.UNBOUNDED)) {
+      Comparable upperBoundaryValue = getValue(upperBoundary, dataType);
+      if (upperBoundaryValue != null) {
+        int compareResult = upperBoundaryValue.compareTo(minValue);
+        if (compareResult < 0 || (compareResult == 0 && !rangePredicate.includeUpperBoundary())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Given a non leaf filter query tree node prunes it as follows:
+   * <ul>
+   *   <li> For 'AND', node is pruned as long as at least one child can prune it. </li>
+   *   <li> For 'OR', node is pruned as long as all children can prune it. </li>
+   * </ul>
+   *
+   * @param filterQueryTree Non leaf node in the filter query tree.
+   * @param columnMinMaxMetadata Column min/max metadata for the segment.
+   *
+   * @return True to prune, false otherwise
+   */
+  @SuppressWarnings("Duplicates")
+  private boolean pruneNonLeaf(@Nonnull FilterQueryTree filterQueryTree,
+      @Nonnull SegmentColumnMinMaxMetadata columnMinMaxMetadata) {
+    List<FilterQueryTree> children = filterQueryTree.getChildren();
+
+    if (children.isEmpty()) {
+      return false;
+    }
+
+    FilterOperator filterOperator = filterQueryTree.getOperator();
+    switch (filterOperator) {
+      case AND:
+        for (FilterQueryTree child : children) {
+          if (pruneSegment(child, columnMinMaxMetadata)) {
+            return true;
+          }
+        }
+        return false;
+
+      case OR:
+        for (FilterQueryTree child : children) {
+          if (!pruneSegment(child, columnMinMaxMetadata)) {
+            return false;
+          }
+        }
+        return true;
+
+      default:
+        throw new IllegalStateException("Unsupported filter operator: " + filterOperator);
+    }
+  }
+
+  /**
+   * Parses the given string value with the given data type, returns null if the value cannot be parsed.
+   */
+  @Nullable
+  private static Comparable getValue(@Nonnull String input, @Nonnull FieldSpec.DataType dataType) {
+    try {
+      switch (dataType) {
+        case INT:
+          return Integer.valueOf(input);
+        case LONG:
+          return Long.valueOf(input);
+        case FLOAT:
+          return Float.valueOf(input);
+        case DOUBLE:
+          return Double.valueOf(input);
+        case STRING:
+          return input;
+        default:
+          return null;
+      }
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,413 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.broker.requesthandler;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.linkedin.pinot.common.metrics.BrokerMeter;
+import com.linkedin.pinot.common.metrics.BrokerMetrics;
+import com.linkedin.pinot.common.request.BrokerRequest;
+import com.linkedin.pinot.common.request.FilterOperator;
+import com.linkedin.pinot.common.request.FilterQuery;
+import com.linkedin.pinot.pql.parsers.PQL2Lexer;
+import com.linkedin.pinot.pql.parsers.Pql2CompilationException;
+import com.linkedin.pinot.pql.parsers.Pql2Compiler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.Token;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>CachingRequestCompiler</code> class caches the {@link BrokerRequest}s compiled from the queries, so that
+ * the repeated queries skip parsing and building the broker request.
+ * <p>The literals in the WHERE clause are parameterized, so that the templated queries that only differ in the filter
+ * values share one cache entry: the query is compiled once with marker literals, and the markers in the filter values
+ * are replaced with the actual values for each query. The first time a query template is seen, the parameterized
+ * broker request is verified against the compiled one, comparing the filter values as sets; templates failing the
+ * verification (e.g. with literals inside transform functions) are cached on the exact query text instead.
+ * <p>The broker request is modified while handling the query, so a deep copy of the cached broker request is
+ * returned for each query.
+ */
+@ThreadSafe
+public class CachingRequestCompiler {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CachingRequestCompiler.class);
+
+  // Fixed width markers for the parameterized literals: prefix + 4 digits parameter index + suffix
+  private static final int MAX_NUM_PARAMETERS = 10_000;
+  private static final String STRING_MARKER_PREFIX = "__pql_param_";
+  private static final String STRING_MARKER_SUFFIX = "__";
+  private static final String INTEGER_MARKER_PREFIX = "98765432";
+  private static final String INTEGER_MARKER_SUFFIX = "1";
+  private static final String FLOATING_POINT_MARKER_PREFIX = "0.12345678";
+  private static final String FLOATING_POINT_MARKER_SUFFIX = "1";
+  private static final String[] MARKER_PREFIXES =
+      new String[]{STRING_MARKER_PREFIX, INTEGER_MARKER_PREFIX, FLOATING_POINT_MARKER_PREFIX};
+  private static final String[] MARKER_SUFFIXES =
+      new String[]{STRING_MARKER_SUFFIX, INTEGER_MARKER_SUFFIX, FLOATING_POINT_MARKER_SUFFIX};
+  // Placeholder of the parameterized literals in the cache key, which cannot appear in a valid query
+  private static final char KEY_PLACEHOLDER = '\0';
+
+  private final Pql2Compiler _compiler;
+  private final BrokerMetrics _brokerMetrics;
+  private final Cache<String, TemplateEntry> _templateCache;
+  private final Cache<String, BrokerRequest> _queryCache;
+
+  /**
+   * @param compiler PQL compiler
+   * @param cacheSize Maximum number of query templates and exact queries cached, non-positive value disables the cache
+   * @param brokerMetrics Broker metrics
+   */
+  public CachingRequestCompiler(@Nonnull Pql2Compiler compiler, int cacheSize, @Nonnull BrokerMetrics brokerMetrics) {
+    _compiler = compiler;
+    _brokerMetrics = brokerMetrics;
+    if (cacheSize > 0) {
+      _templateCache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+      _queryCache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+    } else {
+      _templateCache = null;
+      _queryCache = null;
+    }
+  }
+
+  /**
+   * Compiles the given query into a {@link BrokerRequest}, which can be modified by the caller.
+   *
+   * @param query Query to compile
+   * @return Broker request
+   * @throws Pql2CompilationException If the query cannot be compiled
+   */
+  public BrokerRequest compileToBrokerRequest(@Nonnull String query) throws Pql2CompilationException {
+    if (_templateCache == null) {
+      return _compiler.compileToBrokerRequest(query);
+    }
+
+    QueryTemplate queryTemplate = QueryTemplate.parse(query);
+    if (queryTemplate == null) {
+      // The query cannot be tokenized, the compiler will report the error
+      return _compiler.compileToBrokerRequest(query);
+    }
+    if (queryTemplate._parameters.isEmpty()) {
+      return compileExactQuery(query);
+    }
+
+    TemplateEntry templateEntry = _templateCache.getIfPresent(queryTemplate._key);
+    if (templateEntry != null) {
+      if (templateEntry._brokerRequest != null) {
+        _brokerMetrics.addMeteredGlobalValue(BrokerMeter.REQUEST_COMPILATION_CACHE_HITS, 1);
+        return bindParameters(templateEntry._brokerRequest, queryTemplate._parameters);
+      } else {
+        // The template cannot be parameterized
+        return compileExactQuery(query);
+      }
+    }
+
+    _brokerMetrics.addMeteredGlobalValue(BrokerMeter.REQUEST_COMPILATION_CACHE_MISSES, 1);
+    BrokerRequest brokerRequest = _compiler.compileToBrokerRequest(query);
+    BrokerRequest templateBrokerRequest = null;
+    try {
+      templateBrokerRequest = _compiler.compileToBrokerRequest(queryTemplate._markedQuery);
+      if (!equalsIgnoringValueOrder(bindParameters(templateBrokerRequest, queryTemplate._parameters), brokerRequest)) {
+        templateBrokerRequest = null;
+      }
+    } catch (Exception e) {
+      templateBrokerRequest = null;
+    }
+    if (templateBrokerRequest == null) {
+      LOGGER.debug("Query cannot be parameterized, caching it on the exact query text: {}", query);
+      _queryCache.put(query, brokerRequest.deepCopy());
+    }
+    _templateCache.put(queryTemplate._key, new TemplateEntry(templateBrokerRequest));
+    return brokerRequest;
+  }
+
+  private BrokerRequest compileExactQuery(String query) {
+    BrokerRequest brokerRequest = _queryCache.getIfPresent(query);
+    if (brokerRequest != null) {
+      _brokerMetrics.addMeteredGlobalValue(BrokerMeter.REQUEST_COMPILATION_CACHE_HITS, 1);
+      return brokerRequest.deepCopy();
+    }
+    _brokerMetrics.addMeteredGlobalValue(BrokerMeter.REQUEST_COMPILATION_CACHE_MISSES, 1);
+    brokerRequest = _compiler.compileToBrokerRequest(query);
+    _queryCache.put(query, brokerRequest.deepCopy());
+    return brokerRequest;
+  }
+
+  /**
+   * Returns a deep copy of the template broker request with the markers in the filter values replaced with the
+   * parameters. The literals are only parameterized in the WHERE clause, so the markers can only appear in the filter.
+   */
+  private static BrokerRequest bindParameters(BrokerRequest templateBrokerRequest, List<String> parameters) {
+    BrokerRequest brokerRequest = templateBrokerRequest.deepCopy();
+    if (brokerRequest.isSetFilterQuery()) {
+      bindParameters(brokerRequest.getFilterQuery(), parameters);
+    }
+    if (brokerRequest.isSetFilterSubQueryMap()) {
+      for (FilterQuery filterQuery : brokerRequest.getFilterSubQueryMap().getFilterQueryMap().values()) {
+        bindParameters(filterQuery, parameters);
+      }
+    }
+    return brokerRequest;
+  }
+
+  private static void bindParameters(FilterQuery filterQuery, List<String> parameters) {
+    if (filterQuery.isSetColumn()) {
+      filterQuery.setColumn(bindParameters(filterQuery.getColumn(), parameters));
+    }
+    List<String> values = filterQuery.getValue();
+    if (values != null) {
+      int numValues = values.size();
+      for (int i = 0; i < numValues; i++) {
+        values.set(i, bindParameters(values.get(i), parameters));
+      }
+      FilterOperator operator = filterQuery.getOperator();
+      if (operator == FilterOperator.IN || operator == FilterOperator.NOT_IN) {
+        // The compiler de-duplicates the values of IN and NOT IN with a hash set, and the values bound to the markers
+        // can have duplicates, so de-duplicate them the same way
+        filterQuery.setValue(new ArrayList<>(new HashSet<>(values)));
+      }
+    }
+  }
+
+  /**
+   * Returns whether the given broker requests are equal, comparing the filter values as sets because the compiler
+   * orders the values of IN and NOT IN by their hash, which differs between the markers and the actual values.
+   */
+  private static boolean equalsIgnoringValueOrder(BrokerRequest brokerRequest1, BrokerRequest brokerRequest2) {
+    return normalizeFilterValues(brokerRequest1).equals(normalizeFilterValues(brokerRequest2));
+  }
+
+  private static BrokerRequest normalizeFilterValues(BrokerRequest brokerRequest) {
+    BrokerRequest normalizedBrokerRequest = brokerRequest.deepCopy();
+    if (normalizedBrokerRequest.isSetFilterQuery()) {
+      normalizeFilterValues(normalizedBrokerRequest.getFilterQuery());
+    }
+    if (normalizedBrokerRequest.isSetFilterSubQueryMap()) {
+      for (FilterQuery filterQuery : normalizedBrokerRequest.getFilterSubQueryMap().getFilterQueryMap().values()) {
+        normalizeFilterValues(filterQuery);
+      }
+    }
+    return normalizedBrokerRequest;
+  }
+
+  private static void normalizeFilterValues(FilterQuery filterQuery) {
+    List<String> values = filterQuery.getValue();
+    if (values != null) {
+      Collections.sort(values);
+    }
+  }
+
+  /**
+   * Replaces the markers in the given string with the parameters in one pass, so that the parameters are never
+   * scanned for markers.
+   */
+  private static String bindParameters(String value, List<String> parameters) {
+    StringBuilder stringBuilder = null;
+    int copiedIndex = 0;
+    int fromIndex = 0;
+    while (true) {
+      // Find the first marker
+      int markerIndex = -1;
+      int markerType = -1;
+      for (int i = 0; i < MARKER_PREFIXES.length; i++) {
+        int index = value.indexOf(MARKER_PREFIXES[i], fromIndex);
+        if (index != -1 && (markerIndex == -1 || index < markerIndex)) {
+          markerIndex = index;
+          markerType = i;
+        }
+      }
+      if (markerIndex == -1) {
+        break;
+      }
+
+      int parameterIndexStart = markerIndex + MARKER_PREFIXES[markerType].length();
+      int parameterIndexEnd = parameterIndexStart + 4;
+      int parameterIndex = parseParameterIndex(value, parameterIndexStart, parameterIndexEnd);
+      if (parameterIndex < 0 || parameterIndex >= parameters.size() || !value.startsWith(MARKER_SUFFIXES[markerType],
+          parameterIndexEnd)) {
+        // Not a marker
+        fromIndex = markerIndex + 1;
+        continue;
+      }
+      if (stringBuilder == null) {
+        stringBuilder = new StringBuilder(value.length());
+      }
+      stringBuilder.append(value, copiedIndex, markerIndex).append(parameters.get(parameterIndex));
+      copiedIndex = parameterIndexEnd + MARKER_SUFFIXES[markerType].length();
+      fromIndex = copiedIndex;
+    }
+    if (stringBuilder == null) {
+      return value;
+    }
+    return stringBuilder.append(value, copiedIndex, value.length()).toString();
+  }
+
+  private static int parseParameterIndex(String value, int startIndex, int endIndex) {
+    if (endIndex > value.length()) {
+      return -1;
+    }
+    int parameterIndex = 0;
+    for (int i = startIndex; i < endIndex; i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      parameterIndex = parameterIndex * 10 + (c - '0');
+    }
+    return parameterIndex;
+  }
+
+  private static class TemplateEntry {
+    // Null if the template cannot be parameterized
+    final BrokerRequest _brokerRequest;
+
+    TemplateEntry(@Nullable BrokerRequest brokerRequest) {
+      _brokerRequest = brokerRequest;
+    }
+  }
+
+  /**
+   * The query template with the literals in the WHERE clause parameterized.
+   */
+  private static class QueryTemplate {
+    // Query with the parameterized literals replaced by placeholders of their types
+    final String _key;
+    // Query with the parameterized literals replaced by markers
+    final String _markedQuery;
+    // Values of the parameterized literals as they appear in the compiled broker request
+    final List<String> _parameters;
+
+    QueryTemplate(String key, String markedQuery, List<String> parameters) {
+      _key = key;
+      _markedQuery = markedQuery;
+      _parameters = parameters;
+    }
+
+    /**
+     * Tokenizes the query and parameterizes the literals in the WHERE clause. Returns null if the query cannot be
+     * tokenized.
+     */
+    @Nullable
+    static QueryTemplate parse(String query) {
+      List<? extends Token> tokens;
+      try {
+        PQL2Lexer lexer = new PQL2Lexer(new ANTLRInputStream(query));
+        lexer.removeErrorListeners();
+        tokens = lexer.getAllTokens();
+      } catch (Exception e) {
+        return null;
+      }
+
+      StringBuilder key = new StringBuilder(query.length());
+      StringBuilder markedQuery = new StringBuilder(query.length());
+      List<String> parameters = new ArrayList<>();
+      boolean inWhereClause = false;
+      int copiedIndex = 0;
+      for (Token token : tokens) {
+        int tokenType = token.getType();
+        switch (tokenType) {
+          case PQL2Lexer.WHERE:
+            inWhereClause = true;
+            break;
+          case PQL2Lexer.GROUP:
+          case PQL2Lexer.HAVING:
+          case PQL2Lexer.ORDER:
+          case PQL2Lexer.TOP:
+          case PQL2Lexer.LIMIT:
+          case PQL2Lexer.OPTION:
+            inWhereClause = false;
+            break;
+          default:
+            if (!inWhereClause || parameters.size() == MAX_NUM_PARAMETERS) {
+              break;
+            }
+            String text = token.getText();
+            String parameter = getParameter(tokenType, text);
+            if (parameter == null) {
+              break;
+            }
+            int startIndex = token.getStartIndex();
+            key.append(query, copiedIndex, startIndex)
+                .append(KEY_PLACEHOLDER)
+                .append(getPlaceholderType(tokenType, text));
+            markedQuery.append(query, copiedIndex, startIndex).append(getMarker(tokenType, text, parameters.size()));
+            parameters.add(parameter);
+            copiedIndex = token.getStopIndex() + 1;
+            break;
+        }
+      }
+      key.append(query, copiedIndex, query.length());
+      markedQuery.append(query, copiedIndex, query.length());
+      return new QueryTemplate(key.toString(), markedQuery.toString(), parameters);
+    }
+
+    /**
+     * Returns the value of the literal as it appears in the compiled broker request, or null if the literal cannot be
+     * parameterized, i.e. string literal with escaped quotes, or number literal not in canonical form which might
+     * appear differently inside transform functions.
+     */
+    @Nullable
+    private static String getParameter(int tokenType, String text) {
+      try {
+        switch (tokenType) {
+          case PQL2Lexer.STRING_LITERAL:
+            String value = text.substring(1, text.length() - 1);
+            return value.indexOf(text.charAt(0)) == -1 ? value : null;
+          case PQL2Lexer.INTEGER_LITERAL:
+            return Long.toString(Long.parseLong(text)).equals(text) ? text : null;
+          case PQL2Lexer.FLOATING_POINT_LITERAL:
+            return Double.toString(Double.parseDouble(text)).equals(text) ? text : null;
+          default:
+            return null;
+        }
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+
+    private static char getPlaceholderType(int tokenType, String text) {
+      switch (tokenType) {
+        case PQL2Lexer.STRING_LITERAL:
+          // Quote character
+          return text.charAt(0);
+        case PQL2Lexer.INTEGER_LITERAL:
+          return 'i';
+        default:
+          return 'f';
+      }
+    }
+
+    private static String getMarker(int tokenType, String text, int parameterIndex) {
+      String index = String.format("%04d", parameterIndex);
+      switch (tokenType) {
+        case PQL2Lexer.STRING_LITERAL:
+          char quote = text.charAt(0);
+          return quote + STRING_MARKER_PREFIX + index + STRING_MARKER_SUFFIX + quote;
+        case PQL2Lexer.INTEGER_LITERAL:
+          return INTEGER_MARKER_PREFIX + index + INTEGER_MARKER_SUFFIX;
+        default:
+          return FLOATING_POINT_MARKER_PREFIX + index + FLOATING_POINT_MARKER_SUFFIX;
+      }
+    }
+  }
+}
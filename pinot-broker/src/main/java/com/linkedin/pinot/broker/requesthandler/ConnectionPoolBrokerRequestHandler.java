@@ -39,7 +39,9 @@ import com.linkedin.pinot.serde.SerDe;
 import com.linkedin.pinot.transport.common.CompositeFuture;
 import com.linkedin.pinot.transport.conf.TransportClientConf;
 import com.linkedin.pinot.transport.config.ConnectionPoolConfig;
+import com.linkedin.pinot.transport.config.MultiplexedConnectionConfig;
 import com.linkedin.pinot.transport.metrics.NettyClientMetrics;
+import com.linkedin.pinot.transport.netty.MultiplexedNettyClient;
 import com.linkedin.pinot.transport.netty.PooledNettyClientResourceManager;
 import com.linkedin.pinot.transport.pool.KeyedPool;
 import com.linkedin.pinot.transport.pool.KeyedPoolImpl;
@@ -82,6 +84,7 @@ public class ConnectionPoolBrokerRequestHandler extends BaseBrokerRequestHandler
   private final ScheduledThreadPoolExecutor _poolTimeoutExecutor;
   private final ExecutorService _requestSenderPool;
   private final KeyedPool<PooledNettyClientResourceManager.PooledClientConnection> _connPool;
+  private final MultiplexedNettyClient _multiplexedClient;
   private final ScatterGather _scatterGather;
 
   public ConnectionPoolBrokerRequestHandler(Configuration config, RoutingTable routingTable,
@@ -111,7 +114,18 @@ public class ConnectionPoolBrokerRequestHandler extends BaseBrokerRequestHandler
         metricsRegistry);
     resourceManager.setPool(_connPool);
 
-    _scatterGather = new ScatterGatherImpl(_connPool, _requestSenderPool);
+    // Multiplexed connections share a single channel per server among all the in-flight requests, and correlate the
+    // responses by the request id in the data table metadata
+    MultiplexedConnectionConfig multiplexedConnectionConfig = transportClientConf.getMultiplexedConn();
+    if (multiplexedConnectionConfig.isEnabled()) {
+      _multiplexedClient = new MultiplexedNettyClient(_eventLoopGroup, new HashedWheelTimer(), clientMetrics,
+          response -> Long.parseLong(DataTableFactory.getMetadata(response).get(DataTable.REQUEST_ID_METADATA_KEY)),
+          multiplexedConnectionConfig.getMaxInFlightRequestsPerServer());
+      _scatterGather = new ScatterGatherImpl(_multiplexedClient, _requestSenderPool);
+    } else {
+      _multiplexedClient = null;
+      _scatterGather = new ScatterGatherImpl(_connPool, _requestSenderPool);
+    }
   }
 
   @Override
@@ -122,6 +136,9 @@ public class ConnectionPoolBrokerRequestHandler extends BaseBrokerRequestHandler
 
   @Override
   public synchronized void shutDown() {
+    if (_multiplexedClient != null) {
+      _multiplexedClient.shutDown();
+    }
     _connPool.shutdown();
     _requestSenderPool.shutdown();
     _poolTimeoutExecutor.shutdown();
@@ -26,13 +26,18 @@ import com.linkedin.pinot.common.metrics.BrokerMetrics;
 import com.linkedin.pinot.common.metrics.BrokerQueryPhase;
 import com.linkedin.pinot.common.request.BrokerRequest;
 import com.linkedin.pinot.common.response.BrokerResponse;
+import com.linkedin.pinot.common.response.ProcessingException;
 import com.linkedin.pinot.common.response.ServerInstance;
 import com.linkedin.pinot.common.response.broker.BrokerResponseNative;
+import com.linkedin.pinot.common.response.broker.QueryProcessingException;
 import com.linkedin.pinot.common.utils.CommonConstants.Helix.TableType;
 import com.linkedin.pinot.common.utils.DataTable;
 import com.linkedin.pinot.core.transport.AsyncQueryResponse;
 import com.linkedin.pinot.core.transport.QueryRouter;
+import com.linkedin.pinot.core.transport.RequestHedger;
+import com.linkedin.pinot.core.transport.SegmentReplicaProvider;
 import com.linkedin.pinot.core.transport.Server;
+import com.linkedin.pinot.core.transport.ServerLoadTracker;
 import com.linkedin.pinot.core.transport.ServerResponse;
 import java.util.HashMap;
 import java.util.List;
@@ -40,6 +45,10 @@ import java.util.Map;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.commons.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.linkedin.pinot.common.utils.CommonConstants.Broker.*;
 
 
 /**
@@ -48,13 +57,36 @@ import org.apache.commons.configuration.Configuration;
  */
 @ThreadSafe
 public class SingleConnectionBrokerRequestHandler extends BaseBrokerRequestHandler {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SingleConnectionBrokerRequestHandler.class);
+
   private final QueryRouter _queryRouter;
 
   public SingleConnectionBrokerRequestHandler(Configuration config, RoutingTable routingTable,
       TimeBoundaryService timeBoundaryService, AccessControlFactory accessControlFactory,
-      TableQueryQuotaManager tableQueryQuotaManager, BrokerMetrics brokerMetrics) {
+      TableQueryQuotaManager tableQueryQuotaManager, BrokerMetrics brokerMetrics, ServerLoadTracker serverLoadTracker) {
     super(config, routingTable, timeBoundaryService, accessControlFactory, tableQueryQuotaManager, brokerMetrics);
-    _queryRouter = new QueryRouter(_brokerId, brokerMetrics);
+    _queryRouter = new QueryRouter(_brokerId, brokerMetrics, serverLoadTracker, getRequestHedger(config, routingTable));
+  }
+
+  @Nullable
+  private static RequestHedger getRequestHedger(Configuration config, RoutingTable routingTable) {
+    if (!config.getBoolean(CONFIG_OF_BROKER_ENABLE_HEDGED_REQUESTS, DEFAULT_BROKER_ENABLE_HEDGED_REQUESTS)) {
+      return null;
+    }
+    if (!(routingTable instanceof SegmentReplicaProvider)) {
+      LOGGER.warn("Routing table: {} does not provide segment replicas, disabling hedged requests",
+          routingTable.getClass().getName());
+      return null;
+    }
+    double delayPercentile = config.getDouble(CONFIG_OF_BROKER_HEDGED_REQUESTS_DELAY_PERCENTILE,
+        DEFAULT_BROKER_HEDGED_REQUESTS_DELAY_PERCENTILE);
+    long minDelayMs =
+        config.getLong(CONFIG_OF_BROKER_HEDGED_REQUESTS_MIN_DELAY_MS, DEFAULT_BROKER_HEDGED_REQUESTS_MIN_DELAY_MS);
+    double maxRatio =
+        config.getDouble(CONFIG_OF_BROKER_HEDGED_REQUESTS_MAX_RATIO, DEFAULT_BROKER_HEDGED_REQUESTS_MAX_RATIO);
+    LOGGER.info("Enabling hedged requests with delay percentile: {}, min delay: {}ms, max ratio: {}", delayPercentile,
+        minDelayMs, maxRatio);
+    return new RequestHedger((SegmentReplicaProvider) routingTable, delayPercentile, minDelayMs, maxRatio);
   }
 
   @Override
@@ -112,6 +144,11 @@ public class SingleConnectionBrokerRequestHandler extends BaseBrokerRequestHandl
 
     brokerResponse.setNumServersQueried(numServersQueried);
     brokerResponse.setNumServersResponded(numServersResponded);
+    ProcessingException processingException = asyncQueryResponse.getProcessingException();
+    if (processingException != null) {
+      brokerResponse.addToExceptions(
+          new QueryProcessingException(processingException.getErrorCode(), processingException.getMessage()));
+    }
 
     if (brokerResponse.getExceptionsSize() > 0) {
       _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.BROKER_RESPONSES_WITH_PROCESSING_EXCEPTIONS, 1);
@@ -17,6 +17,7 @@ package com.linkedin.pinot.broker.routing;
 
 import com.google.common.collect.Sets;
 import com.linkedin.pinot.broker.routing.builder.RoutingTableBuilder;
+import com.linkedin.pinot.broker.routing.builder.RoutingTableInstancePruner;
 import com.linkedin.pinot.broker.routing.selector.SegmentSelector;
 import com.linkedin.pinot.broker.routing.selector.SegmentSelectorProvider;
 import com.linkedin.pinot.common.config.TableConfig;
@@ -28,6 +29,8 @@ import com.linkedin.pinot.common.utils.CommonConstants;
 import com.linkedin.pinot.common.utils.EqualityUtils;
 import com.linkedin.pinot.common.utils.NetUtil;
 import com.linkedin.pinot.common.utils.helix.HelixHelper;
+import com.linkedin.pinot.core.transport.SegmentReplicaProvider;
+import com.linkedin.pinot.core.transport.ServerLoadTracker;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -37,6 +40,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.Configuration;
 import org.apache.helix.AccessOption;
 import org.apache.helix.HelixDataAccessor;
@@ -60,7 +64,7 @@ import org.slf4j.LoggerFactory;
  * of an offline routing table and a realtime routing table, with the realtime routing table being aware of the
  * fact that there is both an hlc and llc one.
  */
-public class HelixExternalViewBasedRouting implements RoutingTable {
+public class HelixExternalViewBasedRouting implements RoutingTable, SegmentReplicaProvider {
   private static final Logger LOGGER = LoggerFactory.getLogger(HelixExternalViewBasedRouting.class);
 
   private final Map<String, RoutingTableBuilder> _routingTableBuilderMap;
@@ -70,9 +74,12 @@ public class HelixExternalViewBasedRouting implements RoutingTable {
   private final Map<String, InstanceConfig> _lastKnownInstanceConfigs = new ConcurrentHashMap<>();
   private final Map<String, Set<String>> _tablesForInstance = new ConcurrentHashMap<>();
   private final Map<String, SegmentSelector> _segmentSelectorMap = new ConcurrentHashMap<>();
+  // Map from table to the mapping of segment to the active servers serving the segment, used for hedged requests
+  private final Map<String, Map<String, List<String>>> _segmentToServersMapForTable = new ConcurrentHashMap<>();
 
   private final HelixExternalViewBasedTimeBoundaryService _timeBoundaryService;
   private final HelixManager _helixManager;
+  private final ServerLoadTracker _serverLoadTracker = new ServerLoadTracker();
   private static final int INVALID_EXTERNAL_VIEW_VERSION = Integer.MIN_VALUE;
 
   private BrokerMetrics _brokerMetrics;
@@ -89,7 +96,7 @@ public class HelixExternalViewBasedRouting implements RoutingTable {
     _timeBoundaryService = new HelixExternalViewBasedTimeBoundaryService(propertyStore);
     _routingTableBuilderMap = new HashMap<>();
     _helixManager = helixManager;
-    _routingTableBuilderFactory = new RoutingTableBuilderFactory(_configuration, propertyStore);
+    _routingTableBuilderFactory = new RoutingTableBuilderFactory(_configuration, propertyStore, _serverLoadTracker);
     _segmentSelectorProvider = new SegmentSelectorProvider(propertyStore);
   }
 
@@ -249,6 +256,9 @@ public class HelixExternalViewBasedRouting implements RoutingTable {
       // Update routing table builder
       routingTableBuilder.computeOnExternalViewChange(tableNameWithType, externalView, instanceConfigs);
 
+      // Update segment replicas
+      _segmentToServersMapForTable.put(tableNameWithType, computeSegmentToServersMap(externalView, instanceConfigs));
+
       // Update segment selector
       SegmentSelector segmentSelector = _segmentSelectorMap.get(tableNameWithType);
       if (segmentSelector != null) {
@@ -345,6 +355,18 @@ public class HelixExternalViewBasedRouting implements RoutingTable {
     updateTimeBoundary(tableName,fetchExternalView(tableName));
   }
 
+  /**
+   * Re-computes the segment selector for the given table (if any), e.g. when segments got refreshed without external
+   * view change.
+   */
+  public void updateSegmentSelector(String tableNameWithType) {
+    SegmentSelector segmentSelector = _segmentSelectorMap.get(tableNameWithType);
+    if (segmentSelector != null) {
+      LOGGER.info("Trying to update segment selector for table {}", tableNameWithType);
+      segmentSelector.computeOnExternalViewChange();
+    }
+  }
+
   protected void updateTimeBoundary(String tableName, ExternalView externalView) {
     LOGGER.info("Trying to compute time boundary service for table {}", tableName);
     long timeBoundaryUpdateStart = System.currentTimeMillis();
@@ -376,12 +398,44 @@ public class HelixExternalViewBasedRouting implements RoutingTable {
     }
   }
 
+  /**
+   * Computes the mapping of ONLINE segments to the active servers serving them.
+   */
+  private static Map<String, List<String>> computeSegmentToServersMap(ExternalView externalView,
+      List<InstanceConfig> instanceConfigs) {
+    RoutingTableInstancePruner instancePruner = new RoutingTableInstancePruner(instanceConfigs);
+    Map<String, Boolean> instanceActiveMap = new HashMap<>();
+    Map<String, List<String>> segmentToServersMap = new HashMap<>();
+    for (String segmentName : externalView.getPartitionSet()) {
+      List<String> servers = new ArrayList<>();
+      for (Map.Entry<String, String> entry : externalView.getStateMap(segmentName).entrySet()) {
+        String serverName = entry.getKey();
+        if (entry.getValue().equals(CommonConstants.Helix.StateModel.SegmentOnlineOfflineStateModel.ONLINE)
+            && instanceActiveMap.computeIfAbsent(serverName, k -> !instancePruner.isInactive(k))) {
+          servers.add(serverName);
+        }
+      }
+      if (!servers.isEmpty()) {
+        segmentToServersMap.put(segmentName, servers);
+      }
+    }
+    return segmentToServersMap;
+  }
+
+  @Nullable
+  @Override
+  public List<String> getSegmentReplicas(String tableNameWithType, String segmentName) {
+    Map<String, List<String>> segmentToServersMap = _segmentToServersMapForTable.get(tableNameWithType);
+    return segmentToServersMap != null ? segmentToServersMap.get(segmentName) : null;
+  }
+
   public void markDataResourceOffline(String tableName) {
     LOGGER.info("Trying to remove data table from broker for {}", tableName);
     _routingTableBuilderMap.remove(tableName);
     _lastKnownExternalViewVersionMap.remove(tableName);
     _lastKnownInstanceConfigsForTable.remove(tableName);
     _timeBoundaryService.remove(tableName);
+    _segmentToServersMapForTable.remove(tableName);
 
     // Remove table from all instances
     synchronized (_tablesForInstance) {
@@ -565,6 +619,10 @@ public class HelixExternalViewBasedRouting implements RoutingTable {
         evFetchTime, rebuildCheckTime, buildTime, routingTablesRebuiltCount, _lastKnownExternalViewVersionMap.size());
   }
 
+  public ServerLoadTracker getServerLoadTracker() {
+    return _serverLoadTracker;
+  }
+
   public TimeBoundaryService getTimeBoundaryService() {
     return _timeBoundaryService;
   }
@@ -19,6 +19,7 @@ import com.linkedin.pinot.broker.routing.builder.BalancedRandomRoutingTableBuild
 import com.linkedin.pinot.broker.routing.builder.DefaultOfflineRoutingTableBuilder;
 import com.linkedin.pinot.broker.routing.builder.DefaultRealtimeRoutingTableBuilder;
 import com.linkedin.pinot.broker.routing.builder.HighLevelConsumerBasedRoutingTableBuilder;
+import com.linkedin.pinot.broker.routing.builder.LatencyAwareRoutingTableBuilder;
 import com.linkedin.pinot.broker.routing.builder.LowLevelConsumerRoutingTableBuilder;
 import com.linkedin.pinot.broker.routing.builder.PartitionAwareOfflineRoutingTableBuilder;
 import com.linkedin.pinot.broker.routing.builder.PartitionAwareRealtimeRoutingTableBuilder;
@@ -29,6 +30,7 @@ import com.linkedin.pinot.common.metrics.BrokerMetrics;
 import com.linkedin.pinot.common.utils.CommonConstants;
 import com.linkedin.pinot.common.utils.CommonConstants.Helix.TableType;
 import com.linkedin.pinot.core.realtime.stream.StreamConfig;
+import com.linkedin.pinot.core.transport.ServerLoadTracker;
 import org.apache.commons.configuration.Configuration;
 import org.apache.helix.ZNRecord;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
@@ -43,6 +45,8 @@ public class RoutingTableBuilderFactory {
 
   private ZkHelixPropertyStore<ZNRecord> _propertyStore;
 
+  private ServerLoadTracker _serverLoadTracker;
+
   enum RoutingTableBuilderName {
     DefaultOffline,
     DefaultRealtime,
@@ -50,12 +54,19 @@ public class RoutingTableBuilderFactory {
     KafkaLowLevel, // This should ideally be LowLevel and HighLevel. But we cannot rename these, else all tables which reference these in the configs will break
     KafkaHighLevel,// We will keep these prefixed with "Kafka", but they are intended to work for any stream
     PartitionAwareOffline,
-    PartitionAwareRealtime
+    PartitionAwareRealtime,
+    LatencyAware
   }
 
   public RoutingTableBuilderFactory(Configuration configuration, ZkHelixPropertyStore<ZNRecord> propertyStore) {
+    this(configuration, propertyStore, new ServerLoadTracker());
+  }
+
+  public RoutingTableBuilderFactory(Configuration configuration, ZkHelixPropertyStore<ZNRecord> propertyStore,
+      ServerLoadTracker serverLoadTracker) {
     _configuration = configuration;
     _propertyStore = propertyStore;
+    _serverLoadTracker = serverLoadTracker;
   }
 
   public RoutingTableBuilder createRoutingTableBuilder(TableConfig tableConfig, BrokerMetrics brokerMetrics) {
@@ -133,6 +144,9 @@ public class RoutingTableBuilderFactory {
           builder = new DefaultRealtimeRoutingTableBuilder();
         }
         break;
+      case LatencyAware:
+        builder = new LatencyAwareRoutingTableBuilder(_serverLoadTracker);
+        break;
     }
 
     // TODO: Need to set dynamic routing flag based on table config
@@ -62,11 +62,13 @@ public abstract class BaseRoutingTableBuilder implements RoutingTableBuilder {
     _tableName = tableConfig.getTableName();
     _brokerMetrics = brokerMetrics;
 
-    // Enable dynamic routing when the config is explicitly set
+    // Enable dynamic routing when the config is explicitly set, or when segments are pruned based on column values
+    // (segment selector is only applied with dynamic routing)
     RoutingConfig routingConfig = tableConfig.getRoutingConfig();
     if (routingConfig != null) {
       Map<String, String> routingOption = routingConfig.getRoutingTableBuilderOptions();
-      _enableDynamicComputing = Boolean.valueOf(routingOption.get(RoutingConfig.ENABLE_DYNAMIC_COMPUTING_KEY));
+      _enableDynamicComputing = Boolean.valueOf(routingOption.get(RoutingConfig.ENABLE_DYNAMIC_COMPUTING_KEY))
+          || Boolean.valueOf(routingOption.get(RoutingConfig.ENABLE_COLUMN_VALUE_PRUNING_KEY));
       if (_enableDynamicComputing) {
         LOGGER.info("Dynamic routing table computation is enabled for table {}", _tableName);
       }
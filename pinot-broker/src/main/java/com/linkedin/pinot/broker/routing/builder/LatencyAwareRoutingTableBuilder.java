@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.broker.routing.builder;
+
+import com.linkedin.pinot.broker.routing.RoutingTableLookupRequest;
+import com.linkedin.pinot.broker.routing.selector.SegmentSelector;
+import com.linkedin.pinot.core.transport.ServerLoadTracker;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.helix.model.ExternalView;
+import org.apache.helix.model.InstanceConfig;
+
+
+/**
+ * Routing table builder that picks the replica of each segment per query based on the load of the servers tracked by
+ * the {@link ServerLoadTracker}, so that a slow server (e.g. in GC) receives less traffic.
+ * <p>For each segment, two replicas are picked at random and the one with the lower cost is selected (power of two
+ * choices). The cost of a server is its load score (EWMA latency times requests in flight) multiplied by the number of
+ * segments already assigned to it for the query, so that the segments are still spread across healthy servers.
+ * <p>The pre-computed routing tables from {@link BalancedRandomRoutingTableBuilder} are kept for snapshots.
+ */
+public class LatencyAwareRoutingTableBuilder extends BalancedRandomRoutingTableBuilder {
+  private final ServerLoadTracker _serverLoadTracker;
+
+  public LatencyAwareRoutingTableBuilder(ServerLoadTracker serverLoadTracker) {
+    _serverLoadTracker = serverLoadTracker;
+  }
+
+  @Override
+  public void computeOnExternalViewChange(String tableName, ExternalView externalView,
+      List<InstanceConfig> instanceConfigs) {
+    Map<String, List<String>> segmentToServersMap =
+        computeSegmentToServersMapFromExternalView(externalView, instanceConfigs);
+    _routingTables = computeRoutingTablesFromSegmentToServersMap(segmentToServersMap);
+    _segmentToServersMap = segmentToServersMap;
+  }
+
+  @Override
+  public Map<String, List<String>> getRoutingTable(RoutingTableLookupRequest request, SegmentSelector segmentSelector) {
+    // Copy the pointer for snapshot since the pointer for segment to servers map can change at anytime
+    Map<String, List<String>> segmentToServersMap = _segmentToServersMap;
+
+    Set<String> segmentsToQuery = segmentToServersMap.keySet();
+    if (segmentSelector != null) {
+      segmentsToQuery = segmentSelector.selectSegments(request, segmentsToQuery);
+    }
+    return computeDynamicRoutingTable(segmentToServersMap, segmentsToQuery);
+  }
+
+  @Override
+  public Map<String, List<String>> computeDynamicRoutingTable(Map<String, List<String>> segmentToServersMap,
+      Set<String> segmentsToQuery) {
+    Map<String, List<String>> routingTable = new HashMap<>();
+    // Cache the load score of the servers so that it is consistent within the query
+    Map<String, Double> loadScoreMap = new HashMap<>();
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (String segmentName : segmentsToQuery) {
+      List<String> servers = segmentToServersMap.get(segmentName);
+      int numServers = servers.size();
+      String selectedServer;
+      if (numServers == 1) {
+        selectedServer = servers.get(0);
+      } else {
+        int firstIndex = random.nextInt(numServers);
+        int secondIndex = random.nextInt(numServers - 1);
+        if (secondIndex >= firstIndex) {
+          secondIndex++;
+        }
+        String firstServer = servers.get(firstIndex);
+        String secondServer = servers.get(secondIndex);
+        if (getCost(firstServer, routingTable, loadScoreMap) <= getCost(secondServer, routingTable, loadScoreMap)) {
+          selectedServer = firstServer;
+        } else {
+          selectedServer = secondServer;
+        }
+      }
+      routingTable.computeIfAbsent(selectedServer, k -> new ArrayList<>()).add(segmentName);
+    }
+    return routingTable;
+  }
+
+  private double getCost(String server, Map<String, List<String>> routingTable, Map<String, Double> loadScoreMap) {
+    double loadScore = loadScoreMap.computeIfAbsent(server, _serverLoadTracker::getLoadScore);
+    List<String> segments = routingTable.get(server);
+    int numSegmentsAssigned = segments != null ? segments.size() : 0;
+    return loadScore * (numSegmentsAssigned + 1);
+  }
+}
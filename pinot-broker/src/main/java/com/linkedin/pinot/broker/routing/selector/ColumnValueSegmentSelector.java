@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.broker.routing.selector;
+
+import com.linkedin.pinot.broker.pruner.SegmentPrunerContext;
+import com.linkedin.pinot.broker.pruner.SegmentZKMetadataPrunerService;
+import com.linkedin.pinot.broker.routing.RoutingTableLookupRequest;
+import com.linkedin.pinot.common.config.TableConfig;
+import com.linkedin.pinot.common.metadata.ZKMetadataProvider;
+import com.linkedin.pinot.common.metadata.segment.OfflineSegmentZKMetadata;
+import com.linkedin.pinot.common.metadata.segment.RealtimeSegmentZKMetadata;
+import com.linkedin.pinot.common.metadata.segment.SegmentZKMetadata;
+import com.linkedin.pinot.common.utils.CommonConstants;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.helix.AccessOption;
+import org.apache.helix.ZNRecord;
+import org.apache.helix.store.zk.ZkHelixPropertyStore;
+import org.apache.zookeeper.data.Stat;
+
+
+/**
+ * Segment selector that prunes the segments based on the column min/max values published in the segment ZK metadata,
+ * so that queries with selective filters on e.g. time or id columns are not sent to the servers without matching
+ * segments.
+ * <p>The segment ZK metadata is cached, and only re-fetched for the segments with ZNode version changed.
+ */
+public class ColumnValueSegmentSelector implements SegmentSelector {
+  private static final String COLUMN_VALUE_PRUNER = "ColumnValueZKMetadataPruner";
+
+  private final SegmentZKMetadataPrunerService _prunerService =
+      new SegmentZKMetadataPrunerService(new String[]{COLUMN_VALUE_PRUNER});
+
+  private String _tableNameWithType;
+  private CommonConstants.Helix.TableType _tableType;
+  private ZkHelixPropertyStore<ZNRecord> _propertyStore;
+  private Map<String, Integer> _segmentZKMetadataVersionMap = new HashMap<>();
+  private volatile Map<String, SegmentZKMetadata> _segmentZKMetadataMap = new HashMap<>();
+
+  @Override
+  public void init(TableConfig tableConfig, ZkHelixPropertyStore<ZNRecord> propertyStore) {
+    _tableNameWithType = tableConfig.getTableName();
+    _tableType = tableConfig.getTableType();
+    _propertyStore = propertyStore;
+  }
+
+  @Override
+  public synchronized void computeOnExternalViewChange() {
+    List<String> segments = ZKMetadataProvider.getSegments(_propertyStore, _tableNameWithType);
+    List<String> segmentPaths = new ArrayList<>(segments.size());
+    for (String segment : segments) {
+      segmentPaths.add(ZKMetadataProvider.constructPropertyStorePathForSegment(_tableNameWithType, segment));
+    }
+    Stat[] stats = _propertyStore.getStats(segmentPaths, AccessOption.PERSISTENT);
+
+    Map<String, Integer> segmentZKMetadataVersionMap = new HashMap<>();
+    Map<String, SegmentZKMetadata> segmentZKMetadataMap = new HashMap<>();
+    for (int i = 0; i < stats.length; i++) {
+      // Stat can be null if the segment is deleted after fetching the segment names
+      Stat stat = stats[i];
+      if (stat == null) {
+        continue;
+      }
+      String segment = segments.get(i);
+      int version = stat.getVersion();
+      Integer lastKnownVersion = _segmentZKMetadataVersionMap.get(segment);
+      SegmentZKMetadata segmentZKMetadata = _segmentZKMetadataMap.get(segment);
+      if (lastKnownVersion == null || lastKnownVersion != version || segmentZKMetadata == null) {
+        Stat newStat = new Stat();
+        ZNRecord znRecord = _propertyStore.get(segmentPaths.get(i), newStat, AccessOption.PERSISTENT);
+        if (znRecord == null) {
+          continue;
+        }
+        version = newStat.getVersion();
+        segmentZKMetadata = toSegmentZKMetadata(znRecord);
+      }
+      segmentZKMetadataVersionMap.put(segment, version);
+      segmentZKMetadataMap.put(segment, segmentZKMetadata);
+    }
+    _segmentZKMetadataVersionMap = segmentZKMetadataVersionMap;
+    _segmentZKMetadataMap = segmentZKMetadataMap;
+  }
+
+  private SegmentZKMetadata toSegmentZKMetadata(ZNRecord znRecord) {
+    if (_tableType == CommonConstants.Helix.TableType.REALTIME) {
+      return new RealtimeSegmentZKMetadata(znRecord);
+    } else {
+      return new OfflineSegmentZKMetadata(znRecord);
+    }
+  }
+
+  @Override
+  public Set<String> selectSegments(RoutingTableLookupRequest request, Set<String> segmentsToQuery) {
+    SegmentPrunerContext prunerContext = new SegmentPrunerContext(request.getBrokerRequest());
+    if (prunerContext.getFilterQueryTree() == null) {
+      return segmentsToQuery;
+    }
+
+    // Copy the pointer for snapshot since the pointer for segment ZK metadata map can change at anytime
+    Map<String, SegmentZKMetadata> segmentZKMetadataMap = _segmentZKMetadataMap;
+    Set<String> selectedSegments = new HashSet<>();
+    for (String segment : segmentsToQuery) {
+      // Segments without ZK metadata (e.g. newly added segments) are always selected
+      SegmentZKMetadata segmentZKMetadata = segmentZKMetadataMap.get(segment);
+      if (segmentZKMetadata == null || !_prunerService.prune(segmentZKMetadata, prunerContext)) {
+        selectedSegments.add(segment);
+      }
+    }
+    return selectedSegments;
+  }
+}
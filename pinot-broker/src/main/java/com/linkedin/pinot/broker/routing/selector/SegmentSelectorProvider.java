@@ -15,6 +15,7 @@
  */
 package com.linkedin.pinot.broker.routing.selector;
 
+import com.linkedin.pinot.common.config.RoutingConfig;
 import com.linkedin.pinot.common.config.TableConfig;
 import org.apache.helix.ZNRecord;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
@@ -39,6 +40,13 @@ public class SegmentSelectorProvider {
    */
   public SegmentSelector getSegmentSelector(TableConfig tableConfig) {
     // TODO: add the support for merged segment selector once merge config is updated.
+    RoutingConfig routingConfig = tableConfig.getRoutingConfig();
+    if (routingConfig != null && Boolean.valueOf(
+        routingConfig.getRoutingTableBuilderOptions().get(RoutingConfig.ENABLE_COLUMN_VALUE_PRUNING_KEY))) {
+      SegmentSelector segmentSelector = new ColumnValueSegmentSelector();
+      segmentSelector.init(tableConfig, _propertyStore);
+      return segmentSelector;
+    }
     return null;
   }
 }
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.broker.pruner;
+
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.metadata.segment.ColumnMinMaxMetadata;
+import com.linkedin.pinot.common.metadata.segment.OfflineSegmentZKMetadata;
+import com.linkedin.pinot.common.metadata.segment.SegmentColumnMinMaxMetadata;
+import com.linkedin.pinot.common.metadata.segment.SegmentZKMetadata;
+import com.linkedin.pinot.pql.parsers.Pql2Compiler;
+import java.util.HashMap;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * Unit test for {@link ColumnValueZKMetadataPruner}
+ */
+public class ColumnValueZKMetadataPrunerTest {
+  private static final String PRUNER_NAME = "columnvaluezkmetadatapruner";
+  private static final Pql2Compiler COMPILER = new Pql2Compiler();
+
+  private final SegmentZKMetadataPrunerService _prunerService =
+      new SegmentZKMetadataPrunerService(new String[]{PRUNER_NAME});
+
+  @Test
+  public void testPruner() {
+    SegmentZKMetadata metadata = new OfflineSegmentZKMetadata();
+    Map<String, ColumnMinMaxMetadata> columnMinMaxMap = new HashMap<>();
+    columnMinMaxMap.put("daysSinceEpoch", new ColumnMinMaxMetadata(FieldSpec.DataType.LONG, "100", "200"));
+    columnMinMaxMap.put("country", new ColumnMinMaxMetadata(FieldSpec.DataType.STRING, "ca", "us"));
+    columnMinMaxMap.put("price", new ColumnMinMaxMetadata(FieldSpec.DataType.DOUBLE, "1.5", "9.5"));
+    metadata.setColumnMinMaxMetadata(new SegmentColumnMinMaxMetadata(columnMinMaxMap));
+
+    // No filter or no min/max for the column
+    Assert.assertFalse(prune(metadata, "select count(*) from myTable"));
+    Assert.assertFalse(prune(metadata, "select count(*) from myTable where foo = 1000"));
+
+    // EQUALITY
+    Assert.assertFalse(prune(metadata, "select count(*) from myTable where daysSinceEpoch = 150"));
+    Assert.assertFalse(prune(metadata, "select count(*) from myTable where daysSinceEpoch = 200"));
+    Assert.assertTrue(prune(metadata, "select count(*) from myTable where daysSinceEpoch = 99"));
+    Assert.assertTrue(prune(metadata, "select count(*) from myTable where country = 'zz'"));
+    Assert.assertFalse(prune(metadata, "select count(*) from myTable where country = 'mx'"));
+
+    // RANGE
+    Assert.assertFalse(prune(metadata, "select count(*) from myTable where daysSinceEpoch >= 200"));
+    Assert.assertTrue(prune(metadata, "select count(*) from myTable where daysSinceEpoch > 200"));
+    Assert.assertTrue(prune(metadata, "select count(*) from myTable where daysSinceEpoch < 100"));
+    Assert.assertFalse(prune(metadata, "select count(*) from myTable where daysSinceEpoch between 50 and 100"));
+    Assert.assertTrue(prune(metadata, "select count(*) from myTable where daysSinceEpoch between 201 and 300"));
+    Assert.assertTrue(prune(metadata, "select count(*) from myTable where price > 10.0"));
+    Assert.assertFalse(prune(metadata, "select count(*) from myTable where price < 2"));
+
+    // AND/OR
+    Assert.assertTrue(prune(metadata, "select count(*) from myTable where daysSinceEpoch = 150 and country = 'zz'"));
+    Assert.assertFalse(prune(metadata, "select count(*) from myTable where daysSinceEpoch = 150 or country = 'zz'"));
+    Assert.assertTrue(prune(metadata, "select count(*) from myTable where daysSinceEpoch = 50 or country = 'zz'"));
+
+    // Value that cannot be parsed should not prune the segment
+    Assert.assertFalse(prune(metadata, "select count(*) from myTable where daysSinceEpoch = 'abc'"));
+
+    // No min/max metadata
+    Assert.assertFalse(prune(new OfflineSegmentZKMetadata(), "select count(*) from myTable where daysSinceEpoch = 99"));
+  }
+
+  @Test
+  public void testSerDe() {
+    SegmentZKMetadata metadata = new OfflineSegmentZKMetadata();
+    metadata.setSegmentName("mySegment");
+    metadata.setTableName("myTable");
+    Map<String, ColumnMinMaxMetadata> columnMinMaxMap = new HashMap<>();
+    columnMinMaxMap.put("daysSinceEpoch", new ColumnMinMaxMetadata(FieldSpec.DataType.LONG, "100", "200"));
+    metadata.setColumnMinMaxMetadata(new SegmentColumnMinMaxMetadata(columnMinMaxMap));
+
+    SegmentZKMetadata actual = new OfflineSegmentZKMetadata(metadata.toZNRecord());
+    Assert.assertEquals(actual.getColumnMinMaxMetadata(), metadata.getColumnMinMaxMetadata());
+    Assert.assertEquals(actual, metadata);
+  }
+
+  private boolean prune(SegmentZKMetadata metadata, String query) {
+    return _prunerService.prune(metadata, new SegmentPrunerContext(COMPILER.compileToBrokerRequest(query)));
+  }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.broker.requesthandler;
+
+import com.linkedin.pinot.common.metrics.BrokerMeter;
+import com.linkedin.pinot.common.metrics.BrokerMetrics;
+import com.linkedin.pinot.common.request.BrokerRequest;
+import com.linkedin.pinot.common.request.FilterQuery;
+import com.linkedin.pinot.pql.parsers.Pql2CompilationException;
+import com.linkedin.pinot.pql.parsers.Pql2Compiler;
+import com.yammer.metrics.core.MetricsRegistry;
+import java.util.Collections;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class CachingRequestCompilerTest {
+  private static final Pql2Compiler COMPILER = new Pql2Compiler();
+
+  @Test
+  public void testParameterizedQueries() {
+    CachingRequestCompiler cachingCompiler = getCachingCompiler();
+    String[] queries = new String[]{
+        "SELECT COUNT(*) FROM myTable WHERE a = 'foo' AND b IN (1, 2, 3) AND c BETWEEN 1.5 AND 2.5 TOP 10",
+        "SELECT COUNT(*) FROM myTable WHERE a = 'bar' AND b IN (4, -5, 6) AND c BETWEEN 0.5 AND 3.0 TOP 10",
+        "SELECT COUNT(*) FROM myTable WHERE a = '__pql_param_0000__' AND b IN (9876543200001, 0, 1) "
+            + "AND c BETWEEN 0.1234567800001 AND 1.0 TOP 10",
+        "SELECT COUNT(*) FROM myTable WHERE a = 'it''s' AND b IN (7, 8, 9) AND c BETWEEN 1.50 AND 2.5 TOP 10",
+        "SELECT * FROM myTable WHERE a <> \"foo\" OR (b > 10 AND REGEXP_LIKE(a, 'f.*')) LIMIT 5",
+        "SELECT * FROM myTable WHERE a <> \"bar\" OR (b > 20 AND REGEXP_LIKE(a, 'b.*')) LIMIT 5",
+        "SELECT * FROM myTable WHERE a <> \"bar\" OR (b > 20 AND REGEXP_LIKE(a, 'b.*')) LIMIT 10",
+        "SELECT SUM(m) FROM myTable WHERE t > 1000 GROUP BY a HAVING SUM(m) > 100 TOP 5",
+        "SELECT SUM(m) FROM myTable WHERE t > 2000 GROUP BY a HAVING SUM(m) > 200 TOP 5",
+        "SELECT SUM(m) FROM myTable GROUP BY a TOP 5"
+    };
+    // Run twice so that the second round hits the cache
+    for (int i = 0; i < 2; i++) {
+      for (String query : queries) {
+        Assert.assertEquals(cachingCompiler.compileToBrokerRequest(query), COMPILER.compileToBrokerRequest(query),
+            query);
+      }
+    }
+  }
+
+  @Test
+  public void testInListTemplates() {
+    BrokerMetrics brokerMetrics = new BrokerMetrics(new MetricsRegistry());
+    CachingRequestCompiler cachingCompiler = new CachingRequestCompiler(COMPILER, 100, brokerMetrics);
+    String[] queries = new String[]{
+        "SELECT COUNT(*) FROM myTable WHERE a IN ('foo', 'bar', 'baz') AND b NOT IN (10, 200, 3000)",
+        "SELECT COUNT(*) FROM myTable WHERE a IN ('qux', 'quux', 'corge') AND b NOT IN (3000, 10, 200)",
+        "SELECT COUNT(*) FROM myTable WHERE a IN ('foo', 'foo', 'bar') AND b NOT IN (1, 1, 1)",
+        "SELECT COUNT(*) FROM myTable WHERE a IN ('grault', 'garply', 'waldo') AND b NOT IN (5, 42, 7)"
+    };
+    for (String query : queries) {
+      BrokerRequest brokerRequest = cachingCompiler.compileToBrokerRequest(query);
+      BrokerRequest expectedBrokerRequest = COMPILER.compileToBrokerRequest(query);
+      // The values of IN and NOT IN are compared as sets because their order is not defined
+      Assert.assertEquals(sortFilterValues(brokerRequest), sortFilterValues(expectedBrokerRequest), query);
+    }
+    // Only the first query compiles the template, the others bind the parameters to the cached template
+    Assert.assertEquals(brokerMetrics.getMeteredValue(BrokerMeter.REQUEST_COMPILATION_CACHE_MISSES).count(), 1L);
+    Assert.assertEquals(brokerMetrics.getMeteredValue(BrokerMeter.REQUEST_COMPILATION_CACHE_HITS).count(),
+        queries.length - 1L);
+  }
+
+  @Test
+  public void testReturnsCopies() {
+    CachingRequestCompiler cachingCompiler = getCachingCompiler();
+    String query = "SELECT COUNT(*) FROM myTable WHERE a = 'foo'";
+    BrokerRequest brokerRequest = cachingCompiler.compileToBrokerRequest(query);
+    brokerRequest.getQuerySource().setTableName("myTable_OFFLINE");
+    brokerRequest.getFilterQuery().getValue().set(0, "bar");
+    Assert.assertEquals(cachingCompiler.compileToBrokerRequest(query), COMPILER.compileToBrokerRequest(query));
+    Assert.assertEquals(cachingCompiler.compileToBrokerRequest(query), COMPILER.compileToBrokerRequest(query));
+
+    String queryWithoutFilter = "SELECT COUNT(*) FROM myTable";
+    brokerRequest = cachingCompiler.compileToBrokerRequest(queryWithoutFilter);
+    brokerRequest.getQuerySource().setTableName("myTable_OFFLINE");
+    Assert.assertEquals(cachingCompiler.compileToBrokerRequest(queryWithoutFilter),
+        COMPILER.compileToBrokerRequest(queryWithoutFilter));
+  }
+
+  @Test
+  public void testInvalidQueries() {
+    CachingRequestCompiler cachingCompiler = getCachingCompiler();
+    String[] queries = new String[]{"SELECT COUNT(*) FROM myTable WHERE a = 'foo' AND", "SELECT FROM WHERE 'a"};
+    for (int i = 0; i < 2; i++) {
+      for (String query : queries) {
+        try {
+          cachingCompiler.compileToBrokerRequest(query);
+          Assert.fail("Query should fail to compile: " + query);
+        } catch (Pql2CompilationException e) {
+          // Expected
+        }
+      }
+    }
+  }
+
+  private static BrokerRequest sortFilterValues(BrokerRequest brokerRequest) {
+    sortFilterValues(brokerRequest.getFilterQuery());
+    for (FilterQuery filterQuery : brokerRequest.getFilterSubQueryMap().getFilterQueryMap().values()) {
+      sortFilterValues(filterQuery);
+    }
+    return brokerRequest;
+  }
+
+  private static void sortFilterValues(FilterQuery filterQuery) {
+    if (filterQuery.getValue() != null) {
+      Collections.sort(filterQuery.getValue());
+    }
+  }
+
+  private static CachingRequestCompiler getCachingCompiler() {
+    return new CachingRequestCompiler(COMPILER, 100, new BrokerMetrics(new MetricsRegistry()));
+  }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.broker.routing.builder;
+
+import com.linkedin.pinot.broker.routing.RoutingTableLookupRequest;
+import com.linkedin.pinot.common.config.TableConfig;
+import com.linkedin.pinot.common.config.TableNameBuilder;
+import com.linkedin.pinot.common.utils.CommonConstants;
+import com.linkedin.pinot.core.transport.ServerLoadTracker;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.helix.model.ExternalView;
+import org.apache.helix.model.InstanceConfig;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class LatencyAwareRoutingTableBuilderTest {
+  private static final String TABLE_NAME_WITH_TYPE = "testTable_OFFLINE";
+  private static final int NUM_SEGMENTS = 100;
+  private static final String[] SERVERS = {"Server_1.2.3.4_1234", "Server_1.2.3.5_2345", "Server_1.2.3.6_3456"};
+
+  @Test
+  public void testLatencyAwareRouting() {
+    // Disable decay to get deterministic load scores
+    ServerLoadTracker serverLoadTracker = new ServerLoadTracker(1.0, 0L);
+    LatencyAwareRoutingTableBuilder routingTableBuilder = new LatencyAwareRoutingTableBuilder(serverLoadTracker);
+    TableConfig tableConfig = new TableConfig.Builder(CommonConstants.Helix.TableType.OFFLINE).setTableName(
+        TableNameBuilder.extractRawTableName(TABLE_NAME_WITH_TYPE)).build();
+    routingTableBuilder.init(new BaseConfiguration(), tableConfig, null, null);
+
+    ExternalView externalView = new ExternalView(TABLE_NAME_WITH_TYPE);
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      for (String server : SERVERS) {
+        externalView.setState("segment_" + i, server, "ONLINE");
+      }
+    }
+    List<InstanceConfig> instanceConfigs = new ArrayList<>();
+    for (String server : SERVERS) {
+      instanceConfigs.add(new InstanceConfig(server));
+    }
+    routingTableBuilder.computeOnExternalViewChange(TABLE_NAME_WITH_TYPE, externalView, instanceConfigs);
+    RoutingTableLookupRequest request = new RoutingTableLookupRequest(TABLE_NAME_WITH_TYPE);
+
+    // Without load information, segments should be spread across all servers
+    Map<String, List<String>> routingTable = routingTableBuilder.getRoutingTable(request, null);
+    Assert.assertEquals(routingTable.size(), SERVERS.length);
+    checkAllSegmentsRouted(routingTable);
+
+    // Make the first server slow, it should get much fewer segments than the other servers
+    String slowServer = SERVERS[0];
+    serverLoadTracker.markRequestSubmitted(slowServer);
+    serverLoadTracker.markResponseReceived(slowServer, 10_000L);
+    for (int i = 1; i < SERVERS.length; i++) {
+      serverLoadTracker.markRequestSubmitted(SERVERS[i]);
+      serverLoadTracker.markResponseReceived(SERVERS[i], 10L);
+    }
+    routingTable = routingTableBuilder.getRoutingTable(request, null);
+    checkAllSegmentsRouted(routingTable);
+    List<String> segmentsOnSlowServer = routingTable.get(slowServer);
+    int numSegmentsOnSlowServer = segmentsOnSlowServer != null ? segmentsOnSlowServer.size() : 0;
+    for (int i = 1; i < SERVERS.length; i++) {
+      Assert.assertTrue(routingTable.get(SERVERS[i]).size() > numSegmentsOnSlowServer);
+    }
+  }
+
+  private void checkAllSegmentsRouted(Map<String, List<String>> routingTable) {
+    Set<String> segments = new HashSet<>();
+    for (List<String> segmentsOnServer : routingTable.values()) {
+      segments.addAll(segmentsOnServer);
+    }
+    Assert.assertEquals(segments.size(), NUM_SEGMENTS);
+  }
+}
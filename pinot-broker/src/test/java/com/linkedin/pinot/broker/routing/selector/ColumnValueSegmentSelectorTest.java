@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.broker.routing.selector;
+
+import com.linkedin.pinot.broker.routing.RoutingTableLookupRequest;
+import com.linkedin.pinot.broker.util.FakePropertyStore;
+import com.linkedin.pinot.common.config.TableConfig;
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.metadata.ZKMetadataProvider;
+import com.linkedin.pinot.common.metadata.segment.ColumnMinMaxMetadata;
+import com.linkedin.pinot.common.metadata.segment.OfflineSegmentZKMetadata;
+import com.linkedin.pinot.common.metadata.segment.RealtimeSegmentZKMetadata;
+import com.linkedin.pinot.common.metadata.segment.SegmentColumnMinMaxMetadata;
+import com.linkedin.pinot.common.metadata.segment.SegmentZKMetadata;
+import com.linkedin.pinot.common.utils.CommonConstants;
+import com.linkedin.pinot.pql.parsers.Pql2Compiler;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.helix.ZNRecord;
+import org.apache.helix.store.zk.ZkHelixPropertyStore;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * Unit test for {@link ColumnValueSegmentSelector}
+ */
+public class ColumnValueSegmentSelectorTest {
+  private static final String RAW_TABLE_NAME = "testTable";
+  private static final String TIME_COLUMN = "daysSinceEpoch";
+  private static final Pql2Compiler COMPILER = new Pql2Compiler();
+
+  @Test
+  public void testOfflineTable() throws Exception {
+    ColumnValueSegmentSelector segmentSelector = new ColumnValueSegmentSelector();
+    TableConfig tableConfig =
+        new TableConfig.Builder(CommonConstants.Helix.TableType.OFFLINE).setTableName(RAW_TABLE_NAME).build();
+    ZkHelixPropertyStore<ZNRecord> fakePropertyStore = new FakePropertyStore();
+    segmentSelector.init(tableConfig, fakePropertyStore);
+
+    // segment0: [100, 200], segment1: [201, 300], segment2: no min/max metadata, segment3: no ZK metadata
+    ZKMetadataProvider.setOfflineSegmentZKMetadata(fakePropertyStore,
+        getOfflineSegmentZKMetadata("segment0", 100, 200));
+    ZKMetadataProvider.setOfflineSegmentZKMetadata(fakePropertyStore,
+        getOfflineSegmentZKMetadata("segment1", 201, 300));
+    OfflineSegmentZKMetadata segmentZKMetadata = new OfflineSegmentZKMetadata();
+    segmentZKMetadata.setTableName(RAW_TABLE_NAME);
+    segmentZKMetadata.setSegmentName("segment2");
+    ZKMetadataProvider.setOfflineSegmentZKMetadata(fakePropertyStore, segmentZKMetadata);
+    segmentSelector.computeOnExternalViewChange();
+
+    String[] segmentsToQuery = new String[]{"segment0", "segment1", "segment2", "segment3"};
+
+    // No filter or filter on column without min/max metadata
+    testSegmentSelector(segmentSelector, "select count(*) from testTable", segmentsToQuery, segmentsToQuery);
+    testSegmentSelector(segmentSelector, "select count(*) from testTable where foo = 1000", segmentsToQuery,
+        segmentsToQuery);
+
+    // EQUALITY
+    testSegmentSelector(segmentSelector, "select count(*) from testTable where daysSinceEpoch = 150",
+        segmentsToQuery, new String[]{"segment0", "segment2", "segment3"});
+    testSegmentSelector(segmentSelector, "select count(*) from testTable where daysSinceEpoch = 201",
+        segmentsToQuery, new String[]{"segment1", "segment2", "segment3"});
+    testSegmentSelector(segmentSelector, "select count(*) from testTable where daysSinceEpoch = 500",
+        segmentsToQuery, new String[]{"segment2", "segment3"});
+
+    // RANGE
+    testSegmentSelector(segmentSelector, "select count(*) from testTable where daysSinceEpoch > 200",
+        segmentsToQuery, new String[]{"segment1", "segment2", "segment3"});
+    testSegmentSelector(segmentSelector, "select count(*) from testTable where daysSinceEpoch >= 200",
+        segmentsToQuery, segmentsToQuery);
+    testSegmentSelector(segmentSelector, "select count(*) from testTable where daysSinceEpoch between 0 and 99",
+        segmentsToQuery, new String[]{"segment2", "segment3"});
+    testSegmentSelector(segmentSelector, "select count(*) from testTable where daysSinceEpoch between 150 and 250",
+        segmentsToQuery, segmentsToQuery);
+
+    // Value that cannot be parsed should not prune any segment
+    testSegmentSelector(segmentSelector, "select count(*) from testTable where daysSinceEpoch = 'abc'",
+        segmentsToQuery, segmentsToQuery);
+
+    // Update the min/max metadata of segment1, the selector should pick up the change
+    ZKMetadataProvider.setOfflineSegmentZKMetadata(fakePropertyStore,
+        getOfflineSegmentZKMetadata("segment1", 100, 200));
+    segmentSelector.computeOnExternalViewChange();
+    testSegmentSelector(segmentSelector, "select count(*) from testTable where daysSinceEpoch = 150",
+        segmentsToQuery, new String[]{"segment0", "segment1", "segment2", "segment3"});
+    testSegmentSelector(segmentSelector, "select count(*) from testTable where daysSinceEpoch > 200",
+        segmentsToQuery, new String[]{"segment2", "segment3"});
+  }
+
+  @Test
+  public void testRealtimeTable() throws Exception {
+    ColumnValueSegmentSelector segmentSelector = new ColumnValueSegmentSelector();
+    TableConfig tableConfig =
+        new TableConfig.Builder(CommonConstants.Helix.TableType.REALTIME).setTableName(RAW_TABLE_NAME).build();
+    ZkHelixPropertyStore<ZNRecord> fakePropertyStore = new FakePropertyStore();
+    segmentSelector.init(tableConfig, fakePropertyStore);
+
+    // Completed segment with min/max metadata, and consuming segment without min/max metadata
+    RealtimeSegmentZKMetadata completedSegmentZKMetadata = new RealtimeSegmentZKMetadata();
+    completedSegmentZKMetadata.setTableName(RAW_TABLE_NAME);
+    completedSegmentZKMetadata.setSegmentName("completedSegment");
+    completedSegmentZKMetadata.setStatus(CommonConstants.Segment.Realtime.Status.DONE);
+    setColumnMinMaxMetadata(completedSegmentZKMetadata, 100, 200);
+    ZKMetadataProvider.setRealtimeSegmentZKMetadata(fakePropertyStore, completedSegmentZKMetadata);
+    RealtimeSegmentZKMetadata consumingSegmentZKMetadata = new RealtimeSegmentZKMetadata();
+    consumingSegmentZKMetadata.setTableName(RAW_TABLE_NAME);
+    consumingSegmentZKMetadata.setSegmentName("consumingSegment");
+    consumingSegmentZKMetadata.setStatus(CommonConstants.Segment.Realtime.Status.IN_PROGRESS);
+    ZKMetadataProvider.setRealtimeSegmentZKMetadata(fakePropertyStore, consumingSegmentZKMetadata);
+    segmentSelector.computeOnExternalViewChange();
+
+    String[] segmentsToQuery = new String[]{"completedSegment", "consumingSegment"};
+    testSegmentSelector(segmentSelector, "select count(*) from testTable where daysSinceEpoch = 150",
+        segmentsToQuery, segmentsToQuery);
+    testSegmentSelector(segmentSelector, "select count(*) from testTable where daysSinceEpoch > 200",
+        segmentsToQuery, new String[]{"consumingSegment"});
+  }
+
+  private static OfflineSegmentZKMetadata getOfflineSegmentZKMetadata(String segmentName, long minValue,
+      long maxValue) {
+    OfflineSegmentZKMetadata segmentZKMetadata = new OfflineSegmentZKMetadata();
+    segmentZKMetadata.setTableName(RAW_TABLE_NAME);
+    segmentZKMetadata.setSegmentName(segmentName);
+    setColumnMinMaxMetadata(segmentZKMetadata, minValue, maxValue);
+    return segmentZKMetadata;
+  }
+
+  private static void setColumnMinMaxMetadata(SegmentZKMetadata segmentZKMetadata, long minValue, long maxValue) {
+    segmentZKMetadata.setColumnMinMaxMetadata(new SegmentColumnMinMaxMetadata(Collections.singletonMap(TIME_COLUMN,
+        new ColumnMinMaxMetadata(FieldSpec.DataType.LONG, Long.toString(minValue), Long.toString(maxValue)))));
+  }
+
+  private static void testSegmentSelector(SegmentSelector segmentSelector, String query, String[] segmentsToQuery,
+      String[] expectedResult) {
+    RoutingTableLookupRequest request = new RoutingTableLookupRequest(COMPILER.compileToBrokerRequest(query));
+    Set<String> selectedSegments =
+        segmentSelector.selectSegments(request, new HashSet<>(Arrays.asList(segmentsToQuery)));
+    Assert.assertEquals(selectedSegments, new HashSet<>(Arrays.asList(expectedResult)), query);
+  }
+}
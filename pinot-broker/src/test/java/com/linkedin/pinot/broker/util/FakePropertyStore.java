@@ -15,7 +15,9 @@
  */
 package com.linkedin.pinot.broker.util;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.I0Itec.zkclient.IZkDataListener;
 import org.apache.helix.ZNRecord;
@@ -25,6 +27,7 @@ import org.apache.zookeeper.data.Stat;
 
 public class FakePropertyStore extends ZkHelixPropertyStore<ZNRecord> {
   private Map<String, ZNRecord> _contents = new HashMap<>();
+  private Map<String, Integer> _versions = new HashMap<>();
   private IZkDataListener _listener = null;
 
   public FakePropertyStore() {
@@ -33,7 +36,49 @@ public class FakePropertyStore extends ZkHelixPropertyStore<ZNRecord> {
 
   @Override
   public ZNRecord get(String path, Stat stat, int options) {
-    return _contents.get(path);
+    ZNRecord znRecord = _contents.get(path);
+    if (znRecord != null && stat != null) {
+      stat.setVersion(_versions.get(path));
+    }
+    return znRecord;
+  }
+
+  @Override
+  public boolean exists(String path, int options) {
+    for (String contentPath : _contents.keySet()) {
+      if (contentPath.equals(path) || contentPath.startsWith(path + "/")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public List<String> getChildNames(String parentPath, int options) {
+    List<String> childNames = new ArrayList<>();
+    String prefix = parentPath + "/";
+    for (String contentPath : _contents.keySet()) {
+      if (contentPath.startsWith(prefix)) {
+        String childName = contentPath.substring(prefix.length());
+        if (!childName.contains("/")) {
+          childNames.add(childName);
+        }
+      }
+    }
+    return childNames;
+  }
+
+  @Override
+  public Stat[] getStats(List<String> paths, int options) {
+    Stat[] stats = new Stat[paths.size()];
+    for (int i = 0; i < stats.length; i++) {
+      Integer version = _versions.get(paths.get(i));
+      if (version != null) {
+        stats[i] = new Stat();
+        stats[i].setVersion(version);
+      }
+    }
+    return stats;
   }
 
   @Override
@@ -63,6 +108,7 @@ public class FakePropertyStore extends ZkHelixPropertyStore<ZNRecord> {
 
   public void setContents(String path, ZNRecord contents) throws Exception {
     _contents.put(path, contents);
+    _versions.merge(path, 0, (oldVersion, newVersion) -> oldVersion + 1);
     if (_listener != null) {
       _listener.handleDataChange(path, contents);
     }
@@ -31,6 +31,7 @@ public class RoutingConfig {
   private static final Logger LOGGER = LoggerFactory.getLogger(RoutingConfig.class);
 
   public static final String ENABLE_DYNAMIC_COMPUTING_KEY = "enableDynamicComputing";
+  public static final String ENABLE_COLUMN_VALUE_PRUNING_KEY = "enableColumnValuePruning";
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
   @ConfigKey("routingTableBuilderName")
@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.common.metadata.segment;
+
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.utils.EqualityUtils;
+import javax.annotation.Nonnull;
+import org.codehaus.jackson.annotate.JsonIgnoreProperties;
+import org.codehaus.jackson.annotate.JsonProperty;
+
+
+/**
+ * Class for the min/max value of a column in a segment, published into the segment ZK metadata so that brokers can
+ * prune segments without sending the query to the servers.
+ * <p>Values are stored as strings and should be parsed with the stored data type before comparison.
+ */
+@SuppressWarnings("unused") // Suppress incorrect warning, as methods are used for json ser/de.
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ColumnMinMaxMetadata {
+  private final FieldSpec.DataType _dataType;
+  private final String _minValue;
+  private final String _maxValue;
+
+  /**
+   * Constructor for the class.
+   *
+   * @param dataType Data type of the column.
+   * @param minValue String representation of the min value of the column.
+   * @param maxValue String representation of the max value of the column.
+   */
+  public ColumnMinMaxMetadata(@Nonnull @JsonProperty("dataType") FieldSpec.DataType dataType,
+      @Nonnull @JsonProperty("minValue") String minValue, @Nonnull @JsonProperty("maxValue") String maxValue) {
+    _dataType = dataType;
+    _minValue = minValue;
+    _maxValue = maxValue;
+  }
+
+  public FieldSpec.DataType getDataType() {
+    return _dataType;
+  }
+
+  public String getMinValue() {
+    return _minValue;
+  }
+
+  public String getMaxValue() {
+    return _maxValue;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (EqualityUtils.isSameReference(this, o)) {
+      return true;
+    }
+    if (EqualityUtils.isNullOrNotSameClass(this, o)) {
+      return false;
+    }
+
+    ColumnMinMaxMetadata that = (ColumnMinMaxMetadata) o;
+    return EqualityUtils.isEqual(_dataType, that._dataType) && EqualityUtils.isEqual(_minValue, that._minValue)
+        && EqualityUtils.isEqual(_maxValue, that._maxValue);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = EqualityUtils.hashCodeOf(_dataType);
+    result = EqualityUtils.hashCodeOf(result, _minValue);
+    result = EqualityUtils.hashCodeOf(result, _maxValue);
+    return result;
+  }
+}
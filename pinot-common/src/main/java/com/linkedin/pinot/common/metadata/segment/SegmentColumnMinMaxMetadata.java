@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.common.metadata.segment;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.codehaus.jackson.annotate.JsonIgnoreProperties;
+import org.codehaus.jackson.annotate.JsonProperty;
+import org.codehaus.jackson.map.ObjectMapper;
+
+
+/**
+ * Class for column min/max metadata for a segment.
+ */
+@SuppressWarnings("unused") // Suppress incorrect warning, as methods are used for json ser/de.
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SegmentColumnMinMaxMetadata {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final Map<String, ColumnMinMaxMetadata> _columnMinMaxMap;
+
+  /**
+   * Constructor for the class.
+   *
+   * @param columnMinMaxMap Column name to ColumnMinMaxMetadata map.
+   */
+  public SegmentColumnMinMaxMetadata(
+      @Nonnull @JsonProperty("columnMinMaxMap") Map<String, ColumnMinMaxMetadata> columnMinMaxMap) {
+    Preconditions.checkNotNull(columnMinMaxMap);
+    _columnMinMaxMap = columnMinMaxMap;
+  }
+
+  /**
+   * Returns the map from column name to column's min/max metadata.
+   *
+   * @return Map from column name to its min/max metadata.
+   */
+  public Map<String, ColumnMinMaxMetadata> getColumnMinMaxMap() {
+    return _columnMinMaxMap;
+  }
+
+  /**
+   * Returns the min/max metadata for the given column, null if there isn't one.
+   *
+   * @param column Column for which to return the min/max metadata.
+   * @return Min/max metadata for the column.
+   */
+  @Nullable
+  public ColumnMinMaxMetadata getColumnMinMaxMetadata(@Nonnull String column) {
+    return _columnMinMaxMap.get(column);
+  }
+
+  /**
+   * Given a JSON string, de-serialize and return an instance of {@link SegmentColumnMinMaxMetadata}
+   *
+   * @param jsonString Input JSON string
+   * @return Instance of {@link SegmentColumnMinMaxMetadata} built from the input string.
+   * @throws IOException
+   */
+  public static SegmentColumnMinMaxMetadata fromJsonString(String jsonString)
+      throws IOException {
+    return OBJECT_MAPPER.readValue(jsonString, SegmentColumnMinMaxMetadata.class);
+  }
+
+  /**
+   * Returns the JSON equivalent of the object.
+   *
+   * @return JSON string equivalent of the object.
+   * @throws IOException
+   */
+  public String toJsonString()
+      throws IOException {
+    return OBJECT_MAPPER.writeValueAsString(this);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    SegmentColumnMinMaxMetadata that = (SegmentColumnMinMaxMetadata) o;
+    return _columnMinMaxMap.equals(that._columnMinMaxMap);
+  }
+
+  @Override
+  public int hashCode() {
+    return _columnMinMaxMap.hashCode();
+  }
+}
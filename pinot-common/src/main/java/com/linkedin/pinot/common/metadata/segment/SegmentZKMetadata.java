@@ -51,6 +51,7 @@ public abstract class SegmentZKMetadata implements ZKMetadata {
   private long _crc = -1;
   private long _creationTime = -1;
   private SegmentPartitionMetadata _partitionMetadata;
+  private SegmentColumnMinMaxMetadata _columnMinMaxMetadata;
   private long _segmentUploadStartTime = -1;
   private Map<String, String> _customMap;
   private String _crypterName;
@@ -84,6 +85,16 @@ public abstract class SegmentZKMetadata implements ZKMetadata {
           "Exception caught while reading partition info from zk metadata for segment '{}', partition info dropped.",
           _segmentName, e);
     }
+    try {
+      String columnMinMaxMetadataJson = znRecord.getSimpleField(CommonConstants.Segment.COLUMN_MIN_MAX_METADATA);
+      if (columnMinMaxMetadataJson != null) {
+        _columnMinMaxMetadata = SegmentColumnMinMaxMetadata.fromJsonString(columnMinMaxMetadataJson);
+      }
+    } catch (IOException e) {
+      LOGGER.error(
+          "Exception caught while reading column min/max info from zk metadata for segment '{}', info dropped.",
+          _segmentName, e);
+    }
     _segmentUploadStartTime = znRecord.getLongField(CommonConstants.Segment.SEGMENT_UPLOAD_START_TIME, -1);
     _customMap = znRecord.getMapField(CommonConstants.Segment.CUSTOM_MAP);
   }
@@ -200,6 +211,14 @@ public abstract class SegmentZKMetadata implements ZKMetadata {
     return _partitionMetadata;
   }
 
+  public void setColumnMinMaxMetadata(SegmentColumnMinMaxMetadata columnMinMaxMetadata) {
+    _columnMinMaxMetadata = columnMinMaxMetadata;
+  }
+
+  public SegmentColumnMinMaxMetadata getColumnMinMaxMetadata() {
+    return _columnMinMaxMetadata;
+  }
+
   public long getSegmentUploadStartTime() {
     return _segmentUploadStartTime;
   }
@@ -232,6 +251,7 @@ public abstract class SegmentZKMetadata implements ZKMetadata {
         && isEqual(_startTime, metadata._startTime) && isEqual(_endTime, metadata._endTime) && isEqual(_segmentType,
         metadata._segmentType) && isEqual(_totalRawDocs, metadata._totalRawDocs) && isEqual(_crc, metadata._crc)
         && isEqual(_creationTime, metadata._creationTime) && isEqual(_partitionMetadata, metadata._partitionMetadata)
+        && isEqual(_columnMinMaxMetadata, metadata._columnMinMaxMetadata)
         && isEqual(_segmentUploadStartTime, metadata._segmentUploadStartTime) && isEqual(_customMap, metadata._customMap);
   }
 
@@ -249,6 +269,7 @@ public abstract class SegmentZKMetadata implements ZKMetadata {
     result = hashCodeOf(result, _crc);
     result = hashCodeOf(result, _creationTime);
     result = hashCodeOf(result, _partitionMetadata);
+    result = hashCodeOf(result, _columnMinMaxMetadata);
     result = hashCodeOf(result, _segmentUploadStartTime);
     result = hashCodeOf(result, _customMap);
     return result;
@@ -288,6 +309,16 @@ public abstract class SegmentZKMetadata implements ZKMetadata {
             _segmentName, e);
       }
     }
+    if (_columnMinMaxMetadata != null) {
+      try {
+        String columnMinMaxMetadataJson = _columnMinMaxMetadata.toJsonString();
+        znRecord.setSimpleField(CommonConstants.Segment.COLUMN_MIN_MAX_METADATA, columnMinMaxMetadataJson);
+      } catch (IOException e) {
+        LOGGER.error(
+            "Exception caught while writing column min/max metadata into ZNRecord for segment '{}', will be dropped",
+            _segmentName, e);
+      }
+    }
     if (_segmentUploadStartTime > 0) {
       znRecord.setLongField(CommonConstants.Segment.SEGMENT_UPLOAD_START_TIME, _segmentUploadStartTime);
     }
@@ -326,6 +357,17 @@ public abstract class SegmentZKMetadata implements ZKMetadata {
       }
     }
 
+    if (_columnMinMaxMetadata != null) {
+      try {
+        String columnMinMaxMetadataJson = _columnMinMaxMetadata.toJsonString();
+        configMap.put(CommonConstants.Segment.COLUMN_MIN_MAX_METADATA, columnMinMaxMetadataJson);
+      } catch (IOException e) {
+        LOGGER.error(
+            "Exception caught while converting column min/max metadata into JSON for segment '{}', will be dropped",
+            _segmentName, e);
+      }
+    }
+
     if (_segmentUploadStartTime > 0) {
       configMap.put(CommonConstants.Segment.SEGMENT_UPLOAD_START_TIME, Long.toString(_segmentUploadStartTime));
     }
@@ -253,6 +253,12 @@ public abstract class AbstractMetrics<QP extends AbstractMetrics.QueryPhase, M e
     }
   }
 
+  public com.yammer.metrics.core.Meter getMeteredValue(final M meter) {
+    final MetricName metricName = new MetricName(_clazz, _metricPrefix + meter.getMeterName());
+
+    return MetricsHelper.newMeter(_metricsRegistry, metricName, meter.getUnit(), TimeUnit.SECONDS);
+  }
+
   public com.yammer.metrics.core.Meter getMeteredTableValue(final String tableName, final M meter) {
     final String fullMeterName;
     String meterName = meter.getMeterName();
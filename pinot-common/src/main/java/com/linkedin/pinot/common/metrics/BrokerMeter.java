@@ -28,6 +28,10 @@ public enum BrokerMeter implements AbstractMetrics.Meter {
   HEALTHCHECK_OK_CALLS("healthcheck", true),
   QUERIES("queries", false),
 
+  // Compiled request cache hits and misses (queries that are not cached and have to be compiled).
+  REQUEST_COMPILATION_CACHE_HITS("queries", true),
+  REQUEST_COMPILATION_CACHE_MISSES("queries", true),
+
   // These metrics track the exceptions caught during query execution in broker side.
   // PQL compile phase.
   REQUEST_COMPILATION_EXCEPTIONS("exceptions", true),
@@ -91,6 +95,10 @@ public enum BrokerMeter implements AbstractMetrics.Meter {
   // this is different from NO_SERVER_FOUND_EXCEPTIONS which tracks unavailability across all segments
   NO_SERVING_HOST_FOR_SEGMENT("badResponses", false),
 
+  // Hedged requests sent to alternate replicas for slow servers, and the ones that responded before the original server
+  HEDGED_REQUESTS_SENT("hedgedRequests", false),
+  HEDGED_REQUESTS_WON("hedgedRequests", false),
+
   // Netty connection metrics
   NETTY_CONNECTION_REQUESTS_SENT("nettyConnection", true),
   NETTY_CONNECTION_BYTES_SENT("nettyConnection", true),
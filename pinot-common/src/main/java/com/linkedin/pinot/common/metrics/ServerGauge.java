@@ -42,7 +42,11 @@ public enum ServerGauge implements AbstractMetrics.Gauge {
   REALTIME_OFFHEAP_MEMORY_USED("bytes", false),
   RUNNING_QUERIES("runningQueries", false),
   REALTIME_SEGMENT_PARTITION_WIDTH("realtimeSegmentPartitionWidth", false),
-  LLC_SIMULTANEOUS_SEGMENT_BUILDS("llcSimultaneousSegmentBuilds", true);
+  SEGMENTS_IN_LOADING("segments", false),
+  LLC_SIMULTANEOUS_SEGMENT_BUILDS("llcSimultaneousSegmentBuilds", true),
+  SEGMENTS_TO_PRELOAD("segments", true),
+  SEGMENTS_PRELOADED("segments", true),
+  BYTES_PRELOADED("bytes", true);
 
   private final String gaugeName;
   private final String unit;
@@ -118,6 +118,22 @@ public class CommonConstants {
     public static final String CONFIG_OF_BROKER_REFRESH_TIMEBOUNDARY_INFO_SLEEP_INTERVAL =
             "pinot.broker.refresh.timeBoundaryInfo.sleepInterval";
     public static final long DEFAULT_BROKER_REFRESH_TIMEBOUNDARY_INFO_SLEEP_INTERVAL_MS = 10000L;
+    // Hedged requests: resend the outstanding segments of a slow server to another replica after a delay based on the
+    // latency percentile of the table, limited to a ratio of the server requests sent
+    public static final String CONFIG_OF_BROKER_ENABLE_HEDGED_REQUESTS = "pinot.broker.hedgedRequests.enabled";
+    public static final boolean DEFAULT_BROKER_ENABLE_HEDGED_REQUESTS = false;
+    public static final String CONFIG_OF_BROKER_HEDGED_REQUESTS_DELAY_PERCENTILE =
+        "pinot.broker.hedgedRequests.delayPercentile";
+    public static final double DEFAULT_BROKER_HEDGED_REQUESTS_DELAY_PERCENTILE = 95.0;
+    public static final String CONFIG_OF_BROKER_HEDGED_REQUESTS_MIN_DELAY_MS = "pinot.broker.hedgedRequests.minDelayMs";
+    public static final long DEFAULT_BROKER_HEDGED_REQUESTS_MIN_DELAY_MS = 10L;
+    public static final String CONFIG_OF_BROKER_HEDGED_REQUESTS_MAX_RATIO = "pinot.broker.hedgedRequests.maxRatio";
+    public static final double DEFAULT_BROKER_HEDGED_REQUESTS_MAX_RATIO = 0.05;
+    // Maximum number of compiled query templates (queries with the filter literals parameterized) and exact queries
+    // cached, non-positive value disables the cache
+    public static final String CONFIG_OF_BROKER_REQUEST_COMPILATION_CACHE_SIZE =
+        "pinot.broker.requestCompilation.cacheSize";
+    public static final int DEFAULT_BROKER_REQUEST_COMPILATION_CACHE_SIZE = 1000;
     public static class Request {
       public static final String PQL = "pql";
       public static final String TRACE = "trace";
@@ -144,6 +160,11 @@ public class CommonConstants {
     public static final String CONFIG_OF_ADMIN_API_PORT = "pinot.server.adminapi.port";
     public static final String CONFIG_OF_STARTER_ENABLE_SEGMENTS_LOADING_CHECK = "pinot.server.starter.enableSegmentsLoadingCheck";
     public static final String CONFIG_OF_STARTER_TIMEOUT_IN_SECONDS = "pinot.server.starter.timeoutInSeconds";
+    public static final String CONFIG_OF_STARTER_ENABLE_SEGMENTS_PRELOAD = "pinot.server.starter.enableSegmentsPreload";
+    public static final String CONFIG_OF_STARTER_SEGMENTS_PRELOAD_PARALLELISM =
+        "pinot.server.starter.segmentsPreloadParallelism";
+    public static final String CONFIG_OF_STARTER_SEGMENTS_PRELOAD_MAX_BYTES =
+        "pinot.server.starter.segmentsPreloadMaxBytes";
 
     public static final String CONFIG_OF_SEGMENT_FORMAT_VERSION = "pinot.server.instance.segment.format.version";
     public static final String CONFIG_OF_ENABLE_DEFAULT_COLUMNS = "pinot.server.instance.enable.default.columns";
@@ -155,10 +176,19 @@ public class CommonConstants {
     public static final String PREFIX_OF_CONFIG_OF_PINOT_CRYPTER = "pinot.server.crypter";
     public static final String CONFIG_OF_INSTANCE_MAX_SHUTDOWN_WAIT_TIME = "pinot.server.instance.starter.maxShutdownWaitTime";
     public static final String CONFIG_OF_INSTANCE_CHECK_INTERVAL_TIME = "pinot.server.instance.starter.checkIntervalTime";
+    public static final String CONFIG_OF_STATE_TRANSITION_THREAD_POOL_SIZE =
+        "pinot.server.instance.state.transition.thread.pool.size";
+    public static final String CONFIG_OF_CHUNK_CACHE_MAX_SIZE_IN_BYTES =
+        "pinot.server.instance.chunk.cache.max.size.bytes";
+    public static final String CONFIG_OF_FILTER_BITMAP_CACHE_MAX_SIZE_IN_BYTES =
+        "pinot.server.instance.filter.bitmap.cache.max.size.bytes";
 
     public static final int DEFAULT_ADMIN_API_PORT = 8097;
     public static final boolean DEFAULT_STARTER_ENABLE_SEGMENTS_LOADING_CHECK = false;
     public static final int DEFAULT_STARTER_TIMEOUT_IN_SECONDS = 600;
+    public static final boolean DEFAULT_STARTER_ENABLE_SEGMENTS_PRELOAD = false;
+    public static final int DEFAULT_STARTER_SEGMENTS_PRELOAD_PARALLELISM = 4;
+    public static final long DEFAULT_STARTER_SEGMENTS_PRELOAD_MAX_BYTES = Long.MAX_VALUE;
     public static final String DEFAULT_READ_MODE = "heap";
     public static final String DEFAULT_INSTANCE_BASE_DIR =
         System.getProperty("java.io.tmpdir") + File.separator + "PinotServer";
@@ -178,6 +208,9 @@ public class CommonConstants {
     public static final String DEFAULT_COLUMN_MIN_MAX_VALUE_GENERATOR_MODE = "TIME";
     public static final long DEFAULT_MAX_SHUTDOWN_WAIT_TIME_MS = 600_000L;
     public static final long DEFAULT_CHECK_INTERVAL_TIME_MS = 60_000L;
+    public static final int DEFAULT_STATE_TRANSITION_THREAD_POOL_SIZE = 0;
+    public static final long DEFAULT_CHUNK_CACHE_MAX_SIZE_IN_BYTES = 0L;
+    public static final long DEFAULT_FILTER_BITMAP_CACHE_MAX_SIZE_IN_BYTES = 0L;
   }
 
   public static class Controller {
@@ -248,6 +281,7 @@ public class CommonConstants {
     public static final String FLUSH_THRESHOLD_SIZE = "segment.flush.threshold.size";
     public static final String FLUSH_THRESHOLD_TIME = "segment.flush.threshold.time";
     public static final String PARTITION_METADATA = "segment.partition.metadata";
+    public static final String COLUMN_MIN_MAX_METADATA = "segment.column.min.max.metadata";
     /**
      * This field is used for parallel push protection to lock the segment globally.
      * We put the segment upload start timestamp so that if the previous push failed without unlock the segment, the
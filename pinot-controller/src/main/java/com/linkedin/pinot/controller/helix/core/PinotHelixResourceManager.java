@@ -25,6 +25,7 @@ import com.google.common.util.concurrent.Uninterruptibles;
 import com.linkedin.pinot.common.config.IndexingConfig;
 import com.linkedin.pinot.common.config.OfflineTagConfig;
 import com.linkedin.pinot.common.config.RealtimeTagConfig;
+import com.linkedin.pinot.common.config.RoutingConfig;
 import com.linkedin.pinot.common.config.SegmentsValidationAndRetentionConfig;
 import com.linkedin.pinot.common.config.TableConfig;
 import com.linkedin.pinot.common.config.TableCustomConfig;
@@ -1484,8 +1485,9 @@ public class PinotHelixResourceManager {
       // We return success even if we are not able to send messages (which can happen if no servers are alive).
       // For segment validation errors we would have returned earlier.
       sendSegmentRefreshMessage(offlineSegmentZKMetadata);
-      // Send a message to the brokers to update the table's time boundary info if the segment push type is APPEND.
-      if (shouldSendTimeboundaryRefreshMsg(rawTableName, tableConfig)) {
+      // Send a message to the brokers to update the table's time boundary info if the segment push type is APPEND,
+      // or to update the cached segment ZK metadata if brokers prune segments based on the column values.
+      if (shouldSendTimeboundaryRefreshMsg(rawTableName, tableConfig) || isColumnValuePruningEnabled(tableConfig)) {
         sendTimeboundaryRefreshMessageToBrokers(offlineSegmentZKMetadata);
       }
     } else {
@@ -1608,6 +1610,12 @@ public class PinotHelixResourceManager {
     return validationConfig != null && APPEND.equals(validationConfig.getSegmentPushType());
   }
 
+  private static boolean isColumnValuePruningEnabled(TableConfig tableConfig) {
+    RoutingConfig routingConfig = tableConfig.getRoutingConfig();
+    return routingConfig != null && Boolean.valueOf(
+        routingConfig.getRoutingTableBuilderOptions().get(RoutingConfig.ENABLE_COLUMN_VALUE_PRUNING_KEY));
+  }
+
   /**
    * Attempt to send a message to refresh the new segment. We do not wait for any acknowledgements.
    * The message is sent as session-specific, so if a new zk session is created (e.g. server restarts)
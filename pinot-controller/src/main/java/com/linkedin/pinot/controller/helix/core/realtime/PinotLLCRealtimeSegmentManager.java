@@ -50,6 +50,7 @@ import com.linkedin.pinot.controller.helix.core.PinotTableIdealStateBuilder;
 import com.linkedin.pinot.controller.helix.core.realtime.segment.CommittingSegmentDescriptor;
 import com.linkedin.pinot.controller.helix.core.realtime.segment.FlushThresholdUpdateManager;
 import com.linkedin.pinot.controller.helix.core.realtime.segment.FlushThresholdUpdater;
+import com.linkedin.pinot.controller.helix.core.util.ZKMetadataUtils;
 import com.linkedin.pinot.controller.util.SegmentCompletionUtils;
 import com.linkedin.pinot.core.realtime.segment.ConsumingSegmentAssignmentStrategy;
 import com.linkedin.pinot.core.realtime.segment.RealtimeSegmentAssignmentStrategy;
@@ -547,6 +548,7 @@ public class PinotLLCRealtimeSegmentManager {
     committingSegmentMetadata.setIndexVersion(segmentMetadata.getVersion());
     committingSegmentMetadata.setTotalRawDocs(segmentMetadata.getTotalRawDocs());
     committingSegmentMetadata.setPartitionMetadata(getPartitionMetadataFromSegmentMetadata(segmentMetadata));
+    committingSegmentMetadata.setColumnMinMaxMetadata(ZKMetadataUtils.getColumnMinMaxMetadata(segmentMetadata));
 
     final ZNRecord oldZnRecord = committingSegmentMetadata.toZNRecord();
     final String oldZnodePath =
@@ -15,8 +15,11 @@
  */
 package com.linkedin.pinot.controller.helix.core.util;
 
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.metadata.segment.ColumnMinMaxMetadata;
 import com.linkedin.pinot.common.metadata.segment.ColumnPartitionMetadata;
 import com.linkedin.pinot.common.metadata.segment.OfflineSegmentZKMetadata;
+import com.linkedin.pinot.common.metadata.segment.SegmentColumnMinMaxMetadata;
 import com.linkedin.pinot.common.metadata.segment.SegmentPartitionMetadata;
 import com.linkedin.pinot.common.segment.SegmentMetadata;
 import com.linkedin.pinot.common.utils.CommonConstants.Segment.SegmentType;
@@ -25,9 +28,13 @@ import com.linkedin.pinot.core.segment.index.ColumnMetadata;
 import com.linkedin.pinot.core.segment.index.SegmentMetadataImpl;
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
 
 
 public class ZKMetadataUtils {
+  // Skip publishing min/max value for long strings to keep the segment ZK metadata small
+  private static final int MAX_MIN_MAX_VALUE_LENGTH = 128;
+
   private ZKMetadataUtils() {
   }
 
@@ -68,6 +75,49 @@ public class ZKMetadataUtils {
       offlineSegmentZKMetadata.setPartitionMetadata(new SegmentPartitionMetadata(columnPartitionMap));
     }
 
+    offlineSegmentZKMetadata.setColumnMinMaxMetadata(getColumnMinMaxMetadata(segmentMetadata));
+
     return offlineSegmentZKMetadata;
   }
+
+  /**
+   * Extracts the column min/max values from the segment metadata so that brokers can prune segments based on them.
+   * <p>Only columns with numeric or string data type and short enough min/max values are included. Returns null if no
+   * column min/max value is available.
+   */
+  @Nullable
+  public static SegmentColumnMinMaxMetadata getColumnMinMaxMetadata(SegmentMetadata segmentMetadata) {
+    if (!(segmentMetadata instanceof SegmentMetadataImpl)) {
+      return null;
+    }
+    Map<String, ColumnMinMaxMetadata> columnMinMaxMap = new HashMap<>();
+    for (Map.Entry<String, ColumnMetadata> entry : ((SegmentMetadataImpl) segmentMetadata).getColumnMetadataMap()
+        .entrySet()) {
+      ColumnMetadata columnMetadata = entry.getValue();
+      FieldSpec.DataType dataType = columnMetadata.getDataType();
+      Comparable minValue = columnMetadata.getMinValue();
+      Comparable maxValue = columnMetadata.getMaxValue();
+      if (minValue == null || maxValue == null) {
+        continue;
+      }
+      switch (dataType) {
+        case INT:
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+          break;
+        case STRING:
+          if (minValue.toString().length() > MAX_MIN_MAX_VALUE_LENGTH
+              || maxValue.toString().length() > MAX_MIN_MAX_VALUE_LENGTH) {
+            continue;
+          }
+          break;
+        default:
+          continue;
+      }
+      columnMinMaxMap.put(entry.getKey(),
+          new ColumnMinMaxMetadata(dataType, minValue.toString(), maxValue.toString()));
+    }
+    return columnMinMaxMap.isEmpty() ? null : new SegmentColumnMinMaxMetadata(columnMinMaxMap);
+  }
 }
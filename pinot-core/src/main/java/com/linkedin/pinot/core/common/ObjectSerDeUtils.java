@@ -16,6 +16,8 @@
 package com.linkedin.pinot.core.common;
 
 import com.clearspring.analytics.stream.cardinality.HyperLogLog;
+import com.clearspring.analytics.stream.cardinality.RegisterSet;
+import com.google.common.base.Preconditions;
 import com.google.common.primitives.Longs;
 import com.linkedin.pinot.common.utils.StringUtil;
 import com.linkedin.pinot.core.query.aggregation.function.customobject.AvgPair;
@@ -23,23 +25,75 @@ import com.linkedin.pinot.core.query.aggregation.function.customobject.MinMaxRan
 import com.linkedin.pinot.core.query.aggregation.function.customobject.QuantileDigest;
 import com.tdunning.math.stats.MergingDigest;
 import com.tdunning.math.stats.TDigest;
+import com.yahoo.memory.Memory;
+import com.yahoo.sketches.theta.Sketch;
+import com.yahoo.sketches.theta.Sketches;
 import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
  * The {@code ObjectSerDeUtils} class provides the utility methods to serialize/de-serialize objects.
+ * <p>Objects can be serialized either into a byte array, or directly into a {@link DataOutput} (e.g. the variable size
+ * data of the data table) without intermediate byte arrays. The latter uses compact formats for some types (varint
+ * coded sorted IntSet, sparse HyperLogLog), which are only used for transient data and can be de-serialized along with
+ * the byte array formats.
  */
 public class ObjectSerDeUtils {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ObjectSerDeUtils.class);
+
+  // Compact IntSet format marker and version
+  private static final int INT_SET_COMPACT_FORMAT_MARKER = Integer.MIN_VALUE;
+  private static final byte INT_SET_COMPACT_FORMAT_VERSION = 1;
+
+  // Scratch buffers for serializing directly into data output
+  private static final int DEFAULT_THREAD_LOCAL_BUFFER_SIZE = 1024;
+  private static final int MAX_THREAD_LOCAL_BUFFER_SIZE = 1024 * 1024;
+  private static final ThreadLocal<byte[]> THREAD_LOCAL_BYTES =
+      ThreadLocal.withInitial(() -> new byte[DEFAULT_THREAD_LOCAL_BUFFER_SIZE]);
+  private static final ThreadLocal<int[]> THREAD_LOCAL_INTS =
+      ThreadLocal.withInitial(() -> new int[DEFAULT_THREAD_LOCAL_BUFFER_SIZE / Integer.BYTES]);
+
+  // The register words of stream-lib HyperLogLog are not exposed, read them through reflection to serialize without
+  // copying. Fall back to HyperLogLog.getBytes() if the fields cannot be accessed.
+  private static final Field HLL_LOG2M_FIELD;
+  private static final Field HLL_REGISTER_SET_FIELD;
+  private static final Field REGISTER_SET_WORDS_FIELD;
+
+  static {
+    Field log2mField = null;
+    Field registerSetField = null;
+    Field wordsField = null;
+    try {
+      log2mField = HyperLogLog.class.getDeclaredField("log2m");
+      log2mField.setAccessible(true);
+      registerSetField = HyperLogLog.class.getDeclaredField("registerSet");
+      registerSetField.setAccessible(true);
+      wordsField = RegisterSet.class.getDeclaredField("M");
+      wordsField.setAccessible(true);
+    } catch (Exception e) {
+      LOGGER.warn("Failed to access HyperLogLog registers, serializing HyperLogLog with copy", e);
+      registerSetField = null;
+    }
+    HLL_LOG2M_FIELD = log2mField;
+    HLL_REGISTER_SET_FIELD = registerSetField;
+    REGISTER_SET_WORDS_FIELD = wordsField;
+  }
+
   private ObjectSerDeUtils() {
   }
 
@@ -55,7 +109,8 @@ public class ObjectSerDeUtils {
     QuantileDigest(7),
     Map(8),
     IntSet(9),
-    TDigest(10);
+    TDigest(10),
+    ThetaSketch(11);
 
     private int _value;
 
@@ -90,6 +145,8 @@ public class ObjectSerDeUtils {
         return ObjectType.IntSet;
       } else if (value instanceof TDigest) {
         return ObjectType.TDigest;
+      } else if (value instanceof Sketch) {
+        return ObjectType.ThetaSketch;
       } else {
         throw new IllegalArgumentException("Unsupported type of value: " + value.getClass().getSimpleName());
       }
@@ -108,6 +165,14 @@ public class ObjectSerDeUtils {
      */
     byte[] serialize(T value);
 
+    /**
+     * Serializes a value directly into a data output. The serialized value can be de-serialized by
+     * {@link #deserialize(ByteBuffer)}.
+     */
+    default void serialize(T value, DataOutput dataOutput) throws IOException {
+      dataOutput.write(serialize(value));
+    }
+
     /**
      * De-serializes a value from a byte array.
      */
@@ -146,6 +211,11 @@ public class ObjectSerDeUtils {
       return Longs.toByteArray(value);
     }
 
+    @Override
+    public void serialize(Long value, DataOutput dataOutput) throws IOException {
+      dataOutput.writeLong(value);
+    }
+
     @Override
     public Long deserialize(byte[] bytes) {
       return Longs.fromByteArray(bytes);
@@ -164,6 +234,11 @@ public class ObjectSerDeUtils {
       return Longs.toByteArray(Double.doubleToRawLongBits(value));
     }
 
+    @Override
+    public void serialize(Double value, DataOutput dataOutput) throws IOException {
+      dataOutput.writeDouble(value);
+    }
+
     @Override
     public Double deserialize(byte[] bytes) {
       return Double.longBitsToDouble(Longs.fromByteArray(bytes));
@@ -190,6 +265,16 @@ public class ObjectSerDeUtils {
       return bytes;
     }
 
+    @Override
+    public void serialize(DoubleArrayList doubleArrayList, DataOutput dataOutput) throws IOException {
+      int size = doubleArrayList.size();
+      dataOutput.writeInt(size);
+      double[] values = doubleArrayList.elements();
+      for (int i = 0; i < size; i++) {
+        dataOutput.writeDouble(values[i]);
+      }
+    }
+
     @Override
     public DoubleArrayList deserialize(byte[] bytes) {
       return deserialize(ByteBuffer.wrap(bytes));
@@ -242,6 +327,13 @@ public class ObjectSerDeUtils {
     }
   };
 
+  /**
+   * The byte array format is the stream-lib format: log2m, number of bytes of the register words, register words.
+   * <p>The sparse format only stores the non-zero register words: negative log2m, number of register words (varint),
+   * number of non-zero register words (varint), then for each non-zero register word the index delta from the previous
+   * non-zero register word (varint) and the register word. It is used when it is smaller than the stream-lib format,
+   * e.g. for HyperLogLogs with low cardinality.
+   */
   public static final ObjectSerDe<HyperLogLog> HYPER_LOG_LOG_SER_DE = new ObjectSerDe<HyperLogLog>() {
 
     @Override
@@ -254,18 +346,85 @@ public class ObjectSerDeUtils {
     }
 
     @Override
-    public HyperLogLog deserialize(byte[] bytes) {
+    public void serialize(HyperLogLog hyperLogLog, DataOutput dataOutput) throws IOException {
+      if (HLL_REGISTER_SET_FIELD == null) {
+        dataOutput.write(hyperLogLog.getBytes());
+        return;
+      }
+
+      // Read the register words in place instead of copying them through HyperLogLog.getBytes()
+      int log2m;
+      int[] words;
       try {
-        return HyperLogLog.Builder.build(bytes);
-      } catch (IOException e) {
-        throw new RuntimeException("Caught exception while de-serializing HyperLogLog", e);
+        log2m = HLL_LOG2M_FIELD.getInt(hyperLogLog);
+        words = (int[]) REGISTER_SET_WORDS_FIELD.get(HLL_REGISTER_SET_FIELD.get(hyperLogLog));
+      } catch (IllegalAccessException e) {
+        throw new RuntimeException("Caught exception while accessing HyperLogLog registers", e);
+      }
+      int numWords = words.length;
+      int numNonZeroWords = 0;
+      for (int word : words) {
+        if (word != 0) {
+          numNonZeroWords++;
+        }
+      }
+
+      // Each non-zero word takes at most 5 bytes for the index delta and 4 bytes for the word
+      int maxSparseSize = 3 * Integer.BYTES + numNonZeroWords * (5 + Integer.BYTES);
+      int denseSize = (2 + numWords) * Integer.BYTES;
+      if (maxSparseSize >= denseSize) {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(getThreadLocalBytes(denseSize));
+        byteBuffer.putInt(log2m);
+        byteBuffer.putInt(numWords * Integer.BYTES);
+        for (int word : words) {
+          byteBuffer.putInt(word);
+        }
+        dataOutput.write(byteBuffer.array(), 0, denseSize);
+      } else {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(getThreadLocalBytes(maxSparseSize));
+        byteBuffer.putInt(-log2m);
+        putVarInt(numWords, byteBuffer);
+        putVarInt(numNonZeroWords, byteBuffer);
+        int previousIndex = 0;
+        for (int i = 0; i < numWords; i++) {
+          int word = words[i];
+          if (word != 0) {
+            putVarInt(i - previousIndex, byteBuffer);
+            byteBuffer.putInt(word);
+            previousIndex = i;
+          }
+        }
+        dataOutput.write(byteBuffer.array(), 0, byteBuffer.position());
       }
     }
 
+    @Override
+    public HyperLogLog deserialize(byte[] bytes) {
+      return deserialize(ByteBuffer.wrap(bytes));
+    }
+
     @Override
     public HyperLogLog deserialize(ByteBuffer byteBuffer) {
-      byte[] bytes = new byte[byteBuffer.remaining()];
-      byteBuffer.get(bytes);
+      byte[] bytes;
+      int firstInt = byteBuffer.getInt(byteBuffer.position());
+      if (firstInt >= 0) {
+        bytes = new byte[byteBuffer.remaining()];
+        byteBuffer.get(bytes);
+      } else {
+        // Sparse format, convert it back to the stream-lib format
+        byteBuffer.getInt();
+        int numWords = readVarInt(byteBuffer);
+        int numNonZeroWords = readVarInt(byteBuffer);
+        bytes = new byte[2 * Integer.BYTES + numWords * Integer.BYTES];
+        ByteBuffer denseByteBuffer = ByteBuffer.wrap(bytes);
+        denseByteBuffer.putInt(-firstInt);
+        denseByteBuffer.putInt(numWords * Integer.BYTES);
+        int index = 0;
+        for (int i = 0; i < numNonZeroWords; i++) {
+          index += readVarInt(byteBuffer);
+          denseByteBuffer.putInt((2 + index) * Integer.BYTES, byteBuffer.getInt());
+        }
+      }
       try {
         return HyperLogLog.Builder.build(bytes);
       } catch (IOException e) {
@@ -370,6 +529,12 @@ public class ObjectSerDeUtils {
     }
   };
 
+  /**
+   * The byte array format stores the size followed by the values.
+   * <p>The compact format starts with {@link #INT_SET_COMPACT_FORMAT_MARKER} (never a valid size) and the format
+   * version byte, followed by the size (varint) and the values in sorted order, where the first value is zigzag varint
+   * coded and the following values are varint coded as the deltas from the previous value.
+   */
   public static final ObjectSerDe<IntSet> INT_SET_SER_DE = new ObjectSerDe<IntSet>() {
 
     @Override
@@ -385,6 +550,31 @@ public class ObjectSerDeUtils {
       return bytes;
     }
 
+    @Override
+    public void serialize(IntSet intSet, DataOutput dataOutput) throws IOException {
+      int size = intSet.size();
+      int[] values = intSet.toIntArray(getThreadLocalInts(size));
+      Arrays.sort(values, 0, size);
+
+      // Header takes 4 bytes for the marker, 1 byte for the version and at most 5 bytes for the size, and each value
+      // takes at most 5 bytes
+      ByteBuffer byteBuffer = ByteBuffer.wrap(getThreadLocalBytes(Integer.BYTES + 1 + 5 * (size + 1)));
+      byteBuffer.putInt(INT_SET_COMPACT_FORMAT_MARKER);
+      byteBuffer.put(INT_SET_COMPACT_FORMAT_VERSION);
+      putVarInt(size, byteBuffer);
+      if (size > 0) {
+        int previousValue = values[0];
+        putVarInt((previousValue << 1) ^ (previousValue >> 31), byteBuffer);
+        for (int i = 1; i < size; i++) {
+          int value = values[i];
+          // NOTE: delta is unsigned
+          putVarInt(value - previousValue, byteBuffer);
+          previousValue = value;
+        }
+      }
+      dataOutput.write(byteBuffer.array(), 0, byteBuffer.position());
+    }
+
     @Override
     public IntSet deserialize(byte[] bytes) {
       return deserialize(ByteBuffer.wrap(bytes));
@@ -393,9 +583,30 @@ public class ObjectSerDeUtils {
     @Override
     public IntSet deserialize(ByteBuffer byteBuffer) {
       int size = byteBuffer.getInt();
+      if (size >= 0) {
+        IntSet intSet = new IntOpenHashSet(size);
+        for (int i = 0; i < size; i++) {
+          intSet.add(byteBuffer.getInt());
+        }
+        return intSet;
+      }
+
+      // Compact format
+      Preconditions.checkState(size == INT_SET_COMPACT_FORMAT_MARKER, "Invalid IntSet size: %s", size);
+      byte version = byteBuffer.get();
+      Preconditions.checkState(version == INT_SET_COMPACT_FORMAT_VERSION, "Unsupported IntSet format version: %s",
+          version);
+      size = readVarInt(byteBuffer);
       IntSet intSet = new IntOpenHashSet(size);
-      for (int i = 0; i < size; i++) {
-        intSet.add(byteBuffer.getInt());
+      if (size == 0) {
+        return intSet;
+      }
+      int zigzagValue = readVarInt(byteBuffer);
+      int value = (zigzagValue >>> 1) ^ -(zigzagValue & 1);
+      intSet.add(value);
+      for (int i = 1; i < size; i++) {
+        value += readVarInt(byteBuffer);
+        intSet.add(value);
       }
       return intSet;
     }
@@ -421,10 +632,89 @@ public class ObjectSerDeUtils {
     }
   };
 
+  /**
+   * Theta sketches are always serialized in the compact form, which is immutable and can be wrapped without copying.
+   */
+  public static final ObjectSerDe<Sketch> THETA_SKETCH_SER_DE = new ObjectSerDe<Sketch>() {
+
+    @Override
+    public byte[] serialize(Sketch sketch) {
+      return sketch.compact().toByteArray();
+    }
+
+    @Override
+    public Sketch deserialize(byte[] bytes) {
+      return Sketches.wrapSketch(Memory.wrap(bytes));
+    }
+
+    @Override
+    public Sketch deserialize(ByteBuffer byteBuffer) {
+      byte[] bytes = new byte[byteBuffer.remaining()];
+      byteBuffer.get(bytes);
+      return deserialize(bytes);
+    }
+  };
+
   // NOTE: DO NOT change the order, it has to be the same order as the ObjectType
   private static final ObjectSerDe[] SER_DES =
       {STRING_SER_DE, LONG_SER_DE, DOUBLE_SER_DE, DOUBLE_ARRAY_LIST_SER_DE, AVG_PAIR_SER_DE, MIN_MAX_RANGE_PAIR_SER_DE,
-          HYPER_LOG_LOG_SER_DE, QUANTILE_DIGEST_SER_DE, MAP_SER_DE, INT_SET_SER_DE, TDIGEST_SER_DE};
+          HYPER_LOG_LOG_SER_DE, QUANTILE_DIGEST_SER_DE, MAP_SER_DE, INT_SET_SER_DE, TDIGEST_SER_DE,
+          THETA_SKETCH_SER_DE};
+
+  /**
+   * Writes an unsigned int in varint format (7 bits per byte, least significant group first).
+   */
+  private static void putVarInt(int value, ByteBuffer byteBuffer) {
+    while ((value & ~0x7F) != 0) {
+      byteBuffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    byteBuffer.put((byte) value);
+  }
+
+  /**
+   * Returns a thread-local byte array of at least the given size. Arrays larger than
+   * {@link #MAX_THREAD_LOCAL_BUFFER_SIZE} are not retained.
+   */
+  private static byte[] getThreadLocalBytes(int minSize) {
+    byte[] bytes = THREAD_LOCAL_BYTES.get();
+    if (bytes.length >= minSize) {
+      return bytes;
+    }
+    bytes = new byte[minSize];
+    if (minSize <= MAX_THREAD_LOCAL_BUFFER_SIZE) {
+      THREAD_LOCAL_BYTES.set(bytes);
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns a thread-local int array of at least the given size. Arrays larger than
+   * {@link #MAX_THREAD_LOCAL_BUFFER_SIZE} bytes are not retained.
+   */
+  private static int[] getThreadLocalInts(int minSize) {
+    int[] ints = THREAD_LOCAL_INTS.get();
+    if (ints.length >= minSize) {
+      return ints;
+    }
+    ints = new int[minSize];
+    if (minSize <= MAX_THREAD_LOCAL_BUFFER_SIZE / Integer.BYTES) {
+      THREAD_LOCAL_INTS.set(ints);
+    }
+    return ints;
+  }
+
+  private static int readVarInt(ByteBuffer byteBuffer) {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = byteBuffer.get();
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
 
   public static byte[] serialize(Object value) {
     return serialize(value, ObjectType.getObjectType(value)._value);
@@ -439,6 +729,11 @@ public class ObjectSerDeUtils {
     return SER_DES[objectTypeValue].serialize(value);
   }
 
+  @SuppressWarnings("unchecked")
+  public static void serialize(Object value, int objectTypeValue, DataOutput dataOutput) throws IOException {
+    SER_DES[objectTypeValue].serialize(value, dataOutput);
+  }
+
   public static <T> T deserialize(byte[] bytes, ObjectType objectType) {
     return deserialize(bytes, objectType._value);
   }
@@ -172,10 +172,11 @@ public class DataTableBuilder {
     _currentRowDataByteBuffer.position(_columnOffsets[colId]);
     _currentRowDataByteBuffer.putInt(_variableSizeDataByteArrayOutputStream.size());
     int objectTypeValue = ObjectSerDeUtils.ObjectType.getObjectType(value).getValue();
-    byte[] bytes = ObjectSerDeUtils.serialize(value, objectTypeValue);
-    _currentRowDataByteBuffer.putInt(bytes.length);
     _variableSizeDataOutputStream.writeInt(objectTypeValue);
-    _variableSizeDataByteArrayOutputStream.write(bytes);
+    // Serialize the object directly into the variable size data, then put the size of the serialized object
+    int startSize = _variableSizeDataByteArrayOutputStream.size();
+    ObjectSerDeUtils.serialize(value, objectTypeValue, _variableSizeDataOutputStream);
+    _currentRowDataByteBuffer.putInt(_variableSizeDataByteArrayOutputStream.size() - startSize);
   }
 
   public void setColumn(int colId, @Nonnull byte[] values) {
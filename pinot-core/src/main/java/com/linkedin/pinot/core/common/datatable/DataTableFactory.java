@@ -18,6 +18,7 @@ package com.linkedin.pinot.core.common.datatable;
 import com.linkedin.pinot.common.utils.DataTable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Map;
 
 
 public class DataTableFactory {
@@ -37,4 +38,18 @@ public class DataTableFactory {
   public static DataTable getDataTable(byte[] bytes) throws IOException {
     return getDataTable(ByteBuffer.wrap(bytes));
   }
+
+  /**
+   * Returns the metadata of the serialized data table without de-serializing the data, e.g. to read the request id.
+   */
+  public static Map<String, String> getMetadata(byte[] bytes) throws IOException {
+    ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+    int version = byteBuffer.getInt();
+    switch (version) {
+      case 2:
+        return DataTableImplV2.getMetadata(byteBuffer);
+      default:
+        throw new UnsupportedOperationException("Unsupported data table version: " + version);
+    }
+  }
 }
@@ -188,7 +188,21 @@ public class DataTableImplV2 implements DataTable {
     }
   }
 
-  private Map<String, String> deserializeMetadata(byte[] bytes) throws IOException {
+  /**
+   * Reads only the metadata from the serialized data table (after the version), without de-serializing the data.
+   */
+  static Map<String, String> getMetadata(@Nonnull ByteBuffer byteBuffer) throws IOException {
+    // Skip number of rows, number of columns and dictionary map start/length in the header
+    int headerStart = byteBuffer.position();
+    int metadataStart = byteBuffer.getInt(headerStart + 4 * Integer.BYTES);
+    int metadataLength = byteBuffer.getInt(headerStart + 5 * Integer.BYTES);
+    byte[] metadataBytes = new byte[metadataLength];
+    byteBuffer.position(metadataStart);
+    byteBuffer.get(metadataBytes);
+    return deserializeMetadata(metadataBytes);
+  }
+
+  private static Map<String, String> deserializeMetadata(byte[] bytes) throws IOException {
     try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(bytes);
         DataInputStream dataInputStream = new DataInputStream(byteArrayInputStream)) {
       int numEntries = dataInputStream.readInt();
@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.data.aggregator;
+
+import com.linkedin.pinot.common.data.FieldSpec.DataType;
+import com.linkedin.pinot.core.common.ObjectSerDeUtils;
+import com.linkedin.pinot.core.query.aggregation.function.AggregationFunctionType;
+import com.linkedin.pinot.core.query.aggregation.function.DistinctCountThetaSketchAggregationFunction;
+import com.yahoo.sketches.theta.SetOperation;
+import com.yahoo.sketches.theta.Sketch;
+import com.yahoo.sketches.theta.Union;
+
+
+/**
+ * Aggregates values into an updatable Theta sketch {@link Union}, which is merged in place and only compacted when
+ * serialized.
+ */
+public class DistinctCountThetaSketchValueAggregator implements ValueAggregator<Object, Union> {
+  public static final DataType AGGREGATED_VALUE_TYPE = DataType.BYTES;
+
+  // Upper bound of the number of entries of any aggregated value, used to bound the serialized size without compacting
+  // the sketches. The result of a union never retains more than the nominal entries.
+  private int _maxNumEntries;
+
+  @Override
+  public AggregationFunctionType getAggregationType() {
+    return AggregationFunctionType.DISTINCTCOUNTTHETASKETCH;
+  }
+
+  @Override
+  public DataType getAggregatedValueType() {
+    return AGGREGATED_VALUE_TYPE;
+  }
+
+  @Override
+  public Union getInitialAggregatedValue(Object rawValue) {
+    return applyRawValue(createUnion(), rawValue);
+  }
+
+  @Override
+  public Union applyRawValue(Union value, Object rawValue) {
+    if (rawValue instanceof byte[]) {
+      Sketch sketch = ObjectSerDeUtils.THETA_SKETCH_SER_DE.deserialize((byte[]) rawValue);
+      value.update(sketch);
+      addNumEntries(sketch.getRetainedEntries());
+    } else {
+      update(value, rawValue);
+      addNumEntries(1);
+    }
+    return value;
+  }
+
+  @Override
+  public Union applyAggregatedValue(Union value, Union aggregatedValue) {
+    // Entries of the aggregated value are already counted
+    value.update(aggregatedValue.getResult());
+    return value;
+  }
+
+  @Override
+  public Union cloneAggregatedValue(Union value) {
+    Union clone = createUnion();
+    clone.update(value.getResult());
+    return clone;
+  }
+
+  @Override
+  public int getMaxAggregatedValueByteSize() {
+    return Sketch.getMaxCompactSketchBytes(_maxNumEntries);
+  }
+
+  @Override
+  public byte[] serializeAggregatedValue(Union value) {
+    return ObjectSerDeUtils.THETA_SKETCH_SER_DE.serialize(value.getResult());
+  }
+
+  @Override
+  public Union deserializeAggregatedValue(byte[] bytes) {
+    Sketch sketch = ObjectSerDeUtils.THETA_SKETCH_SER_DE.deserialize(bytes);
+    addNumEntries(sketch.getRetainedEntries());
+    Union union = createUnion();
+    union.update(sketch);
+    return union;
+  }
+
+  private void addNumEntries(int numEntries) {
+    _maxNumEntries = (int) Math.min((long) _maxNumEntries + numEntries,
+        DistinctCountThetaSketchAggregationFunction.DEFAULT_NOMINAL_ENTRIES);
+  }
+
+  private static Union createUnion() {
+    return SetOperation.builder()
+        .setNominalEntries(DistinctCountThetaSketchAggregationFunction.DEFAULT_NOMINAL_ENTRIES)
+        .buildUnion();
+  }
+
+  /**
+   * Updates the sketch with a raw value, hashing the value the same way as the aggregation function.
+   */
+  private static void update(Union union, Object rawValue) {
+    if (rawValue instanceof Integer || rawValue instanceof Long) {
+      union.update(((Number) rawValue).longValue());
+    } else if (rawValue instanceof Float || rawValue instanceof Double) {
+      union.update(((Number) rawValue).doubleValue());
+    } else {
+      union.update(rawValue.toString());
+    }
+  }
+}
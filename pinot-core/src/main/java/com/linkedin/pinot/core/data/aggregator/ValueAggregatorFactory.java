@@ -48,6 +48,8 @@ public class ValueAggregatorFactory {
         return new MinMaxRangeValueAggregator();
       case DISTINCTCOUNTHLL:
         return new DistinctCountHLLValueAggregator();
+      case DISTINCTCOUNTTHETASKETCH:
+        return new DistinctCountThetaSketchValueAggregator();
       case PERCENTILEEST:
         return new PercentileEstValueAggregator();
       case PERCENTILETDIGEST:
@@ -79,6 +81,8 @@ public class ValueAggregatorFactory {
         return MinMaxRangeValueAggregator.AGGREGATED_VALUE_TYPE;
       case DISTINCTCOUNTHLL:
         return DistinctCountHLLValueAggregator.AGGREGATED_VALUE_TYPE;
+      case DISTINCTCOUNTTHETASKETCH:
+        return DistinctCountThetaSketchValueAggregator.AGGREGATED_VALUE_TYPE;
       case PERCENTILEEST:
         return PercentileEstValueAggregator.AGGREGATED_VALUE_TYPE;
       case PERCENTILETDIGEST:
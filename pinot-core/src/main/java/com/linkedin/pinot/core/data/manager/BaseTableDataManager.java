@@ -17,6 +17,7 @@ package com.linkedin.pinot.core.data.manager;
 
 import com.google.common.base.Preconditions;
 import com.linkedin.pinot.common.config.TableConfig;
+import com.linkedin.pinot.common.data.Schema;
 import com.linkedin.pinot.common.metrics.ServerGauge;
 import com.linkedin.pinot.common.metrics.ServerMeter;
 import com.linkedin.pinot.common.metrics.ServerMetrics;
@@ -28,7 +29,9 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.helix.ZNRecord;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
@@ -41,6 +44,8 @@ public abstract class BaseTableDataManager implements TableDataManager {
   private static final Logger LOGGER = LoggerFactory.getLogger(BaseTableDataManager.class);
 
   protected final ConcurrentHashMap<String, SegmentDataManager> _segmentDataManagerMap = new ConcurrentHashMap<>();
+  protected final SegmentLoadThrottler _segmentLoadThrottler;
+  private final AtomicInteger _numSegmentsLoading = new AtomicInteger();
 
   protected TableDataManagerConfig _tableDataManagerConfig;
   protected String _instanceId;
@@ -51,6 +56,10 @@ public abstract class BaseTableDataManager implements TableDataManager {
   protected File _indexDir;
   protected Logger _logger;
 
+  protected BaseTableDataManager(@Nonnull SegmentLoadThrottler segmentLoadThrottler) {
+    _segmentLoadThrottler = segmentLoadThrottler;
+  }
+
   @Override
   public void init(@Nonnull TableDataManagerConfig tableDataManagerConfig, @Nonnull String instanceId,
       @Nonnull ZkHelixPropertyStore<ZNRecord> propertyStore, @Nonnull ServerMetrics serverMetrics) {
@@ -127,6 +136,27 @@ public abstract class BaseTableDataManager implements TableDataManager {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Loads an immutable segment from the given index directory through the server-wide {@link SegmentLoadThrottler},
+   * and tracks the loading progress of the table.
+   */
+  protected ImmutableSegment loadImmutableSegment(@Nonnull File indexDir,
+      @Nonnull IndexLoadingConfig indexLoadingConfig, @Nullable Schema schema) throws Exception {
+    String segmentName = indexDir.getName();
+    long startTimeMs = System.currentTimeMillis();
+    _numSegmentsLoading.getAndIncrement();
+    _serverMetrics.addValueToTableGauge(_tableNameWithType, ServerGauge.SEGMENTS_IN_LOADING, 1L);
+    try {
+      ImmutableSegment immutableSegment = _segmentLoadThrottler.load(indexDir, indexLoadingConfig, schema);
+      _logger.info("Loaded segment: {} of table: {} in {}ms, {} other segments of the table are being loaded",
+          segmentName, _tableNameWithType, System.currentTimeMillis() - startTimeMs, _numSegmentsLoading.get() - 1);
+      return immutableSegment;
+    } finally {
+      _numSegmentsLoading.getAndDecrement();
+      _serverMetrics.addValueToTableGauge(_tableNameWithType, ServerGauge.SEGMENTS_IN_LOADING, -1L);
+    }
+  }
+
   @Override
   public void addSegment(@Nonnull String segmentName, @Nonnull TableConfig tableConfig,
       @Nonnull IndexLoadingConfig indexLoadingConfig) throws Exception {
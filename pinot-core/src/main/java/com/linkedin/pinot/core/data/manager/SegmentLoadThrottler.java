@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.data.manager;
+
+import com.linkedin.pinot.common.data.Schema;
+import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegment;
+import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import com.linkedin.pinot.core.segment.index.loader.IndexLoadingConfig;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>SegmentLoadThrottler</code> class bounds the number of immutable segments loaded (including segment
+ * conversion and pre-processing) in parallel on each disk of the instance.
+ * <p>Segments can be loaded from many state transition threads at the same time, e.g. when a server with a large
+ * number of segments restarts. Without a bound, loading segments in parallel on the same disk causes random I/Os that
+ * slow down all the loads.
+ */
+@ThreadSafe
+public class SegmentLoadThrottler {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SegmentLoadThrottler.class);
+  private static final String UNKNOWN_DISK = "unknown";
+
+  private final int _maxParallelLoadsPerDisk;
+  private final ConcurrentHashMap<String, Semaphore> _diskSemaphoreMap = new ConcurrentHashMap<>();
+
+  /**
+   * @param maxParallelLoadsPerDisk Maximum number of segments loaded in parallel on each disk, non-positive value
+   *                                means unlimited
+   */
+  public SegmentLoadThrottler(int maxParallelLoadsPerDisk) {
+    _maxParallelLoadsPerDisk = maxParallelLoadsPerDisk;
+  }
+
+  /**
+   * Loads the segment from the given index directory, waiting for a permit of the disk hosting the index directory if
+   * the maximum number of parallel loads on that disk is reached.
+   */
+  public ImmutableSegment load(@Nonnull File indexDir, @Nonnull IndexLoadingConfig indexLoadingConfig,
+      @Nullable Schema schema) throws Exception {
+    if (_maxParallelLoadsPerDisk <= 0) {
+      return ImmutableSegmentLoader.load(indexDir, indexLoadingConfig, schema);
+    }
+    Semaphore semaphore =
+        _diskSemaphoreMap.computeIfAbsent(getDisk(indexDir), k -> new Semaphore(_maxParallelLoadsPerDisk, true));
+    semaphore.acquire();
+    try {
+      return ImmutableSegmentLoader.load(indexDir, indexLoadingConfig, schema);
+    } finally {
+      semaphore.release();
+    }
+  }
+
+  /**
+   * Returns the name of the file store (disk) hosting the given index directory.
+   */
+  private static String getDisk(File indexDir) {
+    try {
+      return Files.getFileStore(indexDir.toPath()).name();
+    } catch (IOException e) {
+      LOGGER.warn("Failed to get the file store for index directory: {}", indexDir, e);
+      return UNKNOWN_DISK;
+    }
+  }
+}
@@ -47,4 +47,6 @@ public interface InstanceDataManagerConfig {
   boolean isDirectRealtimeOffheapAllocation();
 
   int getMaxParallelSegmentBuilds();
+
+  int getMaxParallelSegmentLoadsPerDisk();
 }
@@ -18,7 +18,7 @@ package com.linkedin.pinot.core.data.manager.offline;
 import com.linkedin.pinot.common.data.Schema;
 import com.linkedin.pinot.common.metadata.ZKMetadataProvider;
 import com.linkedin.pinot.core.data.manager.BaseTableDataManager;
-import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import com.linkedin.pinot.core.data.manager.SegmentLoadThrottler;
 import com.linkedin.pinot.core.segment.index.loader.IndexLoadingConfig;
 import java.io.File;
 import javax.annotation.Nonnull;
@@ -31,6 +31,10 @@ import javax.annotation.concurrent.ThreadSafe;
 @ThreadSafe
 public class OfflineTableDataManager extends BaseTableDataManager {
 
+  public OfflineTableDataManager(@Nonnull SegmentLoadThrottler segmentLoadThrottler) {
+    super(segmentLoadThrottler);
+  }
+
   @Override
   protected void doInit() {
   }
@@ -46,6 +50,6 @@ public class OfflineTableDataManager extends BaseTableDataManager {
   @Override
   public void addSegment(@Nonnull File indexDir, @Nonnull IndexLoadingConfig indexLoadingConfig) throws Exception {
     Schema schema = ZKMetadataProvider.getTableSchema(_propertyStore, _tableNameWithType);
-    addSegment(ImmutableSegmentLoader.load(indexDir, indexLoadingConfig, schema));
+    addSegment(loadImmutableSegment(indexDir, indexLoadingConfig, schema));
   }
 }
@@ -17,6 +17,7 @@ package com.linkedin.pinot.core.data.manager.offline;
 
 import com.linkedin.pinot.common.metrics.ServerMetrics;
 import com.linkedin.pinot.common.utils.CommonConstants;
+import com.linkedin.pinot.core.data.manager.SegmentLoadThrottler;
 import com.linkedin.pinot.core.data.manager.TableDataManager;
 import com.linkedin.pinot.core.data.manager.config.InstanceDataManagerConfig;
 import com.linkedin.pinot.core.data.manager.config.TableDataManagerConfig;
@@ -32,6 +33,7 @@ import org.apache.helix.store.zk.ZkHelixPropertyStore;
  */
 public class TableDataManagerProvider {
   private static Semaphore _segmentBuildSemaphore;
+  private static SegmentLoadThrottler _segmentLoadThrottler = new SegmentLoadThrottler(0);
 
   private TableDataManagerProvider() {
   }
@@ -41,6 +43,7 @@ public class TableDataManagerProvider {
     if (maxParallelBuilds > 0) {
       _segmentBuildSemaphore = new Semaphore(maxParallelBuilds, true);
     }
+    _segmentLoadThrottler = new SegmentLoadThrottler(instanceDataManagerConfig.getMaxParallelSegmentLoadsPerDisk());
   }
 
   public static TableDataManager getTableDataManager(@Nonnull TableDataManagerConfig tableDataManagerConfig,
@@ -49,10 +52,10 @@ public class TableDataManagerProvider {
     TableDataManager tableDataManager;
     switch (CommonConstants.Helix.TableType.valueOf(tableDataManagerConfig.getTableDataManagerType())) {
       case OFFLINE:
-        tableDataManager = new OfflineTableDataManager();
+        tableDataManager = new OfflineTableDataManager(_segmentLoadThrottler);
         break;
       case REALTIME:
-        tableDataManager = new RealtimeTableDataManager(_segmentBuildSemaphore);
+        tableDataManager = new RealtimeTableDataManager(_segmentBuildSemaphore, _segmentLoadThrottler);
         break;
       default:
         throw new IllegalStateException();
@@ -105,6 +105,10 @@ public class SegmentGeneratorConfig {
   private String _simpleDateFormat = null;
   // Use on-heap or off-heap memory to generate index (currently only affect inverted index and star-tree v2)
   private boolean _onHeap = false;
+  // Number of threads used to create the column indexes in parallel, 1 means indexes are created in the caller thread
+  private int _numIndexCreationThreads = 1;
+  // Read the input only once by spooling the rows while collecting stats (not applicable to star-tree)
+  private boolean _singlePassCreation = false;
 
   public SegmentGeneratorConfig() {
   }
@@ -151,6 +155,8 @@ public class SegmentGeneratorConfig {
     _timeColumnType = config._timeColumnType;
     _simpleDateFormat = config._simpleDateFormat;
     _onHeap = config._onHeap;
+    _numIndexCreationThreads = config._numIndexCreationThreads;
+    _singlePassCreation = config._singlePassCreation;
   }
 
   /**
@@ -561,6 +567,22 @@ public class SegmentGeneratorConfig {
     _onHeap = onHeap;
   }
 
+  public int getNumIndexCreationThreads() {
+    return _numIndexCreationThreads;
+  }
+
+  public void setNumIndexCreationThreads(int numIndexCreationThreads) {
+    _numIndexCreationThreads = numIndexCreationThreads;
+  }
+
+  public boolean isSinglePassCreation() {
+    return _singlePassCreation;
+  }
+
+  public void setSinglePassCreation(boolean singlePassCreation) {
+    _singlePassCreation = singlePassCreation;
+  }
+
   public Map<String, ChunkCompressorFactory.CompressionType> getRawIndexCompressionType() {
     return _rawIndexCompressionType;
   }
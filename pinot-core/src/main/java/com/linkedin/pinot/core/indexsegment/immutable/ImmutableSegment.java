@@ -20,6 +20,8 @@ import com.linkedin.pinot.core.io.reader.DataFileReader;
 import com.linkedin.pinot.core.segment.index.readers.Dictionary;
 import com.linkedin.pinot.core.segment.index.readers.ImmutableDictionaryReader;
 import com.linkedin.pinot.core.segment.index.readers.InvertedIndexReader;
+import java.util.List;
+import java.util.function.LongPredicate;
 
 
 public interface ImmutableSegment extends IndexSegment {
@@ -54,4 +56,16 @@ public interface ImmutableSegment extends IndexSegment {
    * @return Size of the segment in bytes
    */
   long getSegmentSizeBytes();
+
+  /**
+   * Prefetches the indexes of the given columns into memory so that the first queries on the segment do not suffer
+   * from page faults. Columns are prefetched in the given order, and for each column the dictionary, inverted index
+   * and forward index are prefetched in this order.
+   *
+   * @param columns Columns to prefetch, in order of priority
+   * @param budget Called with the size in bytes of each index before prefetching it, the index is skipped if it
+   *               returns false
+   * @return Number of bytes prefetched for this segment
+   */
+  long prefetch(List<String> columns, LongPredicate budget);
 }
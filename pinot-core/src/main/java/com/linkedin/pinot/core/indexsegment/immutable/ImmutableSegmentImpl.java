@@ -19,11 +19,14 @@ import com.linkedin.pinot.common.data.FieldSpec;
 import com.linkedin.pinot.core.data.GenericRow;
 import com.linkedin.pinot.core.indexsegment.IndexSegmentUtils;
 import com.linkedin.pinot.core.io.reader.DataFileReader;
+import com.linkedin.pinot.core.operator.filter.FilterBitmapCache;
 import com.linkedin.pinot.core.segment.index.SegmentMetadataImpl;
 import com.linkedin.pinot.core.segment.index.column.ColumnIndexContainer;
 import com.linkedin.pinot.core.segment.index.data.source.ColumnDataSource;
 import com.linkedin.pinot.core.segment.index.readers.Dictionary;
 import com.linkedin.pinot.core.segment.index.readers.InvertedIndexReader;
+import com.linkedin.pinot.core.segment.memory.PinotDataBuffer;
+import com.linkedin.pinot.core.segment.store.ColumnIndexType;
 import com.linkedin.pinot.core.segment.store.SegmentDirectory;
 import com.linkedin.pinot.core.startree.v2.StarTreeV2;
 import com.linkedin.pinot.core.startree.v2.store.StarTreeIndexContainer;
@@ -32,6 +35,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.LongPredicate;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +43,8 @@ import org.slf4j.LoggerFactory;
 
 public class ImmutableSegmentImpl implements ImmutableSegment {
   private static final Logger LOGGER = LoggerFactory.getLogger(ImmutableSegmentImpl.class);
+  private static final ColumnIndexType[] PREFETCH_INDEX_TYPES =
+      {ColumnIndexType.DICTIONARY, ColumnIndexType.INVERTED_INDEX, ColumnIndexType.FORWARD_INDEX};
 
   private final SegmentDirectory _segmentDirectory;
   private final SegmentMetadataImpl _segmentMetadata;
@@ -74,6 +80,39 @@ public class ImmutableSegmentImpl implements ImmutableSegment {
     return _segmentDirectory.getDiskSizeBytes();
   }
 
+  @Override
+  public long prefetch(List<String> columns, LongPredicate budget) {
+    Set<String> physicalColumns = getPhysicalColumnNames();
+    long numBytesPrefetched = 0L;
+    try (SegmentDirectory.Reader reader = _segmentDirectory.createReader()) {
+      if (reader == null) {
+        LOGGER.warn("Failed to create reader to prefetch segment: {}", getSegmentName());
+        return 0L;
+      }
+      for (String column : columns) {
+        if (!physicalColumns.contains(column)) {
+          continue;
+        }
+        for (ColumnIndexType indexType : PREFETCH_INDEX_TYPES) {
+          if (!reader.hasIndexFor(column, indexType)) {
+            continue;
+          }
+          PinotDataBuffer buffer = reader.getIndexFor(column, indexType);
+          long bufferSize = buffer.size();
+          if (!budget.test(bufferSize)) {
+            continue;
+          }
+          buffer.prefetch();
+          numBytesPrefetched += bufferSize;
+        }
+      }
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while prefetching segment: {}, continuing with {} bytes prefetched",
+          getSegmentName(), numBytesPrefetched, e);
+    }
+    return numBytesPrefetched;
+  }
+
   @Override
   public String getSegmentName() {
     return _segmentMetadata.getName();
@@ -110,6 +149,10 @@ public class ImmutableSegmentImpl implements ImmutableSegment {
   @Override
   public void destroy() {
     LOGGER.info("Trying to destroy segment : {}", this.getSegmentName());
+    FilterBitmapCache filterBitmapCache = FilterBitmapCache.getInstance();
+    if (filterBitmapCache != null) {
+      filterBitmapCache.invalidate(this);
+    }
     for (String column : _indexContainerMap.keySet()) {
       ColumnIndexContainer columnIndexContainer = _indexContainerMap.get(column);
 
@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.io.compression;
+
+import com.google.common.base.Preconditions;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Utility methods for the numeric chunk encodings (frame-of-reference and delta), which bit-pack the INT/LONG values
+ * of a chunk as offsets from a reference value.
+ * <p>Values are packed into little-endian ordered bits of 64-bit words, so a value might span over 2 words.
+ */
+class BitPackingUtils {
+  private BitPackingUtils() {
+  }
+
+  static void checkValueSize(int valueSizeInBytes) {
+    Preconditions.checkArgument(valueSizeInBytes == Integer.BYTES || valueSizeInBytes == Long.BYTES,
+        "Numeric encodings only support INT/LONG values, got value size: %s", valueSizeInBytes);
+  }
+
+  /**
+   * Reads all the remaining INT/LONG values from the input buffer.
+   */
+  static long[] readValues(ByteBuffer in, int valueSizeInBytes) {
+    int numValues = in.remaining() / valueSizeInBytes;
+    long[] values = new long[numValues];
+    if (valueSizeInBytes == Integer.BYTES) {
+      for (int i = 0; i < numValues; i++) {
+        values[i] = in.getInt();
+      }
+    } else {
+      for (int i = 0; i < numValues; i++) {
+        values[i] = in.getLong();
+      }
+    }
+    return values;
+  }
+
+  static void writeValue(ByteBuffer out, long value, int valueSizeInBytes) {
+    if (valueSizeInBytes == Integer.BYTES) {
+      out.putInt((int) value);
+    } else {
+      out.putLong(value);
+    }
+  }
+
+  /**
+   * Returns the number of bits required to store the given range, where range is treated as an unsigned value.
+   */
+  static int getNumBits(long range) {
+    return Long.SIZE - Long.numberOfLeadingZeros(range);
+  }
+
+  /**
+   * Packs the offsets of the values (starting from the given index) from the reference value into the output buffer.
+   */
+  static void pack(long[] values, int startIndex, long reference, int numBits, ByteBuffer out) {
+    if (numBits == 0) {
+      return;
+    }
+    long word = 0;
+    int numBitsInWord = 0;
+    for (int i = startIndex; i < values.length; i++) {
+      long offset = values[i] - reference;
+      word |= offset << numBitsInWord;
+      numBitsInWord += numBits;
+      if (numBitsInWord >= Long.SIZE) {
+        out.putLong(word);
+        numBitsInWord -= Long.SIZE;
+        // Carry over the bits that do not fit into the current word
+        word = numBitsInWord > 0 ? offset >>> (numBits - numBitsInWord) : 0;
+      }
+    }
+    if (numBitsInWord > 0) {
+      out.putLong(word);
+    }
+  }
+
+  /**
+   * Returns the packed offset at the given index from the packed words starting at the given position.
+   */
+  static long unpack(ByteBuffer in, int position, int index, int numBits) {
+    if (numBits == 0) {
+      return 0;
+    }
+    long bitIndex = (long) index * numBits;
+    int wordPosition = position + (int) (bitIndex >>> 6) * Long.BYTES;
+    int bitOffset = (int) (bitIndex & 63);
+    long value = in.getLong(wordPosition) >>> bitOffset;
+    if (bitOffset + numBits > Long.SIZE) {
+      value |= in.getLong(wordPosition + Long.BYTES) << (Long.SIZE - bitOffset);
+    }
+    return numBits == Long.SIZE ? value : value & ((1L << numBits) - 1);
+  }
+}
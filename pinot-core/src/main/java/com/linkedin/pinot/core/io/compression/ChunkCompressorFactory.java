@@ -27,7 +27,12 @@ public class ChunkCompressorFactory {
 
   public enum CompressionType {
     PASS_THROUGH(0),
-    SNAPPY(1);
+    SNAPPY(1),
+    LZ4(2),
+    ZSTD(3),
+    // Numeric encodings, only applicable to INT/LONG values
+    FRAME_OF_REFERENCE(4),
+    DELTA(5);
 
     private final int _value;
 
@@ -55,11 +60,41 @@ public class ChunkCompressorFactory {
       case SNAPPY:
         return new SnappyCompressor();
 
+      case LZ4:
+        return new LZ4Compressor();
+
+      case ZSTD:
+        return new ZstandardCompressor();
+
+      case FRAME_OF_REFERENCE:
+      case DELTA:
+        throw new IllegalArgumentException("Value size is required for compressor " + compressionType);
+
       default:
         throw new IllegalArgumentException("Illegal compressor name " + compressionType);
     }
   }
 
+  /**
+   * Returns the chunk compressor for the specified name and size of the values to be compressed.
+   *
+   * @param compressionType Type of compressor.
+   * @param valueSizeInBytes Size of the values (in bytes), only used by the numeric encodings.
+   * @return Compressor for the specified type.
+   */
+  public static ChunkCompressor getCompressor(CompressionType compressionType, int valueSizeInBytes) {
+    switch (compressionType) {
+      case FRAME_OF_REFERENCE:
+        return new FrameOfReferenceCompressor(valueSizeInBytes);
+
+      case DELTA:
+        return new DeltaCompressor(valueSizeInBytes);
+
+      default:
+        return getCompressor(compressionType);
+    }
+  }
+
   /**
    * Returns the chunk decompressor for the specified name.
    *
@@ -74,8 +109,45 @@ public class ChunkCompressorFactory {
       case SNAPPY:
         return new SnappyDecompressor();
 
+      case LZ4:
+        return new LZ4Decompressor();
+
+      case ZSTD:
+        return new ZstandardDecompressor();
+
+      case FRAME_OF_REFERENCE:
+      case DELTA:
+        throw new IllegalArgumentException("Value size is required for decompressor " + compressionType);
+
       default:
         throw new IllegalArgumentException("Illegal compressor name " + compressionType);
     }
   }
+
+  /**
+   * Returns the chunk decompressor for the specified name and size of the values to be decompressed.
+   *
+   * @param compressionType Type of compression
+   * @param valueSizeInBytes Size of the values (in bytes), only used by the numeric encodings.
+   * @return decompressor for the specified name
+   */
+  public static ChunkDecompressor getDecompressor(CompressionType compressionType, int valueSizeInBytes) {
+    switch (compressionType) {
+      case FRAME_OF_REFERENCE:
+        return new FrameOfReferenceDecompressor(valueSizeInBytes);
+
+      case DELTA:
+        return new DeltaDecompressor(valueSizeInBytes);
+
+      default:
+        return getDecompressor(compressionType);
+    }
+  }
+
+  /**
+   * Returns whether the specified compression type is a numeric encoding, which only applies to INT/LONG values.
+   */
+  public static boolean isNumericEncoding(CompressionType compressionType) {
+    return compressionType == CompressionType.FRAME_OF_REFERENCE || compressionType == CompressionType.DELTA;
+  }
 }
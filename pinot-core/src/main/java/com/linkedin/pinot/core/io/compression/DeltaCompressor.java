@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.io.compression;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Implementation of {@link ChunkCompressor} for INT/LONG values using delta encoding: the first value of the chunk is
+ * stored as is, then the deltas between consecutive values are bit-packed with frame-of-reference encoding. Suitable
+ * for sorted or mostly increasing columns such as time columns.
+ * <p>Chunk layout: first value (long), minimum delta (long), number of values (int), number of bits per delta (byte),
+ * packed deltas.
+ */
+public class DeltaCompressor implements ChunkCompressor {
+  private final int _valueSizeInBytes;
+
+  public DeltaCompressor(int valueSizeInBytes) {
+    BitPackingUtils.checkValueSize(valueSizeInBytes);
+    _valueSizeInBytes = valueSizeInBytes;
+  }
+
+  @Override
+  public int compress(ByteBuffer inUncompressed, ByteBuffer outCompressed) {
+    long[] values = BitPackingUtils.readValues(inUncompressed, _valueSizeInBytes);
+    int numValues = values.length;
+    long firstValue = numValues > 0 ? values[0] : 0;
+
+    // Compute the deltas in place from the end, the first value is kept as the base
+    long minDelta = Long.MAX_VALUE;
+    long maxDelta = Long.MIN_VALUE;
+    for (int i = numValues - 1; i > 0; i--) {
+      long delta = values[i] - values[i - 1];
+      values[i] = delta;
+      minDelta = Math.min(minDelta, delta);
+      maxDelta = Math.max(maxDelta, delta);
+    }
+    if (numValues < 2) {
+      minDelta = 0;
+      maxDelta = 0;
+    }
+    int numBits = BitPackingUtils.getNumBits(maxDelta - minDelta);
+
+    outCompressed.putLong(firstValue);
+    outCompressed.putLong(minDelta);
+    outCompressed.putInt(numValues);
+    outCompressed.put((byte) numBits);
+    BitPackingUtils.pack(values, 1, minDelta, numBits, outCompressed);
+
+    // Make the output ByteBuffer ready for read.
+    outCompressed.flip();
+    return outCompressed.limit();
+  }
+}
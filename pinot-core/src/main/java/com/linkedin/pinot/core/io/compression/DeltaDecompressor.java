@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.io.compression;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Implementation of {@link ChunkDecompressor} for chunks encoded by {@link DeltaCompressor}.
+ */
+public class DeltaDecompressor implements ChunkDecompressor {
+  private final int _valueSizeInBytes;
+
+  public DeltaDecompressor(int valueSizeInBytes) {
+    BitPackingUtils.checkValueSize(valueSizeInBytes);
+    _valueSizeInBytes = valueSizeInBytes;
+  }
+
+  @Override
+  public int decompress(ByteBuffer compressedInput, ByteBuffer decompressedOutput) {
+    long value = compressedInput.getLong();
+    long minDelta = compressedInput.getLong();
+    int numValues = compressedInput.getInt();
+    int numBits = compressedInput.get();
+    int packedPosition = compressedInput.position();
+    if (numValues > 0) {
+      BitPackingUtils.writeValue(decompressedOutput, value, _valueSizeInBytes);
+    }
+    for (int i = 1; i < numValues; i++) {
+      value += minDelta + BitPackingUtils.unpack(compressedInput, packedPosition, i - 1, numBits);
+      BitPackingUtils.writeValue(decompressedOutput, value, _valueSizeInBytes);
+    }
+    compressedInput.position(compressedInput.limit());
+
+    // Flip the output ByteBuffer for reading.
+    decompressedOutput.flip();
+    return decompressedOutput.limit();
+  }
+}
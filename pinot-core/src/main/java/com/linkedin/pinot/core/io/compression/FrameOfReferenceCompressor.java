@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.io.compression;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Implementation of {@link ChunkCompressor} for INT/LONG values using frame-of-reference encoding: the values of the
+ * chunk are bit-packed as offsets from the minimum value of the chunk, using just enough bits to store the range.
+ * <p>Chunk layout: reference (long), number of values (int), number of bits per value (byte), packed offsets.
+ */
+public class FrameOfReferenceCompressor implements ChunkCompressor {
+  private final int _valueSizeInBytes;
+
+  public FrameOfReferenceCompressor(int valueSizeInBytes) {
+    BitPackingUtils.checkValueSize(valueSizeInBytes);
+    _valueSizeInBytes = valueSizeInBytes;
+  }
+
+  @Override
+  public int compress(ByteBuffer inUncompressed, ByteBuffer outCompressed) {
+    long[] values = BitPackingUtils.readValues(inUncompressed, _valueSizeInBytes);
+    long minValue = Long.MAX_VALUE;
+    long maxValue = Long.MIN_VALUE;
+    for (long value : values) {
+      minValue = Math.min(minValue, value);
+      maxValue = Math.max(maxValue, value);
+    }
+    int numBits = values.length > 0 ? BitPackingUtils.getNumBits(maxValue - minValue) : 0;
+
+    outCompressed.putLong(minValue);
+    outCompressed.putInt(values.length);
+    outCompressed.put((byte) numBits);
+    BitPackingUtils.pack(values, 0, minValue, numBits, outCompressed);
+
+    // Make the output ByteBuffer ready for read.
+    outCompressed.flip();
+    return outCompressed.limit();
+  }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.io.compression;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Implementation of {@link ChunkDecompressor} for chunks encoded by {@link FrameOfReferenceCompressor}.
+ */
+public class FrameOfReferenceDecompressor implements ChunkDecompressor {
+  private final int _valueSizeInBytes;
+
+  public FrameOfReferenceDecompressor(int valueSizeInBytes) {
+    BitPackingUtils.checkValueSize(valueSizeInBytes);
+    _valueSizeInBytes = valueSizeInBytes;
+  }
+
+  @Override
+  public int decompress(ByteBuffer compressedInput, ByteBuffer decompressedOutput) {
+    long reference = compressedInput.getLong();
+    int numValues = compressedInput.getInt();
+    int numBits = compressedInput.get();
+    int packedPosition = compressedInput.position();
+    for (int i = 0; i < numValues; i++) {
+      long value = reference + BitPackingUtils.unpack(compressedInput, packedPosition, i, numBits);
+      BitPackingUtils.writeValue(decompressedOutput, value, _valueSizeInBytes);
+    }
+    compressedInput.position(compressedInput.limit());
+
+    // Flip the output ByteBuffer for reading.
+    decompressedOutput.flip();
+    return decompressedOutput.limit();
+  }
+}
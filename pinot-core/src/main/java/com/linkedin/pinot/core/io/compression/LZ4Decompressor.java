@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.io.compression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Implementation of {@link ChunkDecompressor} using LZ4.
+ */
+public class LZ4Decompressor implements ChunkDecompressor {
+
+  @Override
+  public int decompress(ByteBuffer compressedInput, ByteBuffer decompressedOutput)
+      throws IOException {
+    int outPosition = decompressedOutput.position();
+    int decompressedSize = LZ4Compressor.LZ4_FACTORY.safeDecompressor()
+        .decompress(compressedInput, compressedInput.position(), compressedInput.remaining(), decompressedOutput,
+            outPosition, decompressedOutput.remaining());
+    compressedInput.position(compressedInput.limit());
+
+    // Make the output ByteBuffer ready for read.
+    decompressedOutput.position(outPosition + decompressedSize);
+    decompressedOutput.flip();
+    return decompressedSize;
+  }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.io.compression;
+
+import com.github.luben.zstd.Zstd;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Implementation of {@link ChunkCompressor} using Zstandard, which gives a better compression ratio than Snappy at
+ * the cost of slower compression.
+ */
+public class ZstandardCompressor implements ChunkCompressor {
+  // Default compression level of Zstandard
+  private static final int COMPRESSION_LEVEL = 3;
+
+  @Override
+  public int compress(ByteBuffer inUncompressed, ByteBuffer outCompressed)
+      throws IOException {
+    int outPosition = outCompressed.position();
+    long compressedSize =
+        Zstd.compressDirectByteBuffer(outCompressed, outPosition, outCompressed.remaining(), inUncompressed,
+            inUncompressed.position(), inUncompressed.remaining(), COMPRESSION_LEVEL);
+    if (Zstd.isError(compressedSize)) {
+      throw new IOException("Failed to compress chunk: " + Zstd.getErrorName(compressedSize));
+    }
+    inUncompressed.position(inUncompressed.limit());
+
+    // Make the output ByteBuffer ready for read.
+    outCompressed.position(outPosition + (int) compressedSize);
+    outCompressed.flip();
+    return (int) compressedSize;
+  }
+}
@@ -0,0 +1,282 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.io.reader.impl;
+
+import com.google.common.base.Preconditions;
+import com.linkedin.pinot.core.segment.memory.PinotDataBuffer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>ChunkCache</code> class is a server-wide, bounded cache of decompressed chunks shared by all the chunk
+ * readers, so that reading the same chunk from different reader contexts (e.g. different operators or queries
+ * scanning a raw column) does not decompress the chunk again.
+ * <p>Chunks are keyed by reader id (one reader per segment and column) and chunk id, and spread over segments that are
+ * locked independently. Each segment holds an equal share of the maximum size and evicts its chunks in LRU order. The
+ * chunks are stored in direct buffers allocated through {@link PinotDataBuffer}, so they are accounted in the direct
+ * memory usage. The cache is disabled unless {@link #init(long)} is called with a positive maximum size.
+ */
+@ThreadSafe
+public class ChunkCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChunkCache.class);
+  private static final int DEFAULT_NUM_SEGMENTS = 16;
+  private static final String BUFFER_DESCRIPTION = "ChunkCache";
+
+  private static volatile ChunkCache _instance = null;
+
+  private final Segment[] _segments;
+  private final LongAdder _hitCount = new LongAdder();
+  private final LongAdder _missCount = new LongAdder();
+  private final LongAdder _evictionCount = new LongAdder();
+
+  private ChunkCache(long maxSizeInBytes, int numSegments) {
+    _segments = new Segment[numSegments];
+    long maxSegmentSizeInBytes = maxSizeInBytes / numSegments;
+    for (int i = 0; i < numSegments; i++) {
+      _segments[i] = new Segment(maxSegmentSizeInBytes);
+    }
+  }
+
+  /**
+   * Initializes the server-wide chunk cache with the given maximum size, non-positive value disables the cache. Should
+   * be called before any chunk reader is created, as readers pick up the cache when they are created.
+   */
+  public static void init(long maxSizeInBytes) {
+    init(maxSizeInBytes, DEFAULT_NUM_SEGMENTS);
+  }
+
+  static void init(long maxSizeInBytes, int numSegments) {
+    Preconditions.checkArgument(numSegments > 0);
+    ChunkCache previousInstance = _instance;
+    if (maxSizeInBytes > 0) {
+      LOGGER.info("Initializing chunk cache with max size: {} bytes, number of segments: {}", maxSizeInBytes,
+          numSegments);
+      _instance = new ChunkCache(maxSizeInBytes, numSegments);
+    } else {
+      LOGGER.info("Chunk cache is disabled");
+      _instance = null;
+    }
+    if (previousInstance != null) {
+      previousInstance.clear();
+    }
+  }
+
+  /**
+   * Returns the server-wide chunk cache, or <code>null</code> if the cache is disabled.
+   */
+  @Nullable
+  public static ChunkCache getInstance() {
+    return _instance;
+  }
+
+  public static long getHitCount() {
+    ChunkCache instance = _instance;
+    return instance != null ? instance._hitCount.sum() : 0L;
+  }
+
+  public static long getMissCount() {
+    ChunkCache instance = _instance;
+    return instance != null ? instance._missCount.sum() : 0L;
+  }
+
+  public static long getEvictionCount() {
+    ChunkCache instance = _instance;
+    return instance != null ? instance._evictionCount.sum() : 0L;
+  }
+
+  public static long getSizeInBytes() {
+    ChunkCache instance = _instance;
+    if (instance == null) {
+      return 0L;
+    }
+    long sizeInBytes = 0L;
+    for (Segment segment : instance._segments) {
+      sizeInBytes += segment.sizeInBytes();
+    }
+    return sizeInBytes;
+  }
+
+  private static long getKey(int readerId, int chunkId) {
+    return ((long) readerId << 32) | (chunkId & 0xFFFFFFFFL);
+  }
+
+  private Segment getSegment(int readerId, int chunkId) {
+    return _segments[((readerId * 31 + chunkId) & Integer.MAX_VALUE) % _segments.length];
+  }
+
+  /**
+   * Copies the cached chunk into the given buffer and makes it ready for read.
+   *
+   * @return Whether the chunk is cached
+   */
+  public boolean get(int readerId, int chunkId, ByteBuffer chunkBuffer) {
+    if (getSegment(readerId, chunkId).get(getKey(readerId, chunkId), chunkBuffer)) {
+      _hitCount.increment();
+      return true;
+    } else {
+      _missCount.increment();
+      return false;
+    }
+  }
+
+  /**
+   * Caches a copy of the given chunk (from position to limit), evicting the least recently used chunks of the same
+   * cache segment if necessary. The position of the given buffer is not modified.
+   */
+  public void put(int readerId, int chunkId, ByteBuffer chunkBuffer) {
+    getSegment(readerId, chunkId).put(readerId, getKey(readerId, chunkId), chunkBuffer);
+  }
+
+  /**
+   * Removes all the cached chunks of the given reader, should be called when the reader is closed.
+   */
+  public void invalidate(int readerId) {
+    for (Segment segment : _segments) {
+      segment.invalidate(readerId);
+    }
+  }
+
+  private void clear() {
+    for (Segment segment : _segments) {
+      segment.clear();
+    }
+  }
+
+  private static void releaseBuffer(CachedChunk cachedChunk) {
+    try {
+      cachedChunk._dataBuffer.close();
+    } catch (IOException e) {
+      LOGGER.error("Caught exception while releasing cached chunk buffer", e);
+    }
+  }
+
+  private static class CachedChunk {
+    final PinotDataBuffer _dataBuffer;
+    final ByteBuffer _byteBuffer;
+    final int _size;
+
+    CachedChunk(int size) {
+      _dataBuffer = PinotDataBuffer.allocateDirect(size, PinotDataBuffer.NATIVE_ORDER, BUFFER_DESCRIPTION);
+      _byteBuffer = _dataBuffer.toDirectByteBuffer(0, size);
+      _size = size;
+    }
+  }
+
+  /**
+   * LRU cache segment guarded by its own lock. Keys are also indexed by reader id, so that invalidating a reader only
+   * visits the chunks of that reader.
+   */
+  private class Segment {
+    private final long _maxSizeInBytes;
+    private final LinkedHashMap<Long, CachedChunk> _cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Integer, Set<Long>> _keysByReader = new HashMap<>();
+    private long _sizeInBytes = 0;
+
+    Segment(long maxSizeInBytes) {
+      _maxSizeInBytes = maxSizeInBytes;
+    }
+
+    synchronized boolean get(long key, ByteBuffer chunkBuffer) {
+      CachedChunk cachedChunk = _cache.get(key);
+      if (cachedChunk == null) {
+        return false;
+      }
+      chunkBuffer.put(cachedChunk._byteBuffer.duplicate());
+      chunkBuffer.flip();
+      return true;
+    }
+
+    synchronized void put(int readerId, long key, ByteBuffer chunkBuffer) {
+      int chunkSize = chunkBuffer.remaining();
+      if (chunkSize > _maxSizeInBytes || _cache.containsKey(key)) {
+        return;
+      }
+
+      // Evict the least recently used chunks, and reuse the evicted buffer if it is of the same size
+      CachedChunk reusableChunk = null;
+      Iterator<Map.Entry<Long, CachedChunk>> iterator = _cache.entrySet().iterator();
+      while (_sizeInBytes + chunkSize > _maxSizeInBytes) {
+        Map.Entry<Long, CachedChunk> entry = iterator.next();
+        CachedChunk evictedChunk = entry.getValue();
+        iterator.remove();
+        removeReaderKey(entry.getKey());
+        _sizeInBytes -= evictedChunk._size;
+        _evictionCount.increment();
+        if (reusableChunk == null && evictedChunk._size == chunkSize) {
+          reusableChunk = evictedChunk;
+        } else {
+          releaseBuffer(evictedChunk);
+        }
+      }
+
+      CachedChunk cachedChunk = reusableChunk != null ? reusableChunk : new CachedChunk(chunkSize);
+      ByteBuffer byteBuffer = cachedChunk._byteBuffer;
+      byteBuffer.clear();
+      byteBuffer.put(chunkBuffer.duplicate());
+      byteBuffer.flip();
+      _cache.put(key, cachedChunk);
+      _keysByReader.computeIfAbsent(readerId, k -> new HashSet<>()).add(key);
+      _sizeInBytes += chunkSize;
+    }
+
+    private void removeReaderKey(long key) {
+      int readerId = (int) (key >>> 32);
+      Set<Long> keys = _keysByReader.get(readerId);
+      if (keys != null) {
+        keys.remove(key);
+        if (keys.isEmpty()) {
+          _keysByReader.remove(readerId);
+        }
+      }
+    }
+
+    synchronized void invalidate(int readerId) {
+      Set<Long> keys = _keysByReader.remove(readerId);
+      if (keys != null) {
+        for (Long key : keys) {
+          CachedChunk cachedChunk = _cache.remove(key);
+          _sizeInBytes -= cachedChunk._size;
+          releaseBuffer(cachedChunk);
+        }
+      }
+    }
+
+    synchronized void clear() {
+      for (CachedChunk cachedChunk : _cache.values()) {
+        releaseBuffer(cachedChunk);
+      }
+      _cache.clear();
+      _keysByReader.clear();
+      _sizeInBytes = 0;
+    }
+
+    synchronized long sizeInBytes() {
+      return _sizeInBytes;
+    }
+  }
+}
@@ -18,10 +18,12 @@ package com.linkedin.pinot.core.io.reader.impl.v1;
 import com.linkedin.pinot.core.io.compression.ChunkCompressorFactory;
 import com.linkedin.pinot.core.io.compression.ChunkDecompressor;
 import com.linkedin.pinot.core.io.reader.BaseSingleColumnSingleValueReader;
+import com.linkedin.pinot.core.io.reader.impl.ChunkCache;
 import com.linkedin.pinot.core.io.reader.impl.ChunkReaderContext;
 import com.linkedin.pinot.core.segment.memory.PinotDataBuffer;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +35,7 @@ import org.slf4j.LoggerFactory;
  */
 public abstract class BaseChunkSingleValueReader extends BaseSingleColumnSingleValueReader<ChunkReaderContext> {
   private static final Logger LOGGER = LoggerFactory.getLogger(BaseChunkSingleValueReader.class);
+  private static final AtomicInteger READER_ID_GENERATOR = new AtomicInteger();
 
   protected final PinotDataBuffer _dataBuffer;
   protected final PinotDataBuffer _dataHeader;
@@ -40,6 +43,9 @@ public abstract class BaseChunkSingleValueReader extends BaseSingleColumnSingleV
   private final PinotDataBuffer _rawData;
   private final boolean _isCompressed;
   protected ChunkDecompressor _chunkDecompressor;
+  // Server-wide cache of decompressed chunks, null if disabled or data is not compressed
+  private final ChunkCache _chunkCache;
+  private final int _readerId = READER_ID_GENERATOR.getAndIncrement();
 
   protected final int _numDocsPerChunk;
   protected final int _numChunks;
@@ -73,7 +79,7 @@ public abstract class BaseChunkSingleValueReader extends BaseSingleColumnSingleV
 
       ChunkCompressorFactory.CompressionType compressionType =
           ChunkCompressorFactory.CompressionType.values()[_dataBuffer.getInt(headerOffset)];
-      _chunkDecompressor = ChunkCompressorFactory.getDecompressor(compressionType);
+      _chunkDecompressor = ChunkCompressorFactory.getDecompressor(compressionType, _lengthOfLongestEntry);
       _isCompressed = !compressionType.equals(ChunkCompressorFactory.CompressionType.PASS_THROUGH);
 
       headerOffset += Integer.BYTES;
@@ -92,10 +98,15 @@ public abstract class BaseChunkSingleValueReader extends BaseSingleColumnSingleV
 
     // Useful for uncompressed data.
     _rawData = _dataBuffer.view(rawDataStart, _dataBuffer.size());
+
+    _chunkCache = _isCompressed ? ChunkCache.getInstance() : null;
   }
 
   @Override
   public void close() throws IOException {
+    if (_chunkCache != null) {
+      _chunkCache.invalidate(_readerId);
+    }
     _dataBuffer.close();
   }
 
@@ -103,6 +114,7 @@ public abstract class BaseChunkSingleValueReader extends BaseSingleColumnSingleV
    * Helper method to get the chunk for a given row.
    * <ul>
    *   <li> If the chunk already exists in the reader context, returns the same. </li>
+   *   <li> If the chunk exists in the server-wide chunk cache, copies it into the reader context. </li>
    *   <li> Otherwise, loads the chunk for the row, and sets it in the reader context. </li>
    * </ul>
    * @param row Row for which to get the chunk
@@ -115,6 +127,13 @@ public abstract class BaseChunkSingleValueReader extends BaseSingleColumnSingleV
       return context.getChunkBuffer();
     }
 
+    ByteBuffer decompressedBuffer = context.getChunkBuffer();
+    decompressedBuffer.clear();
+    if (_chunkCache != null && _chunkCache.get(_readerId, chunkId, decompressedBuffer)) {
+      context.setChunkId(chunkId);
+      return decompressedBuffer;
+    }
+
     int chunkSize;
     int chunkPosition = getChunkPosition(chunkId);
 
@@ -126,15 +145,15 @@ public abstract class BaseChunkSingleValueReader extends BaseSingleColumnSingleV
       chunkSize = nextChunkOffset - chunkPosition;
     }
 
-    ByteBuffer decompressedBuffer = context.getChunkBuffer();
-    decompressedBuffer.clear();
-
     try {
       _chunkDecompressor.decompress(_dataBuffer.toDirectByteBuffer(chunkPosition, chunkSize), decompressedBuffer);
     } catch (IOException e) {
       LOGGER.error("Exception caught while decompressing data chunk", e);
       throw new RuntimeException(e);
     }
+    if (_chunkCache != null) {
+      _chunkCache.put(_readerId, chunkId, decompressedBuffer);
+    }
     context.setChunkId(chunkId);
     return decompressedBuffer;
   }
@@ -29,6 +29,8 @@ import javax.annotation.Nonnull;
  * The <code>DocIdSetOperator</code> takes a filter operator and returns blocks with set of the matched document Ids.
  * <p>Should call {@link #nextBlock()} multiple times until it returns <code>null</code> (already exhausts all the
  * matched documents) or already gathered enough documents (for selection queries).
+ * <p>The matched documents can be restricted to a document id range, so that a large segment can be split into
+ * multiple ranges processed in parallel.
  */
 public class DocIdSetOperator extends BaseOperator<DocIdSetBlock> {
   private static final String OPERATOR_NAME = "DocIdSetOperator";
@@ -42,15 +44,32 @@ public class DocIdSetOperator extends BaseOperator<DocIdSetBlock> {
 
   private final BaseFilterOperator _filterOperator;
   private final int _maxSizeOfDocIdSet;
+  private final int _startDocId;
+  private final int _endDocId;
 
   private FilterBlockDocIdSet _filterBlockDocIdSet;
   private BlockDocIdIterator _blockDocIdIterator;
   private int _currentDocId = 0;
 
   public DocIdSetOperator(@Nonnull BaseFilterOperator filterOperator, int maxSizeOfDocIdSet) {
+    this(filterOperator, maxSizeOfDocIdSet, 0, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @param filterOperator Filter operator
+   * @param maxSizeOfDocIdSet Maximum number of document ids in each block
+   * @param startDocId Start document id (inclusive) of the range to process
+   * @param endDocId End document id (inclusive) of the range to process, {@link Integer#MAX_VALUE} for the end of the
+   *                 segment
+   */
+  public DocIdSetOperator(@Nonnull BaseFilterOperator filterOperator, int maxSizeOfDocIdSet, int startDocId,
+      int endDocId) {
     Preconditions.checkArgument(maxSizeOfDocIdSet > 0 && maxSizeOfDocIdSet <= DocIdSetPlanNode.MAX_DOC_PER_CALL);
+    Preconditions.checkArgument(startDocId >= 0 && startDocId <= endDocId);
     _filterOperator = filterOperator;
     _maxSizeOfDocIdSet = maxSizeOfDocIdSet;
+    _startDocId = startDocId;
+    _endDocId = endDocId;
   }
 
   @Override
@@ -62,6 +81,14 @@ public class DocIdSetOperator extends BaseOperator<DocIdSetBlock> {
     // Initialize filter block document Id set
     if (_filterBlockDocIdSet == null) {
       _filterBlockDocIdSet = (FilterBlockDocIdSet) _filterOperator.nextBlock().getBlockDocIdSet();
+      // Narrow down the document id set so that scan-based filters do not scan outside of the range, documents
+      // outside of the range are also skipped below because not all document id sets honor the narrowed range
+      if (_startDocId > _filterBlockDocIdSet.getMinDocId()) {
+        _filterBlockDocIdSet.setStartDocId(_startDocId);
+      }
+      if (_endDocId < _filterBlockDocIdSet.getMaxDocId()) {
+        _filterBlockDocIdSet.setEndDocId(_endDocId);
+      }
       _blockDocIdIterator = _filterBlockDocIdSet.iterator();
     }
 
@@ -72,6 +99,16 @@ public class DocIdSetOperator extends BaseOperator<DocIdSetBlock> {
       if (_currentDocId == Constants.EOF) {
         break;
       }
+      if (_currentDocId < _startDocId) {
+        _currentDocId = _blockDocIdIterator.advance(_startDocId);
+        if (_currentDocId == Constants.EOF) {
+          break;
+        }
+      }
+      if (_currentDocId > _endDocId) {
+        _currentDocId = Constants.EOF;
+        break;
+      }
       docIds[pos++] = _currentDocId;
     }
     if (pos > 0) {
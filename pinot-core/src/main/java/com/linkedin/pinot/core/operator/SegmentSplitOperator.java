@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator;
+
+import com.linkedin.pinot.core.common.Operator;
+import com.linkedin.pinot.core.operator.blocks.IntermediateResultsBlock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The <code>SegmentSplitOperator</code> class wraps the operator processing one document id range (split) of a
+ * segment, so that the splits of a segment can be processed in parallel and merged by the combine operator like
+ * results from different segments.
+ * <p>The execution statistics are adjusted so that the merged statistics count each segment only once: the total raw
+ * documents and the processed segment are reported by the first split only, and the matched segment is reported by the
+ * first split that matches any document.
+ */
+public class SegmentSplitOperator extends BaseOperator<IntermediateResultsBlock> {
+  private static final String OPERATOR_NAME = "SegmentSplitOperator";
+
+  private final Operator<IntermediateResultsBlock> _operator;
+  private final boolean _isFirstSplit;
+  private final AtomicBoolean _segmentMatched;
+
+  private ExecutionStatistics _executionStatistics;
+
+  /**
+   * @param operator Operator processing the split
+   * @param isFirstSplit Whether the split is the first split of the segment
+   * @param segmentMatched Flag shared by all the splits of the segment, set once any split matches a document
+   */
+  public SegmentSplitOperator(@Nonnull Operator<IntermediateResultsBlock> operator, boolean isFirstSplit,
+      @Nonnull AtomicBoolean segmentMatched) {
+    _operator = operator;
+    _isFirstSplit = isFirstSplit;
+    _segmentMatched = segmentMatched;
+  }
+
+  @Override
+  protected IntermediateResultsBlock getNextBlock() {
+    IntermediateResultsBlock resultsBlock = _operator.nextBlock();
+    ExecutionStatistics executionStatistics = _operator.getExecutionStatistics();
+    long numSegmentsMatched =
+        executionStatistics.getNumSegmentsMatched() > 0 && _segmentMatched.compareAndSet(false, true) ? 1 : 0;
+    _executionStatistics = new ExecutionStatistics(executionStatistics.getNumDocsScanned(),
+        executionStatistics.getNumEntriesScannedInFilter(), executionStatistics.getNumEntriesScannedPostFilter(),
+        _isFirstSplit ? executionStatistics.getNumTotalRawDocs() : 0, _isFirstSplit ? 1 : 0, numSegmentsMatched);
+    return resultsBlock;
+  }
+
+  @Override
+  public String getOperatorName() {
+    return OPERATOR_NAME;
+  }
+
+  @Override
+  public ExecutionStatistics getExecutionStatistics() {
+    return _executionStatistics;
+  }
+}
@@ -25,6 +25,7 @@ import com.linkedin.pinot.core.operator.dociditerators.RangelessBitmapDocIdItera
 import com.linkedin.pinot.core.operator.dociditerators.ScanBasedDocIdIterator;
 import com.linkedin.pinot.core.util.SortedRangeIntersection;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import org.roaringbitmap.IntIterator;
 import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
@@ -173,7 +174,6 @@ public final class AndBlockDocIdSet implements FilterBlockDocIdSet {
       return new AndDocIdIterator(docIdIterators);
     } else {
       // handle sorted ranges
-      // TODO: will be nice to re-order sorted and bitmap index based on size
       if (sortedRangeSets.size() > 0) {
         List<IntPair> pairList;
         pairList = SortedRangeIntersection.intersectSortedRangeSets(sortedRangeSets);
@@ -185,16 +185,29 @@ public final class AndBlockDocIdSet implements FilterBlockDocIdSet {
       }
       // handle bitmaps
       if (childBitmaps.size() > 0) {
-        if (answer == null) {
-          answer = childBitmaps.get(0).toMutableRoaringBitmap();
-          for (int i = 1; i < childBitmaps.size(); i++) {
-            answer.and(childBitmaps.get(i));
+        // Intersect the bitmaps in ascending order of cardinality so that the intermediate result stays as small as
+        // possible, and stop as soon as the intersection is empty
+        childBitmaps.sort(new Comparator<ImmutableRoaringBitmap>() {
+          @Override
+          public int compare(ImmutableRoaringBitmap o1, ImmutableRoaringBitmap o2) {
+            return Integer.compare(o1.getCardinality(), o2.getCardinality());
           }
-        } else {
-          for (int i = 0; i < childBitmaps.size(); i++) {
-            answer.and(childBitmaps.get(i));
+        });
+        int numChildBitmaps = childBitmaps.size();
+        int index = 0;
+        if (answer == null) {
+          if (numChildBitmaps == 1) {
+            answer = childBitmaps.get(0).toMutableRoaringBitmap();
+            index = 1;
+          } else {
+            // Avoid cloning the first bitmap
+            answer = ImmutableRoaringBitmap.and(childBitmaps.get(0), childBitmaps.get(1));
+            index = 2;
           }
         }
+        for (; index < numChildBitmaps && !answer.isEmpty(); index++) {
+          answer.and(childBitmaps.get(index));
+        }
       }
 
       // At this point, we must have 'answer' to be non-null.
@@ -202,6 +215,9 @@ public final class AndBlockDocIdSet implements FilterBlockDocIdSet {
 
       // handle raw iterators
       for (FilterBlockDocIdSet scanBasedDocIdSet : scanBasedDocIdSets) {
+        if (answer.isEmpty()) {
+          break;
+        }
         ScanBasedDocIdIterator iterator = (ScanBasedDocIdIterator) scanBasedDocIdSet.iterator();
         MutableRoaringBitmap scanAnswer = iterator.applyAnd(answer);
         answer.and(scanAnswer);
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.docidsets;
+
+import com.linkedin.pinot.core.common.BlockDocIdIterator;
+import com.linkedin.pinot.core.common.Constants;
+import java.util.function.Consumer;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * The <code>CachingDocIdSet</code> class wraps a <code>FilterBlockDocIdSet</code> and collects the document ids
+ * returned by its iterator into a bitmap. Once the iterator is exhausted with {@link BlockDocIdIterator#next()} only,
+ * the bitmap of all the matching document ids is passed to the consumer (e.g. to cache it).
+ * <p>Nothing is passed to the consumer if the document id range is narrowed, if the iterator is advanced or if the
+ * iteration stops early (e.g. selection query with limit).
+ */
+public class CachingDocIdSet implements FilterBlockDocIdSet {
+  private final FilterBlockDocIdSet _docIdSet;
+  private final Consumer<ImmutableRoaringBitmap> _bitmapConsumer;
+  private boolean _rangeNarrowed = false;
+
+  public CachingDocIdSet(FilterBlockDocIdSet docIdSet, Consumer<ImmutableRoaringBitmap> bitmapConsumer) {
+    _docIdSet = docIdSet;
+    _bitmapConsumer = bitmapConsumer;
+  }
+
+  @Override
+  public int getMinDocId() {
+    return _docIdSet.getMinDocId();
+  }
+
+  @Override
+  public int getMaxDocId() {
+    return _docIdSet.getMaxDocId();
+  }
+
+  @Override
+  public void setStartDocId(int startDocId) {
+    _rangeNarrowed = true;
+    _docIdSet.setStartDocId(startDocId);
+  }
+
+  @Override
+  public void setEndDocId(int endDocId) {
+    _rangeNarrowed = true;
+    _docIdSet.setEndDocId(endDocId);
+  }
+
+  @Override
+  public long getNumEntriesScannedInFilter() {
+    return _docIdSet.getNumEntriesScannedInFilter();
+  }
+
+  @Override
+  public BlockDocIdIterator iterator() {
+    BlockDocIdIterator iterator = _docIdSet.iterator();
+    return _rangeNarrowed ? iterator : new CachingDocIdIterator(iterator);
+  }
+
+  @Override
+  public <T> T getRaw() {
+    return _docIdSet.getRaw();
+  }
+
+  private class CachingDocIdIterator implements BlockDocIdIterator {
+    private final BlockDocIdIterator _iterator;
+    private MutableRoaringBitmap _bitmap = new MutableRoaringBitmap();
+
+    CachingDocIdIterator(BlockDocIdIterator iterator) {
+      _iterator = iterator;
+    }
+
+    @Override
+    public int next() {
+      int docId = _iterator.next();
+      if (_bitmap != null) {
+        if (docId != Constants.EOF) {
+          _bitmap.add(docId);
+        } else {
+          _bitmapConsumer.accept(_bitmap);
+          _bitmap = null;
+        }
+      }
+      return docId;
+    }
+
+    @Override
+    public int advance(int targetDocId) {
+      // Document ids might be skipped, stop collecting
+      _bitmap = null;
+      return _iterator.advance(targetDocId);
+    }
+
+    @Override
+    public int currentDocId() {
+      return _iterator.currentDocId();
+    }
+  }
+}
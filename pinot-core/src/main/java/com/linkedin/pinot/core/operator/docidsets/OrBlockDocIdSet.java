@@ -23,6 +23,7 @@ import com.linkedin.pinot.core.operator.dociditerators.OrDocIdIterator;
 import java.util.ArrayList;
 import java.util.List;
 import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.buffer.BufferFastAggregation;
 import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
@@ -82,20 +83,30 @@ public final class OrBlockDocIdSet implements FilterBlockDocIdSet {
     }
     if (useBitmapOr) {
       List<BlockDocIdIterator> iterators = new ArrayList<>();
-      MutableRoaringBitmap bitmap = new MutableRoaringBitmap();
+      List<ImmutableRoaringBitmap> bitmaps = new ArrayList<>();
       for (BlockDocIdSet docIdSet : _docIdSets) {
         if (docIdSet instanceof SortedDocIdSet) {
+          MutableRoaringBitmap sortedBitmap = new MutableRoaringBitmap();
           List<Pairs.IntPair> pairs = docIdSet.getRaw();
           for (Pairs.IntPair pair : pairs) {
             // Add takes [start, end) i.e inclusive start, exclusive end
-            bitmap.add(pair.getLeft(), pair.getRight() + 1);
+            sortedBitmap.add(pair.getLeft(), pair.getRight() + 1);
           }
+          bitmaps.add(sortedBitmap);
         } else if (docIdSet instanceof BitmapDocIdSet) {
-          bitmap.or((ImmutableRoaringBitmap) docIdSet.getRaw());
+          bitmaps.add((ImmutableRoaringBitmap) docIdSet.getRaw());
         } else {
           iterators.add(docIdSet.iterator());
         }
       }
+      // Union all the bitmaps at once (lazy OR without repairing the cardinality of each intermediate result) instead
+      // of merging them one by one
+      ImmutableRoaringBitmap bitmap;
+      if (bitmaps.size() == 1) {
+        bitmap = bitmaps.get(0);
+      } else {
+        bitmap = BufferFastAggregation.or(bitmaps.toArray(new ImmutableRoaringBitmap[bitmaps.size()]));
+      }
       IntIterator intIterator = bitmap.getIntIterator();
       BitmapDocIdIterator bitmapDocIdIterator = new BitmapDocIdIterator(intIterator);
       bitmapDocIdIterator.setStartDocId(_minDocId);
@@ -20,7 +20,9 @@ import com.linkedin.pinot.core.operator.blocks.FilterBlock;
 import com.linkedin.pinot.core.operator.docidsets.AndBlockDocIdSet;
 import com.linkedin.pinot.core.operator.docidsets.FilterBlockDocIdSet;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 
 
 public class AndFilterOperator extends BaseFilterOperator {
@@ -44,6 +46,37 @@ public class AndFilterOperator extends BaseFilterOperator {
     _filterOperators = filterOperators;
   }
 
+  @Override
+  public boolean canProduceBitmap() {
+    for (BaseFilterOperator filterOperator : _filterOperators) {
+      if (!filterOperator.canProduceBitmap()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getBitmap() {
+    int numFilterOperators = _filterOperators.size();
+    List<ImmutableRoaringBitmap> bitmaps = new ArrayList<>(numFilterOperators);
+    for (BaseFilterOperator filterOperator : _filterOperators) {
+      bitmaps.add(filterOperator.getBitmap());
+    }
+    // Intersect the bitmaps in ascending order of cardinality, and stop as soon as the intersection is empty
+    bitmaps.sort(new Comparator<ImmutableRoaringBitmap>() {
+      @Override
+      public int compare(ImmutableRoaringBitmap o1, ImmutableRoaringBitmap o2) {
+        return Integer.compare(o1.getCardinality(), o2.getCardinality());
+      }
+    });
+    ImmutableRoaringBitmap result = bitmaps.get(0);
+    for (int i = 1; i < numFilterOperators && !result.isEmpty(); i++) {
+      result = ImmutableRoaringBitmap.and(result, bitmaps.get(i));
+    }
+    return result;
+  }
+
   @Override
   protected FilterBlock getNextBlock() {
     List<FilterBlockDocIdSet> filterBlockDocIdSets = new ArrayList<>(_filterOperators.size());
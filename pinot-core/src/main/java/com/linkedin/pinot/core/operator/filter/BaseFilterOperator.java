@@ -17,6 +17,7 @@ package com.linkedin.pinot.core.operator.filter;
 
 import com.linkedin.pinot.core.operator.BaseOperator;
 import com.linkedin.pinot.core.operator.blocks.FilterBlock;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 
 
 /**
@@ -37,4 +38,28 @@ public abstract class BaseFilterOperator extends BaseOperator<FilterBlock> {
   public boolean isResultMatchingAll() {
     return false;
   }
+
+  /**
+   * Returns {@code true} if the matching document ids can be computed purely from the indexes (without scanning the
+   * forward index), {@code false} otherwise.
+   */
+  public boolean canProduceBitmap() {
+    return false;
+  }
+
+  /**
+   * Returns the bitmap of the matching document ids.
+   * <p>Should only be called when {@link #canProduceBitmap()} returns {@code true}.
+   */
+  public ImmutableRoaringBitmap getBitmap() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Returns the number of matching documents.
+   * <p>Should only be called when {@link #canProduceBitmap()} returns {@code true}.
+   */
+  public int getNumMatchingDocs() {
+    return getBitmap().getCardinality();
+  }
 }
@@ -24,6 +24,7 @@ import com.linkedin.pinot.core.segment.index.readers.InvertedIndexReader;
 import java.util.ArrayList;
 import java.util.List;
 import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -98,6 +99,26 @@ public class BitmapBasedFilterOperator extends BaseFilterOperator {
             _exclusive));
   }
 
+  @Override
+  public boolean canProduceBitmap() {
+    return true;
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getBitmap() {
+    ImmutableRoaringBitmap bitmap = nextBlock().getBlockDocIdSet().getRaw();
+
+    // For realtime use case, the inverted index might contain document ids that are added after the query starts, and
+    // flipping the bitmap for exclusive predicate only applies to [startDocId, endDocId], so clip the bitmap if needed
+    long numDocsBeforeStart = _startDocId > 0 ? bitmap.rank(_startDocId - 1) : 0L;
+    if (numDocsBeforeStart > 0 || bitmap.rank(_endDocId) != bitmap.getCardinality()) {
+      MutableRoaringBitmap range = new MutableRoaringBitmap();
+      range.add(_startDocId, _endDocId + 1);
+      return ImmutableRoaringBitmap.and(bitmap, range);
+    }
+    return bitmap;
+  }
+
   @Override
   public String getOperatorName() {
     return OPERATOR_NAME;
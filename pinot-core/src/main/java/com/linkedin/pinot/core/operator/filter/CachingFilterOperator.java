@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.filter;
+
+import com.linkedin.pinot.core.indexsegment.IndexSegment;
+import com.linkedin.pinot.core.operator.blocks.FilterBlock;
+import com.linkedin.pinot.core.operator.docidsets.BitmapDocIdSet;
+import com.linkedin.pinot.core.operator.docidsets.CachingDocIdSet;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+
+
+/**
+ * The <code>CachingFilterOperator</code> class wraps the filter operator of a filter on an immutable segment and puts
+ * the matching document ids into the {@link FilterBitmapCache} once they are computed.
+ * <p>If the wrapped operator can produce a bitmap, the bitmap is computed and cached right away; otherwise the matching
+ * document ids are collected while they are iterated, and only cached if the iteration is complete.
+ */
+public class CachingFilterOperator extends BaseFilterOperator {
+  private static final String OPERATOR_NAME = "CachingFilterOperator";
+
+  private final BaseFilterOperator _filterOperator;
+  private final FilterBitmapCache _filterBitmapCache;
+  private final IndexSegment _segment;
+  private final String _filterKey;
+
+  public CachingFilterOperator(BaseFilterOperator filterOperator, FilterBitmapCache filterBitmapCache,
+      IndexSegment segment, String filterKey) {
+    _filterOperator = filterOperator;
+    _filterBitmapCache = filterBitmapCache;
+    _segment = segment;
+    _filterKey = filterKey;
+  }
+
+  @Override
+  protected FilterBlock getNextBlock() {
+    if (_filterOperator.canProduceBitmap()) {
+      ImmutableRoaringBitmap bitmap = getBitmap();
+      int maxDocId = _segment.getSegmentMetadata().getTotalRawDocs() - 1;
+      return new FilterBlock(new BitmapDocIdSet(new ImmutableRoaringBitmap[]{bitmap}, 0, maxDocId, false));
+    }
+    return new FilterBlock(new CachingDocIdSet(_filterOperator.nextBlock().getBlockDocIdSet(),
+        bitmap -> _filterBitmapCache.put(_segment, _filterKey, bitmap)));
+  }
+
+  @Override
+  public boolean canProduceBitmap() {
+    return _filterOperator.canProduceBitmap();
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getBitmap() {
+    ImmutableRoaringBitmap bitmap = _filterOperator.getBitmap();
+    _filterBitmapCache.put(_segment, _filterKey, bitmap);
+    return bitmap;
+  }
+
+  @Override
+  public String getOperatorName() {
+    return OPERATOR_NAME;
+  }
+}
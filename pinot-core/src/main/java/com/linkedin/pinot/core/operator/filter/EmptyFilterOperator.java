@@ -17,6 +17,8 @@ package com.linkedin.pinot.core.operator.filter;
 
 import com.linkedin.pinot.core.operator.blocks.EmptyFilterBlock;
 import com.linkedin.pinot.core.operator.blocks.FilterBlock;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
 
 /**
@@ -38,6 +40,21 @@ public final class EmptyFilterOperator extends BaseFilterOperator {
     return true;
   }
 
+  @Override
+  public boolean canProduceBitmap() {
+    return true;
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getBitmap() {
+    return new MutableRoaringBitmap();
+  }
+
+  @Override
+  public int getNumMatchingDocs() {
+    return 0;
+  }
+
   @Override
   protected FilterBlock getNextBlock() {
     return EmptyFilterBlock.getInstance();
@@ -0,0 +1,260 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.filter;
+
+import com.linkedin.pinot.common.request.FilterOperator;
+import com.linkedin.pinot.common.utils.request.FilterQueryTree;
+import com.linkedin.pinot.core.indexsegment.IndexSegment;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>FilterBitmapCache</code> class is a server-wide, bounded cache of the matching document ids of filters on
+ * immutable segments, so that hot filters do not need to be evaluated again (inverted index unions, scans) for every
+ * query.
+ * <p>Bitmaps are keyed by segment and normalized filter (see {@link #getFilterKey(FilterQueryTree)}), stored off-heap
+ * as serialized Roaring bitmaps and evicted in LRU order once the total size of the cached bitmaps exceeds the maximum
+ * size. The cache is disabled unless {@link #init(long)} is called with a positive maximum size.
+ */
+@ThreadSafe
+public class FilterBitmapCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FilterBitmapCache.class);
+
+  private static volatile FilterBitmapCache _instance = null;
+
+  private final long _maxSizeInBytes;
+  private final LinkedHashMap<Key, ByteBuffer> _cache = new LinkedHashMap<>(16, 0.75f, true);
+  private long _sizeInBytes = 0;
+  private long _hitCount = 0;
+  private long _missCount = 0;
+  private long _evictionCount = 0;
+
+  private FilterBitmapCache(long maxSizeInBytes) {
+    _maxSizeInBytes = maxSizeInBytes;
+  }
+
+  /**
+   * Initializes the server-wide filter bitmap cache with the given maximum size, non-positive value disables the cache.
+   */
+  public static void init(long maxSizeInBytes) {
+    if (maxSizeInBytes > 0) {
+      LOGGER.info("Initializing filter bitmap cache with max size: {} bytes", maxSizeInBytes);
+      _instance = new FilterBitmapCache(maxSizeInBytes);
+    } else {
+      LOGGER.info("Filter bitmap cache is disabled");
+      _instance = null;
+    }
+  }
+
+  /**
+   * Returns the server-wide filter bitmap cache, or <code>null</code> if the cache is disabled.
+   */
+  @Nullable
+  public static FilterBitmapCache getInstance() {
+    return _instance;
+  }
+
+  public static long getHitCount() {
+    FilterBitmapCache instance = _instance;
+    return instance != null ? instance.hitCount() : 0L;
+  }
+
+  public static long getMissCount() {
+    FilterBitmapCache instance = _instance;
+    return instance != null ? instance.missCount() : 0L;
+  }
+
+  public static long getEvictionCount() {
+    FilterBitmapCache instance = _instance;
+    return instance != null ? instance.evictionCount() : 0L;
+  }
+
+  public static long getSizeInBytes() {
+    FilterBitmapCache instance = _instance;
+    return instance != null ? instance.sizeInBytes() : 0L;
+  }
+
+  /**
+   * Returns the normalized key of the given filter, which is the same for filters that only differ in the order of
+   * the children of AND/OR nodes or in the order of the values of IN/NOT_IN predicates.
+   */
+  public static String getFilterKey(@Nonnull FilterQueryTree filterQueryTree) {
+    StringBuilder stringBuilder = new StringBuilder();
+    FilterOperator filterType = filterQueryTree.getOperator();
+    stringBuilder.append(filterType);
+    if (filterType == FilterOperator.AND || filterType == FilterOperator.OR) {
+      List<String> childKeys = new ArrayList<>();
+      for (FilterQueryTree child : filterQueryTree.getChildren()) {
+        childKeys.add(getFilterKey(child));
+      }
+      Collections.sort(childKeys);
+      stringBuilder.append('(');
+      for (String childKey : childKeys) {
+        stringBuilder.append(childKey).append(';');
+      }
+      stringBuilder.append(')');
+    } else {
+      List<String> values = new ArrayList<>();
+      if (filterType == FilterOperator.IN || filterType == FilterOperator.NOT_IN) {
+        // Values might be in the old style double-tab separated list
+        for (String value : filterQueryTree.getValue()) {
+          Collections.addAll(values, value.split("\t\t"));
+        }
+        Collections.sort(values);
+      } else {
+        values.addAll(filterQueryTree.getValue());
+      }
+      // Prefix column and values with their length so that the key is not ambiguous
+      String column = filterQueryTree.getColumn();
+      stringBuilder.append('[').append(column.length()).append(':').append(column);
+      for (String value : values) {
+        stringBuilder.append(',').append(value.length()).append(':').append(value);
+      }
+      stringBuilder.append(']');
+    }
+    return stringBuilder.toString();
+  }
+
+  /**
+   * Returns the cached bitmap of the matching document ids for the given segment and filter key, or <code>null</code>
+   * if it is not cached. The returned bitmap is backed by the cache and should not be modified.
+   */
+  @Nullable
+  public synchronized ImmutableRoaringBitmap get(@Nonnull IndexSegment segment, @Nonnull String filterKey) {
+    ByteBuffer cachedBitmap = _cache.get(new Key(segment, filterKey));
+    if (cachedBitmap == null) {
+      _missCount++;
+      return null;
+    }
+    _hitCount++;
+    return new ImmutableRoaringBitmap(cachedBitmap.duplicate());
+  }
+
+  /**
+   * Caches a serialized copy of the given bitmap of the matching document ids for the given segment and filter key,
+   * evicting the least recently used bitmaps if necessary.
+   */
+  public void put(@Nonnull IndexSegment segment, @Nonnull String filterKey, @Nonnull ImmutableRoaringBitmap bitmap) {
+    int bitmapSize = bitmap.serializedSizeInBytes();
+    if (bitmapSize > _maxSizeInBytes) {
+      return;
+    }
+
+    // Serialize the bitmap outside of the lock
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(bitmapSize);
+    try (DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
+      bitmap.serialize(dataOutputStream);
+    } catch (IOException e) {
+      LOGGER.warn("Caught exception while serializing bitmap for segment: {}, filter: {}", segment.getSegmentName(),
+          filterKey, e);
+      return;
+    }
+    ByteBuffer cachedBitmap = ByteBuffer.allocateDirect(bitmapSize);
+    cachedBitmap.put(byteArrayOutputStream.toByteArray());
+    cachedBitmap.flip();
+
+    synchronized (this) {
+      Key key = new Key(segment, filterKey);
+      if (_cache.containsKey(key)) {
+        return;
+      }
+      Iterator<ByteBuffer> iterator = _cache.values().iterator();
+      while (_sizeInBytes + bitmapSize > _maxSizeInBytes) {
+        _sizeInBytes -= iterator.next().capacity();
+        iterator.remove();
+        _evictionCount++;
+      }
+      _cache.put(key, cachedBitmap);
+      _sizeInBytes += bitmapSize;
+    }
+  }
+
+  /**
+   * Removes all the cached bitmaps of the given segment, should be called when the segment is destroyed.
+   */
+  public synchronized void invalidate(@Nonnull IndexSegment segment) {
+    Iterator<Map.Entry<Key, ByteBuffer>> iterator = _cache.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Key, ByteBuffer> entry = iterator.next();
+      if (entry.getKey()._segment == segment) {
+        _sizeInBytes -= entry.getValue().capacity();
+        iterator.remove();
+      }
+    }
+  }
+
+  private synchronized long hitCount() {
+    return _hitCount;
+  }
+
+  private synchronized long missCount() {
+    return _missCount;
+  }
+
+  private synchronized long evictionCount() {
+    return _evictionCount;
+  }
+
+  private synchronized long sizeInBytes() {
+    return _sizeInBytes;
+  }
+
+  /**
+   * Segments are compared by identity so that a reloaded segment with the same name never reads the bitmaps of the
+   * segment it replaces.
+   */
+  private static class Key {
+    private final IndexSegment _segment;
+    private final String _filterKey;
+
+    Key(IndexSegment segment, String filterKey) {
+      _segment = segment;
+      _filterKey = filterKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return _segment == that._segment && _filterKey.equals(that._filterKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(_segment) + _filterKey.hashCode();
+    }
+  }
+}
@@ -21,6 +21,7 @@ import com.linkedin.pinot.core.common.Predicate;
 import com.linkedin.pinot.core.operator.filter.predicate.PredicateEvaluator;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
@@ -34,6 +35,9 @@ public class FilterOperatorUtils {
   // Debug option to enable or disable multi-value optimization
   public static final String USE_SCAN_REORDER_OPTIMIZATION = "useScanReorderOpt";
 
+  // Maximum fraction of matching dictionary ids for a RANGE predicate to be solved with the inverted index
+  private static final double MAX_RANGE_SELECTIVITY_FOR_INVERTED_INDEX = 0.1;
+
   /**
    * Returns the leaf filter operator (i.e. not {@link AndFilterOperator} or {@link OrFilterOperator}).
    */
@@ -50,19 +54,31 @@ public class FilterOperatorUtils {
     // TODO: make it exclusive
     int endDocId = numDocs - 1;
 
-    // Use inverted index if the predicate type is not RANGE or REGEXP_LIKE for efficiency
+    // Use inverted index if the predicate type is not REGEXP_LIKE and using the index is cheaper than scanning
     DataSourceMetadata dataSourceMetadata = dataSource.getDataSourceMetadata();
     Predicate.Type predicateType = predicateEvaluator.getPredicateType();
-    if (dataSourceMetadata.hasInvertedIndex() && (predicateType != Predicate.Type.RANGE) && (predicateType
-        != Predicate.Type.REGEXP_LIKE)) {
+    if (dataSourceMetadata.hasInvertedIndex() && (predicateType != Predicate.Type.REGEXP_LIKE)) {
       if (dataSourceMetadata.isSorted()) {
+        // For sorted column, the documents for each dictionary id are contiguous, so the cost of using the sorted index
+        // is bounded by the number of matching dictionary ids (including RANGE predicate), which is always cheaper than
+        // scanning
         return new SortedInvertedIndexBasedFilterOperator(predicateEvaluator, dataSource, startDocId, endDocId);
-      } else {
+      }
+      if (predicateType != Predicate.Type.RANGE || isSelectiveRange(predicateEvaluator, dataSourceMetadata)) {
         return new BitmapBasedFilterOperator(predicateEvaluator, dataSource, startDocId, endDocId);
       }
-    } else {
-      return new ScanBasedFilterOperator(predicateEvaluator, dataSource, startDocId, endDocId);
     }
+    return new ScanBasedFilterOperator(predicateEvaluator, dataSource, startDocId, endDocId);
+  }
+
+  /**
+   * Returns {@code true} if the RANGE predicate matches a small enough fraction of the dictionary ids so that merging
+   * the bitmaps from the inverted index is cheaper than scanning, {@code false} otherwise.
+   */
+  private static boolean isSelectiveRange(PredicateEvaluator predicateEvaluator,
+      DataSourceMetadata dataSourceMetadata) {
+    return predicateEvaluator.getNumMatchingDictIds()
+        <= dataSourceMetadata.getCardinality() * MAX_RANGE_SELECTIVITY_FOR_INVERTED_INDEX;
   }
 
   /**
@@ -121,15 +137,40 @@ public class FilterOperatorUtils {
   /**
    * For AND filter operator, reorders its child filter operators based on the their cost and puts the ones with
    * inverted index first in order to reduce the number of documents to be processed.
+   * <p>When there are child filter operators with inverted index, the scan based child filter operators are only
+   * evaluated on the documents matching the previous child filter operators, so they are further reordered based on
+   * their estimated selectivity to evaluate the most selective ones first.
    * <p>Special filter operators such as {@link MatchAllFilterOperator} and {@link EmptyFilterOperator} should be
    * removed from the list before calling this method.
    */
   private static void reorderAndFilterChildOperators(List<BaseFilterOperator> filterOperators,
       @Nullable Map<String, String> debugOptions) {
+    final boolean scanReorderEnabled = isScanReorderEnabled(debugOptions);
+    boolean hasIndexBasedFilterOperator = false;
+    for (BaseFilterOperator filterOperator : filterOperators) {
+      if (filterOperator instanceof SortedInvertedIndexBasedFilterOperator
+          || filterOperator instanceof BitmapBasedFilterOperator) {
+        hasIndexBasedFilterOperator = true;
+        break;
+      }
+    }
+    final Map<BaseFilterOperator, Double> selectivityMap = new IdentityHashMap<>();
+    if (scanReorderEnabled && hasIndexBasedFilterOperator) {
+      for (BaseFilterOperator filterOperator : filterOperators) {
+        if (filterOperator instanceof ScanBasedFilterOperator) {
+          selectivityMap.put(filterOperator, getEstimatedSelectivity((ScanBasedFilterOperator) filterOperator));
+        }
+      }
+    }
+
     filterOperators.sort(new Comparator<BaseFilterOperator>() {
       @Override
       public int compare(BaseFilterOperator o1, BaseFilterOperator o2) {
-        return getPriority(o1) - getPriority(o2);
+        int result = getPriority(o1) - getPriority(o2);
+        if (result == 0 && !selectivityMap.isEmpty() && o1 instanceof ScanBasedFilterOperator) {
+          result = Double.compare(selectivityMap.get(o1), selectivityMap.get(o2));
+        }
+        return result;
       }
 
       int getPriority(BaseFilterOperator filterOperator) {
@@ -146,7 +187,7 @@ public class FilterOperatorUtils {
           return 3;
         }
         if (filterOperator instanceof ScanBasedFilterOperator) {
-          return getScanBasedFilterPriority((ScanBasedFilterOperator) filterOperator, 4, debugOptions);
+          return getScanBasedFilterPriority((ScanBasedFilterOperator) filterOperator, 4, scanReorderEnabled);
         }
         throw new IllegalStateException(filterOperator.getClass().getSimpleName()
             + " should not be reordered, remove it from the list before calling this method");
@@ -154,25 +195,43 @@ public class FilterOperatorUtils {
     });
   }
 
+  /**
+   * Returns the estimated fraction of documents matching the scan based filter operator, based on the fraction of the
+   * matching dictionary ids. Returns 1 if the selectivity cannot be estimated cheaply.
+   */
+  private static double getEstimatedSelectivity(ScanBasedFilterOperator scanBasedFilterOperator) {
+    PredicateEvaluator predicateEvaluator = scanBasedFilterOperator.getPredicateEvaluator();
+    DataSourceMetadata metadata = scanBasedFilterOperator.getDataSourceMetadata();
+    // NOTE: matching dictionary ids for REGEXP_LIKE predicate are computed by evaluating all the dictionary values
+    if (!predicateEvaluator.isDictionaryBased() || predicateEvaluator.getPredicateType() == Predicate.Type.REGEXP_LIKE
+        || metadata == null || metadata.getCardinality() <= 0) {
+      return 1.0;
+    }
+    double cardinality = metadata.getCardinality();
+    if (predicateEvaluator.isExclusive()) {
+      return 1.0 - predicateEvaluator.getNumNonMatchingDictIds() / cardinality;
+    } else {
+      return predicateEvaluator.getNumMatchingDictIds() / cardinality;
+    }
+  }
+
+  private static boolean isScanReorderEnabled(@Nullable Map<String, String> debugOptions) {
+    return debugOptions == null
+        || StringUtils.compareIgnoreCase(debugOptions.get(USE_SCAN_REORDER_OPTIMIZATION), "false") != 0;
+  }
+
   /**
    * Returns the priority for scan based filtering. Multivalue column evaluation is costly, so
    * reorder such that multivalue columns are evaluated after single value columns.
    *
-   * TODO: additional cost based prioritization to be added
-   *
    * @param scanBasedFilterOperator the filter operator to prioritize
-   * @param debugOptions  debug-options to enable/disable the optimization
+   * @param scanReorderEnabled whether the optimization is enabled (can be disabled with debug-options)
    * @return the priority to be associated with the filter
    */
   private static int getScanBasedFilterPriority(ScanBasedFilterOperator scanBasedFilterOperator, int basePriority,
-      @Nullable Map<String, String> debugOptions) {
-    boolean disabled = false;
-    if (debugOptions != null
-        && StringUtils.compareIgnoreCase(debugOptions.get(USE_SCAN_REORDER_OPTIMIZATION), "false") == 0) {
-      disabled = true;
-    }
+      boolean scanReorderEnabled) {
     DataSourceMetadata metadata = scanBasedFilterOperator.getDataSourceMetadata();
-    if (disabled || metadata == null || metadata.isSingleValue()) {
+    if (!scanReorderEnabled || metadata == null || metadata.isSingleValue()) {
       return basePriority;
     }
 
@@ -17,6 +17,8 @@ package com.linkedin.pinot.core.operator.filter;
 
 import com.linkedin.pinot.core.operator.blocks.FilterBlock;
 import com.linkedin.pinot.core.operator.docidsets.SizeBasedDocIdSet;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
 
 public class MatchAllFilterOperator extends BaseFilterOperator {
@@ -33,6 +35,23 @@ public class MatchAllFilterOperator extends BaseFilterOperator {
     return true;
   }
 
+  @Override
+  public boolean canProduceBitmap() {
+    return true;
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getBitmap() {
+    MutableRoaringBitmap bitmap = new MutableRoaringBitmap();
+    bitmap.add(0, _maxDocId + 1);
+    return bitmap;
+  }
+
+  @Override
+  public int getNumMatchingDocs() {
+    return _maxDocId + 1;
+  }
+
   @Override
   protected FilterBlock getNextBlock() {
     return new FilterBlock(new SizeBasedDocIdSet(_maxDocId));
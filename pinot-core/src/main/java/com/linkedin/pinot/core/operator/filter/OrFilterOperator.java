@@ -21,6 +21,8 @@ import com.linkedin.pinot.core.operator.docidsets.FilterBlockDocIdSet;
 import com.linkedin.pinot.core.operator.docidsets.OrBlockDocIdSet;
 import java.util.ArrayList;
 import java.util.List;
+import org.roaringbitmap.buffer.BufferFastAggregation;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 
 
 public class OrFilterOperator extends BaseFilterOperator {
@@ -44,6 +46,26 @@ public class OrFilterOperator extends BaseFilterOperator {
     _filterOperators = filterOperators;
   }
 
+  @Override
+  public boolean canProduceBitmap() {
+    for (BaseFilterOperator filterOperator : _filterOperators) {
+      if (!filterOperator.canProduceBitmap()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getBitmap() {
+    int numFilterOperators = _filterOperators.size();
+    ImmutableRoaringBitmap[] bitmaps = new ImmutableRoaringBitmap[numFilterOperators];
+    for (int i = 0; i < numFilterOperators; i++) {
+      bitmaps[i] = _filterOperators.get(i).getBitmap();
+    }
+    return BufferFastAggregation.or(bitmaps);
+  }
+
   @Override
   protected FilterBlock getNextBlock() {
     List<FilterBlockDocIdSet> filterBlockDocIdSets = new ArrayList<>(_filterOperators.size());
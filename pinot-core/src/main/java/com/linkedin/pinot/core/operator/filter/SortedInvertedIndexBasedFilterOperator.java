@@ -25,6 +25,8 @@ import com.linkedin.pinot.core.operator.filter.predicate.PredicateEvaluator;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
 
 public class SortedInvertedIndexBasedFilterOperator extends BaseFilterOperator {
@@ -154,6 +156,32 @@ public class SortedInvertedIndexBasedFilterOperator extends BaseFilterOperator {
     return new FilterBlock(new SortedDocIdSet(_dataSource.getOperatorName(), pairs));
   }
 
+  @Override
+  public boolean canProduceBitmap() {
+    return true;
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getBitmap() {
+    List<IntPair> pairs = nextBlock().getBlockDocIdSet().getRaw();
+    MutableRoaringBitmap bitmap = new MutableRoaringBitmap();
+    for (IntPair pair : pairs) {
+      bitmap.add(pair.getLeft(), pair.getRight() + 1);
+    }
+    return bitmap;
+  }
+
+  @Override
+  public int getNumMatchingDocs() {
+    // The ranges are disjoint, so the number of matching documents is the sum of the range lengths
+    List<IntPair> pairs = nextBlock().getBlockDocIdSet().getRaw();
+    int numMatchingDocs = 0;
+    for (IntPair pair : pairs) {
+      numMatchingDocs += pair.getRight() - pair.getLeft() + 1;
+    }
+    return numMatchingDocs;
+  }
+
   @Override
   public String getOperatorName() {
     return OPERATOR_NAME;
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.query;
+
+import com.linkedin.pinot.core.operator.BaseOperator;
+import com.linkedin.pinot.core.operator.ExecutionStatistics;
+import com.linkedin.pinot.core.operator.blocks.IntermediateResultsBlock;
+import com.linkedin.pinot.core.query.aggregation.AggregationFunctionContext;
+import com.linkedin.pinot.core.query.aggregation.AggregationResultHolder;
+import com.linkedin.pinot.core.query.aggregation.DoubleAggregationResultHolder;
+import com.linkedin.pinot.core.query.aggregation.ObjectAggregationResultHolder;
+import com.linkedin.pinot.core.query.aggregation.function.AggregationFunction;
+import com.linkedin.pinot.core.query.aggregation.function.AggregationFunctionType;
+import com.linkedin.pinot.core.query.aggregation.function.customobject.AvgPair;
+import com.linkedin.pinot.core.query.aggregation.function.customobject.MinMaxRangePair;
+import com.linkedin.pinot.core.query.codegen.CompiledAggregation;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Aggregation operator that computes COUNT, SUM, MIN, MAX, AVG and MINMAXRANGE with the generated aggregation kernel,
+ * which evaluates the filter and aggregates the values of all the documents of the segment in a single loop.
+ */
+public class CompiledAggregationOperator extends BaseOperator<IntermediateResultsBlock> {
+  private static final String OPERATOR_NAME = "CompiledAggregationOperator";
+
+  private final CompiledAggregation _compiledAggregation;
+  private final int _numTotalRawDocs;
+
+  private ExecutionStatistics _executionStatistics;
+
+  public CompiledAggregationOperator(@Nonnull CompiledAggregation compiledAggregation, int numTotalRawDocs) {
+    _compiledAggregation = compiledAggregation;
+    _numTotalRawDocs = numTotalRawDocs;
+  }
+
+  @Override
+  protected IntermediateResultsBlock getNextBlock() {
+    int numColumns = _compiledAggregation.getNumColumns();
+    double[] results = new double[3 * numColumns];
+    int numMatchingDocs =
+        _compiledAggregation.getKernel().aggregate(_numTotalRawDocs, _compiledAggregation.getInputs(), results);
+
+    AggregationFunctionContext[] functionContexts = _compiledAggregation.getFunctionContexts();
+    int[] columnIndexes = _compiledAggregation.getColumnIndexes();
+    int numFunctions = functionContexts.length;
+    List<Object> aggregationResults = new ArrayList<>(numFunctions);
+    for (int i = 0; i < numFunctions; i++) {
+      AggregationFunction function = functionContexts[i].getAggregationFunction();
+      AggregationFunctionType functionType = function.getType();
+      AggregationResultHolder resultHolder;
+      if (functionType == AggregationFunctionType.COUNT) {
+        resultHolder = new DoubleAggregationResultHolder(numMatchingDocs);
+      } else if (numMatchingDocs == 0) {
+        resultHolder = function.createAggregationResultHolder();
+      } else {
+        int offset = 3 * columnIndexes[i];
+        switch (functionType) {
+          case SUM:
+            resultHolder = new DoubleAggregationResultHolder(results[offset]);
+            break;
+          case MIN:
+            resultHolder = new DoubleAggregationResultHolder(results[offset + 1]);
+            break;
+          case MAX:
+            resultHolder = new DoubleAggregationResultHolder(results[offset + 2]);
+            break;
+          case AVG:
+            resultHolder = new ObjectAggregationResultHolder();
+            resultHolder.setValue(new AvgPair(results[offset], numMatchingDocs));
+            break;
+          case MINMAXRANGE:
+            resultHolder = new ObjectAggregationResultHolder();
+            resultHolder.setValue(new MinMaxRangePair(results[offset + 1], results[offset + 2]));
+            break;
+          default:
+            throw new IllegalStateException(
+                "Compiled aggregation operator does not support function type: " + functionType);
+        }
+      }
+      aggregationResults.add(function.extractAggregationResult(resultHolder));
+    }
+
+    // Create execution statistics
+    // NOTE: the number of entries scanned in filter is an upper bound because of the short-circuit evaluation
+    long numEntriesScannedInFilter = (long) _numTotalRawDocs * _compiledAggregation.getNumFilterPredicates();
+    long numEntriesScannedPostFilter = (long) numMatchingDocs * numColumns;
+    _executionStatistics =
+        new ExecutionStatistics(numMatchingDocs, numEntriesScannedInFilter, numEntriesScannedPostFilter,
+            _numTotalRawDocs);
+
+    return new IntermediateResultsBlock(functionContexts, aggregationResults, false);
+  }
+
+  @Override
+  public String getOperatorName() {
+    return OPERATOR_NAME;
+  }
+
+  @Override
+  public ExecutionStatistics getExecutionStatistics() {
+    return _executionStatistics;
+  }
+}
@@ -0,0 +1,259 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.query;
+
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.core.common.DataFetcher;
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.operator.BaseOperator;
+import com.linkedin.pinot.core.operator.DocIdSetOperator;
+import com.linkedin.pinot.core.operator.ExecutionStatistics;
+import com.linkedin.pinot.core.operator.blocks.DocIdSetBlock;
+import com.linkedin.pinot.core.operator.blocks.IntermediateResultsBlock;
+import com.linkedin.pinot.core.plan.DocIdSetPlanNode;
+import com.linkedin.pinot.core.query.aggregation.AggregationFunctionContext;
+import com.linkedin.pinot.core.query.aggregation.AggregationResultHolder;
+import com.linkedin.pinot.core.query.aggregation.DoubleAggregationResultHolder;
+import com.linkedin.pinot.core.query.aggregation.ObjectAggregationResultHolder;
+import com.linkedin.pinot.core.query.aggregation.function.AggregationFunction;
+import com.linkedin.pinot.core.query.aggregation.function.AggregationFunctionType;
+import com.linkedin.pinot.core.query.aggregation.function.customobject.MinMaxRangePair;
+import com.linkedin.pinot.core.segment.index.readers.Dictionary;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Aggregation operator that computes MIN, MAX, MINMAXRANGE and DISTINCTCOUNT on the dictionary ids of the documents
+ * matching the filter, without reading the values of the documents. COUNT is computed from the number of matching
+ * documents.
+ * <p>Because the dictionary is sorted, the minimum/maximum value maps to the minimum/maximum dictionary id, and the
+ * distinct values map to the distinct dictionary ids (collected in a bit set). The values are only read from the
+ * dictionary for the final results. For sorted columns, the dictionary ids are non-decreasing with the document ids, so
+ * only the first and last matching documents of each block are read for MIN, MAX and MINMAXRANGE.
+ */
+public class DictionaryIdBasedAggregationOperator extends BaseOperator<IntermediateResultsBlock> {
+  private static final String OPERATOR_NAME = "DictionaryIdBasedAggregationOperator";
+
+  private final AggregationFunctionContext[] _functionContexts;
+  private final DocIdSetOperator _docIdSetOperator;
+  private final Map<String, DataSource> _dataSourceMap;
+  private final long _numTotalRawDocs;
+
+  private ExecutionStatistics _executionStatistics;
+
+  /**
+   * @param functionContexts Aggregation function contexts
+   * @param docIdSetOperator Operator for the documents matching the filter
+   * @param dataSourceMap Map from column (with sorted dictionary) to data source for all the non-COUNT functions
+   * @param numTotalRawDocs Total number of raw documents in the segment
+   */
+  public DictionaryIdBasedAggregationOperator(@Nonnull AggregationFunctionContext[] functionContexts,
+      @Nonnull DocIdSetOperator docIdSetOperator, @Nonnull Map<String, DataSource> dataSourceMap,
+      long numTotalRawDocs) {
+    _functionContexts = functionContexts;
+    _docIdSetOperator = docIdSetOperator;
+    _dataSourceMap = dataSourceMap;
+    _numTotalRawDocs = numTotalRawDocs;
+  }
+
+  @Override
+  protected IntermediateResultsBlock getNextBlock() {
+    // Initialize the collectors for the columns
+    Map<String, DictIdCollector> collectorMap = new HashMap<>();
+    for (AggregationFunctionContext functionContext : _functionContexts) {
+      AggregationFunctionType functionType = functionContext.getAggregationFunction().getType();
+      if (functionType == AggregationFunctionType.COUNT) {
+        continue;
+      }
+      String column = functionContext.getColumn();
+      DictIdCollector collector = collectorMap.get(column);
+      if (collector == null) {
+        DataSource dataSource = _dataSourceMap.get(column);
+        collector = new DictIdCollector(dataSource.getDictionary(), dataSource.getDataSourceMetadata().isSorted());
+        collectorMap.put(column, collector);
+      }
+      if (functionType == AggregationFunctionType.DISTINCTCOUNT) {
+        collector._collectDistinctDictIds = true;
+      }
+    }
+
+    // Collect the dictionary ids of the matching documents
+    int numDocsScanned = 0;
+    long numEntriesScannedPostFilter = 0;
+    DataFetcher dataFetcher = new DataFetcher(_dataSourceMap);
+    int[] dictIds = new int[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    int[] boundaryDocIds = new int[2];
+    DocIdSetBlock docIdSetBlock;
+    while ((docIdSetBlock = _docIdSetOperator.nextBlock()) != null) {
+      int[] docIds = docIdSetBlock.getDocIdSet();
+      int length = docIdSetBlock.getSearchableLength();
+      numDocsScanned += length;
+      for (Map.Entry<String, DictIdCollector> entry : collectorMap.entrySet()) {
+        String column = entry.getKey();
+        DictIdCollector collector = entry.getValue();
+        if (collector._isSorted && !collector._collectDistinctDictIds) {
+          boundaryDocIds[0] = docIds[0];
+          boundaryDocIds[1] = docIds[length - 1];
+          dataFetcher.fetchDictIds(column, boundaryDocIds, 2, dictIds);
+          collector.collect(dictIds, 2);
+          numEntriesScannedPostFilter += 2;
+        } else {
+          dataFetcher.fetchDictIds(column, docIds, length, dictIds);
+          collector.collect(dictIds, length);
+          numEntriesScannedPostFilter += length;
+        }
+      }
+    }
+
+    // Compute the aggregation results from the dictionary ids
+    List<Object> aggregationResults = new ArrayList<>(_functionContexts.length);
+    for (AggregationFunctionContext functionContext : _functionContexts) {
+      AggregationFunction function = functionContext.getAggregationFunction();
+      AggregationFunctionType functionType = function.getType();
+      AggregationResultHolder resultHolder;
+      if (functionType == AggregationFunctionType.COUNT) {
+        resultHolder = new DoubleAggregationResultHolder(numDocsScanned);
+      } else {
+        DictIdCollector collector = collectorMap.get(functionContext.getColumn());
+        if (numDocsScanned == 0) {
+          resultHolder = function.createAggregationResultHolder();
+        } else {
+          Dictionary dictionary = collector._dictionary;
+          switch (functionType) {
+            case MIN:
+              resultHolder = new DoubleAggregationResultHolder(dictionary.getDoubleValue(collector._minDictId));
+              break;
+            case MAX:
+              resultHolder = new DoubleAggregationResultHolder(dictionary.getDoubleValue(collector._maxDictId));
+              break;
+            case MINMAXRANGE:
+              resultHolder = new ObjectAggregationResultHolder();
+              resultHolder.setValue(new MinMaxRangePair(dictionary.getDoubleValue(collector._minDictId),
+                  dictionary.getDoubleValue(collector._maxDictId)));
+              break;
+            case DISTINCTCOUNT:
+              resultHolder = new ObjectAggregationResultHolder();
+              FieldSpec.DataType dataType =
+                  _dataSourceMap.get(functionContext.getColumn()).getDataSourceMetadata().getDataType();
+              resultHolder.setValue(getValueSet(dictionary, dataType, collector._distinctDictIds));
+              break;
+            default:
+              throw new IllegalStateException(
+                  "Dictionary id based aggregation operator does not support function type: " + functionType);
+          }
+        }
+      }
+      aggregationResults.add(function.extractAggregationResult(resultHolder));
+    }
+
+    // Create execution statistics
+    long numEntriesScannedInFilter = _docIdSetOperator.getExecutionStatistics().getNumEntriesScannedInFilter();
+    _executionStatistics =
+        new ExecutionStatistics(numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter,
+            _numTotalRawDocs);
+
+    return new IntermediateResultsBlock(_functionContexts, aggregationResults, false);
+  }
+
+  /**
+   * Returns the set of value hash codes for the given dictionary ids, same as the intermediate result of the
+   * DISTINCTCOUNT aggregation function.
+   */
+  private static IntOpenHashSet getValueSet(Dictionary dictionary, FieldSpec.DataType dataType, BitSet dictIds) {
+    IntOpenHashSet valueSet = new IntOpenHashSet(dictIds.cardinality());
+    switch (dataType) {
+      case INT:
+        for (int dictId = dictIds.nextSetBit(0); dictId >= 0; dictId = dictIds.nextSetBit(dictId + 1)) {
+          valueSet.add(dictionary.getIntValue(dictId));
+        }
+        break;
+      case LONG:
+        for (int dictId = dictIds.nextSetBit(0); dictId >= 0; dictId = dictIds.nextSetBit(dictId + 1)) {
+          valueSet.add(Long.hashCode(dictionary.getLongValue(dictId)));
+        }
+        break;
+      case FLOAT:
+        for (int dictId = dictIds.nextSetBit(0); dictId >= 0; dictId = dictIds.nextSetBit(dictId + 1)) {
+          valueSet.add(Float.hashCode(dictionary.getFloatValue(dictId)));
+        }
+        break;
+      case DOUBLE:
+        for (int dictId = dictIds.nextSetBit(0); dictId >= 0; dictId = dictIds.nextSetBit(dictId + 1)) {
+          valueSet.add(Double.hashCode(dictionary.getDoubleValue(dictId)));
+        }
+        break;
+      case STRING:
+        for (int dictId = dictIds.nextSetBit(0); dictId >= 0; dictId = dictIds.nextSetBit(dictId + 1)) {
+          valueSet.add(dictionary.getStringValue(dictId).hashCode());
+        }
+        break;
+      default:
+        throw new IllegalStateException("Illegal data type for DISTINCT_COUNT aggregation function: " + dataType);
+    }
+    return valueSet;
+  }
+
+  /**
+   * Collects the minimum, maximum and (optionally) distinct dictionary ids for a column.
+   */
+  private static class DictIdCollector {
+    final Dictionary _dictionary;
+    final boolean _isSorted;
+    boolean _collectDistinctDictIds;
+    int _minDictId = Integer.MAX_VALUE;
+    int _maxDictId = Integer.MIN_VALUE;
+    BitSet _distinctDictIds;
+
+    DictIdCollector(Dictionary dictionary, boolean isSorted) {
+      _dictionary = dictionary;
+      _isSorted = isSorted;
+    }
+
+    void collect(int[] dictIds, int length) {
+      if (_collectDistinctDictIds && _distinctDictIds == null) {
+        _distinctDictIds = new BitSet(_dictionary.length());
+      }
+      for (int i = 0; i < length; i++) {
+        int dictId = dictIds[i];
+        if (dictId < _minDictId) {
+          _minDictId = dictId;
+        }
+        if (dictId > _maxDictId) {
+          _maxDictId = dictId;
+        }
+        if (_distinctDictIds != null) {
+          _distinctDictIds.set(dictId);
+        }
+      }
+    }
+  }
+
+  @Override
+  public String getOperatorName() {
+    return OPERATOR_NAME;
+  }
+
+  @Override
+  public ExecutionStatistics getExecutionStatistics() {
+    return _executionStatistics;
+  }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.query;
+
+import com.google.common.base.Preconditions;
+import com.linkedin.pinot.core.operator.BaseOperator;
+import com.linkedin.pinot.core.operator.ExecutionStatistics;
+import com.linkedin.pinot.core.operator.blocks.IntermediateResultsBlock;
+import com.linkedin.pinot.core.operator.filter.BaseFilterOperator;
+import com.linkedin.pinot.core.query.aggregation.AggregationFunctionContext;
+import com.linkedin.pinot.core.query.aggregation.function.AggregationFunctionType;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Aggregation operator that utilizes inverted/sorted indexes for serving filtered count queries.
+ * <p>The filter must be fully answered by the indexes (see {@link BaseFilterOperator#canProduceBitmap()}), so that the
+ * count is the cardinality of the bitmap (or the sum of the range lengths) of the matching documents.
+ */
+public class InvertedIndexBasedAggregationOperator extends BaseOperator<IntermediateResultsBlock> {
+  private static final String OPERATOR_NAME = "InvertedIndexBasedAggregationOperator";
+
+  private final AggregationFunctionContext[] _functionContexts;
+  private final BaseFilterOperator _filterOperator;
+  private final long _numTotalRawDocs;
+  private ExecutionStatistics _executionStatistics;
+
+  public InvertedIndexBasedAggregationOperator(@Nonnull AggregationFunctionContext[] functionContexts,
+      @Nonnull BaseFilterOperator filterOperator, long numTotalRawDocs) {
+    Preconditions.checkArgument(filterOperator.canProduceBitmap());
+    _functionContexts = functionContexts;
+    _filterOperator = filterOperator;
+    _numTotalRawDocs = numTotalRawDocs;
+  }
+
+  @Override
+  protected IntermediateResultsBlock getNextBlock() {
+    long numMatchingDocs = _filterOperator.getNumMatchingDocs();
+
+    int numAggregationFunctions = _functionContexts.length;
+    List<Object> aggregationResults = new ArrayList<>(numAggregationFunctions);
+    for (AggregationFunctionContext functionContext : _functionContexts) {
+      AggregationFunctionType functionType = functionContext.getAggregationFunction().getType();
+      Preconditions.checkState(functionType == AggregationFunctionType.COUNT,
+          "Inverted index based aggregation operator does not support function type: " + functionType);
+      aggregationResults.add(numMatchingDocs);
+    }
+
+    // Create execution statistics. Set numDocsScanned to numMatchingDocs for backward compatibility.
+    _executionStatistics =
+        new ExecutionStatistics(numMatchingDocs, 0/*numEntriesScannedInFilter*/, 0/*numEntriesScannedPostFilter*/,
+            _numTotalRawDocs);
+
+    // Build intermediate result block based on aggregation result from the executor.
+    return new IntermediateResultsBlock(_functionContexts, aggregationResults, false);
+  }
+
+  @Override
+  public String getOperatorName() {
+    return OPERATOR_NAME;
+  }
+
+  @Override
+  public ExecutionStatistics getExecutionStatistics() {
+    return _executionStatistics;
+  }
+}
@@ -25,7 +25,6 @@ import com.linkedin.pinot.core.operator.blocks.TransformBlock;
 import com.linkedin.pinot.core.operator.transform.function.TransformFunction;
 import com.linkedin.pinot.core.operator.transform.function.TransformFunctionFactory;
 import com.linkedin.pinot.core.segment.index.readers.Dictionary;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
@@ -39,22 +38,20 @@ public class TransformOperator extends BaseOperator<TransformBlock> {
 
   private final ProjectionOperator _projectionOperator;
   private final Map<String, DataSource> _dataSourceMap;
-  private final Map<TransformExpressionTree, TransformFunction> _transformFunctionMap = new HashMap<>();
+  private final Map<TransformExpressionTree, TransformFunction> _transformFunctionMap;
 
   /**
    * Constructor for the class
    *
    * @param projectionOperator Projection operator
-   * @param expressions Set of expressions to evaluate
+   * @param expressions Set of expressions to evaluate, where identical function sub-expressions are evaluated only once
+   *                    per block
    */
   public TransformOperator(@Nonnull ProjectionOperator projectionOperator,
       @Nonnull Set<TransformExpressionTree> expressions) {
     _projectionOperator = projectionOperator;
     _dataSourceMap = projectionOperator.getDataSourceMap();
-    for (TransformExpressionTree expression : expressions) {
-      TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
-      _transformFunctionMap.put(expression, transformFunction);
-    }
+    _transformFunctionMap = TransformFunctionFactory.getTransformFunctionMap(expressions, _dataSourceMap);
   }
 
   /**
@@ -0,0 +1,267 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.operator.blocks.ProjectionBlock;
+import com.linkedin.pinot.core.operator.transform.TransformResultMetadata;
+import com.linkedin.pinot.core.plan.DocIdSetPlanNode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * A group of comparison transform functions (EQUALS, NOT_EQUALS, GREATER_THAN, GREATER_THAN_OR_EQUAL, LESS_THAN,
+ * LESS_THAN_OR_EQUAL), which return <code>1</code> for rows where the comparison holds and <code>0</code> otherwise.
+ * <p>The first argument must be a column or a transform function, the second argument can also be a literal. Values are
+ * compared as strings if the first argument is a string, as longs if both arguments are integral (INT, LONG or integer
+ * literal), and as doubles otherwise.
+ */
+public abstract class BinaryOperatorTransformFunction extends BaseTransformFunction {
+  private TransformFunction _leftTransformFunction;
+  private TransformFunction _rightTransformFunction;
+  private String _rightLiteral;
+  // One of STRING, LONG or DOUBLE
+  private FieldSpec.DataType _comparisonType;
+  private long[] _rightLongLiterals;
+  private double[] _rightDoubleLiterals;
+  private String[] _rightStringLiterals;
+  private int[] _results;
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    // Check that there are exactly 2 arguments
+    if (arguments.size() != 2) {
+      throw new IllegalArgumentException(
+          "Exactly 2 arguments are required for " + getName().toUpperCase() + " transform function");
+    }
+
+    TransformFunction leftArgument = arguments.get(0);
+    if (leftArgument instanceof LiteralTransformFunction || !leftArgument.getResultMetadata().isSingleValue()) {
+      throw new IllegalArgumentException("The first argument of " + getName().toUpperCase()
+          + " transform function must be a single-valued column or a transform function");
+    }
+    _leftTransformFunction = leftArgument;
+    FieldSpec.DataType leftDataType = leftArgument.getResultMetadata().getDataType();
+    boolean isLeftString = leftDataType == FieldSpec.DataType.STRING;
+
+    TransformFunction rightArgument = arguments.get(1);
+    boolean isRightIntegral;
+    if (rightArgument instanceof LiteralTransformFunction) {
+      _rightLiteral = ((LiteralTransformFunction) rightArgument).getLiteral();
+      if (!isLeftString && !isNumber(_rightLiteral)) {
+        throw new IllegalArgumentException("Cannot compare numeric argument with string literal in "
+            + getName().toUpperCase() + " transform function");
+      }
+      isRightIntegral = isLong(_rightLiteral);
+    } else {
+      if (!rightArgument.getResultMetadata().isSingleValue()) {
+        throw new IllegalArgumentException(
+            "The second argument of " + getName().toUpperCase() + " transform function must be single-valued");
+      }
+      _rightTransformFunction = rightArgument;
+      isRightIntegral = isIntegral(rightArgument.getResultMetadata().getDataType());
+    }
+
+    if (isLeftString) {
+      _comparisonType = FieldSpec.DataType.STRING;
+    } else if (isIntegral(leftDataType) && isRightIntegral) {
+      _comparisonType = FieldSpec.DataType.LONG;
+    } else {
+      _comparisonType = FieldSpec.DataType.DOUBLE;
+    }
+  }
+
+  private static boolean isIntegral(FieldSpec.DataType dataType) {
+    return dataType == FieldSpec.DataType.INT || dataType == FieldSpec.DataType.LONG;
+  }
+
+  private static boolean isNumber(String literal) {
+    try {
+      Double.parseDouble(literal);
+      return true;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static boolean isLong(String literal) {
+    try {
+      Long.parseLong(literal);
+      return true;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return INT_SV_NO_DICTIONARY_METADATA;
+  }
+
+  @Override
+  public int[] transformToIntValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_results == null) {
+      _results = new int[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    }
+
+    int length = projectionBlock.getNumDocs();
+    switch (_comparisonType) {
+      case STRING:
+        String[] leftStringValues = _leftTransformFunction.transformToStringValuesSV(projectionBlock);
+        String[] rightStringValues;
+        if (_rightTransformFunction != null) {
+          rightStringValues = _rightTransformFunction.transformToStringValuesSV(projectionBlock);
+        } else {
+          if (_rightStringLiterals == null) {
+            _rightStringLiterals = new String[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+            Arrays.fill(_rightStringLiterals, _rightLiteral);
+          }
+          rightStringValues = _rightStringLiterals;
+        }
+        for (int i = 0; i < length; i++) {
+          _results[i] = getBinaryFuncResult(leftStringValues[i].compareTo(rightStringValues[i]));
+        }
+        break;
+      case LONG:
+        long[] leftLongValues = _leftTransformFunction.transformToLongValuesSV(projectionBlock);
+        long[] rightLongValues;
+        if (_rightTransformFunction != null) {
+          rightLongValues = _rightTransformFunction.transformToLongValuesSV(projectionBlock);
+        } else {
+          if (_rightLongLiterals == null) {
+            _rightLongLiterals = new long[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+            Arrays.fill(_rightLongLiterals, Long.parseLong(_rightLiteral));
+          }
+          rightLongValues = _rightLongLiterals;
+        }
+        for (int i = 0; i < length; i++) {
+          _results[i] = getBinaryFuncResult(Long.compare(leftLongValues[i], rightLongValues[i]));
+        }
+        break;
+      default:
+        double[] leftDoubleValues = _leftTransformFunction.transformToDoubleValuesSV(projectionBlock);
+        double[] rightDoubleValues;
+        if (_rightTransformFunction != null) {
+          rightDoubleValues = _rightTransformFunction.transformToDoubleValuesSV(projectionBlock);
+        } else {
+          if (_rightDoubleLiterals == null) {
+            _rightDoubleLiterals = new double[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+            Arrays.fill(_rightDoubleLiterals, Double.parseDouble(_rightLiteral));
+          }
+          rightDoubleValues = _rightDoubleLiterals;
+        }
+        for (int i = 0; i < length; i++) {
+          _results[i] = getBinaryFuncResult(Double.compare(leftDoubleValues[i], rightDoubleValues[i]));
+        }
+        break;
+    }
+    return _results;
+  }
+
+  /**
+   * Returns <code>1</code> if the comparison holds for the given result of comparing left value to right value,
+   * <code>0</code> otherwise.
+   */
+  protected abstract int getBinaryFuncResult(int comparisonResult);
+
+  public static class EqualsTransformFunction extends BinaryOperatorTransformFunction {
+    public static final String FUNCTION_NAME = "equals";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected int getBinaryFuncResult(int comparisonResult) {
+      return comparisonResult == 0 ? 1 : 0;
+    }
+  }
+
+  public static class NotEqualsTransformFunction extends BinaryOperatorTransformFunction {
+    public static final String FUNCTION_NAME = "not_equals";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected int getBinaryFuncResult(int comparisonResult) {
+      return comparisonResult != 0 ? 1 : 0;
+    }
+  }
+
+  public static class GreaterThanTransformFunction extends BinaryOperatorTransformFunction {
+    public static final String FUNCTION_NAME = "greater_than";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected int getBinaryFuncResult(int comparisonResult) {
+      return comparisonResult > 0 ? 1 : 0;
+    }
+  }
+
+  public static class GreaterThanOrEqualTransformFunction extends BinaryOperatorTransformFunction {
+    public static final String FUNCTION_NAME = "greater_than_or_equal";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected int getBinaryFuncResult(int comparisonResult) {
+      return comparisonResult >= 0 ? 1 : 0;
+    }
+  }
+
+  public static class LessThanTransformFunction extends BinaryOperatorTransformFunction {
+    public static final String FUNCTION_NAME = "less_than";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected int getBinaryFuncResult(int comparisonResult) {
+      return comparisonResult < 0 ? 1 : 0;
+    }
+  }
+
+  public static class LessThanOrEqualTransformFunction extends BinaryOperatorTransformFunction {
+    public static final String FUNCTION_NAME = "less_than_or_equal";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected int getBinaryFuncResult(int comparisonResult) {
+      return comparisonResult <= 0 ? 1 : 0;
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.operator.blocks.ProjectionBlock;
+import com.linkedin.pinot.core.operator.transform.TransformResultMetadata;
+import com.linkedin.pinot.core.segment.index.readers.Dictionary;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The <code>CachingTransformFunction</code> class is a wrapper on top of a transform function shared by multiple
+ * expressions (or multiple consumers of the same expression) within a query. It caches the last result of each
+ * transform method for the current projection block, so that the shared transform function is evaluated at most once
+ * per block for each result type.
+ * <p>The cached results are the arrays returned by the wrapped transform function, which are reused across blocks, so
+ * callers must not modify them.
+ */
+public class CachingTransformFunction implements TransformFunction {
+  private final TransformFunction _transformFunction;
+
+  private ProjectionBlock _dictIdsSVBlock;
+  private int[] _dictIdsSV;
+  private ProjectionBlock _dictIdsMVBlock;
+  private int[][] _dictIdsMV;
+  private ProjectionBlock _intValuesSVBlock;
+  private int[] _intValuesSV;
+  private ProjectionBlock _longValuesSVBlock;
+  private long[] _longValuesSV;
+  private ProjectionBlock _floatValuesSVBlock;
+  private float[] _floatValuesSV;
+  private ProjectionBlock _doubleValuesSVBlock;
+  private double[] _doubleValuesSV;
+  private ProjectionBlock _stringValuesSVBlock;
+  private String[] _stringValuesSV;
+  private ProjectionBlock _intValuesMVBlock;
+  private int[][] _intValuesMV;
+  private ProjectionBlock _longValuesMVBlock;
+  private long[][] _longValuesMV;
+  private ProjectionBlock _floatValuesMVBlock;
+  private float[][] _floatValuesMV;
+  private ProjectionBlock _doubleValuesMVBlock;
+  private double[][] _doubleValuesMV;
+  private ProjectionBlock _stringValuesMVBlock;
+  private String[][] _stringValuesMV;
+
+  public CachingTransformFunction(@Nonnull TransformFunction transformFunction) {
+    _transformFunction = transformFunction;
+  }
+
+  @Override
+  public String getName() {
+    return _transformFunction.getName();
+  }
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return _transformFunction.getResultMetadata();
+  }
+
+  @Override
+  public Dictionary getDictionary() {
+    return _transformFunction.getDictionary();
+  }
+
+  @Override
+  public int[] transformToDictIdsSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_dictIdsSVBlock != projectionBlock) {
+      _dictIdsSV = _transformFunction.transformToDictIdsSV(projectionBlock);
+      _dictIdsSVBlock = projectionBlock;
+    }
+    return _dictIdsSV;
+  }
+
+  @Override
+  public int[][] transformToDictIdsMV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_dictIdsMVBlock != projectionBlock) {
+      _dictIdsMV = _transformFunction.transformToDictIdsMV(projectionBlock);
+      _dictIdsMVBlock = projectionBlock;
+    }
+    return _dictIdsMV;
+  }
+
+  @Override
+  public int[] transformToIntValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_intValuesSVBlock != projectionBlock) {
+      _intValuesSV = _transformFunction.transformToIntValuesSV(projectionBlock);
+      _intValuesSVBlock = projectionBlock;
+    }
+    return _intValuesSV;
+  }
+
+  @Override
+  public long[] transformToLongValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_longValuesSVBlock != projectionBlock) {
+      _longValuesSV = _transformFunction.transformToLongValuesSV(projectionBlock);
+      _longValuesSVBlock = projectionBlock;
+    }
+    return _longValuesSV;
+  }
+
+  @Override
+  public float[] transformToFloatValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_floatValuesSVBlock != projectionBlock) {
+      _floatValuesSV = _transformFunction.transformToFloatValuesSV(projectionBlock);
+      _floatValuesSVBlock = projectionBlock;
+    }
+    return _floatValuesSV;
+  }
+
+  @Override
+  public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_doubleValuesSVBlock != projectionBlock) {
+      _doubleValuesSV = _transformFunction.transformToDoubleValuesSV(projectionBlock);
+      _doubleValuesSVBlock = projectionBlock;
+    }
+    return _doubleValuesSV;
+  }
+
+  @Override
+  public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_stringValuesSVBlock != projectionBlock) {
+      _stringValuesSV = _transformFunction.transformToStringValuesSV(projectionBlock);
+      _stringValuesSVBlock = projectionBlock;
+    }
+    return _stringValuesSV;
+  }
+
+  @Override
+  public int[][] transformToIntValuesMV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_intValuesMVBlock != projectionBlock) {
+      _intValuesMV = _transformFunction.transformToIntValuesMV(projectionBlock);
+      _intValuesMVBlock = projectionBlock;
+    }
+    return _intValuesMV;
+  }
+
+  @Override
+  public long[][] transformToLongValuesMV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_longValuesMVBlock != projectionBlock) {
+      _longValuesMV = _transformFunction.transformToLongValuesMV(projectionBlock);
+      _longValuesMVBlock = projectionBlock;
+    }
+    return _longValuesMV;
+  }
+
+  @Override
+  public float[][] transformToFloatValuesMV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_floatValuesMVBlock != projectionBlock) {
+      _floatValuesMV = _transformFunction.transformToFloatValuesMV(projectionBlock);
+      _floatValuesMVBlock = projectionBlock;
+    }
+    return _floatValuesMV;
+  }
+
+  @Override
+  public double[][] transformToDoubleValuesMV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_doubleValuesMVBlock != projectionBlock) {
+      _doubleValuesMV = _transformFunction.transformToDoubleValuesMV(projectionBlock);
+      _doubleValuesMVBlock = projectionBlock;
+    }
+    return _doubleValuesMV;
+  }
+
+  @Override
+  public String[][] transformToStringValuesMV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_stringValuesMVBlock != projectionBlock) {
+      _stringValuesMV = _transformFunction.transformToStringValuesMV(projectionBlock);
+      _stringValuesMVBlock = projectionBlock;
+    }
+    return _stringValuesMV;
+  }
+}
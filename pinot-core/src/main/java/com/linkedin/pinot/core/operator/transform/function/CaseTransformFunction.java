@@ -0,0 +1,210 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.operator.blocks.ProjectionBlock;
+import com.linkedin.pinot.core.operator.transform.TransformResultMetadata;
+import com.linkedin.pinot.core.plan.DocIdSetPlanNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The <code>CaseTransformFunction</code> class implements the CASE transform function:
+ * <code>case(condition1, result1, condition2, result2, ..., elseResult)</code>.
+ * <p>Conditions are single-valued transform functions (e.g. comparison transform functions) where non-zero values mean
+ * <code>true</code>. For each row, the result of the first condition that holds is returned, or the else result if no
+ * condition holds. Results can be columns, transform functions or literals. The result type is STRING if any result is
+ * a string, DOUBLE otherwise.
+ * <p>For each block, a result is only computed if it is selected by at least one row.
+ */
+public class CaseTransformFunction extends BaseTransformFunction {
+  public static final String FUNCTION_NAME = "case";
+
+  private final List<TransformFunction> _conditions = new ArrayList<>();
+  // Either transform function or literal for each result, where the last one is the else result
+  private final List<TransformFunction> _resultTransformFunctions = new ArrayList<>();
+  private final List<String> _resultLiterals = new ArrayList<>();
+  private TransformResultMetadata _resultMetadata;
+  private int[] _selectedResults;
+  private double[] _doubleValues;
+  private String[] _stringValues;
+
+  @Override
+  public String getName() {
+    return FUNCTION_NAME;
+  }
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    // Check that there are odd number of arguments, at least 3
+    int numArguments = arguments.size();
+    if (numArguments < 3 || numArguments % 2 == 0) {
+      throw new IllegalArgumentException(
+          "Odd number of arguments (at least 3) are required for CASE transform function");
+    }
+
+    boolean isStringResult = false;
+    for (int i = 0; i < numArguments; i++) {
+      TransformFunction argument = arguments.get(i);
+      boolean isCondition = i % 2 == 0 && i != numArguments - 1;
+      if (argument instanceof LiteralTransformFunction) {
+        if (isCondition) {
+          throw new IllegalArgumentException("Conditions of CASE transform function must not be literals");
+        }
+        String literal = ((LiteralTransformFunction) argument).getLiteral();
+        _resultTransformFunctions.add(null);
+        _resultLiterals.add(literal);
+        isStringResult |= !isNumber(literal);
+      } else {
+        TransformResultMetadata resultMetadata = argument.getResultMetadata();
+        if (!resultMetadata.isSingleValue()) {
+          throw new IllegalArgumentException("All the arguments of CASE transform function must be single-valued");
+        }
+        if (isCondition) {
+          if (resultMetadata.getDataType() == FieldSpec.DataType.STRING) {
+            throw new IllegalArgumentException("Conditions of CASE transform function must be numeric");
+          }
+          _conditions.add(argument);
+        } else {
+          _resultTransformFunctions.add(argument);
+          _resultLiterals.add(null);
+          isStringResult |= resultMetadata.getDataType() == FieldSpec.DataType.STRING;
+        }
+      }
+    }
+    _resultMetadata = isStringResult ? STRING_SV_NO_DICTIONARY_METADATA : DOUBLE_SV_NO_DICTIONARY_METADATA;
+  }
+
+  private static boolean isNumber(String literal) {
+    try {
+      Double.parseDouble(literal);
+      return true;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return _resultMetadata;
+  }
+
+  /**
+   * Computes the index of the selected result for each row, and returns whether each result is selected by at least
+   * one row.
+   */
+  private boolean[] selectResults(ProjectionBlock projectionBlock) {
+    if (_selectedResults == null) {
+      _selectedResults = new int[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    }
+
+    int length = projectionBlock.getNumDocs();
+    int numConditions = _conditions.size();
+    Arrays.fill(_selectedResults, 0, length, numConditions);
+    boolean[] selected = new boolean[numConditions + 1];
+    // Evaluate the conditions in reverse order so that the first condition that holds wins
+    for (int i = numConditions - 1; i >= 0; i--) {
+      int[] conditionValues = _conditions.get(i).transformToIntValuesSV(projectionBlock);
+      for (int j = 0; j < length; j++) {
+        if (conditionValues[j] != 0) {
+          _selectedResults[j] = i;
+        }
+      }
+    }
+    for (int i = 0; i < length; i++) {
+      selected[_selectedResults[i]] = true;
+    }
+    return selected;
+  }
+
+  @Override
+  public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() != FieldSpec.DataType.DOUBLE) {
+      return super.transformToDoubleValuesSV(projectionBlock);
+    }
+    if (_doubleValues == null) {
+      _doubleValues = new double[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    }
+
+    boolean[] selected = selectResults(projectionBlock);
+    int length = projectionBlock.getNumDocs();
+    int numResults = selected.length;
+    for (int i = 0; i < numResults; i++) {
+      if (!selected[i]) {
+        continue;
+      }
+      TransformFunction resultTransformFunction = _resultTransformFunctions.get(i);
+      if (resultTransformFunction != null) {
+        double[] values = resultTransformFunction.transformToDoubleValuesSV(projectionBlock);
+        for (int j = 0; j < length; j++) {
+          if (_selectedResults[j] == i) {
+            _doubleValues[j] = values[j];
+          }
+        }
+      } else {
+        double value = Double.parseDouble(_resultLiterals.get(i));
+        for (int j = 0; j < length; j++) {
+          if (_selectedResults[j] == i) {
+            _doubleValues[j] = value;
+          }
+        }
+      }
+    }
+    return _doubleValues;
+  }
+
+  @Override
+  public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() != FieldSpec.DataType.STRING) {
+      return super.transformToStringValuesSV(projectionBlock);
+    }
+    if (_stringValues == null) {
+      _stringValues = new String[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    }
+
+    boolean[] selected = selectResults(projectionBlock);
+    int length = projectionBlock.getNumDocs();
+    int numResults = selected.length;
+    for (int i = 0; i < numResults; i++) {
+      if (!selected[i]) {
+        continue;
+      }
+      TransformFunction resultTransformFunction = _resultTransformFunctions.get(i);
+      if (resultTransformFunction != null) {
+        String[] values = resultTransformFunction.transformToStringValuesSV(projectionBlock);
+        for (int j = 0; j < length; j++) {
+          if (_selectedResults[j] == i) {
+            _stringValues[j] = values[j];
+          }
+        }
+      } else {
+        String value = _resultLiterals.get(i);
+        for (int j = 0; j < length; j++) {
+          if (_selectedResults[j] == i) {
+            _stringValues[j] = value;
+          }
+        }
+      }
+    }
+    return _stringValues;
+  }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.operator.blocks.ProjectionBlock;
+import com.linkedin.pinot.core.operator.transform.TransformResultMetadata;
+import com.linkedin.pinot.core.plan.DocIdSetPlanNode;
+import com.linkedin.pinot.core.util.ArrayCopyUtils;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The <code>CastTransformFunction</code> class implements the CAST transform function: <code>cast(expr, 'type')</code>,
+ * where type is one of INT, LONG, FLOAT, DOUBLE and STRING.
+ * <p>The values are fetched from the argument in the target type, and converted to the other types from there. Values
+ * of STRING arguments are fetched as strings and parsed into the numeric target types, because STRING columns cannot
+ * return numeric values.
+ */
+public class CastTransformFunction extends BaseTransformFunction {
+  public static final String FUNCTION_NAME = "cast";
+
+  private TransformFunction _transformFunction;
+  private boolean _isStringArgument;
+  private TransformResultMetadata _resultMetadata;
+  private int[] _intValues;
+  private long[] _longValues;
+  private float[] _floatValues;
+  private double[] _doubleValues;
+
+  @Override
+  public String getName() {
+    return FUNCTION_NAME;
+  }
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    // Check that there are exactly 2 arguments
+    if (arguments.size() != 2) {
+      throw new IllegalArgumentException("Exactly 2 arguments are required for CAST transform function");
+    }
+
+    TransformFunction firstArgument = arguments.get(0);
+    if (firstArgument instanceof LiteralTransformFunction || !firstArgument.getResultMetadata().isSingleValue()) {
+      throw new IllegalArgumentException(
+          "The first argument of CAST transform function must be a single-valued column or a transform function");
+    }
+    _transformFunction = firstArgument;
+    _isStringArgument = firstArgument.getResultMetadata().getDataType() == FieldSpec.DataType.STRING;
+
+    FieldSpec.DataType dataType =
+        FieldSpec.DataType.valueOf(((LiteralTransformFunction) arguments.get(1)).getLiteral().toUpperCase());
+    switch (dataType) {
+      case INT:
+        _resultMetadata = INT_SV_NO_DICTIONARY_METADATA;
+        break;
+      case LONG:
+        _resultMetadata = LONG_SV_NO_DICTIONARY_METADATA;
+        break;
+      case FLOAT:
+        _resultMetadata = new TransformResultMetadata(FieldSpec.DataType.FLOAT, true, false);
+        break;
+      case DOUBLE:
+        _resultMetadata = DOUBLE_SV_NO_DICTIONARY_METADATA;
+        break;
+      case STRING:
+        _resultMetadata = STRING_SV_NO_DICTIONARY_METADATA;
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported data type for CAST transform function: " + dataType);
+    }
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return _resultMetadata;
+  }
+
+  @Override
+  public int[] transformToIntValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() == FieldSpec.DataType.INT) {
+      if (_isStringArgument) {
+        if (_intValues == null) {
+          _intValues = new int[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+        }
+        String[] stringValues = _transformFunction.transformToStringValuesSV(projectionBlock);
+        ArrayCopyUtils.copy(stringValues, _intValues, projectionBlock.getNumDocs());
+        return _intValues;
+      }
+      return _transformFunction.transformToIntValuesSV(projectionBlock);
+    }
+    return super.transformToIntValuesSV(projectionBlock);
+  }
+
+  @Override
+  public long[] transformToLongValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() == FieldSpec.DataType.LONG) {
+      if (_isStringArgument) {
+        if (_longValues == null) {
+          _longValues = new long[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+        }
+        String[] stringValues = _transformFunction.transformToStringValuesSV(projectionBlock);
+        ArrayCopyUtils.copy(stringValues, _longValues, projectionBlock.getNumDocs());
+        return _longValues;
+      }
+      return _transformFunction.transformToLongValuesSV(projectionBlock);
+    }
+    return super.transformToLongValuesSV(projectionBlock);
+  }
+
+  @Override
+  public float[] transformToFloatValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() == FieldSpec.DataType.FLOAT) {
+      if (_isStringArgument) {
+        if (_floatValues == null) {
+          _floatValues = new float[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+        }
+        String[] stringValues = _transformFunction.transformToStringValuesSV(projectionBlock);
+        ArrayCopyUtils.copy(stringValues, _floatValues, projectionBlock.getNumDocs());
+        return _floatValues;
+      }
+      return _transformFunction.transformToFloatValuesSV(projectionBlock);
+    }
+    return super.transformToFloatValuesSV(projectionBlock);
+  }
+
+  @Override
+  public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() == FieldSpec.DataType.DOUBLE) {
+      if (_isStringArgument) {
+        if (_doubleValues == null) {
+          _doubleValues = new double[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+        }
+        String[] stringValues = _transformFunction.transformToStringValuesSV(projectionBlock);
+        ArrayCopyUtils.copy(stringValues, _doubleValues, projectionBlock.getNumDocs());
+        return _doubleValues;
+      }
+      return _transformFunction.transformToDoubleValuesSV(projectionBlock);
+    }
+    return super.transformToDoubleValuesSV(projectionBlock);
+  }
+
+  @Override
+  public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() == FieldSpec.DataType.STRING) {
+      return _transformFunction.transformToStringValuesSV(projectionBlock);
+    }
+    return super.transformToStringValuesSV(projectionBlock);
+  }
+}
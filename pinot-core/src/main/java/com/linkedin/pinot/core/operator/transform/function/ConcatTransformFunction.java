@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.operator.blocks.ProjectionBlock;
+import com.linkedin.pinot.core.operator.transform.TransformResultMetadata;
+import com.linkedin.pinot.core.plan.DocIdSetPlanNode;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The <code>ConcatTransformFunction</code> class implements the CONCAT transform function:
+ * <code>concat(expr1, expr2, ...)</code>, where each argument can be a column, a transform function or a literal.
+ */
+public class ConcatTransformFunction extends BaseTransformFunction {
+  public static final String FUNCTION_NAME = "concat";
+
+  private List<TransformFunction> _arguments;
+  private String[][] _values;
+  private StringBuilder _stringBuilder;
+  private String[] _results;
+
+  @Override
+  public String getName() {
+    return FUNCTION_NAME;
+  }
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    // Check that there are more than 1 arguments
+    if (arguments.size() < 2) {
+      throw new IllegalArgumentException("At least 2 arguments are required for CONCAT transform function");
+    }
+
+    for (TransformFunction argument : arguments) {
+      if (!(argument instanceof LiteralTransformFunction) && !argument.getResultMetadata().isSingleValue()) {
+        throw new IllegalArgumentException("All the arguments of CONCAT transform function must be single-valued");
+      }
+    }
+    _arguments = arguments;
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return STRING_SV_NO_DICTIONARY_METADATA;
+  }
+
+  @Override
+  public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    int numArguments = _arguments.size();
+    if (_results == null) {
+      _results = new String[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      _values = new String[numArguments][];
+      _stringBuilder = new StringBuilder();
+    }
+
+    // Fetch the values of all the arguments first so that each argument is evaluated once per block
+    for (int i = 0; i < numArguments; i++) {
+      TransformFunction argument = _arguments.get(i);
+      if (!(argument instanceof LiteralTransformFunction)) {
+        _values[i] = argument.transformToStringValuesSV(projectionBlock);
+      }
+    }
+
+    int length = projectionBlock.getNumDocs();
+    for (int i = 0; i < length; i++) {
+      _stringBuilder.setLength(0);
+      for (int j = 0; j < numArguments; j++) {
+        String[] values = _values[j];
+        if (values != null) {
+          _stringBuilder.append(values[i]);
+        } else {
+          _stringBuilder.append(((LiteralTransformFunction) _arguments.get(j)).getLiteral());
+        }
+      }
+      _results[i] = _stringBuilder.toString();
+    }
+    return _results;
+  }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.operator.blocks.ProjectionBlock;
+import com.linkedin.pinot.core.operator.transform.TransformResultMetadata;
+import com.linkedin.pinot.core.plan.DocIdSetPlanNode;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.joda.time.DateTimeField;
+import org.joda.time.chrono.ISOChronology;
+
+
+/**
+ * The <code>DateTruncTransformFunction</code> class implements the DATE_TRUNC transform function:
+ * <code>dateTrunc('unit', timeExpr[, 'inputTimeUnit'])</code>, which truncates the time values (in UTC) to the given
+ * unit (SECOND, MINUTE, HOUR, DAY, WEEK, MONTH, QUARTER or YEAR).
+ * <p>The input time unit defaults to MILLISECONDS, and the results are in the same time unit as the input.
+ */
+public class DateTruncTransformFunction extends BaseTransformFunction {
+  public static final String FUNCTION_NAME = "dateTrunc";
+
+  private static final ISOChronology UTC_CHRONOLOGY = ISOChronology.getInstanceUTC();
+
+  private enum TruncUnit {
+    SECOND, MINUTE, HOUR, DAY, WEEK, MONTH, QUARTER, YEAR
+  }
+
+  private TransformFunction _mainTransformFunction;
+  private TruncUnit _truncUnit;
+  private TimeUnit _inputTimeUnit = TimeUnit.MILLISECONDS;
+  private long[] _outputTimes;
+
+  @Override
+  public String getName() {
+    return FUNCTION_NAME;
+  }
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    // Check that there are 2 or 3 arguments
+    int numArguments = arguments.size();
+    if (numArguments != 2 && numArguments != 3) {
+      throw new IllegalArgumentException("2 or 3 arguments are required for DATE_TRUNC transform function");
+    }
+
+    _truncUnit = TruncUnit.valueOf(((LiteralTransformFunction) arguments.get(0)).getLiteral().toUpperCase());
+
+    TransformFunction secondArgument = arguments.get(1);
+    if (secondArgument instanceof LiteralTransformFunction || !secondArgument.getResultMetadata().isSingleValue()) {
+      throw new IllegalArgumentException("The second argument of DATE_TRUNC transform function must be a "
+          + "single-valued column or a transform function");
+    }
+    _mainTransformFunction = secondArgument;
+
+    if (numArguments == 3) {
+      _inputTimeUnit = TimeUnit.valueOf(((LiteralTransformFunction) arguments.get(2)).getLiteral().toUpperCase());
+    }
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return LONG_SV_NO_DICTIONARY_METADATA;
+  }
+
+  @Override
+  public long[] transformToLongValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_outputTimes == null) {
+      _outputTimes = new long[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    }
+
+    long[] inputTimes = _mainTransformFunction.transformToLongValuesSV(projectionBlock);
+    int length = projectionBlock.getNumDocs();
+    switch (_truncUnit) {
+      // Fixed size units can be truncated with arithmetic only
+      case SECOND:
+        truncate(inputTimes, length, TimeUnit.SECONDS.toMillis(1));
+        break;
+      case MINUTE:
+        truncate(inputTimes, length, TimeUnit.MINUTES.toMillis(1));
+        break;
+      case HOUR:
+        truncate(inputTimes, length, TimeUnit.HOURS.toMillis(1));
+        break;
+      case DAY:
+        truncate(inputTimes, length, TimeUnit.DAYS.toMillis(1));
+        break;
+      case WEEK:
+        truncate(inputTimes, length, UTC_CHRONOLOGY.weekOfWeekyear());
+        break;
+      case MONTH:
+        truncate(inputTimes, length, UTC_CHRONOLOGY.monthOfYear());
+        break;
+      case QUARTER:
+        DateTimeField monthOfYear = UTC_CHRONOLOGY.monthOfYear();
+        for (int i = 0; i < length; i++) {
+          long timeMs = monthOfYear.roundFloor(_inputTimeUnit.toMillis(inputTimes[i]));
+          timeMs = monthOfYear.add(timeMs, -((monthOfYear.get(timeMs) - 1) % 3));
+          _outputTimes[i] = _inputTimeUnit.convert(timeMs, TimeUnit.MILLISECONDS);
+        }
+        break;
+      case YEAR:
+        truncate(inputTimes, length, UTC_CHRONOLOGY.year());
+        break;
+      default:
+        throw new IllegalStateException();
+    }
+    return _outputTimes;
+  }
+
+  private void truncate(long[] inputTimes, int length, long unitMs) {
+    for (int i = 0; i < length; i++) {
+      long timeMs = _inputTimeUnit.toMillis(inputTimes[i]);
+      _outputTimes[i] = _inputTimeUnit.convert(Math.floorDiv(timeMs, unitMs) * unitMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void truncate(long[] inputTimes, int length, DateTimeField dateTimeField) {
+    for (int i = 0; i < length; i++) {
+      long timeMs = dateTimeField.roundFloor(_inputTimeUnit.toMillis(inputTimes[i]));
+      _outputTimes[i] = _inputTimeUnit.convert(timeMs, TimeUnit.MILLISECONDS);
+    }
+  }
+}
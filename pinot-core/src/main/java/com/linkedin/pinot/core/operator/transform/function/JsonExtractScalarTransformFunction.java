@@ -0,0 +1,257 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.operator.blocks.ProjectionBlock;
+import com.linkedin.pinot.core.operator.transform.TransformResultMetadata;
+import com.linkedin.pinot.core.plan.DocIdSetPlanNode;
+import com.linkedin.pinot.core.util.ArrayCopyUtils;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+
+
+/**
+ * The <code>JsonExtractScalarTransformFunction</code> class implements the JSON_EXTRACT_SCALAR transform function:
+ * <code>jsonExtractScalar(jsonExpr, 'jsonPath', 'resultType'[, 'defaultValue'])</code>.
+ * <ul>
+ *   <li>jsonPath: path of the scalar value from the root, e.g. <code>$.a.b[0].c</code></li>
+ *   <li>resultType: one of INT, LONG, FLOAT, DOUBLE and STRING</li>
+ *   <li>defaultValue: value for the rows where the path does not exist or is not a scalar, the query fails on such rows
+ *   if it is not specified</li>
+ * </ul>
+ */
+public class JsonExtractScalarTransformFunction extends BaseTransformFunction {
+  public static final String FUNCTION_NAME = "jsonExtractScalar";
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private TransformFunction _jsonTransformFunction;
+  private String _jsonPath;
+  // Field name (String) or array index (Integer) for each step of the path
+  private List<Object> _pathElements;
+  private TransformResultMetadata _resultMetadata;
+  private String _defaultValue;
+  private String[] _stringValues;
+  private int[] _intValues;
+  private long[] _longValues;
+  private float[] _floatValues;
+  private double[] _doubleValues;
+
+  @Override
+  public String getName() {
+    return FUNCTION_NAME;
+  }
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    // Check that there are 3 or 4 arguments
+    int numArguments = arguments.size();
+    if (numArguments != 3 && numArguments != 4) {
+      throw new IllegalArgumentException("3 or 4 arguments are required for JSON_EXTRACT_SCALAR transform function");
+    }
+
+    TransformFunction firstArgument = arguments.get(0);
+    if (firstArgument instanceof LiteralTransformFunction || !firstArgument.getResultMetadata().isSingleValue()
+        || firstArgument.getResultMetadata().getDataType() != FieldSpec.DataType.STRING) {
+      throw new IllegalArgumentException("The first argument of JSON_EXTRACT_SCALAR transform function must be a "
+          + "single-valued string column or transform function");
+    }
+    _jsonTransformFunction = firstArgument;
+
+    _jsonPath = ((LiteralTransformFunction) arguments.get(1)).getLiteral();
+    _pathElements = parseJsonPath(_jsonPath);
+
+    FieldSpec.DataType dataType =
+        FieldSpec.DataType.valueOf(((LiteralTransformFunction) arguments.get(2)).getLiteral().toUpperCase());
+    switch (dataType) {
+      case INT:
+        _resultMetadata = INT_SV_NO_DICTIONARY_METADATA;
+        break;
+      case LONG:
+        _resultMetadata = LONG_SV_NO_DICTIONARY_METADATA;
+        break;
+      case FLOAT:
+        _resultMetadata = new TransformResultMetadata(FieldSpec.DataType.FLOAT, true, false);
+        break;
+      case DOUBLE:
+        _resultMetadata = DOUBLE_SV_NO_DICTIONARY_METADATA;
+        break;
+      case STRING:
+        _resultMetadata = STRING_SV_NO_DICTIONARY_METADATA;
+        break;
+      default:
+        throw new IllegalArgumentException(
+            "Unsupported result type for JSON_EXTRACT_SCALAR transform function: " + dataType);
+    }
+
+    if (numArguments == 4) {
+      _defaultValue = ((LiteralTransformFunction) arguments.get(3)).getLiteral();
+    }
+  }
+
+  /**
+   * Parses a JSON path such as <code>$.a.b[0].c</code> into field names and array indexes.
+   */
+  private static List<Object> parseJsonPath(String jsonPath) {
+    if (!jsonPath.startsWith("$")) {
+      throw new IllegalArgumentException("JSON path must start with '$': " + jsonPath);
+    }
+    List<Object> pathElements = new ArrayList<>();
+    int length = jsonPath.length();
+    int index = 1;
+    while (index < length) {
+      char c = jsonPath.charAt(index);
+      if (c == '.') {
+        int end = index + 1;
+        while (end < length && jsonPath.charAt(end) != '.' && jsonPath.charAt(end) != '[') {
+          end++;
+        }
+        if (end == index + 1) {
+          throw new IllegalArgumentException("Empty field name in JSON path: " + jsonPath);
+        }
+        pathElements.add(jsonPath.substring(index + 1, end));
+        index = end;
+      } else if (c == '[') {
+        int end = jsonPath.indexOf(']', index);
+        if (end < 0) {
+          throw new IllegalArgumentException("Unclosed array index in JSON path: " + jsonPath);
+        }
+        pathElements.add(Integer.parseInt(jsonPath.substring(index + 1, end).trim()));
+        index = end + 1;
+      } else {
+        throw new IllegalArgumentException("Illegal JSON path: " + jsonPath);
+      }
+    }
+    return pathElements;
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return _resultMetadata;
+  }
+
+  /**
+   * Extracts the scalar values for the block as strings.
+   */
+  private String[] extractStringValues(ProjectionBlock projectionBlock) {
+    if (_stringValues == null) {
+      _stringValues = new String[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    }
+
+    String[] jsonValues = _jsonTransformFunction.transformToStringValuesSV(projectionBlock);
+    int length = projectionBlock.getNumDocs();
+    for (int i = 0; i < length; i++) {
+      String value = extractValue(jsonValues[i]);
+      if (value == null) {
+        if (_defaultValue == null) {
+          throw new IllegalStateException(
+              "Cannot extract scalar value with JSON path: " + _jsonPath + " from: " + jsonValues[i]);
+        }
+        value = _defaultValue;
+      }
+      _stringValues[i] = value;
+    }
+    return _stringValues;
+  }
+
+  @Nullable
+  private String extractValue(String json) {
+    JsonNode node;
+    try {
+      node = OBJECT_MAPPER.readTree(json);
+    } catch (IOException e) {
+      return null;
+    }
+    for (Object pathElement : _pathElements) {
+      if (node == null) {
+        return null;
+      }
+      if (pathElement instanceof String) {
+        node = node.get((String) pathElement);
+      } else {
+        node = node.get((Integer) pathElement);
+      }
+    }
+    if (node == null || node.isNull() || !node.isValueNode()) {
+      return null;
+    }
+    return node.asText();
+  }
+
+  @Override
+  public int[] transformToIntValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() != FieldSpec.DataType.INT) {
+      return super.transformToIntValuesSV(projectionBlock);
+    }
+    if (_intValues == null) {
+      _intValues = new int[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    }
+    ArrayCopyUtils.copy(extractStringValues(projectionBlock), _intValues, projectionBlock.getNumDocs());
+    return _intValues;
+  }
+
+  @Override
+  public long[] transformToLongValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() != FieldSpec.DataType.LONG) {
+      return super.transformToLongValuesSV(projectionBlock);
+    }
+    if (_longValues == null) {
+      _longValues = new long[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    }
+    ArrayCopyUtils.copy(extractStringValues(projectionBlock), _longValues, projectionBlock.getNumDocs());
+    return _longValues;
+  }
+
+  @Override
+  public float[] transformToFloatValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() != FieldSpec.DataType.FLOAT) {
+      return super.transformToFloatValuesSV(projectionBlock);
+    }
+    if (_floatValues == null) {
+      _floatValues = new float[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    }
+    ArrayCopyUtils.copy(extractStringValues(projectionBlock), _floatValues, projectionBlock.getNumDocs());
+    return _floatValues;
+  }
+
+  @Override
+  public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() != FieldSpec.DataType.DOUBLE) {
+      return super.transformToDoubleValuesSV(projectionBlock);
+    }
+    if (_doubleValues == null) {
+      _doubleValues = new double[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    }
+    ArrayCopyUtils.copy(extractStringValues(projectionBlock), _doubleValues, projectionBlock.getNumDocs());
+    return _doubleValues;
+  }
+
+  @Override
+  public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_resultMetadata.getDataType() != FieldSpec.DataType.STRING) {
+      return super.transformToStringValuesSV(projectionBlock);
+    }
+    return extractStringValues(projectionBlock);
+  }
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.operator.blocks.ProjectionBlock;
+import com.linkedin.pinot.core.operator.transform.TransformResultMetadata;
+import com.linkedin.pinot.core.plan.DocIdSetPlanNode;
+import com.linkedin.pinot.core.util.ArrayCopyUtils;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * A group of single parameter math transform functions (ABS, CEIL, FLOOR, EXP, LN, SQRT), each applied to the whole
+ * block of values at once.
+ */
+public abstract class SingleParamMathTransformFunction extends BaseTransformFunction {
+  private TransformFunction _transformFunction;
+  private double[] _values;
+  private double[] _results;
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    // Check that there is exactly 1 argument
+    if (arguments.size() != 1) {
+      throw new IllegalArgumentException(
+          "Exactly 1 argument is required for " + getName().toUpperCase() + " transform function");
+    }
+
+    TransformFunction argument = arguments.get(0);
+    if (argument instanceof LiteralTransformFunction || !argument.getResultMetadata().isSingleValue()) {
+      throw new IllegalArgumentException("The argument of " + getName().toUpperCase()
+          + " transform function must be a single-valued column or a transform function");
+    }
+    _transformFunction = argument;
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return DOUBLE_SV_NO_DICTIONARY_METADATA;
+  }
+
+  @Override
+  public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_results == null) {
+      _results = new double[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    }
+
+    int length = projectionBlock.getNumDocs();
+    double[] values;
+    if (_transformFunction.getResultMetadata().getDataType() == FieldSpec.DataType.STRING) {
+      // STRING columns cannot return double values, parse the strings instead
+      if (_values == null) {
+        _values = new double[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+      }
+      String[] stringValues = _transformFunction.transformToStringValuesSV(projectionBlock);
+      ArrayCopyUtils.copy(stringValues, _values, length);
+      values = _values;
+    } else {
+      values = _transformFunction.transformToDoubleValuesSV(projectionBlock);
+    }
+    applyMathOperator(values, _results, length);
+    return _results;
+  }
+
+  /**
+   * Applies the math operator to the first <code>length</code> values and puts the results into the given array.
+   */
+  protected abstract void applyMathOperator(double[] values, double[] results, int length);
+
+  public static class AbsTransformFunction extends SingleParamMathTransformFunction {
+    public static final String FUNCTION_NAME = "abs";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected void applyMathOperator(double[] values, double[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = Math.abs(values[i]);
+      }
+    }
+  }
+
+  public static class CeilTransformFunction extends SingleParamMathTransformFunction {
+    public static final String FUNCTION_NAME = "ceil";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected void applyMathOperator(double[] values, double[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = Math.ceil(values[i]);
+      }
+    }
+  }
+
+  public static class FloorTransformFunction extends SingleParamMathTransformFunction {
+    public static final String FUNCTION_NAME = "floor";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected void applyMathOperator(double[] values, double[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = Math.floor(values[i]);
+      }
+    }
+  }
+
+  public static class ExpTransformFunction extends SingleParamMathTransformFunction {
+    public static final String FUNCTION_NAME = "exp";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected void applyMathOperator(double[] values, double[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = Math.exp(values[i]);
+      }
+    }
+  }
+
+  public static class LnTransformFunction extends SingleParamMathTransformFunction {
+    public static final String FUNCTION_NAME = "ln";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected void applyMathOperator(double[] values, double[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = Math.log(values[i]);
+      }
+    }
+  }
+
+  public static class SqrtTransformFunction extends SingleParamMathTransformFunction {
+    public static final String FUNCTION_NAME = "sqrt";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected void applyMathOperator(double[] values, double[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = Math.sqrt(values[i]);
+      }
+    }
+  }
+}
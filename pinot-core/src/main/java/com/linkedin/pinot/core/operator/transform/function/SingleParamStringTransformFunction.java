@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.operator.blocks.ProjectionBlock;
+import com.linkedin.pinot.core.operator.transform.TransformResultMetadata;
+import com.linkedin.pinot.core.plan.DocIdSetPlanNode;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * A group of single parameter string transform functions (UPPER, LOWER, TRIM), each applied to the whole block of
+ * values at once.
+ */
+public abstract class SingleParamStringTransformFunction extends BaseTransformFunction {
+  private TransformFunction _transformFunction;
+  private String[] _results;
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    // Check that there is exactly 1 argument
+    if (arguments.size() != 1) {
+      throw new IllegalArgumentException(
+          "Exactly 1 argument is required for " + getName().toUpperCase() + " transform function");
+    }
+
+    TransformFunction argument = arguments.get(0);
+    if (argument instanceof LiteralTransformFunction || !argument.getResultMetadata().isSingleValue()) {
+      throw new IllegalArgumentException("The argument of " + getName().toUpperCase()
+          + " transform function must be a single-valued column or a transform function");
+    }
+    _transformFunction = argument;
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return STRING_SV_NO_DICTIONARY_METADATA;
+  }
+
+  @Override
+  public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_results == null) {
+      _results = new String[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    }
+
+    String[] values = _transformFunction.transformToStringValuesSV(projectionBlock);
+    applyStringOperator(values, _results, projectionBlock.getNumDocs());
+    return _results;
+  }
+
+  /**
+   * Applies the string operator to the first <code>length</code> values and puts the results into the given array.
+   */
+  protected abstract void applyStringOperator(String[] values, String[] results, int length);
+
+  public static class UpperTransformFunction extends SingleParamStringTransformFunction {
+    public static final String FUNCTION_NAME = "upper";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected void applyStringOperator(String[] values, String[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = values[i].toUpperCase();
+      }
+    }
+  }
+
+  public static class LowerTransformFunction extends SingleParamStringTransformFunction {
+    public static final String FUNCTION_NAME = "lower";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected void applyStringOperator(String[] values, String[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = values[i].toLowerCase();
+      }
+    }
+  }
+
+  public static class TrimTransformFunction extends SingleParamStringTransformFunction {
+    public static final String FUNCTION_NAME = "trim";
+
+    @Override
+    public String getName() {
+      return FUNCTION_NAME;
+    }
+
+    @Override
+    protected void applyStringOperator(String[] values, String[] results, int length) {
+      for (int i = 0; i < length; i++) {
+        results[i] = values[i].trim();
+      }
+    }
+  }
+}
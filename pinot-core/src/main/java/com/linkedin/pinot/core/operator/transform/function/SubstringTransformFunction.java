@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.operator.blocks.ProjectionBlock;
+import com.linkedin.pinot.core.operator.transform.TransformResultMetadata;
+import com.linkedin.pinot.core.plan.DocIdSetPlanNode;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The <code>SubstringTransformFunction</code> class implements the SUBSTR transform function:
+ * <code>substr(expr, beginIndex[, endIndex])</code>, where the indexes are 0-based, begin inclusive and end exclusive.
+ * Indexes are clipped to the length of each value.
+ */
+public class SubstringTransformFunction extends BaseTransformFunction {
+  public static final String FUNCTION_NAME = "substr";
+
+  private TransformFunction _transformFunction;
+  private int _beginIndex;
+  private int _endIndex = Integer.MAX_VALUE;
+  private String[] _results;
+
+  @Override
+  public String getName() {
+    return FUNCTION_NAME;
+  }
+
+  @Override
+  public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    // Check that there are 2 or 3 arguments
+    int numArguments = arguments.size();
+    if (numArguments != 2 && numArguments != 3) {
+      throw new IllegalArgumentException("2 or 3 arguments are required for SUBSTR transform function");
+    }
+
+    TransformFunction firstArgument = arguments.get(0);
+    if (firstArgument instanceof LiteralTransformFunction || !firstArgument.getResultMetadata().isSingleValue()) {
+      throw new IllegalArgumentException(
+          "The first argument of SUBSTR transform function must be a single-valued column or a transform function");
+    }
+    _transformFunction = firstArgument;
+
+    _beginIndex = Integer.parseInt(((LiteralTransformFunction) arguments.get(1)).getLiteral());
+    if (numArguments == 3) {
+      _endIndex = Integer.parseInt(((LiteralTransformFunction) arguments.get(2)).getLiteral());
+    }
+    if (_beginIndex < 0 || _endIndex < _beginIndex) {
+      throw new IllegalArgumentException("Illegal indexes for SUBSTR transform function");
+    }
+  }
+
+  @Override
+  public TransformResultMetadata getResultMetadata() {
+    return STRING_SV_NO_DICTIONARY_METADATA;
+  }
+
+  @Override
+  public String[] transformToStringValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+    if (_results == null) {
+      _results = new String[DocIdSetPlanNode.MAX_DOC_PER_CALL];
+    }
+
+    String[] values = _transformFunction.transformToStringValuesSV(projectionBlock);
+    int length = projectionBlock.getNumDocs();
+    for (int i = 0; i < length; i++) {
+      String value = values[i];
+      int valueLength = value.length();
+      _results[i] = value.substring(Math.min(_beginIndex, valueLength), Math.min(_endIndex, valueLength));
+    }
+    return _results;
+  }
+}
@@ -20,10 +20,12 @@ import com.linkedin.pinot.core.common.DataSource;
 import com.linkedin.pinot.core.query.exception.BadQueryRequestException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 
 /**
@@ -45,6 +47,51 @@ public class TransformFunctionFactory {
           put(DateTimeConversionTransformFunction.FUNCTION_NAME.toLowerCase(),
               DateTimeConversionTransformFunction.class);
           put(ValueInTransformFunction.FUNCTION_NAME.toLowerCase(), ValueInTransformFunction.class);
+
+          // Math functions
+          put(SingleParamMathTransformFunction.AbsTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamMathTransformFunction.AbsTransformFunction.class);
+          put(SingleParamMathTransformFunction.CeilTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamMathTransformFunction.CeilTransformFunction.class);
+          put(SingleParamMathTransformFunction.FloorTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamMathTransformFunction.FloorTransformFunction.class);
+          put(SingleParamMathTransformFunction.ExpTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamMathTransformFunction.ExpTransformFunction.class);
+          put(SingleParamMathTransformFunction.LnTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamMathTransformFunction.LnTransformFunction.class);
+          put(SingleParamMathTransformFunction.SqrtTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamMathTransformFunction.SqrtTransformFunction.class);
+
+          // String functions
+          put(SingleParamStringTransformFunction.UpperTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamStringTransformFunction.UpperTransformFunction.class);
+          put(SingleParamStringTransformFunction.LowerTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamStringTransformFunction.LowerTransformFunction.class);
+          put(SingleParamStringTransformFunction.TrimTransformFunction.FUNCTION_NAME.toLowerCase(),
+              SingleParamStringTransformFunction.TrimTransformFunction.class);
+          put(SubstringTransformFunction.FUNCTION_NAME.toLowerCase(), SubstringTransformFunction.class);
+          put(ConcatTransformFunction.FUNCTION_NAME.toLowerCase(), ConcatTransformFunction.class);
+          put(JsonExtractScalarTransformFunction.FUNCTION_NAME.toLowerCase(),
+              JsonExtractScalarTransformFunction.class);
+
+          // Comparison and conditional functions
+          put(BinaryOperatorTransformFunction.EqualsTransformFunction.FUNCTION_NAME.toLowerCase(),
+              BinaryOperatorTransformFunction.EqualsTransformFunction.class);
+          put(BinaryOperatorTransformFunction.NotEqualsTransformFunction.FUNCTION_NAME.toLowerCase(),
+              BinaryOperatorTransformFunction.NotEqualsTransformFunction.class);
+          put(BinaryOperatorTransformFunction.GreaterThanTransformFunction.FUNCTION_NAME.toLowerCase(),
+              BinaryOperatorTransformFunction.GreaterThanTransformFunction.class);
+          put(BinaryOperatorTransformFunction.GreaterThanOrEqualTransformFunction.FUNCTION_NAME.toLowerCase(),
+              BinaryOperatorTransformFunction.GreaterThanOrEqualTransformFunction.class);
+          put(BinaryOperatorTransformFunction.LessThanTransformFunction.FUNCTION_NAME.toLowerCase(),
+              BinaryOperatorTransformFunction.LessThanTransformFunction.class);
+          put(BinaryOperatorTransformFunction.LessThanOrEqualTransformFunction.FUNCTION_NAME.toLowerCase(),
+              BinaryOperatorTransformFunction.LessThanOrEqualTransformFunction.class);
+          put(CaseTransformFunction.FUNCTION_NAME.toLowerCase(), CaseTransformFunction.class);
+
+          // Type and time functions
+          put(CastTransformFunction.FUNCTION_NAME.toLowerCase(), CastTransformFunction.class);
+          put(DateTruncTransformFunction.FUNCTION_NAME.toLowerCase(), DateTruncTransformFunction.class);
         }
       };
 
@@ -81,6 +128,73 @@ public class TransformFunctionFactory {
    */
   public static TransformFunction get(@Nonnull TransformExpressionTree expression,
       @Nonnull Map<String, DataSource> dataSourceMap) {
+    return get(expression, dataSourceMap, null, null);
+  }
+
+  /**
+   * Returns a map from expression to transform function for the given expressions.
+   * <p>Identical function sub-expressions are eliminated: a function expression which appears more than once across
+   * the given expressions (or as one of the given expressions) is instantiated only once, and wrapped in a
+   * {@link CachingTransformFunction} so that it is evaluated only once per block no matter how many expressions or
+   * consumers share it.
+   *
+   * @param expressions Set of transform expressions
+   * @param dataSourceMap Map from column name to column data source
+   * @return Map from expression to transform function
+   */
+  public static Map<TransformExpressionTree, TransformFunction> getTransformFunctionMap(
+      @Nonnull Set<TransformExpressionTree> expressions, @Nonnull Map<String, DataSource> dataSourceMap) {
+    // Count the occurrences of each function sub-expression
+    Map<TransformExpressionTree, Integer> numOccurrencesMap = new HashMap<>();
+    for (TransformExpressionTree expression : expressions) {
+      countFunctionOccurrences(expression, numOccurrencesMap);
+    }
+
+    // Share the function sub-expressions that appear more than once, and the top-level function expressions which
+    // can be consumed by multiple aggregation and group-by expressions
+    Set<TransformExpressionTree> sharedExpressions = new HashSet<>();
+    for (Map.Entry<TransformExpressionTree, Integer> entry : numOccurrencesMap.entrySet()) {
+      TransformExpressionTree expression = entry.getKey();
+      if (entry.getValue() > 1 || expressions.contains(expression)) {
+        sharedExpressions.add(expression);
+      }
+    }
+
+    Map<TransformExpressionTree, TransformFunction> sharedTransformFunctionMap = new HashMap<>();
+    Map<TransformExpressionTree, TransformFunction> transformFunctionMap = new HashMap<>();
+    for (TransformExpressionTree expression : expressions) {
+      transformFunctionMap.put(expression,
+          get(expression, dataSourceMap, sharedExpressions, sharedTransformFunctionMap));
+    }
+    return transformFunctionMap;
+  }
+
+  private static void countFunctionOccurrences(TransformExpressionTree expression,
+      Map<TransformExpressionTree, Integer> numOccurrencesMap) {
+    if (expression.getExpressionType() == TransformExpressionTree.ExpressionType.FUNCTION) {
+      numOccurrencesMap.merge(expression, 1, Integer::sum);
+      for (TransformExpressionTree child : expression.getChildren()) {
+        countFunctionOccurrences(child, numOccurrencesMap);
+      }
+    }
+  }
+
+  /**
+   * Helper method to return an instance of transform function for the given expression.
+   * <p>If the expression is one of the given shared expressions, the transform function is instantiated only once,
+   * wrapped in a {@link CachingTransformFunction} and stored into the shared transform function map.
+   */
+  private static TransformFunction get(TransformExpressionTree expression, Map<String, DataSource> dataSourceMap,
+      @Nullable Set<TransformExpressionTree> sharedExpressions,
+      @Nullable Map<TransformExpressionTree, TransformFunction> sharedTransformFunctionMap) {
+    boolean shared = sharedExpressions != null && sharedExpressions.contains(expression);
+    if (shared) {
+      TransformFunction sharedTransformFunction = sharedTransformFunctionMap.get(expression);
+      if (sharedTransformFunction != null) {
+        return sharedTransformFunction;
+      }
+    }
+
     TransformFunction transformFunction;
     switch (expression.getExpressionType()) {
       case FUNCTION:
@@ -97,7 +211,7 @@ public class TransformFunctionFactory {
         List<TransformExpressionTree> children = expression.getChildren();
         List<TransformFunction> arguments = new ArrayList<>(children.size());
         for (TransformExpressionTree child : children) {
-          arguments.add(TransformFunctionFactory.get(child, dataSourceMap));
+          arguments.add(get(child, dataSourceMap, sharedExpressions, sharedTransformFunctionMap));
         }
         try {
           transformFunction.init(arguments, dataSourceMap);
@@ -105,6 +219,10 @@ public class TransformFunctionFactory {
           throw new BadQueryRequestException(
               "Caught exception while initializing transform function: " + transformFunction.getName(), e);
         }
+        if (shared) {
+          transformFunction = new CachingTransformFunction(transformFunction);
+          sharedTransformFunctionMap.put(expression, transformFunction);
+        }
         return transformFunction;
       case IDENTIFIER:
         String columnName = expression.getValue();
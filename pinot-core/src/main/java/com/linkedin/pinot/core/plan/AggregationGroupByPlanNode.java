@@ -15,6 +15,7 @@
  */
 package com.linkedin.pinot.core.plan;
 
+import com.google.common.base.Supplier;
 import com.linkedin.pinot.common.request.AggregationInfo;
 import com.linkedin.pinot.common.request.BrokerRequest;
 import com.linkedin.pinot.common.request.GroupBy;
@@ -33,6 +34,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -92,6 +95,35 @@ public class AggregationGroupByPlanNode implements PlanNode {
     _starTreeTransformPlanNode = null;
   }
 
+  /**
+   * Constructor for the plan that only processes the documents within the given document id range of the segment,
+   * which never uses star-tree.
+   */
+  public AggregationGroupByPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest,
+      int maxInitialResultHolderCapacity, int numGroupsLimit, int startDocId, int endDocId) {
+    this(indexSegment, brokerRequest, maxInitialResultHolderCapacity, numGroupsLimit, startDocId, endDocId, null);
+  }
+
+  /**
+   * Constructor for the plan that only processes the documents within the given document id range of the segment,
+   * which never uses star-tree. The bitmap of the documents matching the filter can be shared by the ranges of the
+   * segment so that the filter is evaluated only once.
+   */
+  public AggregationGroupByPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest,
+      int maxInitialResultHolderCapacity, int numGroupsLimit, int startDocId, int endDocId,
+      @Nullable Supplier<ImmutableRoaringBitmap> filterBitmapSupplier) {
+    _indexSegment = indexSegment;
+    _maxInitialResultHolderCapacity = maxInitialResultHolderCapacity;
+    _numGroupsLimit = numGroupsLimit;
+    _aggregationInfos = brokerRequest.getAggregationsInfo();
+    _functionContexts =
+        AggregationFunctionUtils.getAggregationFunctionContexts(_aggregationInfos, indexSegment.getSegmentMetadata());
+    _groupBy = brokerRequest.getGroupBy();
+    _transformPlanNode =
+        new TransformPlanNode(_indexSegment, brokerRequest, startDocId, endDocId, filterBitmapSupplier);
+    _starTreeTransformPlanNode = null;
+  }
+
   @Override
   public AggregationGroupByOperator run() {
     int numTotalRawDocs = _indexSegment.getSegmentMetadata().getTotalRawDocs();
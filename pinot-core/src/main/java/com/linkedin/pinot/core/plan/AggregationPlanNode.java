@@ -15,6 +15,7 @@
  */
 package com.linkedin.pinot.core.plan;
 
+import com.google.common.base.Supplier;
 import com.linkedin.pinot.common.request.AggregationInfo;
 import com.linkedin.pinot.common.request.BrokerRequest;
 import com.linkedin.pinot.common.utils.request.FilterQueryTree;
@@ -31,6 +32,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -79,6 +82,31 @@ public class AggregationPlanNode implements PlanNode {
     _starTreeTransformPlanNode = null;
   }
 
+  /**
+   * Constructor for the plan that only processes the documents within the given document id range of the segment,
+   * which never uses star-tree.
+   */
+  public AggregationPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest, int startDocId,
+      int endDocId) {
+    this(indexSegment, brokerRequest, startDocId, endDocId, null);
+  }
+
+  /**
+   * Constructor for the plan that only processes the documents within the given document id range of the segment,
+   * which never uses star-tree. The bitmap of the documents matching the filter can be shared by the ranges of the
+   * segment so that the filter is evaluated only once.
+   */
+  public AggregationPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest, int startDocId,
+      int endDocId, @Nullable Supplier<ImmutableRoaringBitmap> filterBitmapSupplier) {
+    _indexSegment = indexSegment;
+    _aggregationInfos = brokerRequest.getAggregationsInfo();
+    _functionContexts =
+        AggregationFunctionUtils.getAggregationFunctionContexts(_aggregationInfos, indexSegment.getSegmentMetadata());
+    _transformPlanNode =
+        new TransformPlanNode(_indexSegment, brokerRequest, startDocId, endDocId, filterBitmapSupplier);
+    _starTreeTransformPlanNode = null;
+  }
+
   @Override
   public AggregationOperator run() {
     int numTotalRawDocs = _indexSegment.getSegmentMetadata().getTotalRawDocs();
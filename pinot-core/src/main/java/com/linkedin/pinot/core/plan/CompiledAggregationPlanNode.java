@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.plan;
+
+import com.linkedin.pinot.core.indexsegment.IndexSegment;
+import com.linkedin.pinot.core.operator.query.CompiledAggregationOperator;
+import com.linkedin.pinot.core.query.codegen.CompiledAggregation;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>CompiledAggregationPlanNode</code> class provides the execution plan for aggregation only query that is
+ * served by a generated aggregation kernel on a single segment.
+ */
+public class CompiledAggregationPlanNode implements PlanNode {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CompiledAggregationPlanNode.class);
+
+  private final IndexSegment _indexSegment;
+  private final CompiledAggregation _compiledAggregation;
+
+  public CompiledAggregationPlanNode(@Nonnull IndexSegment indexSegment,
+      @Nonnull CompiledAggregation compiledAggregation) {
+    _indexSegment = indexSegment;
+    _compiledAggregation = compiledAggregation;
+  }
+
+  @Override
+  public CompiledAggregationOperator run() {
+    return new CompiledAggregationOperator(_compiledAggregation,
+        _indexSegment.getSegmentMetadata().getTotalRawDocs());
+  }
+
+  @Override
+  public void showTree(String prefix) {
+    LOGGER.debug(prefix + "Compiled Aggregation Plan Node:");
+    LOGGER.debug(prefix + "Operator: CompiledAggregationOperator");
+    LOGGER.debug(prefix + "Argument 0: IndexSegment - " + _indexSegment.getSegmentName());
+    LOGGER.debug(prefix + "Argument 1: Kernel - " + _compiledAggregation.getKernel().getClass().getName());
+  }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.plan;
+
+import com.linkedin.pinot.common.request.AggregationInfo;
+import com.linkedin.pinot.common.request.BrokerRequest;
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.indexsegment.IndexSegment;
+import com.linkedin.pinot.core.operator.query.DictionaryIdBasedAggregationOperator;
+import com.linkedin.pinot.core.query.aggregation.AggregationFunctionContext;
+import com.linkedin.pinot.core.query.aggregation.function.AggregationFunctionType;
+import com.linkedin.pinot.core.query.aggregation.function.AggregationFunctionUtils;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>DictionaryIdBasedAggregationPlanNode</code> class provides the execution plan for filtered aggregation only
+ * query that can be answered from the dictionary ids of the matching documents on a single segment.
+ */
+public class DictionaryIdBasedAggregationPlanNode implements PlanNode {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DictionaryIdBasedAggregationPlanNode.class);
+
+  private final IndexSegment _indexSegment;
+  private final List<AggregationInfo> _aggregationInfos;
+  private final AggregationFunctionContext[] _functionContexts;
+  private final Map<String, DataSource> _dataSourceMap = new HashMap<>();
+  private final DocIdSetPlanNode _docIdSetPlanNode;
+
+  public DictionaryIdBasedAggregationPlanNode(@Nonnull IndexSegment indexSegment,
+      @Nonnull BrokerRequest brokerRequest) {
+    _indexSegment = indexSegment;
+    _aggregationInfos = brokerRequest.getAggregationsInfo();
+    _functionContexts =
+        AggregationFunctionUtils.getAggregationFunctionContexts(_aggregationInfos, indexSegment.getSegmentMetadata());
+    for (AggregationFunctionContext functionContext : _functionContexts) {
+      if (functionContext.getAggregationFunction().getType() != AggregationFunctionType.COUNT) {
+        String column = functionContext.getColumn();
+        if (!_dataSourceMap.containsKey(column)) {
+          _dataSourceMap.put(column, indexSegment.getDataSource(column));
+        }
+      }
+    }
+    _docIdSetPlanNode = new DocIdSetPlanNode(indexSegment, brokerRequest);
+  }
+
+  @Override
+  public DictionaryIdBasedAggregationOperator run() {
+    return new DictionaryIdBasedAggregationOperator(_functionContexts, _docIdSetPlanNode.run(), _dataSourceMap,
+        _indexSegment.getSegmentMetadata().getTotalRawDocs());
+  }
+
+  @Override
+  public void showTree(String prefix) {
+    LOGGER.debug(prefix + "Dictionary Id Based Aggregation Plan Node:");
+    LOGGER.debug(prefix + "Operator: DictionaryIdBasedAggregationOperator");
+    LOGGER.debug(prefix + "Argument 0: IndexSegment - " + _indexSegment.getSegmentName());
+    LOGGER.debug(prefix + "Argument 1: Aggregations - " + _aggregationInfos);
+    LOGGER.debug(prefix + "Argument 2: DocIdSetPlanNode -");
+    _docIdSetPlanNode.showTree(prefix + "    ");
+  }
+}
@@ -16,10 +16,15 @@
 package com.linkedin.pinot.core.plan;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
 import com.linkedin.pinot.common.request.BrokerRequest;
 import com.linkedin.pinot.core.indexsegment.IndexSegment;
 import com.linkedin.pinot.core.operator.DocIdSetOperator;
+import com.linkedin.pinot.core.operator.filter.BaseFilterOperator;
+import com.linkedin.pinot.core.operator.filter.BitmapBasedFilterOperator;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,12 +37,40 @@ public class DocIdSetPlanNode implements PlanNode {
   private final IndexSegment _indexSegment;
   private final FilterPlanNode _filterPlanNode;
   private final int _maxDocPerCall;
+  private final int _startDocId;
+  private final int _endDocId;
+  private final Supplier<ImmutableRoaringBitmap> _filterBitmapSupplier;
 
-  public DocIdSetPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest, int maxDocPerCall) {
+  /**
+   * Constructor for the plan that only processes the documents within the given document id range of the segment.
+   *
+   * @param indexSegment Segment to process
+   * @param brokerRequest Broker request to process
+   * @param maxDocPerCall Maximum number of document ids in each block
+   * @param startDocId Start document id (inclusive) of the range to process
+   * @param endDocId End document id (inclusive) of the range to process, {@link Integer#MAX_VALUE} for the end of the
+   *                 segment
+   * @param filterBitmapSupplier Supplier of the bitmap of the documents matching the filter shared by the ranges of
+   *                             the segment, or <code>null</code> to evaluate the filter within the range
+   */
+  public DocIdSetPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest, int maxDocPerCall,
+      int startDocId, int endDocId, @Nullable Supplier<ImmutableRoaringBitmap> filterBitmapSupplier) {
     Preconditions.checkState(maxDocPerCall > 0 && maxDocPerCall <= MAX_DOC_PER_CALL);
     _indexSegment = indexSegment;
-    _filterPlanNode = new FilterPlanNode(_indexSegment, brokerRequest);
+    _filterPlanNode = filterBitmapSupplier == null ? new FilterPlanNode(_indexSegment, brokerRequest) : null;
     _maxDocPerCall = maxDocPerCall;
+    _startDocId = startDocId;
+    _endDocId = endDocId;
+    _filterBitmapSupplier = filterBitmapSupplier;
+  }
+
+  public DocIdSetPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest, int maxDocPerCall,
+      int startDocId, int endDocId) {
+    this(indexSegment, brokerRequest, maxDocPerCall, startDocId, endDocId, null);
+  }
+
+  public DocIdSetPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest, int maxDocPerCall) {
+    this(indexSegment, brokerRequest, maxDocPerCall, 0, Integer.MAX_VALUE);
   }
 
   public DocIdSetPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest) {
@@ -46,7 +79,15 @@ public class DocIdSetPlanNode implements PlanNode {
 
   @Override
   public DocIdSetOperator run() {
-    return new DocIdSetOperator(_filterPlanNode.run(), _maxDocPerCall);
+    BaseFilterOperator filterOperator;
+    if (_filterBitmapSupplier != null) {
+      filterOperator =
+          new BitmapBasedFilterOperator(new ImmutableRoaringBitmap[]{_filterBitmapSupplier.get()}, _startDocId,
+              _endDocId, false);
+    } else {
+      filterOperator = _filterPlanNode.run();
+    }
+    return new DocIdSetOperator(filterOperator, _maxDocPerCall, _startDocId, _endDocId);
   }
 
   @Override
@@ -54,7 +95,12 @@ public class DocIdSetPlanNode implements PlanNode {
     LOGGER.debug(prefix + "DocIdSetPlanNode Plan Node :");
     LOGGER.debug(prefix + "Operator: DocIdSetOperator");
     LOGGER.debug(prefix + "Argument 0: IndexSegment - " + _indexSegment.getSegmentName());
-    LOGGER.debug(prefix + "Argument 1: FilterPlanNode:");
-    _filterPlanNode.showTree(prefix + "    ");
+    LOGGER.debug(prefix + "Argument 1: DocIdRange - [" + _startDocId + ", " + _endDocId + "]");
+    if (_filterPlanNode != null) {
+      LOGGER.debug(prefix + "Argument 2: FilterPlanNode:");
+      _filterPlanNode.showTree(prefix + "    ");
+    } else {
+      LOGGER.debug(prefix + "Argument 2: Shared filter bitmap");
+    }
   }
 }
@@ -22,8 +22,12 @@ import com.linkedin.pinot.common.utils.request.RequestUtils;
 import com.linkedin.pinot.core.common.DataSource;
 import com.linkedin.pinot.core.common.Predicate;
 import com.linkedin.pinot.core.indexsegment.IndexSegment;
+import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegment;
 import com.linkedin.pinot.core.operator.filter.BaseFilterOperator;
+import com.linkedin.pinot.core.operator.filter.BitmapBasedFilterOperator;
+import com.linkedin.pinot.core.operator.filter.CachingFilterOperator;
 import com.linkedin.pinot.core.operator.filter.EmptyFilterOperator;
+import com.linkedin.pinot.core.operator.filter.FilterBitmapCache;
 import com.linkedin.pinot.core.operator.filter.FilterOperatorUtils;
 import com.linkedin.pinot.core.operator.filter.MatchAllFilterOperator;
 import com.linkedin.pinot.core.operator.filter.predicate.PredicateEvaluator;
@@ -32,6 +36,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,7 +54,26 @@ public class FilterPlanNode implements PlanNode {
   @Override
   public BaseFilterOperator run() {
     FilterQueryTree rootFilterNode = RequestUtils.generateFilterQueryTree(_brokerRequest);
-    return constructPhysicalOperator(rootFilterNode, _segment, _brokerRequest.getDebugOptions());
+    Map<String, String> debugOptions = _brokerRequest.getDebugOptions();
+
+    // Filter bitmaps are only cached for immutable segments, where the matching document ids never change. Only the
+    // root filter is cached and looked up, so that the children do not pay for the key computation and the lookup.
+    FilterBitmapCache filterBitmapCache = _segment instanceof ImmutableSegment ? FilterBitmapCache.getInstance() : null;
+    if (filterBitmapCache == null || rootFilterNode == null) {
+      return constructPhysicalOperator(rootFilterNode, _segment, debugOptions);
+    }
+
+    String filterKey = FilterBitmapCache.getFilterKey(rootFilterNode);
+    ImmutableRoaringBitmap cachedBitmap = filterBitmapCache.get(_segment, filterKey);
+    if (cachedBitmap != null) {
+      int maxDocId = _segment.getSegmentMetadata().getTotalRawDocs() - 1;
+      return new BitmapBasedFilterOperator(new ImmutableRoaringBitmap[]{cachedBitmap}, 0, maxDocId, false);
+    }
+    BaseFilterOperator filterOperator = constructPhysicalOperator(rootFilterNode, _segment, debugOptions);
+    if (filterOperator.isResultEmpty() || filterOperator.isResultMatchingAll()) {
+      return filterOperator;
+    }
+    return new CachingFilterOperator(filterOperator, filterBitmapCache, _segment, filterKey);
   }
 
   /**
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.plan;
+
+import com.linkedin.pinot.common.request.AggregationInfo;
+import com.linkedin.pinot.core.indexsegment.IndexSegment;
+import com.linkedin.pinot.core.operator.filter.BaseFilterOperator;
+import com.linkedin.pinot.core.operator.query.InvertedIndexBasedAggregationOperator;
+import com.linkedin.pinot.core.query.aggregation.AggregationFunctionContext;
+import com.linkedin.pinot.core.query.aggregation.function.AggregationFunctionUtils;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>InvertedIndexBasedAggregationPlanNode</code> class provides the execution plan for filtered count only
+ * query that can be answered from the inverted/sorted indexes on a single segment.
+ * <p>The filter operator is built by the plan maker to check whether it can be answered from the indexes, and reused
+ * here to avoid building it twice.
+ */
+public class InvertedIndexBasedAggregationPlanNode implements PlanNode {
+  private static final Logger LOGGER = LoggerFactory.getLogger(InvertedIndexBasedAggregationPlanNode.class);
+
+  private final IndexSegment _indexSegment;
+  private final List<AggregationInfo> _aggregationInfos;
+  private final AggregationFunctionContext[] _functionContexts;
+  private final BaseFilterOperator _filterOperator;
+
+  public InvertedIndexBasedAggregationPlanNode(@Nonnull IndexSegment indexSegment,
+      @Nonnull List<AggregationInfo> aggregationInfos, @Nonnull BaseFilterOperator filterOperator) {
+    _indexSegment = indexSegment;
+    _aggregationInfos = aggregationInfos;
+    _functionContexts =
+        AggregationFunctionUtils.getAggregationFunctionContexts(_aggregationInfos, indexSegment.getSegmentMetadata());
+    _filterOperator = filterOperator;
+  }
+
+  @Override
+  public InvertedIndexBasedAggregationOperator run() {
+    return new InvertedIndexBasedAggregationOperator(_functionContexts, _filterOperator,
+        _indexSegment.getSegmentMetadata().getTotalRawDocs());
+  }
+
+  @Override
+  public void showTree(String prefix) {
+    LOGGER.debug(prefix + "Inverted Index Based Aggregation Plan Node:");
+    LOGGER.debug(prefix + "Operator: InvertedIndexBasedAggregationOperator");
+    LOGGER.debug(prefix + "Argument 0: IndexSegment - " + _indexSegment.getSegmentName());
+    LOGGER.debug(prefix + "Argument 1: Aggregations - " + _aggregationInfos);
+    LOGGER.debug(prefix + "Argument 2: FilterOperator - " + _filterOperator.getOperatorName());
+  }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.plan;
+
+import com.linkedin.pinot.core.common.Operator;
+import com.linkedin.pinot.core.operator.SegmentSplitOperator;
+import com.linkedin.pinot.core.operator.blocks.IntermediateResultsBlock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>SegmentSplitPlanNode</code> class provides the execution plan for one document id range (split) of a
+ * segment, see {@link SegmentSplitOperator}.
+ */
+public class SegmentSplitPlanNode implements PlanNode {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SegmentSplitPlanNode.class);
+
+  private final PlanNode _planNode;
+  private final boolean _isFirstSplit;
+  private final AtomicBoolean _segmentMatched;
+
+  public SegmentSplitPlanNode(@Nonnull PlanNode planNode, boolean isFirstSplit, @Nonnull AtomicBoolean segmentMatched) {
+    _planNode = planNode;
+    _isFirstSplit = isFirstSplit;
+    _segmentMatched = segmentMatched;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public SegmentSplitOperator run() {
+    return new SegmentSplitOperator((Operator<IntermediateResultsBlock>) _planNode.run(), _isFirstSplit,
+        _segmentMatched);
+  }
+
+  @Override
+  public void showTree(String prefix) {
+    LOGGER.debug(prefix + "Segment Split Plan Node:");
+    LOGGER.debug(prefix + "Operator: SegmentSplitOperator");
+    LOGGER.debug(prefix + "Argument 0: IsFirstSplit - " + _isFirstSplit);
+    LOGGER.debug(prefix + "Argument 1: PlanNode -");
+    _planNode.showTree(prefix + "    ");
+  }
+}
@@ -15,6 +15,7 @@
  */
 package com.linkedin.pinot.core.plan;
 
+import com.google.common.base.Supplier;
 import com.linkedin.pinot.common.request.AggregationInfo;
 import com.linkedin.pinot.common.request.BrokerRequest;
 import com.linkedin.pinot.common.request.transform.TransformExpressionTree;
@@ -25,6 +26,8 @@ import com.linkedin.pinot.core.query.aggregation.function.AggregationFunctionUti
 import java.util.HashSet;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,10 +50,41 @@ public class TransformPlanNode implements PlanNode {
    * @param brokerRequest BrokerRequest to process
    */
   public TransformPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest) {
+    this(indexSegment, brokerRequest, 0, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Constructor for the class, which only processes the documents within the given document id range.
+   *
+   * @param indexSegment Segment to process
+   * @param brokerRequest BrokerRequest to process
+   * @param startDocId Start document id (inclusive) of the range to process
+   * @param endDocId End document id (inclusive) of the range to process, {@link Integer#MAX_VALUE} for the end of the
+   *                 segment
+   */
+  public TransformPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest, int startDocId,
+      int endDocId) {
+    this(indexSegment, brokerRequest, startDocId, endDocId, null);
+  }
+
+  /**
+   * Constructor for the class, which only processes the documents within the given document id range.
+   *
+   * @param indexSegment Segment to process
+   * @param brokerRequest BrokerRequest to process
+   * @param startDocId Start document id (inclusive) of the range to process
+   * @param endDocId End document id (inclusive) of the range to process, {@link Integer#MAX_VALUE} for the end of the
+   *                 segment
+   * @param filterBitmapSupplier Supplier of the bitmap of the documents matching the filter shared by the ranges of
+   *                             the segment, or <code>null</code> to evaluate the filter within the range
+   */
+  public TransformPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest, int startDocId,
+      int endDocId, @Nullable Supplier<ImmutableRoaringBitmap> filterBitmapSupplier) {
     _segmentName = indexSegment.getSegmentName();
     extractColumnsAndTransforms(brokerRequest);
-    _projectionPlanNode =
-        new ProjectionPlanNode(indexSegment, _projectionColumns, new DocIdSetPlanNode(indexSegment, brokerRequest));
+    _projectionPlanNode = new ProjectionPlanNode(indexSegment, _projectionColumns,
+        new DocIdSetPlanNode(indexSegment, brokerRequest, DocIdSetPlanNode.MAX_DOC_PER_CALL, startDocId, endDocId,
+            filterBitmapSupplier));
   }
 
   /**
@@ -17,28 +17,43 @@ package com.linkedin.pinot.core.plan.maker;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.linkedin.pinot.common.request.AggregationInfo;
 import com.linkedin.pinot.common.request.BrokerRequest;
 import com.linkedin.pinot.common.request.transform.TransformExpressionTree;
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.common.DataSourceMetadata;
 import com.linkedin.pinot.core.data.manager.SegmentDataManager;
 import com.linkedin.pinot.core.indexsegment.IndexSegment;
+import com.linkedin.pinot.core.operator.filter.BaseFilterOperator;
 import com.linkedin.pinot.core.plan.AggregationGroupByPlanNode;
 import com.linkedin.pinot.core.plan.AggregationPlanNode;
 import com.linkedin.pinot.core.plan.CombinePlanNode;
+import com.linkedin.pinot.core.plan.CompiledAggregationPlanNode;
 import com.linkedin.pinot.core.plan.DictionaryBasedAggregationPlanNode;
+import com.linkedin.pinot.core.plan.DictionaryIdBasedAggregationPlanNode;
+import com.linkedin.pinot.core.plan.FilterPlanNode;
 import com.linkedin.pinot.core.plan.GlobalPlanImplV0;
 import com.linkedin.pinot.core.plan.InstanceResponsePlanNode;
+import com.linkedin.pinot.core.plan.InvertedIndexBasedAggregationPlanNode;
 import com.linkedin.pinot.core.plan.MetadataBasedAggregationPlanNode;
 import com.linkedin.pinot.core.plan.Plan;
 import com.linkedin.pinot.core.plan.PlanNode;
+import com.linkedin.pinot.core.plan.SegmentSplitPlanNode;
 import com.linkedin.pinot.core.plan.SelectionPlanNode;
 import com.linkedin.pinot.core.query.aggregation.function.AggregationFunctionType;
 import com.linkedin.pinot.core.query.aggregation.function.AggregationFunctionUtils;
+import com.linkedin.pinot.core.query.codegen.AggregationKernelGenerator;
+import com.linkedin.pinot.core.query.codegen.CompiledAggregation;
 import com.linkedin.pinot.core.query.config.QueryExecutorConfig;
 import com.linkedin.pinot.core.segment.index.readers.Dictionary;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,21 +68,52 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
   public static final int DEFAULT_MAX_INITIAL_RESULT_HOLDER_CAPACITY = 10_000;
   public static final String NUM_GROUPS_LIMIT = "num.groups.limit";
   public static final int DEFAULT_NUM_GROUPS_LIMIT = 100_000;
+  public static final String ENABLE_CODEGEN_KEY = "enable.codegen";
+  public static final boolean DEFAULT_ENABLE_CODEGEN = false;
+  // Debug option to enable/disable the generated aggregation kernels for a query, overriding the server config
+  public static final String USE_CODEGEN_KEY = "useCodegen";
+  // Number of worker threads to keep busy by splitting large segments into document id ranges processed in parallel
+  // when the query processes less segments than that, non-positive value or 1 disables the segment splits
+  public static final String SEGMENT_SPLIT_NUM_THREADS_KEY = "segment.split.num.threads";
+  public static final int DEFAULT_SEGMENT_SPLIT_NUM_THREADS =
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+  public static final String SEGMENT_SPLIT_MIN_DOCS_KEY = "segment.split.min.docs";
+  public static final int DEFAULT_SEGMENT_SPLIT_MIN_DOCS = 100_000;
 
   private final int _maxInitialResultHolderCapacity;
   // Limit on number of groups, beyond which no new group will be created
   private final int _numGroupsLimit;
+  // Whether to serve the supported aggregation only queries with generated aggregation kernels
+  private final boolean _enableCodegen;
+  private final int _segmentSplitNumThreads;
+  // Minimum number of documents in each split of a segment
+  private final int _segmentSplitMinDocs;
 
   @VisibleForTesting
   public InstancePlanMakerImplV2() {
     _maxInitialResultHolderCapacity = DEFAULT_MAX_INITIAL_RESULT_HOLDER_CAPACITY;
     _numGroupsLimit = DEFAULT_NUM_GROUPS_LIMIT;
+    _enableCodegen = DEFAULT_ENABLE_CODEGEN;
+    _segmentSplitNumThreads = DEFAULT_SEGMENT_SPLIT_NUM_THREADS;
+    _segmentSplitMinDocs = DEFAULT_SEGMENT_SPLIT_MIN_DOCS;
   }
 
   @VisibleForTesting
   public InstancePlanMakerImplV2(int maxInitialResultHolderCapacity, int numGroupsLimit) {
     _maxInitialResultHolderCapacity = maxInitialResultHolderCapacity;
     _numGroupsLimit = numGroupsLimit;
+    _enableCodegen = DEFAULT_ENABLE_CODEGEN;
+    _segmentSplitNumThreads = DEFAULT_SEGMENT_SPLIT_NUM_THREADS;
+    _segmentSplitMinDocs = DEFAULT_SEGMENT_SPLIT_MIN_DOCS;
+  }
+
+  @VisibleForTesting
+  public InstancePlanMakerImplV2(int segmentSplitNumThreads, int segmentSplitMinDocs, boolean enableCodegen) {
+    _maxInitialResultHolderCapacity = DEFAULT_MAX_INITIAL_RESULT_HOLDER_CAPACITY;
+    _numGroupsLimit = DEFAULT_NUM_GROUPS_LIMIT;
+    _enableCodegen = enableCodegen;
+    _segmentSplitNumThreads = segmentSplitNumThreads;
+    _segmentSplitMinDocs = segmentSplitMinDocs;
   }
 
   /**
@@ -75,6 +121,8 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
    * <ul>
    *   <li>Set limit on the initial result holder capacity</li>
    *   <li>Set limit on number of groups returned from each segment and combined result</li>
+   *   <li>Enable generated aggregation kernels</li>
+   *   <li>Set the number of worker threads and minimum number of documents for segment splits</li>
    * </ul>
    *
    * @param queryExecutorConfig Query executor configuration
@@ -83,11 +131,20 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     _maxInitialResultHolderCapacity = queryExecutorConfig.getConfig()
         .getInt(MAX_INITIAL_RESULT_HOLDER_CAPACITY_KEY, DEFAULT_MAX_INITIAL_RESULT_HOLDER_CAPACITY);
     _numGroupsLimit = queryExecutorConfig.getConfig().getInt(NUM_GROUPS_LIMIT, DEFAULT_NUM_GROUPS_LIMIT);
+    _enableCodegen = queryExecutorConfig.getConfig().getBoolean(ENABLE_CODEGEN_KEY, DEFAULT_ENABLE_CODEGEN);
+    _segmentSplitNumThreads =
+        queryExecutorConfig.getConfig().getInt(SEGMENT_SPLIT_NUM_THREADS_KEY, DEFAULT_SEGMENT_SPLIT_NUM_THREADS);
+    _segmentSplitMinDocs =
+        queryExecutorConfig.getConfig().getInt(SEGMENT_SPLIT_MIN_DOCS_KEY, DEFAULT_SEGMENT_SPLIT_MIN_DOCS);
     Preconditions.checkState(_maxInitialResultHolderCapacity <= _numGroupsLimit,
         "Invalid configuration: maxInitialResultHolderCapacity: %d must be smaller or equal to numGroupsLimit: %d",
         _maxInitialResultHolderCapacity, _numGroupsLimit);
-    LOGGER.info("Initializing plan maker with maxInitialResultHolderCapacity: {}, numGroupsLimit: {}",
-        _maxInitialResultHolderCapacity, _numGroupsLimit);
+    Preconditions.checkState(_segmentSplitMinDocs > 0,
+        "Invalid configuration: segmentSplitMinDocs: %d must be positive", _segmentSplitMinDocs);
+    LOGGER.info(
+        "Initializing plan maker with maxInitialResultHolderCapacity: {}, numGroupsLimit: {}, enableCodegen: {}, "
+            + "segmentSplitNumThreads: {}, segmentSplitMinDocs: {}", _maxInitialResultHolderCapacity, _numGroupsLimit,
+        _enableCodegen, _segmentSplitNumThreads, _segmentSplitMinDocs);
   }
 
   @Override
@@ -101,7 +158,25 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
           return new MetadataBasedAggregationPlanNode(indexSegment, brokerRequest.getAggregationsInfo());
         } else if (isFitForDictionaryBasedPlan(brokerRequest, indexSegment)) {
           return new DictionaryBasedAggregationPlanNode(indexSegment, brokerRequest.getAggregationsInfo());
+        } else if (isFitForInvertedIndexBasedPlan(brokerRequest, indexSegment)) {
+          // Build the filter operator to check whether the filter can be fully answered from the indexes
+          BaseFilterOperator filterOperator = new FilterPlanNode(indexSegment, brokerRequest).run();
+          if (filterOperator.canProduceBitmap()) {
+            return new InvertedIndexBasedAggregationPlanNode(indexSegment, brokerRequest.getAggregationsInfo(),
+                filterOperator);
+          } else {
+            return new AggregationPlanNode(indexSegment, brokerRequest);
+          }
+        } else if (isFitForDictionaryIdBasedPlan(brokerRequest, indexSegment)) {
+          return new DictionaryIdBasedAggregationPlanNode(indexSegment, brokerRequest);
         } else {
+          if (isCodegenEnabled(brokerRequest)) {
+            // Fall back to the interpreted operators if the query is not supported by the generated kernels
+            CompiledAggregation compiledAggregation = AggregationKernelGenerator.compile(indexSegment, brokerRequest);
+            if (compiledAggregation != null) {
+              return new CompiledAggregationPlanNode(indexSegment, compiledAggregation);
+            }
+          }
           return new AggregationPlanNode(indexSegment, brokerRequest);
         }
       }
@@ -123,8 +198,14 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     BrokerRequestPreProcessor.preProcess(indexSegments, brokerRequest);
 
     List<PlanNode> planNodes = new ArrayList<>();
+    int numSegments = indexSegments.size();
     for (IndexSegment indexSegment : indexSegments) {
-      planNodes.add(makeInnerSegmentPlan(indexSegment, brokerRequest));
+      int numSplits = getNumSegmentSplits(indexSegment, brokerRequest, numSegments);
+      if (numSplits > 1) {
+        planNodes.addAll(makeSegmentSplitPlans(indexSegment, brokerRequest, numSplits));
+      } else {
+        planNodes.add(makeInnerSegmentPlan(indexSegment, brokerRequest));
+      }
     }
     CombinePlanNode combinePlanNode =
         new CombinePlanNode(planNodes, brokerRequest, executorService, timeOutMs, _numGroupsLimit);
@@ -132,6 +213,77 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     return new GlobalPlanImplV0(new InstanceResponsePlanNode(combinePlanNode));
   }
 
+  /**
+   * Helper method to get the number of document id ranges (splits) to process the segment with in parallel.
+   * <p>Segments are split only when the query processes less segments than the worker threads, and only for the
+   * queries that {@link #makeInnerSegmentPlan(IndexSegment, BrokerRequest)} answers by scanning the documents matching
+   * the filter without star-tree, which is decided from the broker request and the segment metadata without making
+   * the plan. Each split has at least the configured minimum number of documents.
+   */
+  private int getNumSegmentSplits(IndexSegment indexSegment, BrokerRequest brokerRequest, int numSegments) {
+    if (numSegments >= _segmentSplitNumThreads || !brokerRequest.isSetAggregationsInfo()) {
+      return 1;
+    }
+    if (indexSegment.getStarTrees() != null || indexSegment.getSegmentMetadata().hasStarTree()) {
+      return 1;
+    }
+    if (!brokerRequest.isSetGroupBy() && (isFitForMetadataBasedPlan(brokerRequest, indexSegment)
+        || isFitForDictionaryBasedPlan(brokerRequest, indexSegment)
+        || isFitForInvertedIndexBasedPlan(brokerRequest, indexSegment)
+        || isFitForDictionaryIdBasedPlan(brokerRequest, indexSegment) || isCodegenEnabled(brokerRequest))) {
+      return 1;
+    }
+    int numDocs = indexSegment.getSegmentMetadata().getTotalDocs();
+    return Math.min(_segmentSplitNumThreads / numSegments, numDocs / _segmentSplitMinDocs);
+  }
+
+  /**
+   * Helper method to make the plans for the splits of the segment. The last split is open-ended so that documents
+   * indexed into a consuming segment after planning are processed as without splits.
+   * <p>When the filter can be answered with a bitmap, the bitmap is computed once by the first split that runs and
+   * shared by all the splits; otherwise each split evaluates the filter within its own range so that scan-based
+   * filters only scan the range.
+   */
+  private List<PlanNode> makeSegmentSplitPlans(IndexSegment indexSegment, BrokerRequest brokerRequest,
+      int numSplits) {
+    Supplier<ImmutableRoaringBitmap> filterBitmapSupplier = null;
+    if (brokerRequest.getFilterQuery() != null) {
+      BaseFilterOperator filterOperator = new FilterPlanNode(indexSegment, brokerRequest).run();
+      if (filterOperator.canProduceBitmap() && !filterOperator.isResultMatchingAll()) {
+        filterBitmapSupplier = Suppliers.memoize(filterOperator::getBitmap);
+      }
+    }
+
+    int numDocsPerSplit = indexSegment.getSegmentMetadata().getTotalDocs() / numSplits;
+    AtomicBoolean segmentMatched = new AtomicBoolean();
+    List<PlanNode> planNodes = new ArrayList<>(numSplits);
+    for (int i = 0; i < numSplits; i++) {
+      int startDocId = i * numDocsPerSplit;
+      int endDocId = i < numSplits - 1 ? startDocId + numDocsPerSplit - 1 : Integer.MAX_VALUE;
+      PlanNode planNode;
+      if (brokerRequest.isSetGroupBy()) {
+        planNode = new AggregationGroupByPlanNode(indexSegment, brokerRequest, _maxInitialResultHolderCapacity,
+            _numGroupsLimit, startDocId, endDocId, filterBitmapSupplier);
+      } else {
+        planNode = new AggregationPlanNode(indexSegment, brokerRequest, startDocId, endDocId, filterBitmapSupplier);
+      }
+      planNodes.add(new SegmentSplitPlanNode(planNode, i == 0, segmentMatched));
+    }
+    return planNodes;
+  }
+
+  /**
+   * Helper method to identify if the generated aggregation kernels are enabled for the query. The debug option
+   * overrides the server config.
+   */
+  private boolean isCodegenEnabled(BrokerRequest brokerRequest) {
+    Map<String, String> debugOptions = brokerRequest.getDebugOptions();
+    if (debugOptions != null && debugOptions.containsKey(USE_CODEGEN_KEY)) {
+      return Boolean.parseBoolean(debugOptions.get(USE_CODEGEN_KEY));
+    }
+    return _enableCodegen;
+  }
+
   /**
    * Helper method to identify if query is fit to be be served purely based on metadata.
    * Currently count queries without any filters are supported.
@@ -206,4 +358,96 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     }
     return false;
   }
+
+  /**
+   * Helper method to identify if a filtered query is fit to be served based on the inverted/sorted indexes, i.e. the
+   * query only contains count. Whether the filter can be fully answered from the indexes is checked on the filter
+   * operator.
+   *
+   * @param brokerRequest Broker request
+   * @param indexSegment Index segment
+   * @return True if query can be served using inverted/sorted indexes if the filter allows, false otherwise.
+   */
+  public static boolean isFitForInvertedIndexBasedPlan(BrokerRequest brokerRequest, IndexSegment indexSegment) {
+    // Skipping segments with star tree, which should be used to serve the query instead
+    if (brokerRequest.getFilterQuery() == null || brokerRequest.isSetGroupBy() || indexSegment.getSegmentMetadata()
+        .hasStarTree() || indexSegment.getStarTrees() != null) {
+      return false;
+    }
+    List<AggregationInfo> aggregationsInfo = brokerRequest.getAggregationsInfo();
+    if (aggregationsInfo == null) {
+      return false;
+    }
+    for (AggregationInfo aggregationInfo : aggregationsInfo) {
+      if (AggregationFunctionType.getAggregationFunctionType(aggregationInfo.getAggregationType())
+          != AggregationFunctionType.COUNT) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Helper method to identify if a filtered query is fit to be served based on the dictionary ids of the matching
+   * documents. It can be served through dictionary ids for count, min, max, minmaxrange and distinctcount queries with
+   * at least one function other than count, if the columns are single-valued with sorted dictionary.
+   *
+   * @param brokerRequest Broker request
+   * @param indexSegment Index segment
+   * @return True if query can be served using dictionary ids, false otherwise.
+   */
+  public static boolean isFitForDictionaryIdBasedPlan(BrokerRequest brokerRequest, IndexSegment indexSegment) {
+    // Skipping segments with star tree, which should be used to serve the query instead
+    if (brokerRequest.getFilterQuery() == null || brokerRequest.isSetGroupBy() || indexSegment.getSegmentMetadata()
+        .hasStarTree() || indexSegment.getStarTrees() != null) {
+      return false;
+    }
+    List<AggregationInfo> aggregationsInfo = brokerRequest.getAggregationsInfo();
+    if (aggregationsInfo == null) {
+      return false;
+    }
+    boolean hasDictionaryIdBasedAggregationFunction = false;
+    for (AggregationInfo aggregationInfo : aggregationsInfo) {
+      AggregationFunctionType functionType =
+          AggregationFunctionType.getAggregationFunctionType(aggregationInfo.getAggregationType());
+      if (functionType == AggregationFunctionType.COUNT) {
+        continue;
+      }
+      if (!isDictionaryIdBasedAggregationFunction(functionType, aggregationInfo, indexSegment)) {
+        return false;
+      }
+      hasDictionaryIdBasedAggregationFunction = true;
+    }
+    return hasDictionaryIdBasedAggregationFunction;
+  }
+
+  private static boolean isDictionaryIdBasedAggregationFunction(AggregationFunctionType functionType,
+      AggregationInfo aggregationInfo, IndexSegment indexSegment) {
+    if (!functionType.isOfType(AggregationFunctionType.MIN, AggregationFunctionType.MAX,
+        AggregationFunctionType.MINMAXRANGE, AggregationFunctionType.DISTINCTCOUNT)) {
+      return false;
+    }
+    String expression = AggregationFunctionUtils.getColumn(aggregationInfo);
+    if (!TransformExpressionTree.compileToExpressionTree(expression).isColumn()) {
+      return false;
+    }
+    DataSource dataSource = indexSegment.getDataSource(expression);
+    Dictionary dictionary = dataSource.getDictionary();
+    DataSourceMetadata dataSourceMetadata = dataSource.getDataSourceMetadata();
+    if (dictionary == null || !dictionary.isSorted() || !dataSourceMetadata.isSingleValue()) {
+      return false;
+    }
+    switch (dataSourceMetadata.getDataType()) {
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      case STRING:
+        // The order of the dictionary ids does not match the order of the numeric values for STRING columns
+        return functionType == AggregationFunctionType.DISTINCTCOUNT;
+      default:
+        return false;
+    }
+  }
 }
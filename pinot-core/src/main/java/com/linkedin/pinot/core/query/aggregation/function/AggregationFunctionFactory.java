@@ -78,8 +78,12 @@ public class AggregationFunctionFactory {
             return new DistinctCountAggregationFunction();
           case DISTINCTCOUNTHLL:
             return new DistinctCountHLLAggregationFunction();
+          case DISTINCTCOUNTRAWHLL:
+            return new DistinctCountRawHLLAggregationFunction();
           case FASTHLL:
             return new FastHLLAggregationFunction();
+          case DISTINCTCOUNTTHETASKETCH:
+            return new DistinctCountThetaSketchAggregationFunction();
           case COUNTMV:
             return new CountMVAggregationFunction();
           case MINMV:
@@ -58,6 +58,14 @@ public class AggregationFunctionVisitorBase {
     visitFunction(function);
   }
 
+  public void visit(DistinctCountRawHLLAggregationFunction function) {
+    visitFunction(function);
+  }
+
+  public void visit(DistinctCountThetaSketchAggregationFunction function) {
+    visitFunction(function);
+  }
+
   public void visit(FastHLLAggregationFunction function) {
     visitFunction(function);
   }
@@ -63,9 +63,21 @@ public class DistinctCountHLLAggregationFunction implements AggregationFunction<
   @Override
   public void aggregate(int length, @Nonnull AggregationResultHolder aggregationResultHolder,
       @Nonnull BlockValSet... blockValSets) {
-    HyperLogLog hyperLogLog = getHyperLogLog(aggregationResultHolder);
-
     FieldSpec.DataType valueType = blockValSets[0].getValueType();
+    if (valueType == FieldSpec.DataType.BYTES) {
+      // Serialized HyperLogLog
+      byte[][] bytesValues = blockValSets[0].getBytesValuesSV();
+      try {
+        for (int i = 0; i < length; i++) {
+          setHyperLogLog(aggregationResultHolder, ObjectSerDeUtils.HYPER_LOG_LOG_SER_DE.deserialize(bytesValues[i]));
+        }
+      } catch (Exception e) {
+        throw new RuntimeException("Caught exception while aggregating HyperLogLog", e);
+      }
+      return;
+    }
+
+    HyperLogLog hyperLogLog = getHyperLogLog(aggregationResultHolder);
     switch (valueType) {
       case INT:
         int[] intValues = blockValSets[0].getIntValuesSV();
@@ -97,17 +109,6 @@ public class DistinctCountHLLAggregationFunction implements AggregationFunction<
           hyperLogLog.offer(stringValues[i]);
         }
         break;
-      case BYTES:
-        // Serialized HyperLogLog
-        byte[][] bytesValues = blockValSets[0].getBytesValuesSV();
-        try {
-          for (int i = 0; i < length; i++) {
-            hyperLogLog.addAll(ObjectSerDeUtils.HYPER_LOG_LOG_SER_DE.deserialize(bytesValues[i]));
-          }
-        } catch (Exception e) {
-          throw new RuntimeException("Caught exception while aggregating HyperLogLog", e);
-        }
-        break;
       default:
         throw new IllegalStateException("Illegal data type for DISTINCT_COUNT_HLL aggregation function: " + valueType);
     }
@@ -242,6 +243,14 @@ public class DistinctCountHLLAggregationFunction implements AggregationFunction<
   @Nonnull
   @Override
   public HyperLogLog merge(@Nonnull HyperLogLog intermediateResult1, @Nonnull HyperLogLog intermediateResult2) {
+    // Skip empty results, which have the default log2m and cannot be merged with the serialized HyperLogLogs of other
+    // log2m
+    if (intermediateResult1.cardinality() == 0) {
+      return intermediateResult2;
+    }
+    if (intermediateResult2.cardinality() == 0) {
+      return intermediateResult1;
+    }
     try {
       intermediateResult1.addAll(intermediateResult2);
     } catch (Exception e) {
@@ -282,6 +291,7 @@ public class DistinctCountHLLAggregationFunction implements AggregationFunction<
 
   /**
    * Helper method to set HyperLogLog value for a groupKey into the result holder.
+   * <p>The first HyperLogLog value is kept as is so that serialized HyperLogLogs with non-default log2m can be merged.
    *
    * @param groupByResultHolder Result holder
    * @param groupKey Group-key for which to set the value
@@ -289,8 +299,12 @@ public class DistinctCountHLLAggregationFunction implements AggregationFunction<
    */
   private static void setValueForGroupKey(@Nonnull GroupByResultHolder groupByResultHolder, int groupKey,
       HyperLogLog value) throws CardinalityMergeException {
-    HyperLogLog hyperLogLog = getHyperLogLog(groupByResultHolder, groupKey);
-    hyperLogLog.addAll(value);
+    HyperLogLog hyperLogLog = groupByResultHolder.getResult(groupKey);
+    if (hyperLogLog == null) {
+      groupByResultHolder.setValueForKey(groupKey, value);
+    } else {
+      hyperLogLog.addAll(value);
+    }
   }
 
   /**
@@ -316,8 +330,38 @@ public class DistinctCountHLLAggregationFunction implements AggregationFunction<
    */
   private static void setValueForGroupKeys(@Nonnull GroupByResultHolder groupByResultHolder, int[] groupKeys,
       HyperLogLog value) throws CardinalityMergeException {
+    boolean valueKept = false;
     for (int groupKey : groupKeys) {
-      setValueForGroupKey(groupByResultHolder, groupKey, value);
+      HyperLogLog hyperLogLog = groupByResultHolder.getResult(groupKey);
+      if (hyperLogLog == null) {
+        // The kept HyperLogLog will be modified, so it cannot be shared by multiple group keys
+        if (valueKept) {
+          byte[] bytes = ObjectSerDeUtils.HYPER_LOG_LOG_SER_DE.serialize(value);
+          groupByResultHolder.setValueForKey(groupKey, ObjectSerDeUtils.HYPER_LOG_LOG_SER_DE.deserialize(bytes));
+        } else {
+          groupByResultHolder.setValueForKey(groupKey, value);
+          valueKept = true;
+        }
+      } else {
+        hyperLogLog.addAll(value);
+      }
+    }
+  }
+
+  /**
+   * Helper method to set HyperLogLog value into the result holder.
+   * <p>The first HyperLogLog value is kept as is so that serialized HyperLogLogs with non-default log2m can be merged.
+   *
+   * @param aggregationResultHolder Result holder
+   * @param value HyperLogLog value to set
+   */
+  private static void setHyperLogLog(@Nonnull AggregationResultHolder aggregationResultHolder, HyperLogLog value)
+      throws CardinalityMergeException {
+    HyperLogLog hyperLogLog = aggregationResultHolder.getResult();
+    if (hyperLogLog == null) {
+      aggregationResultHolder.setValue(value);
+    } else {
+      hyperLogLog.addAll(value);
     }
   }
 
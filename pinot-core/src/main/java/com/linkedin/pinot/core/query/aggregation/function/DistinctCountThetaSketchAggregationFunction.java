@@ -0,0 +1,323 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.query.aggregation.function;
+
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.utils.DataSchema;
+import com.linkedin.pinot.core.common.BlockValSet;
+import com.linkedin.pinot.core.common.ObjectSerDeUtils;
+import com.linkedin.pinot.core.query.aggregation.AggregationResultHolder;
+import com.linkedin.pinot.core.query.aggregation.ObjectAggregationResultHolder;
+import com.linkedin.pinot.core.query.aggregation.groupby.GroupByResultHolder;
+import com.linkedin.pinot.core.query.aggregation.groupby.ObjectGroupByResultHolder;
+import com.yahoo.sketches.theta.SetOperation;
+import com.yahoo.sketches.theta.Sketch;
+import com.yahoo.sketches.theta.Union;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The {@code DistinctCountThetaSketchAggregationFunction} class estimates the number of distinct values with Theta
+ * sketches.
+ * <p>Unlike the exact {@link DistinctCountAggregationFunction}, the intermediate result has a bounded size (controlled
+ * by the nominal entries) regardless of the cardinality of the column. Intermediate results are merged with
+ * {@link #union(Sketch...)}.
+ * <p>Values of BYTES type are treated as serialized Theta sketches (pre-aggregated values).
+ */
+public class DistinctCountThetaSketchAggregationFunction implements AggregationFunction<Sketch, Long> {
+  public static final int DEFAULT_NOMINAL_ENTRIES = 4096;
+
+  @Nonnull
+  @Override
+  public AggregationFunctionType getType() {
+    return AggregationFunctionType.DISTINCTCOUNTTHETASKETCH;
+  }
+
+  @Nonnull
+  @Override
+  public String getColumnName(@Nonnull String column) {
+    return AggregationFunctionType.DISTINCTCOUNTTHETASKETCH.getName() + "_" + column;
+  }
+
+  @Override
+  public void accept(@Nonnull AggregationFunctionVisitorBase visitor) {
+    visitor.visit(this);
+  }
+
+  @Nonnull
+  @Override
+  public AggregationResultHolder createAggregationResultHolder() {
+    return new ObjectAggregationResultHolder();
+  }
+
+  @Nonnull
+  @Override
+  public GroupByResultHolder createGroupByResultHolder(int initialCapacity, int maxCapacity) {
+    return new ObjectGroupByResultHolder(initialCapacity, maxCapacity);
+  }
+
+  @Override
+  public void aggregate(int length, @Nonnull AggregationResultHolder aggregationResultHolder,
+      @Nonnull BlockValSet... blockValSets) {
+    Union union = getUnion(aggregationResultHolder);
+
+    FieldSpec.DataType valueType = blockValSets[0].getValueType();
+    switch (valueType) {
+      case INT:
+        int[] intValues = blockValSets[0].getIntValuesSV();
+        for (int i = 0; i < length; i++) {
+          union.update(intValues[i]);
+        }
+        break;
+      case LONG:
+        long[] longValues = blockValSets[0].getLongValuesSV();
+        for (int i = 0; i < length; i++) {
+          union.update(longValues[i]);
+        }
+        break;
+      case FLOAT:
+        float[] floatValues = blockValSets[0].getFloatValuesSV();
+        for (int i = 0; i < length; i++) {
+          union.update(floatValues[i]);
+        }
+        break;
+      case DOUBLE:
+        double[] doubleValues = blockValSets[0].getDoubleValuesSV();
+        for (int i = 0; i < length; i++) {
+          union.update(doubleValues[i]);
+        }
+        break;
+      case STRING:
+        String[] stringValues = blockValSets[0].getStringValuesSV();
+        for (int i = 0; i < length; i++) {
+          union.update(stringValues[i]);
+        }
+        break;
+      case BYTES:
+        // Serialized Theta sketch
+        byte[][] bytesValues = blockValSets[0].getBytesValuesSV();
+        for (int i = 0; i < length; i++) {
+          union.update(ObjectSerDeUtils.THETA_SKETCH_SER_DE.deserialize(bytesValues[i]));
+        }
+        break;
+      default:
+        throw new IllegalStateException(
+            "Illegal data type for DISTINCT_COUNT_THETA_SKETCH aggregation function: " + valueType);
+    }
+  }
+
+  @Override
+  public void aggregateGroupBySV(int length, @Nonnull int[] groupKeyArray,
+      @Nonnull GroupByResultHolder groupByResultHolder, @Nonnull BlockValSet... blockValSets) {
+    FieldSpec.DataType valueType = blockValSets[0].getValueType();
+    switch (valueType) {
+      case INT:
+        int[] intValues = blockValSets[0].getIntValuesSV();
+        for (int i = 0; i < length; i++) {
+          getUnion(groupByResultHolder, groupKeyArray[i]).update(intValues[i]);
+        }
+        break;
+      case LONG:
+        long[] longValues = blockValSets[0].getLongValuesSV();
+        for (int i = 0; i < length; i++) {
+          getUnion(groupByResultHolder, groupKeyArray[i]).update(longValues[i]);
+        }
+        break;
+      case FLOAT:
+        float[] floatValues = blockValSets[0].getFloatValuesSV();
+        for (int i = 0; i < length; i++) {
+          getUnion(groupByResultHolder, groupKeyArray[i]).update(floatValues[i]);
+        }
+        break;
+      case DOUBLE:
+        double[] doubleValues = blockValSets[0].getDoubleValuesSV();
+        for (int i = 0; i < length; i++) {
+          getUnion(groupByResultHolder, groupKeyArray[i]).update(doubleValues[i]);
+        }
+        break;
+      case STRING:
+        String[] stringValues = blockValSets[0].getStringValuesSV();
+        for (int i = 0; i < length; i++) {
+          getUnion(groupByResultHolder, groupKeyArray[i]).update(stringValues[i]);
+        }
+        break;
+      case BYTES:
+        // Serialized Theta sketch
+        byte[][] bytesValues = blockValSets[0].getBytesValuesSV();
+        for (int i = 0; i < length; i++) {
+          getUnion(groupByResultHolder, groupKeyArray[i]).update(
+              ObjectSerDeUtils.THETA_SKETCH_SER_DE.deserialize(bytesValues[i]));
+        }
+        break;
+      default:
+        throw new IllegalStateException(
+            "Illegal data type for DISTINCT_COUNT_THETA_SKETCH aggregation function: " + valueType);
+    }
+  }
+
+  @Override
+  public void aggregateGroupByMV(int length, @Nonnull int[][] groupKeysArray,
+      @Nonnull GroupByResultHolder groupByResultHolder, @Nonnull BlockValSet... blockValSets) {
+    FieldSpec.DataType valueType = blockValSets[0].getValueType();
+    switch (valueType) {
+      case INT:
+        int[] intValues = blockValSets[0].getIntValuesSV();
+        for (int i = 0; i < length; i++) {
+          for (int groupKey : groupKeysArray[i]) {
+            getUnion(groupByResultHolder, groupKey).update(intValues[i]);
+          }
+        }
+        break;
+      case LONG:
+        long[] longValues = blockValSets[0].getLongValuesSV();
+        for (int i = 0; i < length; i++) {
+          for (int groupKey : groupKeysArray[i]) {
+            getUnion(groupByResultHolder, groupKey).update(longValues[i]);
+          }
+        }
+        break;
+      case FLOAT:
+        float[] floatValues = blockValSets[0].getFloatValuesSV();
+        for (int i = 0; i < length; i++) {
+          for (int groupKey : groupKeysArray[i]) {
+            getUnion(groupByResultHolder, groupKey).update(floatValues[i]);
+          }
+        }
+        break;
+      case DOUBLE:
+        double[] doubleValues = blockValSets[0].getDoubleValuesSV();
+        for (int i = 0; i < length; i++) {
+          for (int groupKey : groupKeysArray[i]) {
+            getUnion(groupByResultHolder, groupKey).update(doubleValues[i]);
+          }
+        }
+        break;
+      case STRING:
+        String[] stringValues = blockValSets[0].getStringValuesSV();
+        for (int i = 0; i < length; i++) {
+          for (int groupKey : groupKeysArray[i]) {
+            getUnion(groupByResultHolder, groupKey).update(stringValues[i]);
+          }
+        }
+        break;
+      case BYTES:
+        // Serialized Theta sketch
+        byte[][] bytesValues = blockValSets[0].getBytesValuesSV();
+        for (int i = 0; i < length; i++) {
+          Sketch sketch = ObjectSerDeUtils.THETA_SKETCH_SER_DE.deserialize(bytesValues[i]);
+          for (int groupKey : groupKeysArray[i]) {
+            getUnion(groupByResultHolder, groupKey).update(sketch);
+          }
+        }
+        break;
+      default:
+        throw new IllegalStateException(
+            "Illegal data type for DISTINCT_COUNT_THETA_SKETCH aggregation function: " + valueType);
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Sketch extractAggregationResult(@Nonnull AggregationResultHolder aggregationResultHolder) {
+    Union union = aggregationResultHolder.getResult();
+    if (union == null) {
+      return createUnion().getResult();
+    } else {
+      return union.getResult();
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Sketch extractGroupByResult(@Nonnull GroupByResultHolder groupByResultHolder, int groupKey) {
+    Union union = groupByResultHolder.getResult(groupKey);
+    if (union == null) {
+      return createUnion().getResult();
+    } else {
+      return union.getResult();
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Sketch merge(@Nonnull Sketch intermediateResult1, @Nonnull Sketch intermediateResult2) {
+    return union(intermediateResult1, intermediateResult2);
+  }
+
+  @Override
+  public boolean isIntermediateResultComparable() {
+    return false;
+  }
+
+  @Nonnull
+  @Override
+  public DataSchema.ColumnDataType getIntermediateResultColumnType() {
+    return DataSchema.ColumnDataType.OBJECT;
+  }
+
+  @Nonnull
+  @Override
+  public Long extractFinalResult(@Nonnull Sketch intermediateResult) {
+    return Math.round(intermediateResult.getEstimate());
+  }
+
+  /**
+   * Returns the union of the given sketches, i.e. the sketch of the values in any of the sketches.
+   */
+  @Nonnull
+  public static Sketch union(@Nonnull Sketch... sketches) {
+    Union union = createUnion();
+    for (Sketch sketch : sketches) {
+      union.update(sketch);
+    }
+    return union.getResult();
+  }
+
+  private static Union createUnion() {
+    return SetOperation.builder().setNominalEntries(DEFAULT_NOMINAL_ENTRIES).buildUnion();
+  }
+
+  /**
+   * Returns the Union from the result holder or creates a new one if it does not exist.
+   *
+   * @param aggregationResultHolder Result holder
+   * @return Union from the result holder
+   */
+  private static Union getUnion(@Nonnull AggregationResultHolder aggregationResultHolder) {
+    Union union = aggregationResultHolder.getResult();
+    if (union == null) {
+      union = createUnion();
+      aggregationResultHolder.setValue(union);
+    }
+    return union;
+  }
+
+  /**
+   * Returns the Union for the given group key. If one does not exist, creates a new one and returns that.
+   *
+   * @param groupByResultHolder Result holder
+   * @param groupKey Group key for which to return the Union
+   * @return Union for the group key
+   */
+  private static Union getUnion(@Nonnull GroupByResultHolder groupByResultHolder, int groupKey) {
+    Union union = groupByResultHolder.getResult(groupKey);
+    if (union == null) {
+      union = createUnion();
+      groupByResultHolder.setValueForKey(groupKey, union);
+    }
+    return union;
+  }
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.query.codegen;
+
+/**
+ * The <code>AggregationKernel</code> interface is implemented by the classes generated by
+ * {@link AggregationKernelGenerator}.
+ * <p>An aggregation kernel scans the documents of a segment in a single loop specialized for the query and the segment,
+ * which evaluates the filter and accumulates the aggregated values without going through the filter, projection and
+ * aggregation operators.
+ */
+public interface AggregationKernel {
+
+  /**
+   * Scans the documents [0, numDocs), and accumulates the sum, minimum and maximum values of the aggregated columns for
+   * the documents matching the filter.
+   *
+   * @param numDocs Number of documents to scan
+   * @param inputs Inputs of the kernel (forward indexes, reader contexts, dictionaries and matching dictionary ids)
+   * @param results Buffer for the results, 3 slots (sum, minimum, maximum) per aggregated column
+   * @return Number of documents matching the filter
+   */
+  int aggregate(int numDocs, Object[] inputs, double[] results);
+}
@@ -0,0 +1,451 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.query.codegen;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.request.BrokerRequest;
+import com.linkedin.pinot.common.request.FilterOperator;
+import com.linkedin.pinot.common.request.transform.TransformExpressionTree;
+import com.linkedin.pinot.common.utils.request.FilterQueryTree;
+import com.linkedin.pinot.common.utils.request.RequestUtils;
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.common.DataSourceMetadata;
+import com.linkedin.pinot.core.common.Predicate;
+import com.linkedin.pinot.core.indexsegment.IndexSegment;
+import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegment;
+import com.linkedin.pinot.core.io.reader.DataFileReader;
+import com.linkedin.pinot.core.io.reader.ReaderContext;
+import com.linkedin.pinot.core.io.reader.SingleColumnSingleValueReader;
+import com.linkedin.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import com.linkedin.pinot.core.operator.filter.predicate.PredicateEvaluatorProvider;
+import com.linkedin.pinot.core.query.aggregation.AggregationFunctionContext;
+import com.linkedin.pinot.core.query.aggregation.function.AggregationFunctionType;
+import com.linkedin.pinot.core.query.aggregation.function.AggregationFunctionUtils;
+import com.linkedin.pinot.core.segment.index.data.source.ColumnDataSource;
+import com.linkedin.pinot.core.segment.index.readers.Dictionary;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>AggregationKernelGenerator</code> class generates and compiles (with Javassist) the bytecode of the
+ * {@link AggregationKernel} for an aggregation-only query on a single segment.
+ * <p>The generated kernel scans all the documents of the segment in a single loop, where the filter is evaluated on the
+ * dictionary ids of the documents, and the values are read from the forward indexes and dictionaries of their concrete
+ * classes. Without the interfaces of the filter, projection and aggregation operators in between, the JIT can inline
+ * all the calls within the loop.
+ * <p>Supported queries:
+ * <ul>
+ *   <li>COUNT, SUM, MIN, MAX, AVG and MINMAXRANGE on single-valued numeric columns</li>
+ *   <li>Filter with AND/OR of predicates on single-valued dictionary-encoded columns without sorted or inverted index
+ *   (predicates on indexed columns are better solved with the indexes)</li>
+ * </ul>
+ * <p>The generated source only depends on the shape of the query and the classes of the segment readers (the values of
+ * the predicates and the readers are passed in as inputs), so the kernels are cached and shared across segments and
+ * queries with the same shape.
+ */
+public class AggregationKernelGenerator {
+  private AggregationKernelGenerator() {
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AggregationKernelGenerator.class);
+
+  private static final String GENERATOR_CLASS_NAME = AggregationKernelGenerator.class.getName();
+  private static final String KERNEL_CLASS_NAME_PREFIX = AggregationKernel.class.getName() + "Impl";
+  private static final int MAX_NUM_CACHED_KERNELS = 1000;
+
+  // Generated kernels are stateless, so can be shared by all the segments and queries with the same source. Once the
+  // cache is full, the least recently used kernels are evicted so that their classes (each defined in its own class
+  // loader) can be unloaded.
+  private static final Cache<String, AggregationKernel> KERNEL_CACHE =
+      CacheBuilder.newBuilder().maximumSize(MAX_NUM_CACHED_KERNELS).build();
+  private static final AtomicInteger KERNEL_ID_GENERATOR = new AtomicInteger();
+
+  /**
+   * Returns the compiled aggregation for the given aggregation-only query on the given segment, or <code>null</code>
+   * if the query is not supported and should be served with the interpreted operators.
+   *
+   * @param indexSegment Index segment
+   * @param brokerRequest Broker request
+   * @return Compiled aggregation, or null if the query is not supported
+   */
+  @Nullable
+  public static CompiledAggregation compile(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest) {
+    // Skipping segments with star tree, which should be used to serve the query instead
+    if (!(indexSegment instanceof ImmutableSegment) || !brokerRequest.isSetAggregationsInfo()
+        || brokerRequest.isSetGroupBy() || indexSegment.getSegmentMetadata().hasStarTree()
+        || indexSegment.getStarTrees() != null) {
+      return null;
+    }
+    try {
+      return new KernelBuilder(indexSegment).build(brokerRequest);
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while compiling aggregation kernel for segment: {}, using interpreted operators",
+          indexSegment.getSegmentName(), e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns whether the dictionary id is within the range of matching dictionary ids (both inclusive).
+   * <p>Called from the generated kernels.
+   */
+  public static boolean inRange(int dictId, int startDictId, int endDictId) {
+    return dictId >= startDictId && dictId <= endDictId;
+  }
+
+  /**
+   * Returns whether the dictionary id is set in the bitmap of matching dictionary ids.
+   * <p>Called from the generated kernels.
+   */
+  public static boolean contains(long[] bitmap, int dictId) {
+    return (bitmap[dictId >>> 6] & (1L << dictId)) != 0;
+  }
+
+  private static AggregationKernel getKernel(String source) throws Exception {
+    // Concurrent requests for the same source wait for a single compilation
+    return KERNEL_CACHE.get(source, () -> generateKernel(source));
+  }
+
+  private static AggregationKernel generateKernel(String source) throws Exception {
+    String className = KERNEL_CLASS_NAME_PREFIX + KERNEL_ID_GENERATOR.getAndIncrement();
+    LOGGER.debug("Generating aggregation kernel: {} with source:\n{}", className, source);
+
+    ClassLoader classLoader = AggregationKernel.class.getClassLoader();
+    ClassPool classPool = new ClassPool(true);
+    classPool.insertClassPath(new LoaderClassPath(classLoader));
+    CtClass ctClass = classPool.makeClass(className);
+    ctClass.addInterface(classPool.get(AggregationKernel.class.getName()));
+    ctClass.addConstructor(CtNewConstructor.defaultConstructor(ctClass));
+    ctClass.addMethod(CtNewMethod.make(source, ctClass));
+    byte[] bytecode = ctClass.toBytecode();
+    ctClass.detach();
+
+    // Define each kernel in its own class loader so that the class can be unloaded once the kernel is not referenced
+    return (AggregationKernel) new KernelClassLoader(classLoader).define(className, bytecode).newInstance();
+  }
+
+  /**
+   * Returns whether the class can be referenced from the generated source, i.e. is a public top-level class.
+   */
+  private static boolean isAccessible(Class<?> clazz) {
+    return Modifier.isPublic(clazz.getModifiers()) && clazz.getEnclosingClass() == null;
+  }
+
+  private static class KernelClassLoader extends ClassLoader {
+    KernelClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    Class<?> define(String className, byte[] bytecode) {
+      return defineClass(className, bytecode, 0, bytecode.length);
+    }
+  }
+
+  /**
+   * Helper class to generate the source and collect the inputs of the kernel for a query on a segment.
+   */
+  private static class KernelBuilder {
+    final IndexSegment _indexSegment;
+    final StringBuilder _declarations = new StringBuilder();
+    final List<Object> _inputs = new ArrayList<>();
+    // Map from column to the index of its forward index in the inputs
+    final Map<String, Integer> _forwardIndexIdMap = new HashMap<>();
+    int _numFilterPredicates;
+
+    KernelBuilder(IndexSegment indexSegment) {
+      _indexSegment = indexSegment;
+    }
+
+    @Nullable
+    CompiledAggregation build(BrokerRequest brokerRequest) throws Exception {
+      AggregationFunctionContext[] functionContexts =
+          AggregationFunctionUtils.getAggregationFunctionContexts(brokerRequest.getAggregationsInfo(),
+              _indexSegment.getSegmentMetadata());
+
+      // Collect the aggregated columns and the results needed for each of them
+      int numFunctions = functionContexts.length;
+      int[] columnIndexes = new int[numFunctions];
+      List<String> columns = new ArrayList<>();
+      boolean[] computeSum = new boolean[numFunctions];
+      boolean[] computeMinMax = new boolean[numFunctions];
+      for (int i = 0; i < numFunctions; i++) {
+        AggregationFunctionContext functionContext = functionContexts[i];
+        AggregationFunctionType functionType = functionContext.getAggregationFunction().getType();
+        if (functionType == AggregationFunctionType.COUNT) {
+          columnIndexes[i] = -1;
+          continue;
+        }
+        if (!functionType.isOfType(AggregationFunctionType.SUM, AggregationFunctionType.MIN,
+            AggregationFunctionType.MAX, AggregationFunctionType.AVG, AggregationFunctionType.MINMAXRANGE)) {
+          return null;
+        }
+        String column = functionContext.getColumn();
+        if (!TransformExpressionTree.compileToExpressionTree(column).isColumn()) {
+          return null;
+        }
+        int columnIndex = columns.indexOf(column);
+        if (columnIndex < 0) {
+          columnIndex = columns.size();
+          columns.add(column);
+        }
+        columnIndexes[i] = columnIndex;
+        if (functionType.isOfType(AggregationFunctionType.SUM, AggregationFunctionType.AVG)) {
+          computeSum[columnIndex] = true;
+        } else {
+          computeMinMax[columnIndex] = true;
+        }
+      }
+
+      // Compile the filter
+      String filter = "true";
+      FilterQueryTree rootFilterNode = RequestUtils.generateFilterQueryTree(brokerRequest);
+      if (rootFilterNode != null) {
+        filter = compileFilter(rootFilterNode);
+        if (filter == null) {
+          return null;
+        }
+      }
+
+      // Compile the values of the aggregated columns
+      int numColumns = columns.size();
+      String[] values = new String[numColumns];
+      for (int i = 0; i < numColumns; i++) {
+        values[i] = compileValue(columns.get(i));
+        if (values[i] == null) {
+          return null;
+        }
+      }
+
+      // Generate the source of the kernel
+      StringBuilder source = new StringBuilder();
+      source.append("public int aggregate(int numDocs, Object[] inputs, double[] results) {\n");
+      source.append(_declarations);
+      for (int i = 0; i < numColumns; i++) {
+        source.append("double sum").append(i).append(" = 0.0;\n");
+        source.append("double min").append(i).append(" = Double.POSITIVE_INFINITY;\n");
+        source.append("double max").append(i).append(" = Double.NEGATIVE_INFINITY;\n");
+      }
+      source.append("int numMatchingDocs = 0;\n");
+      source.append("for (int docId = 0; docId < numDocs; docId++) {\n");
+      source.append("if (").append(filter).append(") {\n");
+      source.append("numMatchingDocs++;\n");
+      for (int i = 0; i < numColumns; i++) {
+        String value = "value" + i;
+        source.append("double ").append(value).append(" = ").append(values[i]).append(";\n");
+        if (computeSum[i]) {
+          source.append("sum").append(i).append(" += ").append(value).append(";\n");
+        }
+        if (computeMinMax[i]) {
+          source.append("if (").append(value).append(" < min").append(i).append(") {\n");
+          source.append("min").append(i).append(" = ").append(value).append(";\n}\n");
+          source.append("if (").append(value).append(" > max").append(i).append(") {\n");
+          source.append("max").append(i).append(" = ").append(value).append(";\n}\n");
+        }
+      }
+      source.append("}\n}\n");
+      for (int i = 0; i < numColumns; i++) {
+        source.append("results[").append(3 * i).append("] = sum").append(i).append(";\n");
+        source.append("results[").append(3 * i + 1).append("] = min").append(i).append(";\n");
+        source.append("results[").append(3 * i + 2).append("] = max").append(i).append(";\n");
+      }
+      source.append("return numMatchingDocs;\n}\n");
+
+      return new CompiledAggregation(getKernel(source.toString()), _inputs.toArray(), functionContexts, columnIndexes,
+          numColumns, _numFilterPredicates);
+    }
+
+    /**
+     * Returns the boolean expression for the filter, or null if the filter is not supported.
+     */
+    @Nullable
+    String compileFilter(FilterQueryTree filterQueryTree) {
+      FilterOperator filterOperator = filterQueryTree.getOperator();
+      if (filterOperator == FilterOperator.AND || filterOperator == FilterOperator.OR) {
+        String delimiter = filterOperator == FilterOperator.AND ? " && " : " || ";
+        StringBuilder expression = new StringBuilder();
+        for (FilterQueryTree childFilter : filterQueryTree.getChildren()) {
+          String childExpression = compileFilter(childFilter);
+          if (childExpression == null) {
+            return null;
+          }
+          expression.append(expression.length() == 0 ? "(" : delimiter).append(childExpression);
+        }
+        return expression.append(')').toString();
+      }
+
+      String column = filterQueryTree.getColumn();
+      DataSource dataSource = _indexSegment.getDataSource(column);
+      DataSourceMetadata dataSourceMetadata = dataSource.getDataSourceMetadata();
+      if (!dataSourceMetadata.isSingleValue() || !dataSourceMetadata.hasDictionary() || dataSourceMetadata.isSorted()
+          || dataSourceMetadata.hasInvertedIndex()) {
+        return null;
+      }
+      PredicateEvaluator predicateEvaluator =
+          PredicateEvaluatorProvider.getPredicateEvaluator(Predicate.newPredicate(filterQueryTree), dataSource);
+      if (predicateEvaluator.isAlwaysTrue()) {
+        return "true";
+      }
+      if (predicateEvaluator.isAlwaysFalse()) {
+        return "false";
+      }
+      int[] matchingDictIds = predicateEvaluator.getMatchingDictIds();
+      if (matchingDictIds.length == 0) {
+        return "false";
+      }
+      String dictId = readForwardIndex(column, dataSource, "getInt");
+      if (dictId == null) {
+        return null;
+      }
+      _numFilterPredicates++;
+
+      // Use a range check if the matching dictionary ids are contiguous, a bitmap lookup otherwise
+      int minDictId = Integer.MAX_VALUE;
+      int maxDictId = Integer.MIN_VALUE;
+      for (int matchingDictId : matchingDictIds) {
+        minDictId = Math.min(minDictId, matchingDictId);
+        maxDictId = Math.max(maxDictId, matchingDictId);
+      }
+      int inputId = _inputs.size();
+      if (maxDictId - minDictId + 1 == matchingDictIds.length) {
+        _inputs.add(new int[]{minDictId, maxDictId});
+        _declarations.append("int startDictId").append(inputId).append(" = ((int[]) inputs[").append(inputId)
+            .append("])[0];\n");
+        _declarations.append("int endDictId").append(inputId).append(" = ((int[]) inputs[").append(inputId)
+            .append("])[1];\n");
+        return GENERATOR_CLASS_NAME + ".inRange(" + dictId + ", startDictId" + inputId + ", endDictId" + inputId + ")";
+      } else {
+        long[] bitmap = new long[(dataSource.getDictionary().length() + 63) >>> 6];
+        for (int matchingDictId : matchingDictIds) {
+          bitmap[matchingDictId >>> 6] |= 1L << matchingDictId;
+        }
+        _inputs.add(bitmap);
+        _declarations.append("long[] bitmap").append(inputId).append(" = (long[]) inputs[").append(inputId)
+            .append("];\n");
+        return GENERATOR_CLASS_NAME + ".contains(bitmap" + inputId + ", " + dictId + ")";
+      }
+    }
+
+    /**
+     * Returns the double expression for the value of the aggregated column, or null if the column is not supported.
+     */
+    @Nullable
+    String compileValue(String column) {
+      DataSource dataSource = _indexSegment.getDataSource(column);
+      DataSourceMetadata dataSourceMetadata = dataSource.getDataSourceMetadata();
+      if (!dataSourceMetadata.isSingleValue()) {
+        return null;
+      }
+      FieldSpec.DataType dataType = dataSourceMetadata.getDataType();
+      if (dataType != FieldSpec.DataType.INT && dataType != FieldSpec.DataType.LONG
+          && dataType != FieldSpec.DataType.FLOAT && dataType != FieldSpec.DataType.DOUBLE) {
+        return null;
+      }
+
+      if (dataSourceMetadata.hasDictionary()) {
+        String dictId = readForwardIndex(column, dataSource, "getInt");
+        if (dictId == null) {
+          return null;
+        }
+        Dictionary dictionary = dataSource.getDictionary();
+        String dictionaryClassName =
+            isAccessible(dictionary.getClass()) ? dictionary.getClass().getName() : Dictionary.class.getName();
+        int inputId = _inputs.size();
+        _inputs.add(dictionary);
+        _declarations.append(dictionaryClassName).append(" dictionary").append(inputId).append(" = (")
+            .append(dictionaryClassName).append(") inputs[").append(inputId).append("];\n");
+        return "dictionary" + inputId + ".getDoubleValue(" + dictId + ")";
+      } else {
+        String methodName;
+        switch (dataType) {
+          case INT:
+            methodName = "getInt";
+            break;
+          case LONG:
+            methodName = "getLong";
+            break;
+          case FLOAT:
+            methodName = "getFloat";
+            break;
+          default:
+            methodName = "getDouble";
+            break;
+        }
+        String value = readForwardIndex(column, dataSource, methodName);
+        return value != null ? "(double) " + value : null;
+      }
+    }
+
+    /**
+     * Returns the expression to read the current document from the forward index of the column with the given method,
+     * or null if the forward index is not supported.
+     */
+    @Nullable
+    String readForwardIndex(String column, DataSource dataSource, String methodName) {
+      Integer inputId = _forwardIndexIdMap.get(column);
+      if (inputId == null) {
+        if (!(dataSource instanceof ColumnDataSource)) {
+          return null;
+        }
+        DataFileReader forwardIndex = ((ColumnDataSource) dataSource).getForwardIndex();
+        if (!(forwardIndex instanceof SingleColumnSingleValueReader)) {
+          return null;
+        }
+        ReaderContext readerContext = ((SingleColumnSingleValueReader) forwardIndex).createContext();
+
+        // Use the concrete classes of the reader and the reader context so that the calls are monomorphic
+        String readerClassName = SingleColumnSingleValueReader.class.getName();
+        String readerContextClassName = ReaderContext.class.getName();
+        Class<?> readerClass = forwardIndex.getClass();
+        try {
+          Class<?> readerContextClass = readerClass.getMethod("createContext").getReturnType();
+          if (isAccessible(readerClass) && isAccessible(readerContextClass)) {
+            readerClass.getMethod(methodName, int.class, readerContextClass);
+            readerClassName = readerClass.getName();
+            readerContextClassName = readerContextClass.getName();
+          }
+        } catch (NoSuchMethodException e) {
+          // Fall back to the interfaces
+        }
+
+        inputId = _inputs.size();
+        _inputs.add(forwardIndex);
+        _inputs.add(readerContext);
+        _declarations.append(readerClassName).append(" reader").append(inputId).append(" = (").append(readerClassName)
+            .append(") inputs[").append(inputId).append("];\n");
+        _declarations.append(readerContextClassName).append(" readerContext").append(inputId).append(" = (")
+            .append(readerContextClassName).append(") inputs[").append(inputId + 1).append("];\n");
+        _forwardIndexIdMap.put(column, inputId);
+      }
+      return "reader" + inputId + "." + methodName + "(docId, readerContext" + inputId + ")";
+    }
+  }
+}
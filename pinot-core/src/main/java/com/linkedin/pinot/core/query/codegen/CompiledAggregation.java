@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.query.codegen;
+
+import com.linkedin.pinot.core.query.aggregation.AggregationFunctionContext;
+import javax.annotation.Nonnull;
+
+
+/**
+ * The <code>CompiledAggregation</code> class contains the generated aggregation kernel and its inputs for an
+ * aggregation-only query on a single segment.
+ * <p>The inputs contain the reader contexts of the forward indexes, so a compiled aggregation should only be executed
+ * once by a single thread.
+ */
+public class CompiledAggregation {
+  private final AggregationKernel _kernel;
+  private final Object[] _inputs;
+  private final AggregationFunctionContext[] _functionContexts;
+  private final int[] _columnIndexes;
+  private final int _numColumns;
+  private final int _numFilterPredicates;
+
+  /**
+   * @param kernel Generated aggregation kernel
+   * @param inputs Inputs of the kernel
+   * @param functionContexts Aggregation function contexts
+   * @param columnIndexes Index of the aggregated column in the kernel results for each aggregation function, -1 for
+   *                      COUNT
+   * @param numColumns Number of aggregated columns
+   * @param numFilterPredicates Number of filter predicates evaluated by the kernel
+   */
+  public CompiledAggregation(@Nonnull AggregationKernel kernel, @Nonnull Object[] inputs,
+      @Nonnull AggregationFunctionContext[] functionContexts, @Nonnull int[] columnIndexes, int numColumns,
+      int numFilterPredicates) {
+    _kernel = kernel;
+    _inputs = inputs;
+    _functionContexts = functionContexts;
+    _columnIndexes = columnIndexes;
+    _numColumns = numColumns;
+    _numFilterPredicates = numFilterPredicates;
+  }
+
+  public AggregationKernel getKernel() {
+    return _kernel;
+  }
+
+  public Object[] getInputs() {
+    return _inputs;
+  }
+
+  public AggregationFunctionContext[] getFunctionContexts() {
+    return _functionContexts;
+  }
+
+  public int[] getColumnIndexes() {
+    return _columnIndexes;
+  }
+
+  public int getNumColumns() {
+    return _numColumns;
+  }
+
+  public int getNumFilterPredicates() {
+    return _numFilterPredicates;
+  }
+}
@@ -200,6 +200,16 @@ public abstract class QueryScheduler {
       serverMetrics.addMeteredGlobalValue(ServerMeter.RESPONSE_SERIALIZATION_EXCEPTIONS, 1);
       LOGGER.error("Caught exception while serializing response for requestId: {}, brokerId: {}",
           queryRequest.getRequestId(), queryRequest.getBrokerId(), e);
+      // Send an error response with the request id instead, so that the broker can fail the request right away
+      DataTable errorDataTable = new DataTableImplV2();
+      errorDataTable.getMetadata().put(DataTable.REQUEST_ID_METADATA_KEY, Long.toString(queryRequest.getRequestId()));
+      errorDataTable.addException(QueryException.getException(QueryException.INTERNAL_ERROR, e));
+      try {
+        responseByte = errorDataTable.toBytes();
+      } catch (Exception e1) {
+        LOGGER.error("Caught exception while serializing error response for requestId: {}, brokerId: {}",
+            queryRequest.getRequestId(), queryRequest.getBrokerId(), e1);
+      }
     }
 
     responseSerializationTimer.stopAndRecord();
@@ -219,6 +229,7 @@ public abstract class QueryScheduler {
   protected ListenableFuture<byte[]> immediateErrorResponse(ServerQueryRequest queryRequest,
       ProcessingException error) {
     DataTable result = new DataTableImplV2();
+    result.getMetadata().put(DataTable.REQUEST_ID_METADATA_KEY, Long.toString(queryRequest.getRequestId()));
     result.addException(error);
     return Futures.immediateFuture(serializeDataTable(queryRequest, result));
   }
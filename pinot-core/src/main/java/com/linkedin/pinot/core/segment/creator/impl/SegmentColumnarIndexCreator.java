@@ -16,12 +16,14 @@
 package com.linkedin.pinot.core.segment.creator.impl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.linkedin.pinot.common.config.ColumnPartitionConfig;
 import com.linkedin.pinot.common.data.DateTimeFieldSpec;
 import com.linkedin.pinot.common.data.FieldSpec;
 import com.linkedin.pinot.common.data.FieldSpec.FieldType;
 import com.linkedin.pinot.common.data.Schema;
 import com.linkedin.pinot.common.data.StarTreeIndexSpec;
+import com.linkedin.pinot.common.utils.NamedThreadFactory;
 import com.linkedin.pinot.core.data.GenericRow;
 import com.linkedin.pinot.core.data.partition.PartitionFunction;
 import com.linkedin.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
@@ -45,12 +47,19 @@ import com.linkedin.pinot.core.segment.creator.impl.inv.OnHeapBitmapInvertedInde
 import com.linkedin.pinot.startree.hll.HllConfig;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.PropertiesConfiguration;
 import org.apache.commons.lang.math.IntRange;
@@ -66,11 +75,16 @@ import static com.linkedin.pinot.core.segment.creator.impl.V1Constants.MetadataK
 
 /**
  * Segment creator which writes data in a columnar form.
+ * <p>When multiple index creation threads are configured, dictionaries are built in parallel, and rows are buffered
+ * column-major in batches so that the indexes (forward index and inverted index) of each column can be created in
+ * parallel across columns.
  */
 // TODO: check resource leaks
 public class SegmentColumnarIndexCreator implements SegmentCreator {
   // TODO Refactor class name to match interface name
   private static final Logger LOGGER = LoggerFactory.getLogger(SegmentColumnarIndexCreator.class);
+  private static final int NUM_ROWS_PER_BATCH = 10_000;
+
   private SegmentGeneratorConfig config;
   private Map<String, ColumnIndexCreationInfo> indexCreationInfoMap;
   private Map<String, SegmentDictionaryCreator> _dictionaryCreatorMap = new HashMap<>();
@@ -83,11 +97,19 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   private int totalRawDocs;
   private int totalAggDocs;
   private int docIdCounter;
+  // For parallel index creation
+  private ExecutorService _executorService;
+  private List<String> _indexColumns;
+  private Object[][] _columnValueBatch;
+  private int _numRowsInBatch;
+  // Whether the values of the dictionary-encoded columns are already encoded into dictionary ids
+  private boolean _dictEncodedInput;
 
   @Override
   public void init(SegmentGeneratorConfig segmentCreationSpec, SegmentIndexCreationInfo segmentIndexCreationInfo,
       Map<String, ColumnIndexCreationInfo> indexCreationInfoMap, Schema schema, File outDir) throws Exception {
     docIdCounter = 0;
+    _dictEncodedInput = false;
     config = segmentCreationSpec;
     this.indexCreationInfoMap = indexCreationInfoMap;
 
@@ -102,6 +124,13 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
     this.totalAggDocs = segmentIndexCreationInfo.getTotalAggDocs();
     this.totalRawDocs = segmentIndexCreationInfo.getTotalRawDocs();
 
+    int numIndexCreationThreads = segmentCreationSpec.getNumIndexCreationThreads();
+    if (numIndexCreationThreads > 1) {
+      LOGGER.info("Creating indexes with {} threads", numIndexCreationThreads);
+      _executorService =
+          Executors.newFixedThreadPool(numIndexCreationThreads, new NamedThreadFactory("segment-index-creation"));
+    }
+
     Collection<FieldSpec> fieldSpecs = schema.getAllFieldSpecs();
     Set<String> invertedIndexColumns = new HashSet<>();
     for (String columnName : config.getInvertedIndexCreationColumns()) {
@@ -111,6 +140,7 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
     }
 
     // Initialize creators for dictionary, forward index and inverted index
+    List<Callable<Void>> dictionaryBuildTasks = new ArrayList<>();
     for (FieldSpec fieldSpec : fieldSpecs) {
       String columnName = fieldSpec.getName();
 
@@ -130,14 +160,18 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
             new SegmentDictionaryCreator(indexCreationInfo.getSortedUniqueElementsArray(), fieldSpec, _indexDir);
         _dictionaryCreatorMap.put(columnName, dictionaryCreator);
 
-        // Create dictionary
-        try {
-          dictionaryCreator.build();
-        } catch (Exception e) {
-          LOGGER.error("Error building dictionary for field: {}, cardinality: {}, number of bytes per entry: {}",
-              fieldSpec.getName(), indexCreationInfo.getDistinctValueCount(), dictionaryCreator.getNumBytesPerEntry());
-          throw e;
-        }
+        // Create dictionary (dictionaries are built after initializing all the creators)
+        dictionaryBuildTasks.add(() -> {
+          try {
+            dictionaryCreator.build();
+          } catch (Exception e) {
+            LOGGER.error("Error building dictionary for field: {}, cardinality: {}, number of bytes per entry: {}",
+                fieldSpec.getName(), indexCreationInfo.getDistinctValueCount(),
+                dictionaryCreator.getNumBytesPerEntry());
+            throw e;
+          }
+          return null;
+        });
 
         // Initialize forward index creator
         int cardinality = indexCreationInfo.getDistinctValueCount();
@@ -184,6 +218,13 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
                 indexCreationInfo.getLengthOfLongestEntry()));
       }
     }
+
+    runTasks(dictionaryBuildTasks);
+
+    if (_executorService != null) {
+      _indexColumns = new ArrayList<>(_forwardIndexCreatorMap.keySet());
+      _columnValueBatch = new Object[_indexColumns.size()][NUM_ROWS_PER_BATCH];
+    }
   }
 
   /**
@@ -248,33 +289,133 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
 
   @Override
   public void indexRow(GenericRow row) {
-    for (String columnName : _forwardIndexCreatorMap.keySet()) {
-      Object columnValueToIndex = row.getValue(columnName);
-      if (columnValueToIndex == null) {
-        throw new RuntimeException("Null value for column:" + columnName);
+    if (_executorService == null) {
+      for (String columnName : _forwardIndexCreatorMap.keySet()) {
+        indexColumnValue(columnName, getColumnValue(row, columnName), docIdCounter);
       }
+      docIdCounter++;
+    } else {
+      // NOTE: values are buffered by reference, so the record reader should not modify the values of the returned row
+      // when reusing it
+      int numColumns = _indexColumns.size();
+      for (int i = 0; i < numColumns; i++) {
+        _columnValueBatch[i][_numRowsInBatch] = getColumnValue(row, _indexColumns.get(i));
+      }
+      _numRowsInBatch++;
+      docIdCounter++;
+      if (_numRowsInBatch == NUM_ROWS_PER_BATCH) {
+        indexBatch();
+      }
+    }
+  }
 
-      SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
-      if (schema.getFieldSpecFor(columnName).isSingleValueField()) {
-        if (dictionaryCreator != null) {
-          int dictId = dictionaryCreator.indexOfSV(columnValueToIndex);
-          ((SingleValueForwardIndexCreator) _forwardIndexCreatorMap.get(columnName)).index(docIdCounter, dictId);
-          if (_invertedIndexCreatorMap.containsKey(columnName)) {
-            _invertedIndexCreatorMap.get(columnName).add(dictId);
-          }
-        } else {
-          ((SingleValueRawIndexCreator) _forwardIndexCreatorMap.get(columnName)).index(docIdCounter,
-              columnValueToIndex);
+  /**
+   * Indexes a row where the values of the dictionary-encoded columns are already encoded into dictionary ids (Integer
+   * for single-value column, int[] for multi-value column), e.g. rows from the {@link SegmentRowSpool}. Rows of the
+   * same segment must be indexed either all with this method or all with {@link #indexRow(GenericRow)}.
+   */
+  public void indexDictEncodedRow(GenericRow row) {
+    _dictEncodedInput = true;
+    indexRow(row);
+  }
+
+  /**
+   * Returns the dictionary creator for the given column, or <code>null</code> if the column is not dictionary-encoded.
+   * <p>Should be called after {@link #init}, where the dictionaries are created.
+   */
+  @Nullable
+  public SegmentDictionaryCreator getDictionaryCreator(String columnName) {
+    return _dictionaryCreatorMap.get(columnName);
+  }
+
+  private static Object getColumnValue(GenericRow row, String columnName) {
+    Object columnValueToIndex = row.getValue(columnName);
+    if (columnValueToIndex == null) {
+      throw new RuntimeException("Null value for column:" + columnName);
+    }
+    return columnValueToIndex;
+  }
+
+  /**
+   * Indexes the value of a column for the given document. Values of the same column must be indexed in document order
+   * and from a single thread, while different columns can be indexed in parallel.
+   */
+  private void indexColumnValue(String columnName, Object columnValueToIndex, int docId) {
+    SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
+    if (schema.getFieldSpecFor(columnName).isSingleValueField()) {
+      if (dictionaryCreator != null) {
+        int dictId =
+            _dictEncodedInput ? (Integer) columnValueToIndex : dictionaryCreator.indexOfSV(columnValueToIndex);
+        ((SingleValueForwardIndexCreator) _forwardIndexCreatorMap.get(columnName)).index(docId, dictId);
+        if (_invertedIndexCreatorMap.containsKey(columnName)) {
+          _invertedIndexCreatorMap.get(columnName).add(dictId);
         }
       } else {
-        int[] dictIds = dictionaryCreator.indexOfMV(columnValueToIndex);
-        ((MultiValueForwardIndexCreator) _forwardIndexCreatorMap.get(columnName)).index(docIdCounter, dictIds);
-        if (_invertedIndexCreatorMap.containsKey(columnName)) {
-          _invertedIndexCreatorMap.get(columnName).add(dictIds, dictIds.length);
+        ((SingleValueRawIndexCreator) _forwardIndexCreatorMap.get(columnName)).index(docId, columnValueToIndex);
+      }
+    } else {
+      int[] dictIds = _dictEncodedInput ? (int[]) columnValueToIndex : dictionaryCreator.indexOfMV(columnValueToIndex);
+      ((MultiValueForwardIndexCreator) _forwardIndexCreatorMap.get(columnName)).index(docId, dictIds);
+      if (_invertedIndexCreatorMap.containsKey(columnName)) {
+        _invertedIndexCreatorMap.get(columnName).add(dictIds, dictIds.length);
+      }
+    }
+  }
+
+  /**
+   * Indexes the buffered rows with one task per column.
+   */
+  private void indexBatch() {
+    int numRows = _numRowsInBatch;
+    int startDocId = docIdCounter - numRows;
+    int numColumns = _indexColumns.size();
+    List<Callable<Void>> tasks = new ArrayList<>(numColumns);
+    for (int i = 0; i < numColumns; i++) {
+      String columnName = _indexColumns.get(i);
+      Object[] values = _columnValueBatch[i];
+      tasks.add(() -> {
+        for (int j = 0; j < numRows; j++) {
+          indexColumnValue(columnName, values[j], startDocId + j);
+          values[j] = null;
         }
+        return null;
+      });
+    }
+    try {
+      runTasks(tasks);
+    } catch (IOException e) {
+      throw new RuntimeException("Caught exception while indexing rows", e);
+    }
+    _numRowsInBatch = 0;
+  }
+
+  /**
+   * Runs the given tasks in the index creation threads if configured, or in the caller thread otherwise. Blocks until
+   * all the tasks finish.
+   */
+  private void runTasks(List<Callable<Void>> tasks) throws IOException {
+    if (_executorService == null) {
+      for (Callable<Void> task : tasks) {
+        try {
+          task.call();
+        } catch (Exception e) {
+          Throwables.propagateIfPossible(e, IOException.class);
+          throw new RuntimeException(e);
+        }
+      }
+      return;
+    }
+    try {
+      for (Future<Void> future : _executorService.invokeAll(tasks)) {
+        future.get();
       }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while creating indexes", e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new RuntimeException(e.getCause());
     }
-    docIdCounter++;
   }
 
   @Override
@@ -284,9 +425,17 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
 
   @Override
   public void seal() throws ConfigurationException, IOException {
+    if (_numRowsInBatch > 0) {
+      indexBatch();
+    }
+    List<Callable<Void>> invertedIndexSealTasks = new ArrayList<>(_invertedIndexCreatorMap.size());
     for (InvertedIndexCreator invertedIndexCreator : _invertedIndexCreatorMap.values()) {
-      invertedIndexCreator.seal();
+      invertedIndexSealTasks.add(() -> {
+        invertedIndexCreator.seal();
+        return null;
+      });
     }
+    runTasks(invertedIndexSealTasks);
     writeMetadata();
   }
 
@@ -491,6 +640,9 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   public static SingleValueRawIndexCreator getRawIndexCreatorForColumn(File file,
       ChunkCompressorFactory.CompressionType compressionType, String column, FieldSpec.DataType dataType, int totalDocs,
       int lengthOfLongestEntry) throws IOException {
+    Preconditions.checkArgument(!ChunkCompressorFactory.isNumericEncoding(compressionType)
+            || dataType == FieldSpec.DataType.INT || dataType == FieldSpec.DataType.LONG,
+        "Compression type: %s is not supported for column: %s of data type: %s", compressionType, column, dataType);
 
     SingleValueRawIndexCreator indexCreator;
     switch (dataType) {
@@ -525,6 +677,9 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
 
   @Override
   public void close() throws IOException {
+    if (_executorService != null) {
+      _executorService.shutdownNow();
+    }
     for (SegmentDictionaryCreator dictionaryCreator : _dictionaryCreatorMap.values()) {
       dictionaryCreator.close();
     }
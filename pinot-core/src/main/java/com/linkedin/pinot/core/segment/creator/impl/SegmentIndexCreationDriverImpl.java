@@ -56,10 +56,12 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -137,7 +139,8 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     _recordTransformer = recordTransformer;
 
     // Initialize stats collection
-    if (!createStarTree) { // For star tree, the stats are gathered in buildStarTree()
+    // For star tree, the stats are gathered in buildStarTree(); for single-pass creation, in buildSinglePass()
+    if (!createStarTree && !config.isSinglePassCreation()) {
       segmentStats = dataSource.gatherStats(new StatsCollectorConfig(dataSchema, config.getSegmentPartitionConfig()));
       totalDocs = segmentStats.getTotalDocCount();
       totalRawDocs = segmentStats.getRawDocCount();
@@ -199,6 +202,8 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     if (createStarTree) {
       // TODO: add on-heap star-tree builder
       buildStarTree();
+    } else if (config.isSinglePassCreation()) {
+      buildSinglePass();
     } else {
       buildRaw();
     }
@@ -348,6 +353,72 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     handlePostCreation();
   }
 
+  /**
+   * Builds the segment with a single pass over the input: the rows are spooled while collecting the stats, then the
+   * indexes are created from the spooled rows.
+   */
+  private void buildSinglePass() throws Exception {
+    long start = System.currentTimeMillis();
+    SegmentPreIndexStatsCollectorImpl statsCollector =
+        new SegmentPreIndexStatsCollectorImpl(new StatsCollectorConfig(dataSchema, config.getSegmentPartitionConfig()));
+    statsCollector.init();
+    segmentStats = statsCollector;
+
+    // Raw index columns are spooled by value
+    Set<String> rawIndexColumns = new HashSet<>(config.getRawIndexCreationColumns());
+    rawIndexColumns.addAll(config.getRawIndexCompressionType().keySet());
+    File spoolDir = new File(config.getOutDir(), com.linkedin.pinot.common.utils.FileUtils.getRandomFileName());
+    try (SegmentRowSpool rowSpool = new SegmentRowSpool(dataSchema, rawIndexColumns, spoolDir)) {
+      // Collect stats and spool the rows
+      LOGGER.info("Start collecting stats and spooling rows!");
+      try {
+        recordReader.rewind();
+        GenericRow readRow = null;
+        while (recordReader.hasNext()) {
+          long startRead = System.currentTimeMillis();
+          readRow = GenericRow.createOrReuseRow(readRow);
+          GenericRow transformedRow = _recordTransformer.transform(recordReader.next(readRow));
+          long stopRead = System.currentTimeMillis();
+          totalRecordReadTime += (stopRead - startRead);
+          if (transformedRow != null) {
+            statsCollector.collectRow(transformedRow);
+            rowSpool.addRow(transformedRow);
+            totalStatsCollectorTime += (System.currentTimeMillis() - stopRead);
+          }
+        }
+      } finally {
+        recordReader.close();
+      }
+      statsCollector.build();
+      totalDocs = statsCollector.getTotalDocCount();
+      totalRawDocs = statsCollector.getRawDocCount();
+      totalAggDocs = statsCollector.getAggregatedDocCount();
+      buildIndexCreationInfo();
+      LOGGER.info("Collected stats for {} documents, spooled {} rows", totalDocs, rowSpool.getNumRows());
+
+      // Build the index from the spooled rows
+      long startIndex = System.currentTimeMillis();
+      try {
+        SegmentColumnarIndexCreator columnarIndexCreator = (SegmentColumnarIndexCreator) indexCreator;
+        columnarIndexCreator.init(config, segmentIndexCreationInfo, indexCreationInfoMap, dataSchema, tempIndexDir);
+        rowSpool.remapDictIds(columnarIndexCreator);
+        Iterator<GenericRow> rowIterator = rowSpool.iterator();
+        while (rowIterator.hasNext()) {
+          columnarIndexCreator.indexDictEncodedRow(rowIterator.next());
+        }
+      } catch (Exception e) {
+        indexCreator.close();
+        throw e;
+      }
+      totalIndexTime = System.currentTimeMillis() - startIndex;
+    }
+    LOGGER.info("Finished records indexing in IndexCreator!");
+
+    handlePostCreation();
+    LOGGER.info("Total time: {}ms, record read time: {}ms, stats collection time: {}ms, index time: {}ms",
+        System.currentTimeMillis() - start, totalRecordReadTime, totalStatsCollectorTime, totalIndexTime);
+  }
+
   private void handlePostCreation() throws Exception {
     final String timeColumn = config.getTimeColumnName();
     segmentName = config.getSegmentNameGenerator().generateSegmentName(segmentStats.getColumnProfileFor(timeColumn));
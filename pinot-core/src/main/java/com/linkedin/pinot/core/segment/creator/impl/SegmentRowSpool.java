@@ -0,0 +1,413 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.segment.creator.impl;
+
+import com.google.common.base.Preconditions;
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.data.Schema;
+import com.linkedin.pinot.common.utils.StringUtil;
+import com.linkedin.pinot.common.utils.primitive.ByteArray;
+import com.linkedin.pinot.core.data.GenericRow;
+import com.linkedin.pinot.core.segment.memory.PinotDataBuffer;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.apache.commons.io.FileUtils;
+
+
+/**
+ * The <code>SegmentRowSpool</code> class spools the rows read during the stats collection pass of the segment creation,
+ * so that the index creation pass can iterate over the spooled rows instead of reading and decoding the input again.
+ * <p>Values of the raw index columns are spooled by value into a file. Values of the other columns are encoded as
+ * provisional dictionary ids, assigned in the order the values are first seen, and stored column-major in memory
+ * mapped files. The provisional dictionary id maps reference the same value objects as the stats collectors, so no
+ * value is copied. Once the dictionaries are built, the provisional dictionary ids are remapped to the final
+ * dictionary ids with one int array per column, and the maps are released (see {@link #remapDictIds}).
+ * <p>Rows must be iterated only after all the rows are added and the dictionary ids are remapped.
+ */
+public class SegmentRowSpool implements Closeable {
+  // Number of int values in each memory mapped chunk (16MB)
+  private static final int NUM_VALUES_PER_CHUNK = 4 * 1024 * 1024;
+  private static final int VALUE_SPOOL_BUFFER_SIZE = 64 * 1024;
+
+  private final File _spoolDir;
+  private final String[] _columns;
+  private final FieldSpec.DataType[] _dataTypes;
+  private final boolean[] _isSingleValue;
+
+  // For dictionary-encoded columns (null for raw index columns)
+  private final List<Map<Object, Integer>> _provisionalDictIdMaps;
+  private final IntSpool[] _intSpools;
+  // Final dictionary id for each provisional dictionary id
+  private final int[][] _dictIdRemaps;
+  // Values for each provisional dictionary id, only for the columns not dictionary-encoded in the end (e.g.
+  // variable length BYTES column)
+  private final Object[][] _provisionalValues;
+
+  // For raw index columns (null for dictionary-encoded columns)
+  private final ValueSpool[] _valueSpools;
+
+  private int _numRows;
+  private boolean _remapped;
+
+  public SegmentRowSpool(Schema schema, Set<String> rawIndexColumns, File spoolDir) throws IOException {
+    Preconditions.checkState(spoolDir.mkdirs(), "Failed to create spool directory: %s", spoolDir);
+    _spoolDir = spoolDir;
+
+    List<FieldSpec> fieldSpecs = new ArrayList<>();
+    for (FieldSpec fieldSpec : schema.getAllFieldSpecs()) {
+      if (!schema.isVirtualColumn(fieldSpec.getName())) {
+        fieldSpecs.add(fieldSpec);
+      }
+    }
+    int numColumns = fieldSpecs.size();
+    _columns = new String[numColumns];
+    _dataTypes = new FieldSpec.DataType[numColumns];
+    _isSingleValue = new boolean[numColumns];
+    _provisionalDictIdMaps = new ArrayList<>(numColumns);
+    _intSpools = new IntSpool[numColumns];
+    _dictIdRemaps = new int[numColumns][];
+    _provisionalValues = new Object[numColumns][];
+    _valueSpools = new ValueSpool[numColumns];
+    for (int i = 0; i < numColumns; i++) {
+      FieldSpec fieldSpec = fieldSpecs.get(i);
+      String column = fieldSpec.getName();
+      _columns[i] = column;
+      _dataTypes[i] = fieldSpec.getDataType();
+      _isSingleValue[i] = fieldSpec.isSingleValueField();
+      if (rawIndexColumns.contains(column)) {
+        Preconditions.checkState(_isSingleValue[i], "Cannot create raw index for multi-value column: %s", column);
+        _provisionalDictIdMaps.add(null);
+        _valueSpools[i] = new ValueSpool(new File(spoolDir, "column" + i), _dataTypes[i]);
+      } else {
+        _provisionalDictIdMaps.add(new HashMap<>());
+        _intSpools[i] = new IntSpool(new File(spoolDir, "column" + i));
+      }
+    }
+  }
+
+  /**
+   * Adds a row into the spool. For multi-value columns, the number of values is spooled before the provisional
+   * dictionary ids of the values.
+   */
+  public void addRow(GenericRow row) throws IOException {
+    Preconditions.checkState(!_remapped, "Cannot add rows after remapping the dictionary ids");
+    int numColumns = _columns.length;
+    for (int i = 0; i < numColumns; i++) {
+      Object value = row.getValue(_columns[i]);
+      if (value == null) {
+        throw new RuntimeException("Null value for column:" + _columns[i]);
+      }
+      ValueSpool valueSpool = _valueSpools[i];
+      if (valueSpool != null) {
+        valueSpool.add(value);
+        continue;
+      }
+      IntSpool intSpool = _intSpools[i];
+      if (_isSingleValue[i]) {
+        intSpool.add(getProvisionalDictId(i, value));
+      } else {
+        Object[] values = (Object[]) value;
+        intSpool.add(values.length);
+        for (Object singleValue : values) {
+          intSpool.add(getProvisionalDictId(i, singleValue));
+        }
+      }
+    }
+    _numRows++;
+  }
+
+  private int getProvisionalDictId(int columnIndex, Object value) {
+    // Byte arrays are hashed by identity, so wrap them to hash by content
+    Object key = _dataTypes[columnIndex] == FieldSpec.DataType.BYTES ? new ByteArray((byte[]) value) : value;
+    Map<Object, Integer> provisionalDictIdMap = _provisionalDictIdMaps.get(columnIndex);
+    Integer provisionalDictId = provisionalDictIdMap.get(key);
+    if (provisionalDictId == null) {
+      provisionalDictId = provisionalDictIdMap.size();
+      provisionalDictIdMap.put(key, provisionalDictId);
+    }
+    return provisionalDictId;
+  }
+
+  public int getNumRows() {
+    return _numRows;
+  }
+
+  /**
+   * Remaps the provisional dictionary ids to the final dictionary ids of the dictionaries built by the given index
+   * creator, and releases the provisional dictionary id maps.
+   */
+  public void remapDictIds(SegmentColumnarIndexCreator indexCreator) throws IOException {
+    int numColumns = _columns.length;
+    for (int i = 0; i < numColumns; i++) {
+      Map<Object, Integer> provisionalDictIdMap = _provisionalDictIdMaps.get(i);
+      if (provisionalDictIdMap == null) {
+        _valueSpools[i].finishWriting();
+        continue;
+      }
+      boolean isBytes = _dataTypes[i] == FieldSpec.DataType.BYTES;
+      SegmentDictionaryCreator dictionaryCreator = indexCreator.getDictionaryCreator(_columns[i]);
+      if (dictionaryCreator != null) {
+        int[] dictIdRemap = new int[provisionalDictIdMap.size()];
+        for (Map.Entry<Object, Integer> entry : provisionalDictIdMap.entrySet()) {
+          Object value = isBytes ? ((ByteArray) entry.getKey()).getBytes() : entry.getKey();
+          dictIdRemap[entry.getValue()] = dictionaryCreator.indexOfSV(value);
+        }
+        _dictIdRemaps[i] = dictIdRemap;
+      } else {
+        Object[] provisionalValues = new Object[provisionalDictIdMap.size()];
+        for (Map.Entry<Object, Integer> entry : provisionalDictIdMap.entrySet()) {
+          Object value = isBytes ? ((ByteArray) entry.getKey()).getBytes() : entry.getKey();
+          provisionalValues[entry.getValue()] = value;
+        }
+        _provisionalValues[i] = provisionalValues;
+      }
+      _provisionalDictIdMaps.set(i, null);
+    }
+    _remapped = true;
+  }
+
+  /**
+   * Returns an iterator over the spooled rows in the order they were added, to be indexed with
+   * {@link SegmentColumnarIndexCreator#indexDictEncodedRow(GenericRow)}. A new {@link GenericRow} is returned for each
+   * row, where the values of the dictionary-encoded columns are the final dictionary ids (Integer for single-value
+   * column, sorted int[] for multi-value column).
+   */
+  public Iterator<GenericRow> iterator() {
+    Preconditions.checkState(_remapped, "Dictionary ids must be remapped before iterating the rows");
+
+    return new Iterator<GenericRow>() {
+      private final long[] _positions = new long[_columns.length];
+      private int _nextRowId = 0;
+
+      @Override
+      public boolean hasNext() {
+        return _nextRowId < _numRows;
+      }
+
+      @Override
+      public GenericRow next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        int numColumns = _columns.length;
+        GenericRow row = new GenericRow();
+        for (int i = 0; i < numColumns; i++) {
+          ValueSpool valueSpool = _valueSpools[i];
+          if (valueSpool != null) {
+            row.putField(_columns[i], valueSpool.next());
+            continue;
+          }
+          IntSpool intSpool = _intSpools[i];
+          int[] dictIdRemap = _dictIdRemaps[i];
+          if (_isSingleValue[i]) {
+            int provisionalDictId = intSpool.get(_positions[i]++);
+            if (dictIdRemap != null) {
+              row.putField(_columns[i], dictIdRemap[provisionalDictId]);
+            } else {
+              row.putField(_columns[i], _provisionalValues[i][provisionalDictId]);
+            }
+          } else {
+            int numValues = intSpool.get(_positions[i]++);
+            if (dictIdRemap != null) {
+              int[] dictIds = new int[numValues];
+              for (int j = 0; j < numValues; j++) {
+                dictIds[j] = dictIdRemap[intSpool.get(_positions[i]++)];
+              }
+              // Sort the dictionary ids the same way as SegmentDictionaryCreator.indexOfMV() does
+              Arrays.sort(dictIds);
+              row.putField(_columns[i], dictIds);
+            } else {
+              Object[] values = new Object[numValues];
+              for (int j = 0; j < numValues; j++) {
+                values[j] = _provisionalValues[i][intSpool.get(_positions[i]++)];
+              }
+              row.putField(_columns[i], values);
+            }
+          }
+        }
+        _nextRowId++;
+        return row;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      for (IntSpool intSpool : _intSpools) {
+        if (intSpool != null) {
+          intSpool.close();
+        }
+      }
+      for (ValueSpool valueSpool : _valueSpools) {
+        if (valueSpool != null) {
+          valueSpool.close();
+        }
+      }
+    } finally {
+      FileUtils.deleteQuietly(_spoolDir);
+    }
+  }
+
+  /**
+   * Append-only spool of int values backed by memory mapped files.
+   */
+  private static class IntSpool implements Closeable {
+    private final File _filePrefix;
+    private final List<PinotDataBuffer> _chunks = new ArrayList<>();
+    private long _numValues;
+
+    IntSpool(File filePrefix) {
+      _filePrefix = filePrefix;
+    }
+
+    void add(int value) throws IOException {
+      int indexInChunk = (int) (_numValues % NUM_VALUES_PER_CHUNK);
+      if (indexInChunk == 0) {
+        File chunkFile = new File(_filePrefix.getPath() + "." + _chunks.size());
+        _chunks.add(PinotDataBuffer.mapFile(chunkFile, false, 0, (long) NUM_VALUES_PER_CHUNK * Integer.BYTES,
+            PinotDataBuffer.NATIVE_ORDER, "SegmentRowSpool: " + chunkFile.getName()));
+      }
+      _chunks.get(_chunks.size() - 1).putInt(indexInChunk * Integer.BYTES, value);
+      _numValues++;
+    }
+
+    int get(long index) {
+      return _chunks.get((int) (index / NUM_VALUES_PER_CHUNK))
+          .getInt((int) (index % NUM_VALUES_PER_CHUNK) * Integer.BYTES);
+    }
+
+    @Override
+    public void close() throws IOException {
+      for (PinotDataBuffer chunk : _chunks) {
+        chunk.close();
+      }
+      _chunks.clear();
+    }
+  }
+
+  /**
+   * Spool of single values written sequentially into a file, and read back sequentially in the same order.
+   */
+  private static class ValueSpool implements Closeable {
+    private final File _file;
+    private final FieldSpec.DataType _dataType;
+    private DataOutputStream _outputStream;
+    private DataInputStream _inputStream;
+
+    ValueSpool(File file, FieldSpec.DataType dataType) throws IOException {
+      _file = file;
+      _dataType = dataType;
+      _outputStream =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), VALUE_SPOOL_BUFFER_SIZE));
+    }
+
+    void add(Object value) throws IOException {
+      switch (_dataType) {
+        case INT:
+          _outputStream.writeInt((Integer) value);
+          break;
+        case LONG:
+          _outputStream.writeLong((Long) value);
+          break;
+        case FLOAT:
+          _outputStream.writeFloat((Float) value);
+          break;
+        case DOUBLE:
+          _outputStream.writeDouble((Double) value);
+          break;
+        case STRING:
+          writeBytes(StringUtil.encodeUtf8((String) value));
+          break;
+        case BYTES:
+          writeBytes((byte[]) value);
+          break;
+        default:
+          throw new UnsupportedOperationException("Unsupported data type: " + _dataType);
+      }
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+      _outputStream.writeInt(bytes.length);
+      _outputStream.write(bytes);
+    }
+
+    void finishWriting() throws IOException {
+      _outputStream.close();
+      _outputStream = null;
+      _inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(_file), VALUE_SPOOL_BUFFER_SIZE));
+    }
+
+    Object next() {
+      try {
+        switch (_dataType) {
+          case INT:
+            return _inputStream.readInt();
+          case LONG:
+            return _inputStream.readLong();
+          case FLOAT:
+            return _inputStream.readFloat();
+          case DOUBLE:
+            return _inputStream.readDouble();
+          case STRING:
+            return StringUtil.decodeUtf8(readBytes());
+          case BYTES:
+            return readBytes();
+          default:
+            throw new UnsupportedOperationException("Unsupported data type: " + _dataType);
+        }
+      } catch (IOException e) {
+        throw new RuntimeException("Caught exception while reading spooled value from file: " + _file, e);
+      }
+    }
+
+    private byte[] readBytes() throws IOException {
+      byte[] bytes = new byte[_inputStream.readInt()];
+      _inputStream.readFully(bytes);
+      return bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (_outputStream != null) {
+        _outputStream.close();
+      }
+      if (_inputStream != null) {
+        _inputStream.close();
+      }
+    }
+  }
+}
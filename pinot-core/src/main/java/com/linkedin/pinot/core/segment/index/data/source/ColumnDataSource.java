@@ -162,6 +162,14 @@ public final class ColumnDataSource extends DataSource {
     return _bloomFilter;
   }
 
+  /**
+   * Returns the forward index of the column, which is a {@link SingleColumnSingleValueReader} for single-valued column
+   * and a {@link SingleColumnMultiValueReader} for multi-valued column.
+   */
+  public DataFileReader getForwardIndex() {
+    return _forwardIndex;
+  }
+
   @Override
   protected Block getNextBlock() {
     if (_isSingleValue) {
@@ -60,6 +60,11 @@ public abstract class PinotDataBuffer implements Closeable {
   // With number of bytes more than this threshold, we create a ByteBuffer from the buffer and use bulk get/put method
   protected static int BULK_BYTES_PROCESSING_THRESHOLD = 10;
 
+  // Page size used to prefetch the buffer, one byte per page is touched to fault the page in
+  private static final int PREFETCH_PAGE_SIZE = 4096;
+  // Bytes read while prefetching are accumulated here so that the reads cannot be optimized away
+  private static volatile int PREFETCH_CHECKSUM;
+
   private static class BufferContext {
     enum Type {
       DIRECT, MMAP
@@ -375,6 +380,24 @@ public abstract class PinotDataBuffer implements Closeable {
     return toDirectByteBuffer(offset, size, order());
   }
 
+  /**
+   * Prefetches the content of the buffer into memory by touching one byte per page.
+   * <p>For memory mapped buffers, this faults the pages into the page cache ahead of the first access (Java does not
+   * expose madvise, so touching the pages is the portable way to achieve the same effect). For direct buffers, this is
+   * a cheap no-op in practice.
+   */
+  public void prefetch() {
+    long size = size();
+    int checksum = 0;
+    for (long offset = 0; offset < size; offset += PREFETCH_PAGE_SIZE) {
+      checksum += getByte(offset);
+    }
+    if (size > 0) {
+      checksum += getByte(size - 1);
+    }
+    PREFETCH_CHECKSUM = checksum;
+  }
+
   public abstract void flush();
 
   protected abstract void release() throws IOException;
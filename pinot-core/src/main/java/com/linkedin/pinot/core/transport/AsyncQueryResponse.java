@@ -15,12 +15,14 @@
  */
 package com.linkedin.pinot.core.transport;
 
+import com.linkedin.pinot.common.response.ProcessingException;
 import com.linkedin.pinot.common.utils.DataTable;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 
@@ -32,20 +34,34 @@ import javax.annotation.concurrent.ThreadSafe;
 public class AsyncQueryResponse {
   private final QueryRouter _queryRouter;
   private final long _requestId;
+  private final String _rawTableName;
   private final ConcurrentHashMap<Server, ServerResponse> _responseMap;
   private final CountDownLatch _countDownLatch;
+  private final long _startTimeMs;
   private final long _maxEndTimeMs;
+  // Servers the request is sent to but not responded yet, used to update the server load tracker once per server
+  private final Set<Server> _pendingServers = ConcurrentHashMap.newKeySet();
+  // Servers responded (for hedged requests, the original server is marked responded when either of the original or the
+  // hedged request responds)
+  private final Set<Server> _respondedServers = ConcurrentHashMap.newKeySet();
+  // Map from the server a hedged request is sent to, to the original server and to the response of the hedged request
+  private final ConcurrentHashMap<Server, Server> _hedgedToOriginalServerMap = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Server, ServerResponse> _hedgedResponseMap = new ConcurrentHashMap<>();
+  // Exception that failed the query before it could be sent to the servers
+  private volatile ProcessingException _processingException;
 
-  public AsyncQueryResponse(QueryRouter queryRouter, long requestId, Set<Server> serversQueried, long startTimeMs,
-      long timeoutMs) {
+  public AsyncQueryResponse(QueryRouter queryRouter, long requestId, String rawTableName, Set<Server> serversQueried,
+      long startTimeMs, long timeoutMs) {
     _queryRouter = queryRouter;
     _requestId = requestId;
+    _rawTableName = rawTableName;
     int numServersQueried = serversQueried.size();
     _responseMap = new ConcurrentHashMap<>(numServersQueried);
     for (Server server : serversQueried) {
       _responseMap.put(server, new ServerResponse(startTimeMs));
     }
     _countDownLatch = new CountDownLatch(numServersQueried);
+    _startTimeMs = startTimeMs;
     _maxEndTimeMs = startTimeMs + timeoutMs;
   }
 
@@ -58,6 +74,14 @@ public class AsyncQueryResponse {
       return _responseMap;
     } finally {
       _queryRouter.markQueryDone(_requestId);
+      // Count the servers not responded in time as responded with the time spent waiting, so that they are less likely
+      // to be picked by the latency aware routing
+      long latencyMs = System.currentTimeMillis() - _startTimeMs;
+      for (Server server : _pendingServers) {
+        if (_pendingServers.remove(server)) {
+          _queryRouter.getServerLoadTracker().markResponseReceived(server.getInstanceName(), latencyMs);
+        }
+      }
     }
   }
 
@@ -74,15 +98,71 @@ public class AsyncQueryResponse {
     return stringBuilder.toString();
   }
 
+  /**
+   * Returns the exception that failed the query before it could be sent to the servers, or {@code null} if the query
+   * was sent.
+   */
+  @Nullable
+  public ProcessingException getProcessingException() {
+    return _processingException;
+  }
+
+  void markRequestSending(Server server) {
+    _pendingServers.add(server);
+    _queryRouter.getServerLoadTracker().markRequestSubmitted(server.getInstanceName());
+  }
+
   void markRequestSubmitted(Server server) {
-    _responseMap.get(server).markRequestSubmitted();
+    getServerResponse(server).markRequestSubmitted();
+  }
+
+  /**
+   * Returns whether the request to the given server is sent and not responded yet, and the query is not done.
+   */
+  boolean isServerPending(Server server) {
+    return _countDownLatch.getCount() > 0 && _responseMap.containsKey(server) && !_respondedServers.contains(server);
+  }
+
+  void markHedgedRequestSending(Server originalServer, Server hedgedServer) {
+    _hedgedResponseMap.put(hedgedServer, new ServerResponse(System.currentTimeMillis()));
+    _hedgedToOriginalServerMap.put(hedgedServer, originalServer);
+    markRequestSending(hedgedServer);
   }
 
   void receiveDataTable(Server server, DataTable dataTable, long responseSize, long deserializationTimeMs) {
-    _responseMap.get(server).receiveDataTable(dataTable, responseSize, deserializationTimeMs);
+    ServerResponse serverResponse = getServerResponse(server);
+    if (serverResponse == null) {
+      return;
+    }
+    serverResponse.receiveDataTable(dataTable, responseSize, deserializationTimeMs);
+    long latencyMs = System.currentTimeMillis() - serverResponse.getStartTimeMs();
+    if (_pendingServers.remove(server)) {
+      _queryRouter.getServerLoadTracker().markResponseReceived(server.getInstanceName(), latencyMs);
+    }
+
+    // Only take the first response between the original request and the hedged request
+    Server originalServer = _hedgedToOriginalServerMap.get(server);
+    if (originalServer == null) {
+      if (!_respondedServers.add(server)) {
+        return;
+      }
+      _queryRouter.recordLatency(_rawTableName, server.getTableType(), latencyMs);
+    } else {
+      if (!_respondedServers.add(originalServer)) {
+        return;
+      }
+      _responseMap.remove(originalServer);
+      _responseMap.put(server, serverResponse);
+      _queryRouter.markHedgedRequestWon(_rawTableName);
+    }
     _countDownLatch.countDown();
   }
 
+  void markQueryFailed(ProcessingException processingException) {
+    _processingException = processingException;
+    markQueryFailed();
+  }
+
   void markQueryFailed() {
     int count = (int) _countDownLatch.getCount();
     for (int i = 0; i < count; i++) {
@@ -92,12 +172,21 @@ public class AsyncQueryResponse {
 
   /**
    * NOTE: the server might not be hit by the query. Only fail the query if the query was sent to the server and the
-   * server hasn't responded yet.
+   * server hasn't responded yet, and no hedged request was sent for the server.
    */
   void markServerDown(Server server) {
     ServerResponse serverResponse = _responseMap.get(server);
-    if (serverResponse != null && serverResponse.getDataTable() == null) {
+    if (serverResponse != null && serverResponse.getDataTable() == null
+        && !_hedgedToOriginalServerMap.containsValue(server)) {
       markQueryFailed();
     }
   }
+
+  private ServerResponse getServerResponse(Server server) {
+    ServerResponse serverResponse = _responseMap.get(server);
+    if (serverResponse == null) {
+      serverResponse = _hedgedResponseMap.get(server);
+    }
+    return serverResponse;
+  }
 }
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.transport;
+
+import com.linkedin.pinot.common.request.BrokerRequest;
+import com.linkedin.pinot.common.request.InstanceRequest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TField;
+import org.apache.thrift.protocol.TList;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TStruct;
+import org.apache.thrift.protocol.TType;
+import org.apache.thrift.transport.TMemoryBuffer;
+
+
+/**
+ * The {@code InstanceRequestEncoder} class encodes the {@link InstanceRequest}s sent to the servers for a query.
+ * <p>All the requests of a query share the same request id and {@link BrokerRequest}, only the segments to query differ
+ * between servers. The shared fields are serialized only once, and the request for each server is a composite buffer
+ * of the shared bytes (not copied) followed by the server specific fields.
+ * <p>The encoded bytes are exactly the same as the {@link TCompactProtocol} serialized {@link InstanceRequest}, so the
+ * servers can de-serialize the request as usual.
+ */
+@ThreadSafe
+public class InstanceRequestEncoder {
+  private static final TStruct INSTANCE_REQUEST_STRUCT = new TStruct("InstanceRequest");
+  private static final TField QUERY_FIELD = new TField("query", TType.STRUCT, (short) 2);
+  private static final TField SEARCH_SEGMENTS_FIELD = new TField("searchSegments", TType.LIST, (short) 3);
+  private static final TField ENABLE_TRACE_FIELD = new TField("enableTrace", TType.BOOL, (short) 4);
+  private static final TField BROKER_ID_FIELD = new TField("brokerId", TType.STRING, (short) 5);
+  private static final int DEFAULT_SUFFIX_BUFFER_SIZE = 1024;
+
+  private final BrokerRequest _brokerRequest;
+  private final boolean _enableTrace;
+  private final String _brokerId;
+  private final byte[] _sharedBytes;
+
+  public InstanceRequestEncoder(long requestId, BrokerRequest brokerRequest, @Nullable String brokerId)
+      throws TException {
+    _brokerRequest = brokerRequest;
+    _enableTrace = brokerRequest.isEnableTrace();
+    _brokerId = brokerId;
+
+    // Serialize the request with only the request id and the broker request, then drop the field stop at the end
+    InstanceRequest sharedRequest = new InstanceRequest();
+    sharedRequest.setRequestId(requestId);
+    sharedRequest.setQuery(brokerRequest);
+    byte[] bytes = new TSerializer(new TCompactProtocol.Factory()).serialize(sharedRequest);
+    _sharedBytes = new byte[bytes.length - 1];
+    System.arraycopy(bytes, 0, _sharedBytes, 0, _sharedBytes.length);
+  }
+
+  public BrokerRequest getBrokerRequest() {
+    return _brokerRequest;
+  }
+
+  /**
+   * Encodes the request to query the given segments.
+   */
+  public ByteBuf encode(@Nullable List<String> segments) throws TException {
+    TMemoryBuffer buffer = new TMemoryBuffer(DEFAULT_SUFFIX_BUFFER_SIZE);
+    TProtocol protocol = new TCompactProtocol(buffer);
+
+    // The compact protocol encodes field ids as deltas, so start the struct and the query field (which is already
+    // serialized in the shared bytes) to set up the field id, then skip the bytes of the query field header
+    protocol.writeStructBegin(INSTANCE_REQUEST_STRUCT);
+    protocol.writeFieldBegin(QUERY_FIELD);
+    protocol.writeFieldEnd();
+    int offset = buffer.length();
+
+    if (segments != null) {
+      protocol.writeFieldBegin(SEARCH_SEGMENTS_FIELD);
+      protocol.writeListBegin(new TList(TType.STRING, segments.size()));
+      for (String segment : segments) {
+        protocol.writeString(segment);
+      }
+      protocol.writeListEnd();
+      protocol.writeFieldEnd();
+    }
+    protocol.writeFieldBegin(ENABLE_TRACE_FIELD);
+    protocol.writeBool(_enableTrace);
+    protocol.writeFieldEnd();
+    if (_brokerId != null) {
+      protocol.writeFieldBegin(BROKER_ID_FIELD);
+      protocol.writeString(_brokerId);
+      protocol.writeFieldEnd();
+    }
+    protocol.writeFieldStop();
+    protocol.writeStructEnd();
+
+    return Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(_sharedBytes),
+        Unpooled.wrappedBuffer(buffer.getArray(), offset, buffer.length() - offset));
+  }
+}
@@ -15,16 +15,24 @@
  */
 package com.linkedin.pinot.core.transport;
 
+import com.linkedin.pinot.common.config.TableNameBuilder;
+import com.linkedin.pinot.common.exception.QueryException;
 import com.linkedin.pinot.common.metrics.BrokerMeter;
 import com.linkedin.pinot.common.metrics.BrokerMetrics;
 import com.linkedin.pinot.common.request.BrokerRequest;
-import com.linkedin.pinot.common.request.InstanceRequest;
 import com.linkedin.pinot.common.utils.CommonConstants.Helix.TableType;
 import com.linkedin.pinot.common.utils.DataTable;
+import com.linkedin.pinot.common.utils.NamedThreadFactory;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
@@ -35,6 +43,10 @@ import org.slf4j.LoggerFactory;
  * The {@code QueryRouter} class provides methods to route the query based on the routing table, and returns a
  * {@link AsyncQueryResponse} so that caller can handle the query response asynchronously.
  * <p>It works on {@link ServerChannels} which maintains only a single connection between the broker and each server.
+ * <p>When a {@link RequestHedger} is configured, the outstanding segments of a slow server are resent to an alternate
+ * replica after a delay, and the first response between the original and the hedged request is taken.
+ * <p>The {@link BrokerRequest} is serialized only once per table type and shared by the requests to all the servers
+ * (see {@link InstanceRequestEncoder}).
  */
 @ThreadSafe
 public class QueryRouter {
@@ -43,12 +55,35 @@ public class QueryRouter {
   private final String _brokerId;
   private final BrokerMetrics _brokerMetrics;
   private final ServerChannels _serverChannels;
+  private final ServerLoadTracker _serverLoadTracker;
+  private final RequestHedger _requestHedger;
+  private final ScheduledExecutorService _hedgeExecutor;
   private final ConcurrentHashMap<Long, AsyncQueryResponse> _asyncQueryResponseMap = new ConcurrentHashMap<>();
 
   public QueryRouter(String brokerId, BrokerMetrics brokerMetrics) {
+    this(brokerId, brokerMetrics, new ServerLoadTracker());
+  }
+
+  public QueryRouter(String brokerId, BrokerMetrics brokerMetrics, ServerLoadTracker serverLoadTracker) {
+    this(brokerId, brokerMetrics, serverLoadTracker, null);
+  }
+
+  public QueryRouter(String brokerId, BrokerMetrics brokerMetrics, ServerLoadTracker serverLoadTracker,
+      @Nullable RequestHedger requestHedger) {
     _brokerId = brokerId;
     _brokerMetrics = brokerMetrics;
     _serverChannels = new ServerChannels(this, brokerMetrics);
+    _serverLoadTracker = serverLoadTracker;
+    _requestHedger = requestHedger;
+    if (requestHedger != null) {
+      _hedgeExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("hedged-requests"));
+    } else {
+      _hedgeExecutor = null;
+    }
+  }
+
+  public ServerLoadTracker getServerLoadTracker() {
+    return _serverLoadTracker;
   }
 
   public AsyncQueryResponse submitQuery(long requestId, String rawTableName,
@@ -57,40 +92,69 @@ public class QueryRouter {
       long timeoutMs) {
     assert offlineBrokerRequest != null || realtimeBrokerRequest != null;
 
-    // Build map from server to request based on the routing table
-    Map<Server, InstanceRequest> requestMap = new HashMap<>();
-    if (offlineBrokerRequest != null) {
-      assert offlineRoutingTable != null;
-      for (Map.Entry<String, List<String>> entry : offlineRoutingTable.entrySet()) {
-        Server server = new Server(entry.getKey(), TableType.OFFLINE);
-        InstanceRequest instanceRequest = getInstanceRequest(requestId, offlineBrokerRequest, entry.getValue());
-        requestMap.put(server, instanceRequest);
+    // Build map from server to segments based on the routing table
+    Map<Server, List<String>> requestMap = new HashMap<>();
+    InstanceRequestEncoder offlineRequestEncoder = null;
+    InstanceRequestEncoder realtimeRequestEncoder = null;
+    try {
+      if (offlineBrokerRequest != null) {
+        assert offlineRoutingTable != null;
+        offlineRequestEncoder = new InstanceRequestEncoder(requestId, offlineBrokerRequest, _brokerId);
+        for (Map.Entry<String, List<String>> entry : offlineRoutingTable.entrySet()) {
+          requestMap.put(new Server(entry.getKey(), TableType.OFFLINE), entry.getValue());
+        }
       }
-    }
-    if (realtimeBrokerRequest != null) {
-      assert realtimeRoutingTable != null;
-      for (Map.Entry<String, List<String>> entry : realtimeRoutingTable.entrySet()) {
-        Server server = new Server(entry.getKey(), TableType.REALTIME);
-        InstanceRequest instanceRequest = getInstanceRequest(requestId, realtimeBrokerRequest, entry.getValue());
-        requestMap.put(server, instanceRequest);
+      if (realtimeBrokerRequest != null) {
+        assert realtimeRoutingTable != null;
+        realtimeRequestEncoder = new InstanceRequestEncoder(requestId, realtimeBrokerRequest, _brokerId);
+        for (Map.Entry<String, List<String>> entry : realtimeRoutingTable.entrySet()) {
+          requestMap.put(new Server(entry.getKey(), TableType.REALTIME), entry.getValue());
+        }
       }
+    } catch (Exception e) {
+      // Failed to serialize the broker request, do not query any server and surface the exception to the client
+      LOGGER.error("Caught exception while serializing request {}, marking query failed", requestId, e);
+      _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.REQUEST_SEND_EXCEPTIONS, 1);
+      AsyncQueryResponse asyncQueryResponse =
+          new AsyncQueryResponse(this, requestId, rawTableName, Collections.<Server>emptySet(),
+              System.currentTimeMillis(), timeoutMs);
+      asyncQueryResponse.markQueryFailed(QueryException.getException(QueryException.INTERNAL_ERROR, e));
+      return asyncQueryResponse;
     }
 
     // Create the asynchronous query response with the request map
     AsyncQueryResponse asyncQueryResponse =
-        new AsyncQueryResponse(this, requestId, requestMap.keySet(), System.currentTimeMillis(), timeoutMs);
+        new AsyncQueryResponse(this, requestId, rawTableName, requestMap.keySet(), System.currentTimeMillis(),
+            timeoutMs);
     _asyncQueryResponseMap.put(requestId, asyncQueryResponse);
-    for (Map.Entry<Server, InstanceRequest> entry : requestMap.entrySet()) {
+    for (Map.Entry<Server, List<String>> entry : requestMap.entrySet()) {
       Server server = entry.getKey();
+      InstanceRequestEncoder requestEncoder =
+          server.getTableType() == TableType.OFFLINE ? offlineRequestEncoder : realtimeRequestEncoder;
       try {
-        _serverChannels.sendRequest(server, entry.getValue());
+        asyncQueryResponse.markRequestSending(server);
+        _serverChannels.sendRequest(server, requestEncoder.encode(entry.getValue()));
         asyncQueryResponse.markRequestSubmitted(server);
+        if (_requestHedger != null) {
+          _requestHedger.markRequestSent();
+        }
       } catch (Exception e) {
         LOGGER.error("Caught exception while sending request {} to server: {}, marking query failed", requestId, server,
             e);
         _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.REQUEST_SEND_EXCEPTIONS, 1);
         asyncQueryResponse.markQueryFailed();
-        break;
+        return asyncQueryResponse;
+      }
+    }
+
+    if (_requestHedger != null) {
+      if (offlineRequestEncoder != null) {
+        scheduleHedgedRequests(requestId, rawTableName, TableType.OFFLINE, offlineRequestEncoder, offlineRoutingTable,
+            asyncQueryResponse, timeoutMs);
+      }
+      if (realtimeRequestEncoder != null) {
+        scheduleHedgedRequests(requestId, rawTableName, TableType.REALTIME, realtimeRequestEncoder,
+            realtimeRoutingTable, asyncQueryResponse, timeoutMs);
       }
     }
 
@@ -98,9 +162,69 @@ public class QueryRouter {
   }
 
   public void shutDown() {
+    if (_hedgeExecutor != null) {
+      _hedgeExecutor.shutdownNow();
+    }
     _serverChannels.shutDown();
   }
 
+  private void scheduleHedgedRequests(long requestId, String rawTableName, TableType tableType,
+      InstanceRequestEncoder requestEncoder, Map<String, List<String>> routingTable,
+      AsyncQueryResponse asyncQueryResponse, long timeoutMs) {
+    long delayMs = _requestHedger.getHedgeDelayMs(TableNameBuilder.forType(tableType).tableNameWithType(rawTableName));
+    if (delayMs < 0 || delayMs >= timeoutMs) {
+      return;
+    }
+    _hedgeExecutor.schedule(
+        () -> sendHedgedRequests(requestId, rawTableName, tableType, requestEncoder, routingTable, asyncQueryResponse),
+        delayMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Resends the segments of the servers not responded yet to alternate replicas, within the budget of the hedged
+   * requests. Each server is hedged at most once per query, and the alternate replica must not be queried already.
+   */
+  private void sendHedgedRequests(long requestId, String rawTableName, TableType tableType,
+      InstanceRequestEncoder requestEncoder, Map<String, List<String>> routingTable,
+      AsyncQueryResponse asyncQueryResponse) {
+    if (_asyncQueryResponseMap.get(requestId) != asyncQueryResponse) {
+      // Query already done
+      return;
+    }
+    String tableNameWithType = TableNameBuilder.forType(tableType).tableNameWithType(rawTableName);
+    Set<String> excludedServers = new HashSet<>(routingTable.keySet());
+    for (Map.Entry<String, List<String>> entry : routingTable.entrySet()) {
+      Server server = new Server(entry.getKey(), tableType);
+      if (!asyncQueryResponse.isServerPending(server)) {
+        continue;
+      }
+      List<String> segments = entry.getValue();
+      String alternateServer =
+          _requestHedger.getAlternateServer(tableNameWithType, segments, excludedServers, _serverLoadTracker);
+      if (alternateServer == null) {
+        continue;
+      }
+      if (!_requestHedger.tryAcquireBudget()) {
+        LOGGER.debug("Out of budget for hedged requests, skipping hedging request {} to server: {}", requestId,
+            server);
+        return;
+      }
+      excludedServers.add(alternateServer);
+      Server hedgedServer = new Server(alternateServer, tableType);
+      try {
+        asyncQueryResponse.markHedgedRequestSending(server, hedgedServer);
+        _serverChannels.sendRequest(hedgedServer, requestEncoder.encode(segments));
+        asyncQueryResponse.markRequestSubmitted(hedgedServer);
+        _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.HEDGED_REQUESTS_SENT, 1);
+      } catch (Exception e) {
+        // Keep waiting for the original server
+        LOGGER.warn("Caught exception while sending hedged request {} to server: {} for server: {}", requestId,
+            hedgedServer, server, e);
+        _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.REQUEST_SEND_EXCEPTIONS, 1);
+      }
+    }
+  }
+
   void receiveDataTable(Server server, DataTable dataTable, long responseSize, long deserializationTimeMs) {
     long requestId = Long.parseLong(dataTable.getMetadata().get(DataTable.REQUEST_ID_METADATA_KEY));
     AsyncQueryResponse asyncQueryResponse = _asyncQueryResponseMap.get(requestId);
@@ -117,17 +241,17 @@ public class QueryRouter {
     }
   }
 
-  void markQueryDone(long requestId) {
-    _asyncQueryResponseMap.remove(requestId);
+  void recordLatency(String rawTableName, TableType tableType, long latencyMs) {
+    if (_requestHedger != null) {
+      _requestHedger.recordLatency(TableNameBuilder.forType(tableType).tableNameWithType(rawTableName), latencyMs);
+    }
   }
 
-  private InstanceRequest getInstanceRequest(long requestId, BrokerRequest brokerRequest, List<String> segments) {
-    InstanceRequest instanceRequest = new InstanceRequest();
-    instanceRequest.setRequestId(requestId);
-    instanceRequest.setQuery(brokerRequest);
-    instanceRequest.setEnableTrace(brokerRequest.isEnableTrace());
-    instanceRequest.setSearchSegments(segments);
-    instanceRequest.setBrokerId(_brokerId);
-    return instanceRequest;
+  void markHedgedRequestWon(String rawTableName) {
+    _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.HEDGED_REQUESTS_WON, 1);
+  }
+
+  void markQueryDone(long requestId) {
+    _asyncQueryResponseMap.remove(requestId);
   }
 }
@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.transport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+
+/**
+ * The {@code RequestHedger} class decides when and where to send hedged requests for slow servers.
+ * <ul>
+ *   <li>
+ *     Delay: the hedged request is sent once the request to the server has been outstanding longer than the configured
+ *     percentile of the recent server latencies of the table (bounded by the minimum delay). No request is hedged for a
+ *     table until enough latency samples are collected.
+ *   </li>
+ *   <li>
+ *     Budget: each server request sent adds the configured ratio to the budget, and each hedged request consumes one,
+ *     so that hedged requests are limited to a fraction of the load even when many servers are slow at the same time.
+ *   </li>
+ *   <li>
+ *     Replica: the hedged request goes to the least loaded server serving all the outstanding segments which is not
+ *     already queried.
+ *   </li>
+ * </ul>
+ */
+@ThreadSafe
+public class RequestHedger {
+  private static final int NUM_LATENCY_SAMPLES = 1024;
+  private static final int MIN_NUM_LATENCY_SAMPLES = 100;
+  private static final int PERCENTILE_UPDATE_INTERVAL = 64;
+  private static final double MAX_BUDGET = 10;
+
+  private final SegmentReplicaProvider _segmentReplicaProvider;
+  private final double _delayPercentile;
+  private final long _minDelayMs;
+  private final double _maxRatio;
+  private final ConcurrentHashMap<String, LatencyPercentile> _latencyPercentileMap = new ConcurrentHashMap<>();
+
+  private double _budget;
+
+  /**
+   * @param segmentReplicaProvider Provider for the servers serving each segment
+   * @param delayPercentile Percentile of the server latencies used as the delay before hedging, in range (0, 100]
+   * @param minDelayMs Minimum delay before hedging
+   * @param maxRatio Maximum ratio of hedged requests to server requests
+   */
+  public RequestHedger(SegmentReplicaProvider segmentReplicaProvider, double delayPercentile, long minDelayMs,
+      double maxRatio) {
+    _segmentReplicaProvider = segmentReplicaProvider;
+    _delayPercentile = delayPercentile;
+    _minDelayMs = minDelayMs;
+    _maxRatio = maxRatio;
+  }
+
+  /**
+   * Returns the delay before hedging the requests for the given table, or {@code -1} if there are not enough latency
+   * samples for the table.
+   */
+  public long getHedgeDelayMs(String tableNameWithType) {
+    LatencyPercentile latencyPercentile = _latencyPercentileMap.get(tableNameWithType);
+    if (latencyPercentile == null) {
+      return -1;
+    }
+    long percentileLatencyMs = latencyPercentile._percentileLatencyMs;
+    if (percentileLatencyMs < 0) {
+      return -1;
+    }
+    return Math.max(percentileLatencyMs, _minDelayMs);
+  }
+
+  /**
+   * Records the latency of a server response for the given table.
+   */
+  public void recordLatency(String tableNameWithType, long latencyMs) {
+    _latencyPercentileMap.computeIfAbsent(tableNameWithType, k -> new LatencyPercentile()).add(latencyMs);
+  }
+
+  /**
+   * Marks a (non-hedged) server request sent, which adds to the budget of hedged requests.
+   */
+  public synchronized void markRequestSent() {
+    _budget = Math.min(_budget + _maxRatio, MAX_BUDGET);
+  }
+
+  /**
+   * Tries to acquire the budget for a hedged request, returns {@code true} if the hedged request can be sent.
+   */
+  public synchronized boolean tryAcquireBudget() {
+    if (_budget >= 1) {
+      _budget -= 1;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the least loaded server serving all the given segments excluding the given servers, or {@code null} if
+   * there is no such server.
+   */
+  @Nullable
+  public String getAlternateServer(String tableNameWithType, List<String> segments, Set<String> excludedServers,
+      ServerLoadTracker serverLoadTracker) {
+    List<String> candidates = null;
+    for (String segment : segments) {
+      List<String> replicas = _segmentReplicaProvider.getSegmentReplicas(tableNameWithType, segment);
+      if (replicas == null) {
+        return null;
+      }
+      if (candidates == null) {
+        candidates = new ArrayList<>(replicas);
+        candidates.removeAll(excludedServers);
+      } else {
+        candidates.retainAll(replicas);
+      }
+      if (candidates.isEmpty()) {
+        return null;
+      }
+    }
+    if (candidates == null) {
+      return null;
+    }
+
+    String alternateServer = null;
+    double minLoadScore = Double.MAX_VALUE;
+    for (String candidate : candidates) {
+      double loadScore = serverLoadTracker.getLoadScore(candidate);
+      if (loadScore < minLoadScore) {
+        minLoadScore = loadScore;
+        alternateServer = candidate;
+      }
+    }
+    return alternateServer;
+  }
+
+  /**
+   * Tracks the latency percentile over the most recent latency samples, re-computed periodically.
+   */
+  private class LatencyPercentile {
+    final long[] _samples = new long[NUM_LATENCY_SAMPLES];
+    int _numSamples;
+    int _nextIndex;
+    int _numSamplesSinceUpdate;
+    volatile long _percentileLatencyMs = -1;
+
+    synchronized void add(long latencyMs) {
+      _samples[_nextIndex] = latencyMs;
+      _nextIndex = (_nextIndex + 1) % NUM_LATENCY_SAMPLES;
+      if (_numSamples < NUM_LATENCY_SAMPLES) {
+        _numSamples++;
+      }
+      _numSamplesSinceUpdate++;
+      if (_numSamples >= MIN_NUM_LATENCY_SAMPLES && (_percentileLatencyMs < 0
+          || _numSamplesSinceUpdate >= PERCENTILE_UPDATE_INTERVAL)) {
+        _numSamplesSinceUpdate = 0;
+        long[] sortedSamples = Arrays.copyOf(_samples, _numSamples);
+        Arrays.sort(sortedSamples);
+        int index = (int) Math.ceil(_delayPercentile / 100 * _numSamples) - 1;
+        _percentileLatencyMs = sortedSamples[Math.min(Math.max(index, 0), _numSamples - 1)];
+      }
+    }
+  }
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.transport;
+
+import java.util.List;
+import javax.annotation.Nullable;
+
+
+/**
+ * The {@code SegmentReplicaProvider} interface provides the server instances serving each segment, which is used to
+ * pick an alternate replica when hedging the request to a slow server.
+ */
+public interface SegmentReplicaProvider {
+
+  /**
+   * Returns the names of the server instances serving the given segment, or {@code null} if the segment is unknown.
+   */
+  @Nullable
+  List<String> getSegmentReplicas(String tableNameWithType, String segmentName);
+}
@@ -18,8 +18,8 @@ package com.linkedin.pinot.core.transport;
 import com.linkedin.pinot.common.metrics.BrokerGauge;
 import com.linkedin.pinot.common.metrics.BrokerMeter;
 import com.linkedin.pinot.common.metrics.BrokerMetrics;
-import com.linkedin.pinot.common.request.InstanceRequest;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
@@ -32,8 +32,6 @@ import io.netty.handler.codec.LengthFieldPrepender;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.concurrent.ThreadSafe;
-import org.apache.thrift.TSerializer;
-import org.apache.thrift.protocol.TCompactProtocol;
 
 
 /**
@@ -53,8 +51,11 @@ public class ServerChannels {
     _brokerMetrics = brokerMetrics;
   }
 
-  public void sendRequest(Server server, InstanceRequest instanceRequest) throws Exception {
-    _serverToChannelMap.computeIfAbsent(server, ServerChannel::new).sendRequest(instanceRequest);
+  /**
+   * Sends the serialized instance request (see {@link InstanceRequestEncoder}) to the given server.
+   */
+  public void sendRequest(Server server, ByteBuf requestBuf) throws Exception {
+    _serverToChannelMap.computeIfAbsent(server, ServerChannel::new).sendRequest(requestBuf);
   }
 
   public void shutDown() {
@@ -64,7 +65,6 @@ public class ServerChannels {
 
   @ThreadSafe
   private class ServerChannel {
-    final TSerializer _serializer = new TSerializer(new TCompactProtocol.Factory());
     final Server _server;
     final Bootstrap _bootstrap;
     Channel _channel;
@@ -88,18 +88,17 @@ public class ServerChannels {
           });
     }
 
-    synchronized void sendRequest(InstanceRequest instanceRequest) throws Exception {
+    synchronized void sendRequest(ByteBuf requestBuf) throws Exception {
       if (_channel == null || !_channel.isActive()) {
         long startTime = System.currentTimeMillis();
         _channel = _bootstrap.connect().sync().channel();
         _brokerMetrics.setValueOfGlobalGauge(BrokerGauge.NETTY_CONNECTION_CONNECT_TIME_MS,
             System.currentTimeMillis() - startTime);
       }
-      byte[] requestBytes = _serializer.serialize(instanceRequest);
-      _channel.writeAndFlush(_channel.alloc().buffer(requestBytes.length).writeBytes(requestBytes),
-          _channel.voidPromise());
+      int requestSize = requestBuf.readableBytes();
+      _channel.writeAndFlush(requestBuf, _channel.voidPromise());
       _brokerMetrics.addMeteredGlobalValue(BrokerMeter.NETTY_CONNECTION_REQUESTS_SENT, 1L);
-      _brokerMetrics.addMeteredGlobalValue(BrokerMeter.NETTY_CONNECTION_BYTES_SENT, requestBytes.length);
+      _brokerMetrics.addMeteredGlobalValue(BrokerMeter.NETTY_CONNECTION_BYTES_SENT, requestSize);
     }
   }
 }
@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.transport;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.concurrent.ThreadSafe;
+
+
+/**
+ * The {@code ServerLoadTracker} class tracks the load of each server instance observed by the broker: the
+ * exponentially weighted moving average (EWMA) of the response latency and the number of requests in flight.
+ * <p>The load score of a server is used by the latency aware routing to pick replicas per query, so that a slow server
+ * (e.g. in GC) receives less traffic. The EWMA latency decays while no response is received from the server, so that a
+ * server that was slow in the past gets probed again once it stops receiving queries.
+ * <p>Servers are keyed by instance name (e.g. {@code Server_localhost_12345}), so that the OFFLINE and REALTIME
+ * requests sent to the same instance are accounted together.
+ */
+@ThreadSafe
+public class ServerLoadTracker {
+  public static final double DEFAULT_EWMA_ALPHA = 0.25;
+  public static final long DEFAULT_DECAY_HALF_LIFE_MS = 10_000L;
+
+  private final double _alpha;
+  private final long _decayHalfLifeMs;
+  private final ConcurrentHashMap<String, ServerLoad> _serverLoadMap = new ConcurrentHashMap<>();
+
+  public ServerLoadTracker() {
+    this(DEFAULT_EWMA_ALPHA, DEFAULT_DECAY_HALF_LIFE_MS);
+  }
+
+  /**
+   * @param alpha Weight of the latest latency sample in the EWMA latency, in range (0, 1]
+   * @param decayHalfLifeMs Half life of the EWMA latency while no response is received from the server
+   */
+  public ServerLoadTracker(double alpha, long decayHalfLifeMs) {
+    _alpha = alpha;
+    _decayHalfLifeMs = decayHalfLifeMs;
+  }
+
+  /**
+   * Marks a request sent to the given server instance.
+   */
+  public void markRequestSubmitted(String instanceName) {
+    getServerLoad(instanceName)._numInFlightRequests.getAndIncrement();
+  }
+
+  /**
+   * Marks a response received from the given server instance, or the request to the server failed or timed out (in
+   * which case the latency should be the time spent waiting for the response).
+   */
+  public void markResponseReceived(String instanceName, long latencyMs) {
+    ServerLoad serverLoad = getServerLoad(instanceName);
+    serverLoad._numInFlightRequests.getAndDecrement();
+    serverLoad.addLatency(latencyMs, System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the EWMA latency in milliseconds of the given server instance, or 0 if no response was received from the
+   * server.
+   */
+  public double getLatencyMs(String instanceName) {
+    ServerLoad serverLoad = _serverLoadMap.get(instanceName);
+    return serverLoad != null ? serverLoad.getLatencyMs(System.currentTimeMillis()) : 0;
+  }
+
+  /**
+   * Returns the number of requests in flight for the given server instance.
+   */
+  public int getNumInFlightRequests(String instanceName) {
+    ServerLoad serverLoad = _serverLoadMap.get(instanceName);
+    return serverLoad != null ? serverLoad._numInFlightRequests.get() : 0;
+  }
+
+  /**
+   * Returns the load score of the given server instance, lower is better. The score is the estimated time to serve a
+   * new request, i.e. the EWMA latency multiplied by the number of requests in flight (including the new request).
+   */
+  public double getLoadScore(String instanceName) {
+    ServerLoad serverLoad = _serverLoadMap.get(instanceName);
+    if (serverLoad == null) {
+      return 1;
+    }
+    return (serverLoad.getLatencyMs(System.currentTimeMillis()) + 1) * (serverLoad._numInFlightRequests.get() + 1);
+  }
+
+  private ServerLoad getServerLoad(String instanceName) {
+    return _serverLoadMap.computeIfAbsent(instanceName, k -> new ServerLoad());
+  }
+
+  private class ServerLoad {
+    final AtomicInteger _numInFlightRequests = new AtomicInteger();
+    double _latencyMs;
+    long _lastUpdateTimeMs;
+
+    synchronized void addLatency(long latencyMs, long currentTimeMs) {
+      if (_lastUpdateTimeMs == 0) {
+        _latencyMs = latencyMs;
+      } else {
+        _latencyMs = _alpha * latencyMs + (1 - _alpha) * getLatencyMs(currentTimeMs);
+      }
+      _lastUpdateTimeMs = currentTimeMs;
+    }
+
+    synchronized double getLatencyMs(long currentTimeMs) {
+      long timeSinceLastUpdateMs = currentTimeMs - _lastUpdateTimeMs;
+      if (_decayHalfLifeMs <= 0 || timeSinceLastUpdateMs <= 0) {
+        return _latencyMs;
+      }
+      return _latencyMs * Math.pow(0.5, (double) timeSinceLastUpdateMs / _decayHalfLifeMs);
+    }
+  }
+}
@@ -69,6 +69,10 @@ public class ServerResponse {
         getDeserializationTimeMs());
   }
 
+  long getStartTimeMs() {
+    return _startTimeMs;
+  }
+
   void markRequestSubmitted() {
     _submitRequestTimeMs = System.currentTimeMillis();
   }
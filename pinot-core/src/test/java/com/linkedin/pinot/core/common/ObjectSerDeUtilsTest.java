@@ -16,15 +16,23 @@
 package com.linkedin.pinot.core.common;
 
 import com.clearspring.analytics.stream.cardinality.HyperLogLog;
+import com.linkedin.pinot.core.query.aggregation.function.DistinctCountThetaSketchAggregationFunction;
 import com.linkedin.pinot.core.query.aggregation.function.PercentileEstAggregationFunction;
 import com.linkedin.pinot.core.query.aggregation.function.PercentileTDigestAggregationFunction;
 import com.linkedin.pinot.core.query.aggregation.function.customobject.AvgPair;
 import com.linkedin.pinot.core.query.aggregation.function.customobject.MinMaxRangePair;
 import com.linkedin.pinot.core.query.aggregation.function.customobject.QuantileDigest;
 import com.tdunning.math.stats.TDigest;
+import com.yahoo.sketches.theta.Sketch;
+import com.yahoo.sketches.theta.Sketches;
+import com.yahoo.sketches.theta.UpdateSketch;
 import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
@@ -199,4 +207,90 @@ public class ObjectSerDeUtilsTest {
       }
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testThetaSketch() {
+    for (int i = 0; i < NUM_ITERATIONS; i++) {
+      UpdateSketch expected = Sketches.updateSketchBuilder().build();
+      int size = RANDOM.nextInt(100) + 1;
+      for (int j = 0; j < size; j++) {
+        expected.update(RANDOM.nextInt(1000));
+      }
+
+      byte[] bytes = ObjectSerDeUtils.serialize(expected);
+      Sketch actual = ObjectSerDeUtils.deserialize(bytes, ObjectSerDeUtils.ObjectType.ThetaSketch);
+
+      assertEquals(actual.getEstimate(), expected.getEstimate(), ERROR_MESSAGE);
+      assertEquals(actual.getRetainedEntries(true), expected.getRetainedEntries(true), ERROR_MESSAGE);
+    }
+  }
+
+  @Test
+  public void testThetaSketchUnion() {
+    // Sketches with fewer values than the nominal entries are exact
+    UpdateSketch sketch1 = Sketches.updateSketchBuilder().build();
+    UpdateSketch sketch2 = Sketches.updateSketchBuilder().build();
+    for (int i = 0; i < 300; i++) {
+      sketch1.update(i);
+      sketch2.update(i + 200);
+    }
+    Sketch deserialized1 =
+        ObjectSerDeUtils.deserialize(ObjectSerDeUtils.serialize(sketch1), ObjectSerDeUtils.ObjectType.ThetaSketch);
+    Sketch deserialized2 =
+        ObjectSerDeUtils.deserialize(ObjectSerDeUtils.serialize(sketch2), ObjectSerDeUtils.ObjectType.ThetaSketch);
+
+    assertEquals(DistinctCountThetaSketchAggregationFunction.union(deserialized1, deserialized2).getEstimate(), 500.0);
+  }
+
+  @Test
+  public void testSerializeIntoDataOutput() throws IOException {
+    for (int i = 0; i < NUM_ITERATIONS; i++) {
+      int size = RANDOM.nextInt(100);
+      IntSet expectedIntSet = new IntOpenHashSet(size);
+      for (int j = 0; j < size; j++) {
+        expectedIntSet.add(RANDOM.nextInt());
+      }
+      IntSet actualIntSet = serializeAndDeserialize(expectedIntSet, ObjectSerDeUtils.ObjectType.IntSet);
+      assertEquals((Object) actualIntSet, expectedIntSet, ERROR_MESSAGE);
+
+      // Both sparse and dense HyperLogLogs
+      HyperLogLog expectedHyperLogLog = new HyperLogLog(12);
+      int cardinality = RANDOM.nextBoolean() ? RANDOM.nextInt(100) : RANDOM.nextInt(100_000);
+      for (int j = 0; j < cardinality; j++) {
+        expectedHyperLogLog.offer(RANDOM.nextLong());
+      }
+      HyperLogLog actualHyperLogLog =
+          serializeAndDeserialize(expectedHyperLogLog, ObjectSerDeUtils.ObjectType.HyperLogLog);
+      assertEquals(actualHyperLogLog.getBytes(), expectedHyperLogLog.getBytes(), ERROR_MESSAGE);
+
+      size = RANDOM.nextInt(100);
+      DoubleArrayList expectedDoubleArrayList = new DoubleArrayList(size);
+      for (int j = 0; j < size; j++) {
+        expectedDoubleArrayList.add(RANDOM.nextDouble());
+      }
+      DoubleArrayList actualDoubleArrayList =
+          serializeAndDeserialize(expectedDoubleArrayList, ObjectSerDeUtils.ObjectType.DoubleArrayList);
+      assertEquals(actualDoubleArrayList, expectedDoubleArrayList, ERROR_MESSAGE);
+
+      Long expectedLong = RANDOM.nextLong();
+      assertEquals(serializeAndDeserialize(expectedLong, ObjectSerDeUtils.ObjectType.Long), expectedLong,
+          ERROR_MESSAGE);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void testUnsupportedIntSetFormatVersion() {
+    // Compact format marker followed by an unknown format version
+    ByteBuffer byteBuffer = ByteBuffer.allocate(Integer.BYTES + 2);
+    byteBuffer.putInt(Integer.MIN_VALUE).put((byte) 2).put((byte) 0);
+    byteBuffer.flip();
+    ObjectSerDeUtils.deserialize(byteBuffer, ObjectSerDeUtils.ObjectType.IntSet);
+  }
+
+  private static <T> T serializeAndDeserialize(Object value, ObjectSerDeUtils.ObjectType objectType)
+      throws IOException {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    ObjectSerDeUtils.serialize(value, objectType.getValue(), new DataOutputStream(byteArrayOutputStream));
+    return ObjectSerDeUtils.deserialize(ByteBuffer.wrap(byteArrayOutputStream.toByteArray()), objectType);
+  }
+}
@@ -95,7 +95,7 @@ public class BaseTableDataManagerTest {
   }
 
   private TableDataManager makeTestableManager() throws Exception {
-    TableDataManager tableDataManager = new OfflineTableDataManager();
+    TableDataManager tableDataManager = new OfflineTableDataManager(new SegmentLoadThrottler(0));
     TableDataManagerConfig config;
     {
       config = mock(TableDataManagerConfig.class);
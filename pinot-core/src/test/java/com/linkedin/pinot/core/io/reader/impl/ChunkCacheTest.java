@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.io.reader.impl;
+
+import com.linkedin.pinot.core.segment.memory.PinotDataBuffer;
+import java.nio.ByteBuffer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+
+public class ChunkCacheTest {
+  private static final int CHUNK_SIZE = 100;
+
+  @Test
+  public void testChunkCache() {
+    // Single segment cache that can hold 3 chunks
+    ChunkCache.init(3 * CHUNK_SIZE, 1);
+    long directBufferUsage = PinotDataBuffer.getDirectBufferUsage();
+    ChunkCache chunkCache = ChunkCache.getInstance();
+    Assert.assertNotNull(chunkCache);
+
+    ByteBuffer chunkBuffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+    Assert.assertFalse(chunkCache.get(0, 0, chunkBuffer));
+    for (int chunkId = 0; chunkId < 3; chunkId++) {
+      chunkCache.put(0, chunkId, getChunk(chunkId));
+    }
+    Assert.assertEquals(ChunkCache.getSizeInBytes(), 3 * CHUNK_SIZE);
+    Assert.assertEquals(PinotDataBuffer.getDirectBufferUsage(), directBufferUsage + 3 * CHUNK_SIZE);
+
+    // Access chunk 0 so that chunk 1 becomes the least recently used
+    chunkBuffer.clear();
+    Assert.assertTrue(chunkCache.get(0, 0, chunkBuffer));
+    Assert.assertEquals(chunkBuffer, getChunk(0));
+
+    // Putting another chunk evicts chunk 1
+    chunkCache.put(1, 0, getChunk(3));
+    Assert.assertEquals(ChunkCache.getEvictionCount(), 1L);
+    Assert.assertEquals(ChunkCache.getSizeInBytes(), 3 * CHUNK_SIZE);
+    chunkBuffer.clear();
+    Assert.assertFalse(chunkCache.get(0, 1, chunkBuffer));
+    chunkBuffer.clear();
+    Assert.assertTrue(chunkCache.get(1, 0, chunkBuffer));
+    Assert.assertEquals(chunkBuffer, getChunk(3));
+    chunkBuffer.clear();
+    Assert.assertTrue(chunkCache.get(0, 2, chunkBuffer));
+    Assert.assertEquals(chunkBuffer, getChunk(2));
+
+    Assert.assertEquals(ChunkCache.getHitCount(), 3L);
+    Assert.assertEquals(ChunkCache.getMissCount(), 2L);
+
+    // Invalidating reader 0 removes chunks 0 and 2
+    chunkCache.invalidate(0);
+    Assert.assertEquals(ChunkCache.getSizeInBytes(), CHUNK_SIZE);
+    Assert.assertEquals(PinotDataBuffer.getDirectBufferUsage(), directBufferUsage + CHUNK_SIZE);
+    chunkBuffer.clear();
+    Assert.assertFalse(chunkCache.get(0, 0, chunkBuffer));
+    chunkBuffer.clear();
+    Assert.assertTrue(chunkCache.get(1, 0, chunkBuffer));
+  }
+
+  @Test
+  public void testMultipleSegments() {
+    ChunkCache.init(16 * CHUNK_SIZE, 4);
+    ChunkCache chunkCache = ChunkCache.getInstance();
+    Assert.assertNotNull(chunkCache);
+
+    // Chunks of each reader are spread evenly over the 4 segments (4 chunks each), so the chunks of reader 1 evict the
+    // chunks of reader 0
+    ByteBuffer chunkBuffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+    for (int readerId = 0; readerId < 2; readerId++) {
+      for (int chunkId = 0; chunkId < 16; chunkId++) {
+        chunkCache.put(readerId, chunkId, getChunk(chunkId));
+      }
+    }
+    Assert.assertEquals(ChunkCache.getSizeInBytes(), 16 * CHUNK_SIZE);
+    Assert.assertEquals(ChunkCache.getEvictionCount(), 16L);
+    for (int chunkId = 0; chunkId < 16; chunkId++) {
+      chunkBuffer.clear();
+      Assert.assertFalse(chunkCache.get(0, chunkId, chunkBuffer));
+      chunkBuffer.clear();
+      Assert.assertTrue(chunkCache.get(1, chunkId, chunkBuffer));
+      Assert.assertEquals(chunkBuffer, getChunk(chunkId));
+    }
+
+    // Invalidating reader 1 removes all its chunks from all the segments
+    chunkCache.invalidate(1);
+    for (int chunkId = 0; chunkId < 16; chunkId++) {
+      chunkBuffer.clear();
+      Assert.assertFalse(chunkCache.get(1, chunkId, chunkBuffer));
+    }
+    Assert.assertEquals(ChunkCache.getSizeInBytes(), 0L);
+  }
+
+  private static ByteBuffer getChunk(int value) {
+    ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_SIZE);
+    while (chunk.hasRemaining()) {
+      chunk.put((byte) value);
+    }
+    chunk.flip();
+    return chunk;
+  }
+
+  @AfterClass
+  public void tearDown() {
+    ChunkCache.init(0);
+  }
+}
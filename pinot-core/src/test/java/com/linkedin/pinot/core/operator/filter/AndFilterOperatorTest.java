@@ -19,6 +19,8 @@ import com.linkedin.pinot.core.common.BlockDocIdIterator;
 import com.linkedin.pinot.core.common.Constants;
 import java.util.ArrayList;
 import java.util.List;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -59,6 +61,39 @@ public class AndFilterOperatorTest {
     Assert.assertEquals(iterator.next(), Constants.EOF);
   }
 
+  @Test
+  public void testIntersectionForBitmaps() {
+    // Bitmaps with different cardinalities, which are intersected in ascending order of cardinality
+    MutableRoaringBitmap bitmap1 = MutableRoaringBitmap.bitmapOf(2, 3, 6, 10, 15, 16, 28);
+    MutableRoaringBitmap bitmap2 = MutableRoaringBitmap.bitmapOf(3, 28);
+    MutableRoaringBitmap bitmap3 = MutableRoaringBitmap.bitmapOf(1, 2, 3, 6, 28, 30);
+
+    List<BaseFilterOperator> operators = new ArrayList<>();
+    operators.add(new BitmapBasedFilterOperator(new ImmutableRoaringBitmap[]{bitmap1}, 0, 30, false));
+    operators.add(new BitmapBasedFilterOperator(new ImmutableRoaringBitmap[]{bitmap2}, 0, 30, false));
+    operators.add(new BitmapBasedFilterOperator(new ImmutableRoaringBitmap[]{bitmap3}, 0, 30, false));
+    AndFilterOperator andOperator = new AndFilterOperator(operators);
+
+    BlockDocIdIterator iterator = andOperator.nextBlock().getBlockDocIdSet().iterator();
+    Assert.assertEquals(iterator.next(), 3);
+    Assert.assertEquals(iterator.next(), 28);
+    Assert.assertEquals(iterator.next(), Constants.EOF);
+    Assert.assertTrue(andOperator.canProduceBitmap());
+    Assert.assertEquals(andOperator.getBitmap(), MutableRoaringBitmap.bitmapOf(3, 28));
+
+    // Empty intersection
+    operators = new ArrayList<>();
+    operators.add(new BitmapBasedFilterOperator(new ImmutableRoaringBitmap[]{bitmap1}, 0, 30, false));
+    operators.add(new BitmapBasedFilterOperator(new ImmutableRoaringBitmap[]{MutableRoaringBitmap.bitmapOf(1, 30)}, 0,
+        30, false));
+    operators.add(new BitmapBasedFilterOperator(new ImmutableRoaringBitmap[]{bitmap3}, 0, 30, false));
+    andOperator = new AndFilterOperator(operators);
+
+    iterator = andOperator.nextBlock().getBlockDocIdSet().iterator();
+    Assert.assertEquals(iterator.next(), Constants.EOF);
+    Assert.assertTrue(andOperator.getBitmap().isEmpty());
+  }
+
   @Test
   public void testComplex() {
     int[] docIds1 = new int[]{2, 3, 6, 10, 15, 16, 28};
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.filter;
+
+import com.linkedin.pinot.common.request.FilterOperator;
+import com.linkedin.pinot.common.utils.request.FilterQueryTree;
+import com.linkedin.pinot.core.indexsegment.IndexSegment;
+import java.util.Arrays;
+import java.util.Collections;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+
+
+public class FilterBitmapCacheTest {
+
+  @Test
+  public void testGetFilterKey() {
+    FilterQueryTree in1 = new FilterQueryTree("a", Arrays.asList("1", "2"), FilterOperator.IN, null);
+    FilterQueryTree in2 = new FilterQueryTree("a", Collections.singletonList("2\t\t1"), FilterOperator.IN, null);
+    FilterQueryTree range = new FilterQueryTree("b", Collections.singletonList("(1\t\t2]"), FilterOperator.RANGE, null);
+    FilterQueryTree and1 = new FilterQueryTree(null, null, FilterOperator.AND, Arrays.asList(in1, range));
+    FilterQueryTree and2 = new FilterQueryTree(null, null, FilterOperator.AND, Arrays.asList(range, in2));
+    FilterQueryTree or = new FilterQueryTree(null, null, FilterOperator.OR, Arrays.asList(range, in2));
+
+    Assert.assertEquals(FilterBitmapCache.getFilterKey(in1), FilterBitmapCache.getFilterKey(in2));
+    Assert.assertEquals(FilterBitmapCache.getFilterKey(and1), FilterBitmapCache.getFilterKey(and2));
+    Assert.assertFalse(FilterBitmapCache.getFilterKey(and1).equals(FilterBitmapCache.getFilterKey(or)));
+
+    // Values must not be split for predicates other than IN/NOT_IN
+    FilterQueryTree reversedRange =
+        new FilterQueryTree("b", Collections.singletonList("(2\t\t1]"), FilterOperator.RANGE, null);
+    Assert.assertFalse(FilterBitmapCache.getFilterKey(range).equals(FilterBitmapCache.getFilterKey(reversedRange)));
+  }
+
+  @Test
+  public void testFilterBitmapCache() {
+    MutableRoaringBitmap bitmap1 = MutableRoaringBitmap.bitmapOf(1, 3, 5);
+    MutableRoaringBitmap bitmap2 = MutableRoaringBitmap.bitmapOf(2, 4, 6);
+    int bitmapSize = bitmap1.serializedSizeInBytes();
+    Assert.assertEquals(bitmap2.serializedSizeInBytes(), bitmapSize);
+
+    // Cache can hold 2 bitmaps
+    FilterBitmapCache.init(2 * bitmapSize);
+    FilterBitmapCache filterBitmapCache = FilterBitmapCache.getInstance();
+    Assert.assertNotNull(filterBitmapCache);
+
+    IndexSegment segment1 = mock(IndexSegment.class);
+    IndexSegment segment2 = mock(IndexSegment.class);
+    Assert.assertNull(filterBitmapCache.get(segment1, "f1"));
+    filterBitmapCache.put(segment1, "f1", bitmap1);
+    filterBitmapCache.put(segment1, "f2", bitmap2);
+    Assert.assertEquals(FilterBitmapCache.getSizeInBytes(), 2 * bitmapSize);
+
+    // Access f1 so that f2 becomes the least recently used
+    ImmutableRoaringBitmap cachedBitmap = filterBitmapCache.get(segment1, "f1");
+    Assert.assertEquals(cachedBitmap, bitmap1);
+
+    // Same filter on another segment does not share the bitmap, and putting it evicts f2
+    Assert.assertNull(filterBitmapCache.get(segment2, "f1"));
+    filterBitmapCache.put(segment2, "f1", bitmap2);
+    Assert.assertEquals(FilterBitmapCache.getEvictionCount(), 1L);
+    Assert.assertNull(filterBitmapCache.get(segment1, "f2"));
+    Assert.assertEquals(filterBitmapCache.get(segment2, "f1"), bitmap2);
+    Assert.assertEquals(filterBitmapCache.get(segment1, "f1"), bitmap1);
+
+    Assert.assertEquals(FilterBitmapCache.getHitCount(), 3L);
+    Assert.assertEquals(FilterBitmapCache.getMissCount(), 3L);
+
+    // Invalidating segment 1 only removes its bitmaps
+    filterBitmapCache.invalidate(segment1);
+    Assert.assertEquals(FilterBitmapCache.getSizeInBytes(), bitmapSize);
+    Assert.assertNull(filterBitmapCache.get(segment1, "f1"));
+    Assert.assertEquals(filterBitmapCache.get(segment2, "f1"), bitmap2);
+  }
+
+  @AfterClass
+  public void tearDown() {
+    FilterBitmapCache.init(0);
+  }
+}
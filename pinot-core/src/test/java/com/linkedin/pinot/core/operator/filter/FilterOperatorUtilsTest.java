@@ -15,10 +15,15 @@
  */
 package com.linkedin.pinot.core.operator.filter;
 
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.common.DataSourceMetadata;
+import com.linkedin.pinot.core.common.Predicate;
+import com.linkedin.pinot.core.operator.filter.predicate.PredicateEvaluator;
 import java.util.Arrays;
 import java.util.Collections;
 import org.testng.annotations.Test;
 
+import static org.mockito.Mockito.*;
 import static org.testng.Assert.*;
 
 
@@ -28,6 +33,39 @@ public class FilterOperatorUtilsTest {
   private static final BaseFilterOperator MATCH_ALL_FILTER_OPERATOR = new MatchAllFilterOperator(NUM_DOCS);
   private static final BaseFilterOperator REGULAR_FILTER_OPERATOR = new TestFilterOperator(new int[]{1, 4, 7});
 
+  @Test
+  public void testGetLeafFilterOperator() {
+    // Sorted column uses sorted index for all predicates except REGEXP_LIKE
+    assertTrue(
+        getLeafFilterOperator(true, true, Predicate.Type.EQ, 1) instanceof SortedInvertedIndexBasedFilterOperator);
+    assertTrue(
+        getLeafFilterOperator(true, true, Predicate.Type.RANGE, 50) instanceof SortedInvertedIndexBasedFilterOperator);
+    assertTrue(getLeafFilterOperator(true, true, Predicate.Type.REGEXP_LIKE, 1) instanceof ScanBasedFilterOperator);
+
+    // Unsorted column uses inverted index for RANGE predicate only if it is selective enough
+    assertTrue(getLeafFilterOperator(true, false, Predicate.Type.IN, 50) instanceof BitmapBasedFilterOperator);
+    assertTrue(getLeafFilterOperator(true, false, Predicate.Type.RANGE, 5) instanceof BitmapBasedFilterOperator);
+    assertTrue(getLeafFilterOperator(true, false, Predicate.Type.RANGE, 50) instanceof ScanBasedFilterOperator);
+    assertTrue(getLeafFilterOperator(true, false, Predicate.Type.REGEXP_LIKE, 1) instanceof ScanBasedFilterOperator);
+
+    // Column without inverted index always uses scan
+    assertTrue(getLeafFilterOperator(false, false, Predicate.Type.EQ, 1) instanceof ScanBasedFilterOperator);
+  }
+
+  private static BaseFilterOperator getLeafFilterOperator(boolean hasInvertedIndex, boolean isSorted,
+      Predicate.Type predicateType, int numMatchingDictIds) {
+    DataSourceMetadata dataSourceMetadata = mock(DataSourceMetadata.class);
+    when(dataSourceMetadata.hasInvertedIndex()).thenReturn(hasInvertedIndex);
+    when(dataSourceMetadata.isSorted()).thenReturn(isSorted);
+    when(dataSourceMetadata.getCardinality()).thenReturn(100);
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getDataSourceMetadata()).thenReturn(dataSourceMetadata);
+    PredicateEvaluator predicateEvaluator = mock(PredicateEvaluator.class);
+    when(predicateEvaluator.getPredicateType()).thenReturn(predicateType);
+    when(predicateEvaluator.getNumMatchingDictIds()).thenReturn(numMatchingDictIds);
+    return FilterOperatorUtils.getLeafFilterOperator(predicateEvaluator, dataSource, NUM_DOCS);
+  }
+
   @Test
   public void testGetAndFilterOperator() {
     BaseFilterOperator filterOperator =
@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.common.request.transform.TransformExpressionTree;
+import com.linkedin.pinot.core.query.exception.BadQueryRequestException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class BinaryOperatorTransformFunctionTest extends BaseTransformFunctionTest {
+
+  @Test
+  public void testNumericComparison() {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("greater_than(%s,%s)", INT_SV_COLUMN, LONG_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof BinaryOperatorTransformFunction.GreaterThanTransformFunction);
+    int[] expectedValues = new int[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = _intSVValues[i] > _longSVValues[i] ? 1 : 0;
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    expression =
+        TransformExpressionTree.compileToExpressionTree(String.format("less_than_or_equal(%s,0.5)", DOUBLE_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof BinaryOperatorTransformFunction.LessThanOrEqualTransformFunction);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = _doubleSVValues[i] <= 0.5 ? 1 : 0;
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    // Integral values are compared as long without losing precision (large values differing by 1 are equal as double)
+    long literal = 0;
+    for (long longSVValue : _longSVValues) {
+      if (longSVValue > 0) {
+        literal = longSVValue - 1;
+        break;
+      }
+    }
+    expression =
+        TransformExpressionTree.compileToExpressionTree(String.format("equals(%s,%d)", LONG_SV_COLUMN, literal));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = _longSVValues[i] == literal ? 1 : 0;
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("equals(%s,%s)", INT_SV_COLUMN, INT_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = 1;
+    }
+    testTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test
+  public void testStringComparison() {
+    String literal = _stringSVValues[0];
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("not_equals(upper(%s),'a%s')", STRING_SV_COLUMN, literal));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof BinaryOperatorTransformFunction.NotEqualsTransformFunction);
+    int[] expectedValues = new int[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = 1;
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("less_than(%s,concat(%s,'x'))", STRING_SV_COLUMN, STRING_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof BinaryOperatorTransformFunction.LessThanTransformFunction);
+    testTransformFunction(transformFunction, expectedValues);
+
+    // String column compared with numeric literal is compared as string
+    expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("greater_than_or_equal(%s,0.5)", STRING_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = _stringSVValues[i].compareTo("0.5") >= 0 ? 1 : 0;
+    }
+    testTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test(dataProvider = "testIllegalArguments", expectedExceptions = {BadQueryRequestException.class})
+  public void testIllegalArguments(String expressionStr) {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(expressionStr);
+    TransformFunctionFactory.get(expression, _dataSourceMap);
+  }
+
+  @DataProvider(name = "testIllegalArguments")
+  public Object[][] testIllegalArguments() {
+    return new Object[][]{
+        new Object[]{String.format("equals(%s)", INT_SV_COLUMN)},
+        new Object[]{String.format("equals(1,%s)", INT_SV_COLUMN)},
+        new Object[]{String.format("equals(%s,'abc')", INT_SV_COLUMN)},
+        new Object[]{String.format("equals(%s,%s)", INT_MV_COLUMN, INT_SV_COLUMN)}
+    };
+  }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.common.request.transform.TransformExpressionTree;
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.operator.blocks.ProjectionBlock;
+import com.linkedin.pinot.core.operator.transform.TransformResultMetadata;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class CachingTransformFunctionTest extends BaseTransformFunctionTest {
+
+  @Test
+  public void testSharedExpressions() {
+    String division = String.format("div(%s,%s)", INT_SV_COLUMN, LONG_SV_COLUMN);
+    TransformExpressionTree divisionExpression = TransformExpressionTree.compileToExpressionTree(division);
+    TransformExpressionTree additionExpression =
+        TransformExpressionTree.compileToExpressionTree(String.format("add(%s,%s)", division, DOUBLE_SV_COLUMN));
+    TransformExpressionTree subtractionExpression =
+        TransformExpressionTree.compileToExpressionTree(String.format("sub(%s,%s)", division, DOUBLE_SV_COLUMN));
+    TransformExpressionTree columnExpression = TransformExpressionTree.compileToExpressionTree(INT_SV_COLUMN);
+    Set<TransformExpressionTree> expressions =
+        new HashSet<>(Arrays.asList(divisionExpression, additionExpression, subtractionExpression, columnExpression));
+
+    Map<TransformExpressionTree, TransformFunction> transformFunctionMap =
+        TransformFunctionFactory.getTransformFunctionMap(expressions, _dataSourceMap);
+    Assert.assertEquals(transformFunctionMap.size(), 4);
+    for (TransformFunction transformFunction : transformFunctionMap.values()) {
+      if (transformFunction != transformFunctionMap.get(columnExpression)) {
+        Assert.assertTrue(transformFunction instanceof CachingTransformFunction);
+      }
+    }
+    Assert.assertTrue(transformFunctionMap.get(columnExpression) instanceof IdentifierTransformFunction);
+
+    TransformFunction divisionTransformFunction = transformFunctionMap.get(divisionExpression);
+    Assert.assertEquals(divisionTransformFunction.getName(), DivisionTransformFunction.FUNCTION_NAME);
+    double[] divisionValues = divisionTransformFunction.transformToDoubleValuesSV(_projectionBlock);
+    Assert.assertSame(divisionTransformFunction.transformToDoubleValuesSV(_projectionBlock), divisionValues);
+    double[] additionValues = transformFunctionMap.get(additionExpression).transformToDoubleValuesSV(_projectionBlock);
+    double[] subtractionValues =
+        transformFunctionMap.get(subtractionExpression).transformToDoubleValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      double expectedDivisionValue = (double) _intSVValues[i] / (double) _longSVValues[i];
+      Assert.assertEquals(divisionValues[i], expectedDivisionValue);
+      Assert.assertEquals(additionValues[i], expectedDivisionValue + _doubleSVValues[i]);
+      Assert.assertEquals(subtractionValues[i], expectedDivisionValue - _doubleSVValues[i]);
+    }
+  }
+
+  @Test
+  public void testEvaluatedOncePerBlock() {
+    CountingTransformFunction countingTransformFunction = new CountingTransformFunction();
+    TransformFunction transformFunction = new CachingTransformFunction(countingTransformFunction);
+
+    double[] values = transformFunction.transformToDoubleValuesSV(_projectionBlock);
+    Assert.assertSame(transformFunction.transformToDoubleValuesSV(_projectionBlock), values);
+    Assert.assertEquals(countingTransformFunction._numDoubleEvaluations, 1);
+
+    // Results of different types are cached separately
+    transformFunction.transformToStringValuesSV(_projectionBlock);
+    transformFunction.transformToStringValuesSV(_projectionBlock);
+    Assert.assertEquals(countingTransformFunction._numDoubleEvaluations, 2);
+
+    // A new block is evaluated again
+    ProjectionBlock projectionBlock = new ProjectionBlock(null, null, null);
+    transformFunction.transformToDoubleValuesSV(projectionBlock);
+    transformFunction.transformToDoubleValuesSV(projectionBlock);
+    Assert.assertEquals(countingTransformFunction._numDoubleEvaluations, 3);
+  }
+
+  private static class CountingTransformFunction extends BaseTransformFunction {
+    private final double[] _values = new double[NUM_ROWS];
+    private int _numDoubleEvaluations;
+
+    @Override
+    public String getName() {
+      return "counting";
+    }
+
+    @Override
+    public void init(@Nonnull List<TransformFunction> arguments, @Nonnull Map<String, DataSource> dataSourceMap) {
+    }
+
+    @Override
+    public TransformResultMetadata getResultMetadata() {
+      return DOUBLE_SV_NO_DICTIONARY_METADATA;
+    }
+
+    @Override
+    public double[] transformToDoubleValuesSV(@Nonnull ProjectionBlock projectionBlock) {
+      _numDoubleEvaluations++;
+      return _values;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.request.transform.TransformExpressionTree;
+import com.linkedin.pinot.core.query.exception.BadQueryRequestException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class CaseTransformFunctionTest extends BaseTransformFunctionTest {
+
+  @Test
+  public void testNumericResults() {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("case(greater_than(%s,0.5),%s,less_than(%s,0.2),%s,0)", DOUBLE_SV_COLUMN, INT_SV_COLUMN,
+            DOUBLE_SV_COLUMN, LONG_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof CaseTransformFunction);
+    Assert.assertEquals(transformFunction.getName(), CaseTransformFunction.FUNCTION_NAME);
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.DOUBLE);
+    double[] expectedValues = new double[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      if (_doubleSVValues[i] > 0.5) {
+        expectedValues[i] = _intSVValues[i];
+      } else if (_doubleSVValues[i] < 0.2) {
+        expectedValues[i] = _longSVValues[i];
+      } else {
+        expectedValues[i] = 0;
+      }
+    }
+    testTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test
+  public void testStringResults() {
+    // The first condition that holds wins
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("case(greater_than(%s,0.5),'high',greater_than(%s,0.2),%s,'low')", DOUBLE_SV_COLUMN,
+            DOUBLE_SV_COLUMN, STRING_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof CaseTransformFunction);
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.STRING);
+    String[] expectedValues = new String[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      if (_doubleSVValues[i] > 0.5) {
+        expectedValues[i] = "high";
+      } else if (_doubleSVValues[i] > 0.2) {
+        expectedValues[i] = _stringSVValues[i];
+      } else {
+        expectedValues[i] = "low";
+      }
+    }
+    testTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test(dataProvider = "testIllegalArguments", expectedExceptions = {BadQueryRequestException.class})
+  public void testIllegalArguments(String expressionStr) {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(expressionStr);
+    TransformFunctionFactory.get(expression, _dataSourceMap);
+  }
+
+  @DataProvider(name = "testIllegalArguments")
+  public Object[][] testIllegalArguments() {
+    return new Object[][]{
+        new Object[]{String.format("case(greater_than(%s,0),1)", INT_SV_COLUMN)},
+        new Object[]{String.format("case(1,%s,2)", INT_SV_COLUMN)},
+        new Object[]{String.format("case(%s,1,2)", STRING_SV_COLUMN)},
+        new Object[]{String.format("case(greater_than(%s,0),%s,2)", INT_SV_COLUMN, INT_MV_COLUMN)}
+    };
+  }
+}
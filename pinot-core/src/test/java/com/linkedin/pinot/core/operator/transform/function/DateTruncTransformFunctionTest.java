@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.common.request.transform.TransformExpressionTree;
+import com.linkedin.pinot.core.query.exception.BadQueryRequestException;
+import java.util.concurrent.TimeUnit;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class DateTruncTransformFunctionTest extends BaseTransformFunctionTest {
+
+  @Test(dataProvider = "testDateTruncTransformFunction")
+  public void testDateTruncTransformFunction(String unit) {
+    TransformExpressionTree expression =
+        TransformExpressionTree.compileToExpressionTree(String.format("dateTrunc('%s',%s)", unit, TIME_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof DateTruncTransformFunction);
+    Assert.assertEquals(transformFunction.getName(), DateTruncTransformFunction.FUNCTION_NAME);
+    long[] outputTimes = transformFunction.transformToLongValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Assert.assertEquals(outputTimes[i], truncate(_timeValues[i], unit));
+    }
+
+    // Input in seconds, output in seconds
+    expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("dateTrunc('%s',timeConvert(%s,'MILLISECONDS','SECONDS'),'SECONDS')", unit, TIME_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    outputTimes = transformFunction.transformToLongValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      long expected = TimeUnit.MILLISECONDS.toSeconds(truncate(_timeValues[i], unit));
+      Assert.assertEquals(outputTimes[i], expected);
+    }
+  }
+
+  @DataProvider(name = "testDateTruncTransformFunction")
+  public Object[][] testDateTruncTransformFunctionDataProvider() {
+    return new Object[][]{
+        new Object[]{"second"}, new Object[]{"MINUTE"}, new Object[]{"hour"}, new Object[]{"day"},
+        new Object[]{"week"}, new Object[]{"month"}, new Object[]{"quarter"}, new Object[]{"year"}
+    };
+  }
+
+  private static long truncate(long timeMs, String unit) {
+    DateTime dateTime = new DateTime(timeMs, DateTimeZone.UTC);
+    switch (unit.toUpperCase()) {
+      case "SECOND":
+        return dateTime.withMillisOfSecond(0).getMillis();
+      case "MINUTE":
+        return dateTime.withMillisOfSecond(0).withSecondOfMinute(0).getMillis();
+      case "HOUR":
+        return dateTime.withMillisOfSecond(0).withSecondOfMinute(0).withMinuteOfHour(0).getMillis();
+      case "DAY":
+        return dateTime.withTimeAtStartOfDay().getMillis();
+      case "WEEK":
+        return dateTime.withTimeAtStartOfDay().withDayOfWeek(1).getMillis();
+      case "MONTH":
+        return dateTime.withTimeAtStartOfDay().withDayOfMonth(1).getMillis();
+      case "QUARTER":
+        int month = dateTime.getMonthOfYear();
+        return dateTime.withTimeAtStartOfDay().withDayOfMonth(1).withMonthOfYear(month - (month - 1) % 3).getMillis();
+      case "YEAR":
+        return dateTime.withTimeAtStartOfDay().withDayOfYear(1).getMillis();
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  @Test(dataProvider = "testIllegalArguments", expectedExceptions = {BadQueryRequestException.class})
+  public void testIllegalArguments(String expressionStr) {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(expressionStr);
+    TransformFunctionFactory.get(expression, _dataSourceMap);
+  }
+
+  @DataProvider(name = "testIllegalArguments")
+  public Object[][] testIllegalArguments() {
+    return new Object[][]{
+        new Object[]{"dateTrunc('day')"},
+        new Object[]{String.format("dateTrunc('decade',%s)", TIME_COLUMN)},
+        new Object[]{String.format("dateTrunc('day',%s)", INT_MV_COLUMN)}
+    };
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.request.transform.TransformExpressionTree;
+import com.linkedin.pinot.core.query.exception.BadQueryRequestException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class JsonExtractScalarTransformFunctionTest extends BaseTransformFunctionTest {
+
+  @Test
+  public void testJsonExtractScalarTransformFunction() {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("jsonExtractScalar(%s,'$.intVal','INT')", JSON_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof JsonExtractScalarTransformFunction);
+    Assert.assertEquals(transformFunction.getName(), JsonExtractScalarTransformFunction.FUNCTION_NAME);
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.INT);
+    testTransformFunction(transformFunction, _intSVValues);
+
+    expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("jsonExtractScalar(%s,'$.nested.longs[1]','LONG')", JSON_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertEquals(transformFunction.getResultMetadata().getDataType(), FieldSpec.DataType.LONG);
+    long[] longValues = transformFunction.transformToLongValuesSV(_projectionBlock);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Assert.assertEquals(longValues[i], -_longSVValues[i]);
+    }
+
+    expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("jsonExtractScalar(%s,'$.stringVal','STRING')", JSON_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    testTransformFunction(transformFunction, _stringSVValues);
+
+    // Default value for missing path
+    expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("jsonExtractScalar(%s,'$.nested.missing','STRING','none')", JSON_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    String[] expectedValues = new String[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = "none";
+    }
+    testTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void testMissingPathWithoutDefaultValue() {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("jsonExtractScalar(%s,'$.nested','STRING')", JSON_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    transformFunction.transformToStringValuesSV(_projectionBlock);
+  }
+
+  @Test(dataProvider = "testIllegalArguments", expectedExceptions = {BadQueryRequestException.class})
+  public void testIllegalArguments(String expressionStr) {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(expressionStr);
+    TransformFunctionFactory.get(expression, _dataSourceMap);
+  }
+
+  @DataProvider(name = "testIllegalArguments")
+  public Object[][] testIllegalArguments() {
+    return new Object[][]{
+        new Object[]{String.format("jsonExtractScalar(%s,'$.intVal')", JSON_COLUMN)},
+        new Object[]{String.format("jsonExtractScalar(%s,'$.intVal','INT')", INT_SV_COLUMN)},
+        new Object[]{String.format("jsonExtractScalar(%s,'intVal','INT')", JSON_COLUMN)},
+        new Object[]{String.format("jsonExtractScalar(%s,'$.intVal','BOOLEAN')", JSON_COLUMN)}
+    };
+  }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.operator.transform.function;
+
+import com.linkedin.pinot.common.request.transform.TransformExpressionTree;
+import com.linkedin.pinot.core.query.exception.BadQueryRequestException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class StringTransformFunctionsTest extends BaseTransformFunctionTest {
+
+  @Test
+  public void testSingleParamStringTransformFunctions() {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("upper(concat(' a',%s,'b '))", STRING_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof SingleParamStringTransformFunction.UpperTransformFunction);
+    String[] expectedValues = new String[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = (" a" + _stringSVValues[i] + "b ").toUpperCase();
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("trim(lower(concat(' A',%s,'B ')))", STRING_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof SingleParamStringTransformFunction.TrimTransformFunction);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = ("a" + _stringSVValues[i] + "b").toLowerCase();
+    }
+    testTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test
+  public void testSubstringTransformFunction() {
+    TransformExpressionTree expression =
+        TransformExpressionTree.compileToExpressionTree(String.format("substr(%s,2,5)", STRING_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof SubstringTransformFunction);
+    Assert.assertEquals(transformFunction.getName(), SubstringTransformFunction.FUNCTION_NAME);
+    String[] expectedValues = new String[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      String value = _stringSVValues[i];
+      expectedValues[i] = value.substring(Math.min(2, value.length()), Math.min(5, value.length()));
+    }
+    testTransformFunction(transformFunction, expectedValues);
+
+    // End index is clipped to the length of each value
+    expression = TransformExpressionTree.compileToExpressionTree(String.format("substr(%s,1)", INT_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = Integer.toString(_intSVValues[i]).substring(1);
+    }
+    testTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test
+  public void testConcatTransformFunction() {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(
+        String.format("concat(%s,'-',%s)", INT_SV_COLUMN, STRING_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    Assert.assertTrue(transformFunction instanceof ConcatTransformFunction);
+    Assert.assertEquals(transformFunction.getName(), ConcatTransformFunction.FUNCTION_NAME);
+    String[] expectedValues = new String[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedValues[i] = _intSVValues[i] + "-" + _stringSVValues[i];
+    }
+    testTransformFunction(transformFunction, expectedValues);
+  }
+
+  @Test(dataProvider = "testIllegalArguments", expectedExceptions = {BadQueryRequestException.class})
+  public void testIllegalArguments(String expressionStr) {
+    TransformExpressionTree expression = TransformExpressionTree.compileToExpressionTree(expressionStr);
+    TransformFunctionFactory.get(expression, _dataSourceMap);
+  }
+
+  @DataProvider(name = "testIllegalArguments")
+  public Object[][] testIllegalArguments() {
+    return new Object[][]{
+        new Object[]{String.format("upper(%s,%s)", STRING_SV_COLUMN, STRING_SV_COLUMN)},
+        new Object[]{String.format("lower(%s)", INT_MV_COLUMN)},
+        new Object[]{String.format("substr(%s,3,2)", STRING_SV_COLUMN)},
+        new Object[]{String.format("concat(%s)", STRING_SV_COLUMN)},
+        new Object[]{String.format("concat(%s,%s)", STRING_SV_COLUMN, INT_MV_COLUMN)}
+    };
+  }
+}
@@ -27,16 +27,20 @@ import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
 import com.linkedin.pinot.core.plan.AggregationGroupByPlanNode;
 import com.linkedin.pinot.core.plan.AggregationPlanNode;
 import com.linkedin.pinot.core.plan.DictionaryBasedAggregationPlanNode;
+import com.linkedin.pinot.core.plan.DictionaryIdBasedAggregationPlanNode;
+import com.linkedin.pinot.core.plan.InvertedIndexBasedAggregationPlanNode;
 import com.linkedin.pinot.core.plan.MetadataBasedAggregationPlanNode;
 import com.linkedin.pinot.core.plan.PlanNode;
 import com.linkedin.pinot.core.plan.SelectionPlanNode;
 import com.linkedin.pinot.core.segment.creator.SegmentIndexCreationDriver;
 import com.linkedin.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import com.linkedin.pinot.core.segment.index.loader.IndexLoadingConfig;
 import com.linkedin.pinot.pql.parsers.Pql2Compiler;
 import java.io.File;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.io.FileUtils;
@@ -136,7 +140,11 @@ public class MetadataAndDictionaryAggregationPlanMakerTest {
 
   @BeforeClass
   public void loadSegment() throws Exception {
-    _indexSegment = ImmutableSegmentLoader.load(new File(INDEX_DIR, SEGMENT_NAME), ReadMode.heap);
+    IndexLoadingConfig indexLoadingConfig = new IndexLoadingConfig();
+    indexLoadingConfig.setReadMode(ReadMode.heap);
+    indexLoadingConfig.setInvertedIndexColumns(
+        new HashSet<>(Arrays.asList("column6", "column7", "column11", "column17", "column18")));
+    _indexSegment = ImmutableSegmentLoader.load(new File(INDEX_DIR, SEGMENT_NAME), indexLoadingConfig);
     _starTreeIndexSegment = ImmutableSegmentLoader.load(new File(INDEX_DIR_STARTREE, SEGMENT_NAME_STARTREE), ReadMode.heap);
   }
 
@@ -230,6 +238,42 @@ public class MetadataAndDictionaryAggregationPlanMakerTest {
         AggregationGroupByPlanNode.class,
         AggregationGroupByPlanNode.class
     });
+    entries.add(new Object[] {
+        "select max(column17),min(column17) from testTable where daysSinceEpoch > 100", /*min max from dictionary ids*/
+        DictionaryIdBasedAggregationPlanNode.class,
+        AggregationPlanNode.class /* in case of star tree, we don't go to dictionary ids */
+    });
+    entries.add(new Object[] {
+        "select count(*),distinctcount(column17) from testTable where daysSinceEpoch > 100", /*count and distinct count from dictionary ids*/
+        DictionaryIdBasedAggregationPlanNode.class,
+        AggregationPlanNode.class /* in case of star tree, we don't go to dictionary ids */
+    });
+    entries.add(new Object[] {
+        "select sum(column1),max(column17) from testTable where daysSinceEpoch > 100", /*mix of dictionary ids based and non dictionary ids based*/
+        AggregationPlanNode.class,
+        AggregationPlanNode.class
+    });
+
+    entries.add(new Object[] {
+        "select count(*) from testTable where column11 not in ('t', 'P') and (column6 = 1 or column7 = 2)", /*count from inverted indexes*/
+        InvertedIndexBasedAggregationPlanNode.class,
+        AggregationPlanNode.class /* in case of star tree, we don't go to inverted indexes */
+    });
+    entries.add(new Object[] {
+        "select count(*) from testTable where column5 = 'gFuH'", /*count from sorted index*/
+        InvertedIndexBasedAggregationPlanNode.class,
+        AggregationPlanNode.class /* in case of star tree, we don't go to sorted index */
+    });
+    entries.add(new Object[] {
+        "select count(*) from testTable where column1 > 100000000", /*filter not answered by indexes*/
+        AggregationPlanNode.class,
+        AggregationPlanNode.class
+    });
+    entries.add(new Object[] {
+        "select count(*) from testTable where column11 not in ('t', 'P') and column1 > 100000000", /*partially indexed*/
+        AggregationPlanNode.class,
+        AggregationPlanNode.class
+    });
 
     return entries.toArray(new Object[entries.size()][]);
   }
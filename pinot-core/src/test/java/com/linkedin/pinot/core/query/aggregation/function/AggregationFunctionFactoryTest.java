@@ -66,6 +66,11 @@ public class AggregationFunctionFactoryTest {
     Assert.assertEquals(aggregationFunction.getType(), AggregationFunctionType.DISTINCTCOUNTHLL);
     Assert.assertEquals(aggregationFunction.getColumnName(COLUMN), "distinctCountHLL_column");
 
+    aggregationFunction = AggregationFunctionFactory.getAggregationFunction("DiStInCtCoUnTrAwHlL");
+    Assert.assertTrue(aggregationFunction instanceof DistinctCountRawHLLAggregationFunction);
+    Assert.assertEquals(aggregationFunction.getType(), AggregationFunctionType.DISTINCTCOUNTRAWHLL);
+    Assert.assertEquals(aggregationFunction.getColumnName(COLUMN), "distinctCountRawHLL_column");
+
     aggregationFunction = AggregationFunctionFactory.getAggregationFunction("FaStHlL");
     Assert.assertTrue(aggregationFunction instanceof FastHLLAggregationFunction);
     Assert.assertEquals(aggregationFunction.getType(), AggregationFunctionType.FASTHLL);
@@ -34,6 +34,8 @@ public class AggregationFunctionTypeTest {
         AggregationFunctionType.DISTINCTCOUNT);
     Assert.assertEquals(AggregationFunctionType.getAggregationFunctionType("DiStInCtCoUnThLl"),
         AggregationFunctionType.DISTINCTCOUNTHLL);
+    Assert.assertEquals(AggregationFunctionType.getAggregationFunctionType("DiStInCtCoUnTrAwHlL"),
+        AggregationFunctionType.DISTINCTCOUNTRAWHLL);
     Assert.assertEquals(AggregationFunctionType.getAggregationFunctionType("FaStHlL"), AggregationFunctionType.FASTHLL);
     Assert.assertEquals(AggregationFunctionType.getAggregationFunctionType("PeRcEnTiLe5"),
         AggregationFunctionType.PERCENTILE);
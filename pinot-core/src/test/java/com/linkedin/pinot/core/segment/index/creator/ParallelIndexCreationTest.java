@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.segment.index.creator;
+
+import com.linkedin.pinot.common.data.DimensionFieldSpec;
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.data.MetricFieldSpec;
+import com.linkedin.pinot.common.data.Schema;
+import com.linkedin.pinot.core.data.GenericRow;
+import com.linkedin.pinot.core.data.readers.GenericRowRecordReader;
+import com.linkedin.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import com.linkedin.pinot.core.indexsegment.generator.SegmentVersion;
+import com.linkedin.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import com.linkedin.pinot.core.segment.creator.impl.V1Constants;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+
+/**
+ * Tests that creating the column indexes in parallel generates the same index files as creating them sequentially.
+ */
+public class ParallelIndexCreationTest {
+  private static final File TEMP_DIR =
+      new File(FileUtils.getTempDirectory(), ParallelIndexCreationTest.class.getSimpleName());
+  private static final String SEGMENT_NAME = "testSegment";
+  // More than one batch of rows, and the last batch is not full
+  private static final int NUM_ROWS = 25_123;
+  private static final String INT_COLUMN = "intColumn";
+  private static final String STRING_COLUMN = "stringColumn";
+  private static final String MV_COLUMN = "mvColumn";
+  private static final String RAW_COLUMN = "rawColumn";
+
+  @Test
+  public void testParallelIndexCreation() throws Exception {
+    Schema schema = new Schema();
+    schema.addField(new DimensionFieldSpec(INT_COLUMN, FieldSpec.DataType.INT, true));
+    schema.addField(new DimensionFieldSpec(STRING_COLUMN, FieldSpec.DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec(MV_COLUMN, FieldSpec.DataType.STRING, false));
+    schema.addField(new MetricFieldSpec(RAW_COLUMN, FieldSpec.DataType.LONG));
+
+    Random random = new Random();
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Map<String, Object> fields = new HashMap<>();
+      fields.put(INT_COLUMN, random.nextInt(1000));
+      fields.put(STRING_COLUMN, "value" + random.nextInt(100));
+      int numValues = 1 + random.nextInt(5);
+      Object[] mvValues = new Object[numValues];
+      for (int j = 0; j < numValues; j++) {
+        mvValues[j] = "mv" + random.nextInt(50);
+      }
+      fields.put(MV_COLUMN, mvValues);
+      fields.put(RAW_COLUMN, random.nextLong());
+      GenericRow row = new GenericRow();
+      row.init(fields);
+      rows.add(row);
+    }
+
+    File sequentialIndexDir = buildSegment(schema, rows, 1, new File(TEMP_DIR, "sequential"));
+    File parallelIndexDir = buildSegment(schema, rows, 4, new File(TEMP_DIR, "parallel"));
+
+    File[] indexFiles = sequentialIndexDir.listFiles();
+    Assert.assertNotNull(indexFiles);
+    int numComparedFiles = 0;
+    for (File indexFile : indexFiles) {
+      String fileName = indexFile.getName();
+      // Metadata files contain creation time
+      if (fileName.equals(V1Constants.MetadataKeys.METADATA_FILE_NAME) || fileName.equals(
+          V1Constants.SEGMENT_CREATION_META)) {
+        continue;
+      }
+      File parallelIndexFile = new File(parallelIndexDir, fileName);
+      Assert.assertTrue(parallelIndexFile.exists(), fileName);
+      Assert.assertTrue(FileUtils.contentEquals(indexFile, parallelIndexFile), fileName);
+      numComparedFiles++;
+    }
+    Assert.assertEquals(numComparedFiles, parallelIndexDir.listFiles().length - 2);
+  }
+
+  private File buildSegment(Schema schema, List<GenericRow> rows, int numIndexCreationThreads, File outDir)
+      throws Exception {
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    config.setOutDir(outDir.getAbsolutePath());
+    config.setSegmentName(SEGMENT_NAME);
+    config.setSegmentVersion(SegmentVersion.v1);
+    config.setRawIndexCreationColumns(Collections.singletonList(RAW_COLUMN));
+    config.setInvertedIndexCreationColumns(Collections.singletonList(INT_COLUMN));
+    config.setNumIndexCreationThreads(numIndexCreationThreads);
+
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(rows, schema));
+    driver.build();
+    return driver.getOutputDirectory();
+  }
+
+  @AfterClass
+  public void tearDown() {
+    FileUtils.deleteQuietly(TEMP_DIR);
+  }
+}
@@ -24,9 +24,11 @@ import com.linkedin.pinot.core.data.GenericRow;
 import com.linkedin.pinot.core.data.readers.GenericRowRecordReader;
 import com.linkedin.pinot.core.data.readers.RecordReader;
 import com.linkedin.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import com.linkedin.pinot.core.io.compression.ChunkCompressorFactory;
 import com.linkedin.pinot.core.io.reader.impl.ChunkReaderContext;
 import com.linkedin.pinot.core.io.reader.impl.v1.FixedByteChunkSingleValueReader;
 import com.linkedin.pinot.core.io.reader.impl.v1.VarByteChunkSingleValueReader;
+import com.linkedin.pinot.core.segment.creator.impl.SegmentColumnarIndexCreator;
 import com.linkedin.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
 import com.linkedin.pinot.core.segment.memory.PinotDataBuffer;
 import com.linkedin.pinot.core.segment.store.ColumnIndexType;
@@ -152,6 +154,25 @@ public class RawIndexCreatorTest {
     }
   }
 
+  /**
+   * Test that the numeric encodings are rejected for columns that are not INT or LONG.
+   * @throws Exception
+   */
+  @Test
+  public void testNumericEncodingOnUnsupportedDataType() throws Exception {
+    File indexFile = new File(SEGMENT_DIR_NAME, "numericEncodingTest");
+    for (ChunkCompressorFactory.CompressionType compressionType : new ChunkCompressorFactory.CompressionType[]{
+        ChunkCompressorFactory.CompressionType.FRAME_OF_REFERENCE, ChunkCompressorFactory.CompressionType.DELTA}) {
+      try {
+        SegmentColumnarIndexCreator.getRawIndexCreatorForColumn(indexFile, compressionType, DOUBLE_COLUMN,
+            FieldSpec.DataType.DOUBLE, NUM_ROWS, 0);
+        Assert.fail("Expected IllegalArgumentException for compression type: " + compressionType);
+      } catch (IllegalArgumentException e) {
+        Assert.assertTrue(e.getMessage().contains(DOUBLE_COLUMN));
+      }
+    }
+  }
+
   /**
    * Helper method to perform actual tests for a given column.
    *
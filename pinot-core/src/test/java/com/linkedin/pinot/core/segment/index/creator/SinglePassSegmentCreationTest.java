@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.segment.index.creator;
+
+import com.google.common.primitives.Ints;
+import com.linkedin.pinot.common.data.DimensionFieldSpec;
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.data.MetricFieldSpec;
+import com.linkedin.pinot.common.data.Schema;
+import com.linkedin.pinot.core.data.GenericRow;
+import com.linkedin.pinot.core.data.readers.GenericRowRecordReader;
+import com.linkedin.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import com.linkedin.pinot.core.indexsegment.generator.SegmentVersion;
+import com.linkedin.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import com.linkedin.pinot.core.segment.creator.impl.V1Constants;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+
+/**
+ * Tests that creating the segment with a single pass over the input generates the same index files as creating it with
+ * two passes.
+ */
+public class SinglePassSegmentCreationTest {
+  private static final File TEMP_DIR =
+      new File(FileUtils.getTempDirectory(), SinglePassSegmentCreationTest.class.getSimpleName());
+  private static final String SEGMENT_NAME = "testSegment";
+  private static final int NUM_ROWS = 10_000;
+  private static final String INT_COLUMN = "intColumn";
+  private static final String STRING_COLUMN = "stringColumn";
+  private static final String MV_COLUMN = "mvColumn";
+  private static final String DOUBLE_COLUMN = "doubleColumn";
+  private static final String RAW_COLUMN = "rawColumn";
+  private static final String BYTES_COLUMN = "bytesColumn";
+  private static final String RAW_STRING_COLUMN = "rawStringColumn";
+
+  @Test
+  public void testSinglePassSegmentCreation() throws Exception {
+    Schema schema = new Schema();
+    schema.addField(new DimensionFieldSpec(INT_COLUMN, FieldSpec.DataType.INT, true));
+    schema.addField(new DimensionFieldSpec(STRING_COLUMN, FieldSpec.DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec(MV_COLUMN, FieldSpec.DataType.INT, false));
+    schema.addField(new MetricFieldSpec(DOUBLE_COLUMN, FieldSpec.DataType.DOUBLE));
+    schema.addField(new MetricFieldSpec(RAW_COLUMN, FieldSpec.DataType.LONG));
+    schema.addField(new DimensionFieldSpec(BYTES_COLUMN, FieldSpec.DataType.BYTES, true));
+    schema.addField(new DimensionFieldSpec(RAW_STRING_COLUMN, FieldSpec.DataType.STRING, true));
+
+    Random random = new Random();
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Map<String, Object> fields = new HashMap<>();
+      fields.put(INT_COLUMN, random.nextInt(1000));
+      fields.put(STRING_COLUMN, "value" + random.nextInt(100));
+      int numValues = 1 + random.nextInt(5);
+      Object[] mvValues = new Object[numValues];
+      for (int j = 0; j < numValues; j++) {
+        mvValues[j] = random.nextInt(50);
+      }
+      fields.put(MV_COLUMN, mvValues);
+      fields.put(DOUBLE_COLUMN, (double) random.nextInt(200));
+      fields.put(RAW_COLUMN, random.nextLong());
+      // Equal byte arrays are different instances, which must share the same dictionary id
+      fields.put(BYTES_COLUMN, Ints.toByteArray(random.nextInt(20)));
+      fields.put(RAW_STRING_COLUMN, "rawValue" + random.nextInt(100));
+      GenericRow row = new GenericRow();
+      row.init(fields);
+      rows.add(row);
+    }
+
+    File twoPassOutDir = new File(TEMP_DIR, "twoPass");
+    File singlePassOutDir = new File(TEMP_DIR, "singlePass");
+    File twoPassIndexDir = buildSegment(schema, rows, false, twoPassOutDir);
+    File singlePassIndexDir = buildSegment(schema, rows, true, singlePassOutDir);
+
+    // The spool directory should be cleaned up
+    File[] outDirFiles = singlePassOutDir.listFiles();
+    Assert.assertNotNull(outDirFiles);
+    Assert.assertEquals(outDirFiles.length, 1);
+
+    File[] indexFiles = twoPassIndexDir.listFiles();
+    Assert.assertNotNull(indexFiles);
+    int numComparedFiles = 0;
+    for (File indexFile : indexFiles) {
+      String fileName = indexFile.getName();
+      // Metadata files contain creation time
+      if (fileName.equals(V1Constants.MetadataKeys.METADATA_FILE_NAME) || fileName.equals(
+          V1Constants.SEGMENT_CREATION_META)) {
+        continue;
+      }
+      File singlePassIndexFile = new File(singlePassIndexDir, fileName);
+      Assert.assertTrue(singlePassIndexFile.exists(), fileName);
+      Assert.assertTrue(FileUtils.contentEquals(indexFile, singlePassIndexFile), fileName);
+      numComparedFiles++;
+    }
+    Assert.assertEquals(numComparedFiles, singlePassIndexDir.listFiles().length - 2);
+  }
+
+  private File buildSegment(Schema schema, List<GenericRow> rows, boolean singlePassCreation, File outDir)
+      throws Exception {
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    config.setOutDir(outDir.getAbsolutePath());
+    config.setSegmentName(SEGMENT_NAME);
+    config.setSegmentVersion(SegmentVersion.v1);
+    config.setRawIndexCreationColumns(Arrays.asList(RAW_COLUMN, RAW_STRING_COLUMN));
+    config.setInvertedIndexCreationColumns(Collections.singletonList(INT_COLUMN));
+    config.setSinglePassCreation(singlePassCreation);
+
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(rows, schema));
+    driver.build();
+    return driver.getOutputDirectory();
+  }
+
+  @AfterClass
+  public void tearDown() {
+    FileUtils.deleteQuietly(TEMP_DIR);
+  }
+}
@@ -497,6 +497,35 @@ public class PinotDataBufferTest {
     }
   }
 
+  @Test
+  public void testPrefetch() throws Exception {
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(TEMP_FILE, "rw")) {
+      randomAccessFile.setLength(FILE_OFFSET + BUFFER_SIZE);
+      try (PinotDataBuffer writeBuffer = PinotByteBuffer.mapFile(TEMP_FILE, false, FILE_OFFSET, BUFFER_SIZE,
+          ByteOrder.BIG_ENDIAN)) {
+        writeBuffer.readFrom(0, _bytes);
+      }
+      try (PinotDataBuffer buffer = PinotByteBuffer.mapFile(TEMP_FILE, true, FILE_OFFSET, BUFFER_SIZE,
+          ByteOrder.BIG_ENDIAN)) {
+        buffer.prefetch();
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+          Assert.assertEquals(buffer.getByte(i), _bytes[i]);
+        }
+      }
+      try (PinotDataBuffer buffer = PinotNativeOrderLBuffer.mapFile(TEMP_FILE, true, FILE_OFFSET, BUFFER_SIZE)) {
+        buffer.prefetch();
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+          Assert.assertEquals(buffer.getByte(i), _bytes[i]);
+        }
+      }
+    } finally {
+      FileUtils.forceDelete(TEMP_FILE);
+    }
+    try (PinotDataBuffer buffer = PinotByteBuffer.allocateDirect(0, ByteOrder.BIG_ENDIAN)) {
+      buffer.prefetch();
+    }
+  }
+
   @SuppressWarnings("RedundantExplicitClose")
   @Test
   public void testMultipleClose() throws Exception {
@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.transport;
+
+import com.linkedin.pinot.common.request.BrokerRequest;
+import com.linkedin.pinot.common.request.InstanceRequest;
+import com.linkedin.pinot.pql.parsers.Pql2Compiler;
+import io.netty.buffer.ByteBuf;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.thrift.TDeserializer;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class InstanceRequestEncoderTest {
+  private static final Pql2Compiler COMPILER = new Pql2Compiler();
+  private static final long REQUEST_ID = 123L;
+  private static final String BROKER_ID = "testBroker";
+  private static final String[] QUERIES = new String[]{
+      "SELECT COUNT(*) FROM testTable", "SELECT * FROM testTable WHERE foo = 'bar' LIMIT 5",
+      "SELECT SUM(met) FROM testTable WHERE foo IN ('a', 'b') AND bar > 10 GROUP BY dim TOP 20"
+  };
+
+  @Test
+  public void testEncode() throws Exception {
+    List<String> manySegments = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      manySegments.add("testTable_" + i);
+    }
+    List<List<String>> segmentsList =
+        Arrays.asList(null, Collections.emptyList(), Collections.singletonList("testTable_0"), manySegments);
+
+    for (String query : QUERIES) {
+      for (boolean enableTrace : new boolean[]{false, true}) {
+        BrokerRequest brokerRequest = COMPILER.compileToBrokerRequest(query);
+        brokerRequest.setEnableTrace(enableTrace);
+        for (String brokerId : new String[]{BROKER_ID, null}) {
+          InstanceRequestEncoder encoder = new InstanceRequestEncoder(REQUEST_ID, brokerRequest, brokerId);
+          for (List<String> segments : segmentsList) {
+            InstanceRequest expected = new InstanceRequest();
+            expected.setRequestId(REQUEST_ID);
+            expected.setQuery(brokerRequest);
+            expected.setEnableTrace(enableTrace);
+            expected.setSearchSegments(segments);
+            expected.setBrokerId(brokerId);
+            byte[] expectedBytes = new TSerializer(new TCompactProtocol.Factory()).serialize(expected);
+
+            ByteBuf requestBuf = encoder.encode(segments);
+            byte[] actualBytes = new byte[requestBuf.readableBytes()];
+            requestBuf.readBytes(actualBytes);
+            requestBuf.release();
+            Assert.assertEquals(actualBytes, expectedBytes);
+
+            InstanceRequest actual = new InstanceRequest();
+            new TDeserializer(new TCompactProtocol.Factory()).deserialize(actual, actualBytes);
+            Assert.assertEquals(actual, expected);
+          }
+        }
+      }
+    }
+  }
+}
@@ -15,14 +15,18 @@
  */
 package com.linkedin.pinot.core.transport;
 
+import com.linkedin.pinot.common.exception.QueryException;
 import com.linkedin.pinot.common.metrics.BrokerMetrics;
 import com.linkedin.pinot.common.request.BrokerRequest;
+import com.linkedin.pinot.common.response.ProcessingException;
 import com.linkedin.pinot.common.utils.CommonConstants.Helix.TableType;
 import com.linkedin.pinot.common.utils.DataTable;
 import com.linkedin.pinot.core.common.datatable.DataTableImplV2;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TProtocol;
 import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
@@ -217,6 +221,23 @@ public class QueryRouterTest {
     Assert.assertTrue(System.currentTimeMillis() - startTimeMs < 1000);
   }
 
+  @Test
+  public void testSerializationFailure() throws Exception {
+    BrokerRequest brokerRequest = Mockito.mock(BrokerRequest.class);
+    Mockito.doThrow(new TException("Failed to serialize")).when(brokerRequest).write(Mockito.any(TProtocol.class));
+
+    long startTimeMs = System.currentTimeMillis();
+    AsyncQueryResponse asyncQueryResponse =
+        _queryRouter.submitQuery(123, "testTable", brokerRequest, ROUTING_TABLE, null, null, 1_000L);
+    Map<Server, ServerResponse> response = asyncQueryResponse.getResponse();
+    Assert.assertTrue(response.isEmpty());
+    ProcessingException processingException = asyncQueryResponse.getProcessingException();
+    Assert.assertNotNull(processingException);
+    Assert.assertEquals(processingException.getErrorCode(), QueryException.INTERNAL_ERROR_CODE);
+    // Query should early terminate
+    Assert.assertTrue(System.currentTimeMillis() - startTimeMs < 1000);
+  }
+
   @AfterClass
   public void tearDown() {
     _queryRouter.shutDown();
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.transport;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class RequestHedgerTest {
+  private static final String TABLE_NAME_WITH_TYPE = "testTable_OFFLINE";
+  private static final String SERVER_1 = "Server_localhost_1";
+  private static final String SERVER_2 = "Server_localhost_2";
+  private static final String SERVER_3 = "Server_localhost_3";
+
+  @Test
+  public void testHedgeDelay() {
+    RequestHedger requestHedger = new RequestHedger((table, segment) -> null, 90.0, 5L, 0.1);
+    Assert.assertEquals(requestHedger.getHedgeDelayMs(TABLE_NAME_WITH_TYPE), -1L);
+
+    // Not enough samples
+    for (int i = 1; i <= 50; i++) {
+      requestHedger.recordLatency(TABLE_NAME_WITH_TYPE, i);
+    }
+    Assert.assertEquals(requestHedger.getHedgeDelayMs(TABLE_NAME_WITH_TYPE), -1L);
+
+    for (int i = 51; i <= 100; i++) {
+      requestHedger.recordLatency(TABLE_NAME_WITH_TYPE, i);
+    }
+    Assert.assertEquals(requestHedger.getHedgeDelayMs(TABLE_NAME_WITH_TYPE), 90L);
+    Assert.assertEquals(requestHedger.getHedgeDelayMs("otherTable_OFFLINE"), -1L);
+
+    // Minimum delay
+    RequestHedger fastRequestHedger = new RequestHedger((table, segment) -> null, 90.0, 5L, 0.1);
+    for (int i = 0; i < 100; i++) {
+      fastRequestHedger.recordLatency(TABLE_NAME_WITH_TYPE, 1L);
+    }
+    Assert.assertEquals(fastRequestHedger.getHedgeDelayMs(TABLE_NAME_WITH_TYPE), 5L);
+  }
+
+  @Test
+  public void testBudget() {
+    RequestHedger requestHedger = new RequestHedger((table, segment) -> null, 90.0, 5L, 0.25);
+    Assert.assertFalse(requestHedger.tryAcquireBudget());
+    for (int i = 0; i < 4; i++) {
+      requestHedger.markRequestSent();
+    }
+    Assert.assertTrue(requestHedger.tryAcquireBudget());
+    Assert.assertFalse(requestHedger.tryAcquireBudget());
+  }
+
+  @Test
+  public void testAlternateServer() {
+    Map<String, List<String>> segmentToServersMap = new HashMap<>();
+    segmentToServersMap.put("segment_1", Arrays.asList(SERVER_1, SERVER_2, SERVER_3));
+    segmentToServersMap.put("segment_2", Arrays.asList(SERVER_1, SERVER_3));
+    RequestHedger requestHedger =
+        new RequestHedger((table, segment) -> segmentToServersMap.get(segment), 90.0, 5L, 0.1);
+    ServerLoadTracker serverLoadTracker = new ServerLoadTracker(1.0, 0L);
+
+    // Only SERVER_3 serves both segments besides SERVER_1
+    Assert.assertEquals(requestHedger.getAlternateServer(TABLE_NAME_WITH_TYPE, Arrays.asList("segment_1", "segment_2"),
+        Collections.singleton(SERVER_1), serverLoadTracker), SERVER_3);
+    Assert.assertNull(requestHedger.getAlternateServer(TABLE_NAME_WITH_TYPE, Arrays.asList("segment_1", "segment_2"),
+        new HashSet<>(Arrays.asList(SERVER_1, SERVER_3)), serverLoadTracker));
+    Assert.assertNull(requestHedger.getAlternateServer(TABLE_NAME_WITH_TYPE, Collections.singletonList("segment_3"),
+        Collections.singleton(SERVER_1), serverLoadTracker));
+
+    // Pick the least loaded server
+    serverLoadTracker.markRequestSubmitted(SERVER_2);
+    serverLoadTracker.markResponseReceived(SERVER_2, 100L);
+    Assert.assertEquals(requestHedger.getAlternateServer(TABLE_NAME_WITH_TYPE, Collections.singletonList("segment_1"),
+        Collections.singleton(SERVER_1), serverLoadTracker), SERVER_3);
+  }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.core.transport;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class ServerLoadTrackerTest {
+  private static final String SERVER_1 = "Server_localhost_12345";
+  private static final String SERVER_2 = "Server_localhost_12346";
+
+  @Test
+  public void testLoadTracking() {
+    // Disable decay to get deterministic latencies
+    ServerLoadTracker serverLoadTracker = new ServerLoadTracker(0.5, 0L);
+    Assert.assertEquals(serverLoadTracker.getLatencyMs(SERVER_1), 0.0);
+    Assert.assertEquals(serverLoadTracker.getNumInFlightRequests(SERVER_1), 0);
+    Assert.assertEquals(serverLoadTracker.getLoadScore(SERVER_1), 1.0);
+
+    serverLoadTracker.markRequestSubmitted(SERVER_1);
+    serverLoadTracker.markRequestSubmitted(SERVER_1);
+    Assert.assertEquals(serverLoadTracker.getNumInFlightRequests(SERVER_1), 2);
+
+    // First sample is used as is
+    serverLoadTracker.markResponseReceived(SERVER_1, 100L);
+    Assert.assertEquals(serverLoadTracker.getNumInFlightRequests(SERVER_1), 1);
+    Assert.assertEquals(serverLoadTracker.getLatencyMs(SERVER_1), 100.0);
+    Assert.assertEquals(serverLoadTracker.getLoadScore(SERVER_1), 101.0 * 2);
+
+    serverLoadTracker.markResponseReceived(SERVER_1, 20L);
+    Assert.assertEquals(serverLoadTracker.getNumInFlightRequests(SERVER_1), 0);
+    Assert.assertEquals(serverLoadTracker.getLatencyMs(SERVER_1), 60.0);
+    Assert.assertEquals(serverLoadTracker.getLoadScore(SERVER_1), 61.0);
+
+    // Other servers are not affected
+    Assert.assertEquals(serverLoadTracker.getLoadScore(SERVER_2), 1.0);
+  }
+
+  @Test
+  public void testLatencyDecay() throws Exception {
+    ServerLoadTracker serverLoadTracker = new ServerLoadTracker(0.5, 10L);
+    serverLoadTracker.markRequestSubmitted(SERVER_1);
+    serverLoadTracker.markResponseReceived(SERVER_1, 1000L);
+    Thread.sleep(100L);
+    Assert.assertTrue(serverLoadTracker.getLatencyMs(SERVER_1) < 10.0);
+  }
+}
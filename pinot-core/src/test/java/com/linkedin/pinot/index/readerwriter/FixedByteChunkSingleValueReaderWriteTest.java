@@ -52,12 +52,24 @@ public class FixedByteChunkSingleValueReaderWriteTest {
 
   @Test
   public void testWithCompression() throws Exception {
-    ChunkCompressorFactory.CompressionType compressionType = ChunkCompressorFactory.CompressionType.SNAPPY;
-    testInt(compressionType);
-    testLong(compressionType);
-    testFloat(compressionType);
-    testDouble(compressionType);
-    testBytes(compressionType);
+    for (ChunkCompressorFactory.CompressionType compressionType : new ChunkCompressorFactory.CompressionType[]{
+        ChunkCompressorFactory.CompressionType.SNAPPY, ChunkCompressorFactory.CompressionType.LZ4,
+        ChunkCompressorFactory.CompressionType.ZSTD}) {
+      testInt(compressionType);
+      testLong(compressionType);
+      testFloat(compressionType);
+      testDouble(compressionType);
+      testBytes(compressionType);
+    }
+  }
+
+  @Test
+  public void testWithNumericEncoding() throws Exception {
+    for (ChunkCompressorFactory.CompressionType compressionType : new ChunkCompressorFactory.CompressionType[]{
+        ChunkCompressorFactory.CompressionType.FRAME_OF_REFERENCE, ChunkCompressorFactory.CompressionType.DELTA}) {
+      testInt(compressionType);
+      testLong(compressionType);
+    }
   }
 
   @Test
@@ -45,6 +45,8 @@ public class VarByteChunkSingleValueReaderWriteTest {
   @Test
   public void testWithCompression() throws Exception {
     test(ChunkCompressorFactory.CompressionType.SNAPPY);
+    test(ChunkCompressorFactory.CompressionType.LZ4);
+    test(ChunkCompressorFactory.CompressionType.ZSTD);
   }
 
   @Test
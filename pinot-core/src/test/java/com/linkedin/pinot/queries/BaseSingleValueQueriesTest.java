@@ -26,6 +26,7 @@ import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegment;
 import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
 import com.linkedin.pinot.core.segment.creator.SegmentIndexCreationDriver;
 import com.linkedin.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import com.linkedin.pinot.core.segment.index.loader.IndexLoadingConfig;
 import java.io.File;
 import java.net.URL;
 import java.util.Arrays;
@@ -62,6 +63,8 @@ public abstract class BaseSingleValueQueriesTest extends BaseQueriesTest {
   private static final String AVRO_DATA = "data" + File.separator + "test_data-sv.avro";
   private static final String SEGMENT_NAME = "testTable_126164076_167572854";
   private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "SingleValueQueriesTest");
+  protected static final List<String> INVERTED_INDEX_COLUMNS =
+      Arrays.asList("column6", "column7", "column11", "column17", "column18");
 
   // Hard-coded query filter.
   private static final String QUERY_FILTER =
@@ -104,8 +107,7 @@ public abstract class BaseSingleValueQueriesTest extends BaseQueriesTest {
     segmentGeneratorConfig.setInputFilePath(filePath);
     segmentGeneratorConfig.setTableName("testTable");
     segmentGeneratorConfig.setOutDir(INDEX_DIR.getAbsolutePath());
-    segmentGeneratorConfig.setInvertedIndexCreationColumns(
-        Arrays.asList("column6", "column7", "column11", "column17", "column18"));
+    segmentGeneratorConfig.setInvertedIndexCreationColumns(INVERTED_INDEX_COLUMNS);
 
     // Build the index segment.
     SegmentIndexCreationDriver driver = new SegmentIndexCreationDriverImpl();
@@ -115,12 +117,23 @@ public abstract class BaseSingleValueQueriesTest extends BaseQueriesTest {
 
   @BeforeClass
   public void loadSegment() throws Exception {
-    ImmutableSegment immutableSegment = ImmutableSegmentLoader.load(new File(INDEX_DIR, SEGMENT_NAME), ReadMode.heap);
+    ImmutableSegment immutableSegment =
+        ImmutableSegmentLoader.load(new File(INDEX_DIR, SEGMENT_NAME), getIndexLoadingConfig());
     _indexSegment = immutableSegment;
     _segmentDataManagers =
         Arrays.asList(new ImmutableSegmentDataManager(immutableSegment), new ImmutableSegmentDataManager(immutableSegment));
   }
 
+  /**
+   * Returns the config to load the index segment. By default the inverted indexes are not loaded, and the filters on
+   * the inverted index columns are solved by scanning.
+   */
+  protected IndexLoadingConfig getIndexLoadingConfig() {
+    IndexLoadingConfig indexLoadingConfig = new IndexLoadingConfig();
+    indexLoadingConfig.setReadMode(ReadMode.heap);
+    return indexLoadingConfig;
+  }
+
   @AfterClass
   public void destroySegment() {
     _indexSegment.destroy();
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.queries;
+
+import com.linkedin.pinot.common.request.BrokerRequest;
+import com.linkedin.pinot.core.common.Operator;
+import com.linkedin.pinot.core.operator.ExecutionStatistics;
+import com.linkedin.pinot.core.operator.blocks.IntermediateResultsBlock;
+import com.linkedin.pinot.core.operator.query.AggregationOperator;
+import com.linkedin.pinot.core.operator.query.CompiledAggregationOperator;
+import com.linkedin.pinot.core.plan.maker.InstancePlanMakerImplV2;
+import com.linkedin.pinot.core.plan.maker.PlanMaker;
+import com.linkedin.pinot.core.query.aggregation.function.customobject.AvgPair;
+import com.linkedin.pinot.core.query.aggregation.function.customobject.MinMaxRangePair;
+import com.linkedin.pinot.core.segment.index.loader.IndexLoadingConfig;
+import com.linkedin.pinot.pql.parsers.Pql2Compiler;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * Tests that the aggregation only queries served by the generated aggregation kernels return the same results as the
+ * interpreted operators.
+ */
+public class CompiledAggregationQueriesTest extends BaseSingleValueQueriesTest {
+  private static final Pql2Compiler COMPILER = new Pql2Compiler();
+  private static final PlanMaker PLAN_MAKER = new InstancePlanMakerImplV2();
+  private static final String AGGREGATION =
+      " COUNT(*), SUM(column1), MAX(column3), MIN(column9), AVG(column1), MINMAXRANGE(column3)";
+  // Range predicates on column1 and column3, bitmap predicate on column12
+  private static final String FILTER = " WHERE column1 > 100000000 AND column3 BETWEEN 20000000 AND 1000000000"
+      + " AND (column9 < 500000000 OR column12 NOT IN ('t', 'P'))";
+
+  @Override
+  protected IndexLoadingConfig getIndexLoadingConfig() {
+    IndexLoadingConfig indexLoadingConfig = super.getIndexLoadingConfig();
+    indexLoadingConfig.setInvertedIndexColumns(new HashSet<>(INVERTED_INDEX_COLUMNS));
+    return indexLoadingConfig;
+  }
+
+  @Test
+  public void testAggregationOnly() {
+    String query = "SELECT" + AGGREGATION + " FROM testTable";
+    testCompiledAggregation(query);
+    testCompiledAggregation(query + FILTER);
+    testCompiledAggregation(query + " WHERE column12 IN ('doesNotExist')");
+  }
+
+  @Test
+  public void testFallbackToInterpretedOperators() {
+    // Predicate on inverted index column
+    String query = "SELECT" + AGGREGATION + " FROM testTable WHERE column6 > 500000000";
+    Assert.assertTrue(getOperator(query, true) instanceof AggregationOperator);
+
+    // Predicate on sorted column
+    query = "SELECT" + AGGREGATION + " FROM testTable WHERE column5 = 'gFuH'";
+    Assert.assertTrue(getOperator(query, true) instanceof AggregationOperator);
+
+    // Unsupported aggregation function
+    query = "SELECT DISTINCTCOUNTHLL(column1) FROM testTable" + FILTER;
+    Assert.assertTrue(getOperator(query, true) instanceof AggregationOperator);
+
+    // Disabled by debug option
+    query = "SELECT" + AGGREGATION + " FROM testTable" + FILTER;
+    Assert.assertTrue(getOperator(query, false) instanceof AggregationOperator);
+  }
+
+  private void testCompiledAggregation(String query) {
+    Operator compiledOperator = getOperator(query, true);
+    Assert.assertTrue(compiledOperator instanceof CompiledAggregationOperator);
+    Operator interpretedOperator = getOperator(query, false);
+    Assert.assertTrue(interpretedOperator instanceof AggregationOperator);
+
+    List<Object> compiledResults = ((IntermediateResultsBlock) compiledOperator.nextBlock()).getAggregationResult();
+    List<Object> interpretedResults =
+        ((IntermediateResultsBlock) interpretedOperator.nextBlock()).getAggregationResult();
+    int numFunctions = interpretedResults.size();
+    Assert.assertEquals(compiledResults.size(), numFunctions);
+    for (int i = 0; i < numFunctions; i++) {
+      Object compiledResult = compiledResults.get(i);
+      Object interpretedResult = interpretedResults.get(i);
+      if (interpretedResult instanceof AvgPair) {
+        Assert.assertEquals(((AvgPair) compiledResult).getSum(), ((AvgPair) interpretedResult).getSum());
+        Assert.assertEquals(((AvgPair) compiledResult).getCount(), ((AvgPair) interpretedResult).getCount());
+      } else if (interpretedResult instanceof MinMaxRangePair) {
+        MinMaxRangePair compiledMinMaxRangePair = (MinMaxRangePair) compiledResult;
+        MinMaxRangePair interpretedMinMaxRangePair = (MinMaxRangePair) interpretedResult;
+        Assert.assertEquals(compiledMinMaxRangePair.getMin(), interpretedMinMaxRangePair.getMin());
+        Assert.assertEquals(compiledMinMaxRangePair.getMax(), interpretedMinMaxRangePair.getMax());
+      } else {
+        Assert.assertEquals(compiledResult, interpretedResult);
+      }
+    }
+
+    ExecutionStatistics compiledStatistics = compiledOperator.getExecutionStatistics();
+    ExecutionStatistics interpretedStatistics = interpretedOperator.getExecutionStatistics();
+    Assert.assertEquals(compiledStatistics.getNumDocsScanned(), interpretedStatistics.getNumDocsScanned());
+    Assert.assertEquals(compiledStatistics.getNumTotalRawDocs(), interpretedStatistics.getNumTotalRawDocs());
+  }
+
+  private Operator getOperator(String query, boolean useCodegen) {
+    BrokerRequest brokerRequest = COMPILER.compileToBrokerRequest(query);
+    brokerRequest.setDebugOptions(
+        Collections.singletonMap(InstancePlanMakerImplV2.USE_CODEGEN_KEY, Boolean.toString(useCodegen)));
+    return PLAN_MAKER.makeInnerSegmentPlan(getIndexSegment(), brokerRequest).run();
+  }
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.queries;
+
+import com.clearspring.analytics.stream.cardinality.HyperLogLog;
+import com.linkedin.pinot.common.data.DimensionFieldSpec;
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.data.MetricFieldSpec;
+import com.linkedin.pinot.common.data.Schema;
+import com.linkedin.pinot.common.response.broker.AggregationResult;
+import com.linkedin.pinot.common.response.broker.BrokerResponseNative;
+import com.linkedin.pinot.common.response.broker.GroupByResult;
+import com.linkedin.pinot.common.segment.ReadMode;
+import com.linkedin.pinot.common.utils.primitive.ByteArray;
+import com.linkedin.pinot.core.common.ObjectSerDeUtils;
+import com.linkedin.pinot.core.data.GenericRow;
+import com.linkedin.pinot.core.data.manager.SegmentDataManager;
+import com.linkedin.pinot.core.data.manager.offline.ImmutableSegmentDataManager;
+import com.linkedin.pinot.core.data.readers.GenericRowRecordReader;
+import com.linkedin.pinot.core.data.readers.RecordReader;
+import com.linkedin.pinot.core.indexsegment.IndexSegment;
+import com.linkedin.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegment;
+import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import com.linkedin.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+/**
+ * Tests for DISTINCT_COUNT_HLL and DISTINCT_COUNT_RAW_HLL aggregation functions on pre-aggregated HyperLogLogs.
+ *
+ * <ul>
+ *   <li>Generates a segment with a BYTES column of serialized HyperLogLogs (with non-default log2m) and a group-by
+ *   column</li>
+ *   <li>Runs aggregation and group-by queries on the generated segment</li>
+ *   <li>Compares the results with the HyperLogLogs of all the values</li>
+ * </ul>
+ */
+public class PreAggregatedHLLQueriesTest extends BaseQueriesTest {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "PreAggregatedHLLQueriesTest");
+  private static final String TABLE_NAME = "testTable";
+  private static final String SEGMENT_NAME = "testSegment";
+
+  private static final int NUM_ROWS = 1000;
+  private static final int NUM_VALUES_PER_ROW = 10;
+  private static final int LOG2M = 12;
+  private static final String HLL_COLUMN = "hllColumn";
+  private static final String GROUP_BY_COLUMN = "groupByColumn";
+  private static final String[] GROUPS = new String[]{"G1", "G2", "G3"};
+  private static final long RANDOM_SEED = System.nanoTime();
+  private static final Random RANDOM = new Random(RANDOM_SEED);
+  private static final String ERROR_MESSAGE = "Random seed: " + RANDOM_SEED;
+
+  private final HyperLogLog _expectedHyperLogLog = new HyperLogLog(LOG2M);
+  private final Map<String, HyperLogLog> _expectedGroupHyperLogLogs = new HashMap<>();
+  private ImmutableSegment _indexSegment;
+  private List<SegmentDataManager> _segmentDataManagers;
+
+  @Override
+  protected String getFilter() {
+    return ""; // No filtering required for this test.
+  }
+
+  @Override
+  protected IndexSegment getIndexSegment() {
+    return _indexSegment;
+  }
+
+  @Override
+  protected List<SegmentDataManager> getSegmentDataManagers() {
+    return _segmentDataManagers;
+  }
+
+  @BeforeClass
+  public void setUp() throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+
+    buildSegment();
+    _indexSegment = ImmutableSegmentLoader.load(new File(INDEX_DIR, SEGMENT_NAME), ReadMode.mmap);
+    _segmentDataManagers =
+        Arrays.asList(new ImmutableSegmentDataManager(_indexSegment), new ImmutableSegmentDataManager(_indexSegment));
+  }
+
+  private void buildSegment() throws Exception {
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      HashMap<String, Object> valueMap = new HashMap<>();
+
+      String group = GROUPS[RANDOM.nextInt(GROUPS.length)];
+      valueMap.put(GROUP_BY_COLUMN, group);
+
+      HyperLogLog groupHyperLogLog = _expectedGroupHyperLogLogs.computeIfAbsent(group, k -> new HyperLogLog(LOG2M));
+      HyperLogLog hyperLogLog = new HyperLogLog(LOG2M);
+      for (int j = 0; j < NUM_VALUES_PER_ROW; j++) {
+        int value = RANDOM.nextInt(100000);
+        hyperLogLog.offer(value);
+        groupHyperLogLog.offer(value);
+        _expectedHyperLogLog.offer(value);
+      }
+      valueMap.put(HLL_COLUMN, ObjectSerDeUtils.HYPER_LOG_LOG_SER_DE.serialize(hyperLogLog));
+
+      GenericRow genericRow = new GenericRow();
+      genericRow.init(valueMap);
+      rows.add(genericRow);
+    }
+
+    Schema schema = new Schema();
+    schema.addField(new MetricFieldSpec(HLL_COLUMN, FieldSpec.DataType.BYTES));
+    schema.addField(new DimensionFieldSpec(GROUP_BY_COLUMN, FieldSpec.DataType.STRING, true));
+
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    config.setOutDir(INDEX_DIR.getPath());
+    config.setTableName(TABLE_NAME);
+    config.setSegmentName(SEGMENT_NAME);
+    config.setRawIndexCreationColumns(Collections.singletonList(HLL_COLUMN));
+
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    try (RecordReader recordReader = new GenericRowRecordReader(rows, schema)) {
+      driver.init(config, recordReader);
+      driver.build();
+    }
+  }
+
+  @Test
+  public void testInterSegmentAggregation() {
+    BrokerResponseNative brokerResponse = getBrokerResponseForQuery(getAggregationQuery());
+    List<AggregationResult> aggregationResults = brokerResponse.getAggregationResults();
+    Assert.assertNotNull(aggregationResults);
+    Assert.assertEquals(aggregationResults.size(), 2);
+    Assert.assertEquals(Long.parseLong((String) aggregationResults.get(0).getValue()),
+        _expectedHyperLogLog.cardinality(), ERROR_MESSAGE);
+    Assert.assertEquals(aggregationResults.get(1).getValue(), getHexString(_expectedHyperLogLog), ERROR_MESSAGE);
+  }
+
+  @Test
+  public void testInterSegmentGroupBy() {
+    BrokerResponseNative brokerResponse =
+        getBrokerResponseForQuery(String.format("%s GROUP BY %s", getAggregationQuery(), GROUP_BY_COLUMN));
+    List<AggregationResult> aggregationResults = brokerResponse.getAggregationResults();
+    Assert.assertNotNull(aggregationResults);
+    Assert.assertEquals(aggregationResults.size(), 2);
+    for (GroupByResult groupByResult : aggregationResults.get(0).getGroupByResult()) {
+      HyperLogLog expected = _expectedGroupHyperLogLogs.get(groupByResult.getGroup().get(0));
+      Assert.assertEquals(Long.parseLong((String) groupByResult.getValue()), expected.cardinality(), ERROR_MESSAGE);
+    }
+    for (GroupByResult groupByResult : aggregationResults.get(1).getGroupByResult()) {
+      HyperLogLog expected = _expectedGroupHyperLogLogs.get(groupByResult.getGroup().get(0));
+      Assert.assertEquals(groupByResult.getValue(), getHexString(expected), ERROR_MESSAGE);
+    }
+  }
+
+  private static String getAggregationQuery() {
+    return String.format("SELECT DISTINCTCOUNTHLL(%s), DISTINCTCOUNTRAWHLL(%s) FROM %s", HLL_COLUMN, HLL_COLUMN,
+        TABLE_NAME);
+  }
+
+  private static String getHexString(HyperLogLog hyperLogLog) {
+    return ByteArray.toHexString(ObjectSerDeUtils.HYPER_LOG_LOG_SER_DE.serialize(hyperLogLog));
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _indexSegment.destroy();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+}
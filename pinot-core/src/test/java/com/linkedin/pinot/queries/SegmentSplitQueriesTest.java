@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.queries;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.linkedin.pinot.common.request.BrokerRequest;
+import com.linkedin.pinot.common.response.broker.AggregationResult;
+import com.linkedin.pinot.common.response.broker.BrokerResponseNative;
+import com.linkedin.pinot.common.response.broker.GroupByResult;
+import com.linkedin.pinot.core.operator.blocks.IntermediateResultsBlock;
+import com.linkedin.pinot.core.operator.filter.BaseFilterOperator;
+import com.linkedin.pinot.core.operator.query.AggregationOperator;
+import com.linkedin.pinot.core.plan.AggregationPlanNode;
+import com.linkedin.pinot.core.plan.FilterPlanNode;
+import com.linkedin.pinot.core.plan.maker.InstancePlanMakerImplV2;
+import com.linkedin.pinot.core.plan.maker.PlanMaker;
+import com.linkedin.pinot.core.segment.index.loader.IndexLoadingConfig;
+import com.linkedin.pinot.pql.parsers.Pql2Compiler;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * Tests that the queries processed with segments split into document id ranges return the same results and execution
+ * statistics as the queries processed without splits.
+ */
+public class SegmentSplitQueriesTest extends BaseSingleValueQueriesTest {
+  private static final Pql2Compiler COMPILER = new Pql2Compiler();
+  // 2 segments with 8 threads, each segment is split into 4 ranges
+  private static final PlanMaker SPLIT_PLAN_MAKER = new InstancePlanMakerImplV2(8, 1000, false);
+  private static final PlanMaker NO_SPLIT_PLAN_MAKER = new InstancePlanMakerImplV2(1, 1000, false);
+  private static final String AGGREGATION = " COUNT(*), SUM(column1), MAX(column3), MIN(column17), AVG(column18)";
+
+  @Override
+  protected IndexLoadingConfig getIndexLoadingConfig() {
+    IndexLoadingConfig indexLoadingConfig = super.getIndexLoadingConfig();
+    indexLoadingConfig.setInvertedIndexColumns(new HashSet<>(INVERTED_INDEX_COLUMNS));
+    return indexLoadingConfig;
+  }
+
+  @Test
+  public void testDocIdRanges() {
+    BrokerRequest brokerRequest =
+        COMPILER.compileToBrokerRequest("SELECT COUNT(*) FROM testTable WHERE column11 NOT IN ('t', 'P')");
+    long expectedCount = getCount(new AggregationPlanNode(getIndexSegment(), brokerRequest));
+    int numDocs = getIndexSegment().getSegmentMetadata().getTotalDocs();
+    int middleDocId = numDocs / 2;
+    long count = getCount(new AggregationPlanNode(getIndexSegment(), brokerRequest, 0, middleDocId - 1))
+        + getCount(new AggregationPlanNode(getIndexSegment(), brokerRequest, middleDocId, Integer.MAX_VALUE));
+    Assert.assertEquals(count, expectedCount);
+    Assert.assertEquals(getCount(new AggregationPlanNode(getIndexSegment(), brokerRequest, numDocs, numDocs)), 0L);
+
+    // Share the filter bitmap across the ranges
+    BaseFilterOperator filterOperator = new FilterPlanNode(getIndexSegment(), brokerRequest).run();
+    Assert.assertTrue(filterOperator.canProduceBitmap());
+    Supplier<ImmutableRoaringBitmap> filterBitmapSupplier = Suppliers.memoize(filterOperator::getBitmap);
+    AggregationPlanNode firstPlanNode =
+        new AggregationPlanNode(getIndexSegment(), brokerRequest, 0, middleDocId - 1, filterBitmapSupplier);
+    AggregationPlanNode secondPlanNode =
+        new AggregationPlanNode(getIndexSegment(), brokerRequest, middleDocId, Integer.MAX_VALUE, filterBitmapSupplier);
+    count = getCount(firstPlanNode) + getCount(secondPlanNode);
+    Assert.assertEquals(count, expectedCount);
+  }
+
+  @Test
+  public void testAggregationOnly() {
+    String query = "SELECT" + AGGREGATION + " FROM testTable";
+    testSegmentSplit(query);
+    testSegmentSplit(query + getFilter());
+    // Filter fully answered by the inverted index, the filter bitmap is shared across the splits
+    testSegmentSplit(query + " WHERE column11 NOT IN ('t', 'P')");
+    testSegmentSplit(query + " WHERE column11 NOT IN ('t', 'P') AND column3 > 500000000");
+    testSegmentSplit(query + " WHERE column12 IN ('doesNotExist')");
+  }
+
+  @Test
+  public void testAggregationGroupBy() {
+    String query = "SELECT" + AGGREGATION + " FROM testTable";
+    testSegmentSplit(query + " GROUP BY column11 TOP 100");
+    testSegmentSplit(query + " WHERE column11 NOT IN ('t', 'P') GROUP BY column12 TOP 100");
+    testSegmentSplit(query + getFilter() + " GROUP BY column11, column12 TOP 100");
+    testSegmentSplit(query + " WHERE column11 NOT IN ('t', 'P') AND column3 > 500000000 GROUP BY column11 TOP 100");
+  }
+
+  private long getCount(AggregationPlanNode planNode) {
+    AggregationOperator operator = planNode.run();
+    IntermediateResultsBlock resultsBlock = operator.nextBlock();
+    return ((Number) resultsBlock.getAggregationResult().get(0)).longValue();
+  }
+
+  private void testSegmentSplit(String query) {
+    BrokerResponseNative splitResponse = getBrokerResponseForQuery(query, SPLIT_PLAN_MAKER);
+    BrokerResponseNative noSplitResponse = getBrokerResponseForQuery(query, NO_SPLIT_PLAN_MAKER);
+    Assert.assertEquals(splitResponse.getNumDocsScanned(), noSplitResponse.getNumDocsScanned());
+    Assert.assertEquals(splitResponse.getNumEntriesScannedPostFilter(),
+        noSplitResponse.getNumEntriesScannedPostFilter());
+    Assert.assertEquals(splitResponse.getTotalDocs(), noSplitResponse.getTotalDocs());
+    Assert.assertEquals(splitResponse.getNumSegmentsProcessed(), noSplitResponse.getNumSegmentsProcessed());
+    Assert.assertEquals(splitResponse.getNumSegmentsMatched(), noSplitResponse.getNumSegmentsMatched());
+
+    List<AggregationResult> splitResults = splitResponse.getAggregationResults();
+    List<AggregationResult> noSplitResults = noSplitResponse.getAggregationResults();
+    int numFunctions = noSplitResults.size();
+    Assert.assertEquals(splitResults.size(), numFunctions);
+    for (int i = 0; i < numFunctions; i++) {
+      AggregationResult splitResult = splitResults.get(i);
+      AggregationResult noSplitResult = noSplitResults.get(i);
+      Assert.assertEquals(splitResult.getFunction(), noSplitResult.getFunction());
+      Assert.assertEquals(splitResult.getValue(), noSplitResult.getValue());
+      if (noSplitResult.getGroupByResult() != null) {
+        // Compare as maps because the order of the groups with the same value is not deterministic
+        Assert.assertEquals(getGroupByResultMap(splitResult), getGroupByResultMap(noSplitResult));
+      }
+    }
+  }
+
+  private static Map<List<String>, Serializable> getGroupByResultMap(AggregationResult aggregationResult) {
+    Map<List<String>, Serializable> groupByResultMap = new HashMap<>();
+    for (GroupByResult groupByResult : aggregationResult.getGroupByResult()) {
+      groupByResultMap.put(groupByResult.getGroup(), groupByResult.getValue());
+    }
+    return groupByResultMap;
+  }
+}
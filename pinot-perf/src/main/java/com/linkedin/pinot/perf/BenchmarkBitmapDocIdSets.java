@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.perf;
+
+import com.linkedin.pinot.core.common.BlockDocIdIterator;
+import com.linkedin.pinot.core.common.Constants;
+import com.linkedin.pinot.core.operator.docidsets.AndBlockDocIdSet;
+import com.linkedin.pinot.core.operator.docidsets.BitmapDocIdSet;
+import com.linkedin.pinot.core.operator.docidsets.FilterBlockDocIdSet;
+import com.linkedin.pinot.core.operator.docidsets.OrBlockDocIdSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Benchmark for the bitmap based intersection and union in {@link AndBlockDocIdSet} and {@link OrBlockDocIdSet}.
+ * <p>Each predicate is simulated as an IN predicate with the given number of values on a column with inverted index,
+ * where the predicates have different selectivity.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkBitmapDocIdSets {
+  private static final int NUM_DOCS = 1_000_000;
+  private static final int CARDINALITY = 1000;
+  private static final long RANDOM_SEED = 1234567890L;
+
+  @Param({"2", "5", "10"})
+  public int numPredicates;
+
+  @Param({"1", "100"})
+  public int numValuesPerPredicate;
+
+  // Inverted index of each predicate column
+  private ImmutableRoaringBitmap[][] _invertedIndexes;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(RANDOM_SEED);
+    _invertedIndexes = new ImmutableRoaringBitmap[numPredicates][];
+    for (int i = 0; i < numPredicates; i++) {
+      // Skew the value distribution differently for each column
+      int skew = i + 1;
+      MutableRoaringBitmap[] invertedIndex = new MutableRoaringBitmap[CARDINALITY];
+      for (int j = 0; j < CARDINALITY; j++) {
+        invertedIndex[j] = new MutableRoaringBitmap();
+      }
+      for (int docId = 0; docId < NUM_DOCS; docId++) {
+        int dictId = (int) (Math.pow(random.nextDouble(), skew) * CARDINALITY);
+        invertedIndex[dictId].add(docId);
+      }
+      _invertedIndexes[i] = invertedIndex;
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int and() {
+    return iterate(new AndBlockDocIdSet(getDocIdSets()).iterator());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int or() {
+    return iterate(new OrBlockDocIdSet(getDocIdSets()).iterator());
+  }
+
+  private List<FilterBlockDocIdSet> getDocIdSets() {
+    List<FilterBlockDocIdSet> docIdSets = new ArrayList<>(numPredicates);
+    for (int i = 0; i < numPredicates; i++) {
+      ImmutableRoaringBitmap[] bitmaps = new ImmutableRoaringBitmap[numValuesPerPredicate];
+      for (int j = 0; j < numValuesPerPredicate; j++) {
+        bitmaps[j] = _invertedIndexes[i][j];
+      }
+      docIdSets.add(new BitmapDocIdSet(bitmaps, 0, NUM_DOCS - 1, false));
+    }
+    return docIdSets;
+  }
+
+  private static int iterate(BlockDocIdIterator iterator) {
+    int ret = 0;
+    int docId;
+    while ((docId = iterator.next()) != Constants.EOF) {
+      ret += docId;
+    }
+    return ret;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options opt = new OptionsBuilder().include(BenchmarkBitmapDocIdSets.class.getSimpleName())
+        .warmupTime(TimeValue.seconds(5))
+        .warmupIterations(2)
+        .measurementTime(TimeValue.seconds(5))
+        .measurementIterations(3)
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
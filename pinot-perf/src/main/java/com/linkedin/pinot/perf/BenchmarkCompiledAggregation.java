@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.perf;
+
+import com.linkedin.pinot.common.data.DimensionFieldSpec;
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.data.MetricFieldSpec;
+import com.linkedin.pinot.common.data.Schema;
+import com.linkedin.pinot.common.request.BrokerRequest;
+import com.linkedin.pinot.common.segment.ReadMode;
+import com.linkedin.pinot.core.data.GenericRow;
+import com.linkedin.pinot.core.data.readers.GenericRowRecordReader;
+import com.linkedin.pinot.core.indexsegment.IndexSegment;
+import com.linkedin.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import com.linkedin.pinot.core.operator.blocks.IntermediateResultsBlock;
+import com.linkedin.pinot.core.plan.maker.InstancePlanMakerImplV2;
+import com.linkedin.pinot.core.plan.maker.PlanMaker;
+import com.linkedin.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import com.linkedin.pinot.pql.parsers.Pql2Compiler;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+/**
+ * Benchmark for the inner segment execution of the aggregation only queries with the generated aggregation kernels
+ * versus the interpreted operators.
+ * <p>Unlike {@link BenchmarkQueryEngine} which sends the queries through the broker and the server, this benchmark
+ * plans and executes the query on a single segment, so that the difference between the execution engines is not
+ * hidden by the overhead of the query routing and the data table serialization.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkCompiledAggregation {
+  private static final String SEGMENT_NAME = "benchmarkSegment";
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkCompiledAggregation");
+  private static final int NUM_ROWS = 1_000_000;
+  private static final long RANDOM_SEED = 1234567890L;
+  private static final String[] DIMENSIONS = {"US", "CA", "MX", "UK", "FR", "DE", "IN", "CN", "JP", "BR"};
+
+  private static final String[] QUERIES = new String[]{
+      "SELECT SUM(metricInt), MAX(metricDouble) FROM myTable",
+      "SELECT COUNT(*), SUM(metricLong), AVG(metricDouble) FROM myTable WHERE dimInt BETWEEN 1000 AND 5000",
+      "SELECT SUM(metricInt), MINMAXRANGE(metricRaw) FROM myTable WHERE dimString IN ('US', 'UK', 'JP')"
+          + " AND (dimInt < 2000 OR dimInt > 8000)"
+  };
+
+  private static final Pql2Compiler COMPILER = new Pql2Compiler();
+  private static final PlanMaker PLAN_MAKER = new InstancePlanMakerImplV2();
+
+  @Param({"0", "1", "2"})
+  public int queryIndex;
+
+  @Param({"true", "false"})
+  public String useCodegen;
+
+  private IndexSegment _indexSegment;
+  private BrokerRequest _brokerRequest;
+
+  @Setup
+  public void setUp() throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+
+    Random random = new Random(RANDOM_SEED);
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Map<String, Object> map = new HashMap<>();
+      map.put("dimInt", random.nextInt(10000));
+      map.put("dimString", DIMENSIONS[random.nextInt(DIMENSIONS.length)]);
+      map.put("metricInt", random.nextInt(1000));
+      map.put("metricLong", random.nextLong());
+      map.put("metricDouble", random.nextDouble());
+      map.put("metricRaw", random.nextDouble());
+      GenericRow row = new GenericRow();
+      row.init(map);
+      rows.add(row);
+    }
+
+    Schema schema = new Schema();
+    schema.addField(new DimensionFieldSpec("dimInt", FieldSpec.DataType.INT, true));
+    schema.addField(new DimensionFieldSpec("dimString", FieldSpec.DataType.STRING, true));
+    schema.addField(new MetricFieldSpec("metricInt", FieldSpec.DataType.INT));
+    schema.addField(new MetricFieldSpec("metricLong", FieldSpec.DataType.LONG));
+    schema.addField(new MetricFieldSpec("metricDouble", FieldSpec.DataType.DOUBLE));
+    schema.addField(new MetricFieldSpec("metricRaw", FieldSpec.DataType.DOUBLE));
+
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    config.setOutDir(INDEX_DIR.getAbsolutePath());
+    config.setSegmentName(SEGMENT_NAME);
+    config.setRawIndexCreationColumns(Collections.singletonList("metricRaw"));
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(rows, schema));
+    driver.build();
+
+    _indexSegment = ImmutableSegmentLoader.load(new File(INDEX_DIR, SEGMENT_NAME), ReadMode.mmap);
+    _brokerRequest = COMPILER.compileToBrokerRequest(QUERIES[queryIndex]);
+    _brokerRequest.setDebugOptions(Collections.singletonMap(InstancePlanMakerImplV2.USE_CODEGEN_KEY, useCodegen));
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public IntermediateResultsBlock query() {
+    return (IntermediateResultsBlock) PLAN_MAKER.makeInnerSegmentPlan(_indexSegment, _brokerRequest).run().nextBlock();
+  }
+
+  @TearDown
+  public void tearDown() {
+    _indexSegment.destroy();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options opt = new OptionsBuilder().include(BenchmarkCompiledAggregation.class.getSimpleName())
+        .warmupTime(TimeValue.seconds(5))
+        .warmupIterations(2)
+        .measurementTime(TimeValue.seconds(5))
+        .measurementIterations(3)
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.perf;
+
+import com.clearspring.analytics.stream.cardinality.HyperLogLog;
+import com.linkedin.pinot.core.common.ObjectSerDeUtils;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+/**
+ * Benchmark for serializing the aggregation intermediate objects of a group-by result into the data table variable
+ * size data, comparing serializing into intermediate byte arrays with serializing directly into the data output.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkObjectSerDe {
+  private static final int NUM_GROUPS = 1000;
+  private static final int LOG2M = 8;
+
+  @Param({"10", "1000"})
+  private int _cardinality;
+
+  private IntSet[] _intSets;
+  private HyperLogLog[] _hyperLogLogs;
+  private final ByteArrayOutputStream _byteArrayOutputStream = new ByteArrayOutputStream();
+  private final DataOutputStream _dataOutputStream = new DataOutputStream(_byteArrayOutputStream);
+
+  @Setup
+  public void setUp() {
+    Random random = new Random();
+    _intSets = new IntSet[NUM_GROUPS];
+    _hyperLogLogs = new HyperLogLog[NUM_GROUPS];
+    for (int i = 0; i < NUM_GROUPS; i++) {
+      IntSet intSet = new IntOpenHashSet(_cardinality);
+      HyperLogLog hyperLogLog = new HyperLogLog(LOG2M);
+      for (int j = 0; j < _cardinality; j++) {
+        int value = random.nextInt();
+        intSet.add(value);
+        hyperLogLog.offer(value);
+      }
+      _intSets[i] = intSet;
+      _hyperLogLogs[i] = hyperLogLog;
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int serializeIntSetToByteArray() throws IOException {
+    return serializeToByteArray(_intSets, ObjectSerDeUtils.ObjectType.IntSet);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int serializeIntSetToDataOutput() throws IOException {
+    return serializeToDataOutput(_intSets, ObjectSerDeUtils.ObjectType.IntSet);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int serializeHyperLogLogToByteArray() throws IOException {
+    return serializeToByteArray(_hyperLogLogs, ObjectSerDeUtils.ObjectType.HyperLogLog);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int serializeHyperLogLogToDataOutput() throws IOException {
+    return serializeToDataOutput(_hyperLogLogs, ObjectSerDeUtils.ObjectType.HyperLogLog);
+  }
+
+  /**
+   * Returns the total size of the serialized objects.
+   */
+  private int serializeToByteArray(Object[] values, ObjectSerDeUtils.ObjectType objectType) throws IOException {
+    _byteArrayOutputStream.reset();
+    for (Object value : values) {
+      _byteArrayOutputStream.write(ObjectSerDeUtils.serialize(value, objectType));
+    }
+    return _byteArrayOutputStream.size();
+  }
+
+  /**
+   * Returns the total size of the serialized objects.
+   */
+  private int serializeToDataOutput(Object[] values, ObjectSerDeUtils.ObjectType objectType) throws IOException {
+    _byteArrayOutputStream.reset();
+    for (Object value : values) {
+      ObjectSerDeUtils.serialize(value, objectType.getValue(), _dataOutputStream);
+    }
+    return _byteArrayOutputStream.size();
+  }
+
+  public static void main(String[] args) throws Exception {
+    ChainedOptionsBuilder opt = new OptionsBuilder().include(BenchmarkObjectSerDe.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .warmupTime(TimeValue.seconds(10))
+        .warmupIterations(3)
+        .measurementTime(TimeValue.seconds(10))
+        .measurementIterations(5)
+        .forks(1);
+
+    new Runner(opt.build()).run();
+  }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.perf;
+
+import com.linkedin.pinot.common.data.DimensionFieldSpec;
+import com.linkedin.pinot.common.data.FieldSpec;
+import com.linkedin.pinot.common.data.Schema;
+import com.linkedin.pinot.common.data.TimeFieldSpec;
+import com.linkedin.pinot.common.request.transform.TransformExpressionTree;
+import com.linkedin.pinot.common.segment.ReadMode;
+import com.linkedin.pinot.core.common.DataSource;
+import com.linkedin.pinot.core.data.GenericRow;
+import com.linkedin.pinot.core.data.readers.GenericRowRecordReader;
+import com.linkedin.pinot.core.indexsegment.IndexSegment;
+import com.linkedin.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import com.linkedin.pinot.core.operator.DocIdSetOperator;
+import com.linkedin.pinot.core.operator.ProjectionOperator;
+import com.linkedin.pinot.core.operator.blocks.ProjectionBlock;
+import com.linkedin.pinot.core.operator.filter.MatchAllFilterOperator;
+import com.linkedin.pinot.core.operator.transform.function.TransformFunction;
+import com.linkedin.pinot.core.operator.transform.function.TransformFunctionFactory;
+import com.linkedin.pinot.core.plan.DocIdSetPlanNode;
+import com.linkedin.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+/**
+ * Benchmark for the throughput of the transform functions on a full projection block.
+ * <p>The column values of the block are cached after the first evaluation, so the benchmark measures the transform
+ * function itself rather than the forward index reads.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkTransformFunctions {
+  private static final String SEGMENT_NAME = "benchmarkSegment";
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkTransformFunctions");
+  private static final int NUM_ROWS = DocIdSetPlanNode.MAX_DOC_PER_CALL;
+  private static final long RANDOM_SEED = 1234567890L;
+
+  @Param({
+      "add(intSV,longSV)", "div(doubleSV,intSV)", "abs(intSV)", "sqrt(doubleSV)", "ln(doubleSV)",
+      "upper(stringSV)", "substr(stringSV,2,5)", "concat(stringSV,'-',intSV)",
+      "jsonExtractScalar(json,'$.nested.value','DOUBLE')", "greater_than(doubleSV,0.5)",
+      "case(greater_than(doubleSV,0.5),intSV,less_than(doubleSV,0.2),longSV,0)", "cast(doubleSV,'LONG')",
+      "dateTrunc('day',time)", "dateTrunc('month',time)", "timeConvert(time,'MILLISECONDS','HOURS')"
+  })
+  public String expression;
+
+  private IndexSegment _indexSegment;
+  private ProjectionBlock _projectionBlock;
+  private TransformFunction _transformFunction;
+
+  @Setup
+  public void setUp() throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+
+    Random random = new Random(RANDOM_SEED);
+    long currentTimeMs = System.currentTimeMillis();
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Map<String, Object> map = new HashMap<>();
+      map.put("intSV", random.nextInt());
+      map.put("longSV", random.nextLong());
+      map.put("doubleSV", random.nextDouble());
+      map.put("stringSV", Double.toString(random.nextDouble()));
+      map.put("json", String.format("{\"id\":%d,\"nested\":{\"value\":%f}}", i, random.nextDouble()));
+      map.put("time", currentTimeMs - random.nextInt(365 * 24 * 3600) * 1000L);
+      GenericRow row = new GenericRow();
+      row.init(map);
+      rows.add(row);
+    }
+
+    Schema schema = new Schema();
+    schema.addField(new DimensionFieldSpec("intSV", FieldSpec.DataType.INT, true));
+    schema.addField(new DimensionFieldSpec("longSV", FieldSpec.DataType.LONG, true));
+    schema.addField(new DimensionFieldSpec("doubleSV", FieldSpec.DataType.DOUBLE, true));
+    schema.addField(new DimensionFieldSpec("stringSV", FieldSpec.DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec("json", FieldSpec.DataType.STRING, true));
+    schema.addField(new TimeFieldSpec("time", FieldSpec.DataType.LONG, TimeUnit.MILLISECONDS));
+
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    config.setOutDir(INDEX_DIR.getAbsolutePath());
+    config.setSegmentName(SEGMENT_NAME);
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(rows, schema));
+    driver.build();
+
+    _indexSegment = ImmutableSegmentLoader.load(new File(INDEX_DIR, SEGMENT_NAME), ReadMode.heap);
+    Map<String, DataSource> dataSourceMap = new HashMap<>();
+    for (String column : _indexSegment.getPhysicalColumnNames()) {
+      dataSourceMap.put(column, _indexSegment.getDataSource(column));
+    }
+    _projectionBlock = new ProjectionOperator(dataSourceMap,
+        new DocIdSetOperator(new MatchAllFilterOperator(NUM_ROWS), DocIdSetPlanNode.MAX_DOC_PER_CALL)).nextBlock();
+    _transformFunction =
+        TransformFunctionFactory.get(TransformExpressionTree.compileToExpressionTree(expression), dataSourceMap);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public Object transform() {
+    switch (_transformFunction.getResultMetadata().getDataType()) {
+      case INT:
+        return _transformFunction.transformToIntValuesSV(_projectionBlock);
+      case LONG:
+        return _transformFunction.transformToLongValuesSV(_projectionBlock);
+      case FLOAT:
+        return _transformFunction.transformToFloatValuesSV(_projectionBlock);
+      case DOUBLE:
+        return _transformFunction.transformToDoubleValuesSV(_projectionBlock);
+      case STRING:
+        return _transformFunction.transformToStringValuesSV(_projectionBlock);
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    _indexSegment.destroy();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options opt = new OptionsBuilder().include(BenchmarkTransformFunctions.class.getSimpleName())
+        .warmupTime(TimeValue.seconds(5))
+        .warmupIterations(2)
+        .measurementTime(TimeValue.seconds(5))
+        .measurementIterations(3)
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -25,6 +25,7 @@ import com.linkedin.pinot.core.data.readers.GenericRowRecordReader;
 import com.linkedin.pinot.core.indexsegment.IndexSegment;
 import com.linkedin.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
 import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import com.linkedin.pinot.core.io.compression.ChunkCompressorFactory;
 import com.linkedin.pinot.core.operator.DocIdSetOperator;
 import com.linkedin.pinot.core.operator.ProjectionOperator;
 import com.linkedin.pinot.core.operator.blocks.ProjectionBlock;
@@ -37,6 +38,7 @@ import com.linkedin.pinot.core.segment.creator.impl.V1Constants;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -52,6 +54,8 @@ import org.kohsuke.args4j.Option;
  * Class to perform benchmark on lookups for dictionary encoded fwd index v.s. raw index without dictionary.
  * It can take an existing segment with two columns to compare. It can also create a segment on the fly with a
  * given input file containing strings (one string per line).
+ * <p>The compression type of the raw index can be specified to compare the compression ratio and the decompression
+ * throughput of the chunk compressors.
  */
 @SuppressWarnings({"FieldCanBeLocal", "unused"})
 public class RawIndexBenchmark {
@@ -77,6 +81,10 @@ public class RawIndexBenchmark {
       "-segmentDir"}, usage = "File containing input data (one string per line)")
   private String _dataFile = null;
 
+  @Option(name = "-compressionType", required = false, forbids = {
+      "-segmentDir"}, usage = "Compression type for the raw index (PASS_THROUGH|SNAPPY|LZ4|ZSTD)")
+  private String _compressionType = ChunkCompressorFactory.CompressionType.SNAPPY.name();
+
   @Option(name = "-loadMode", required = false, usage = "Load mode for data (mmap|heap")
   private String _loadMode = "heap";
 
@@ -90,6 +98,7 @@ public class RawIndexBenchmark {
   private boolean _help = false;
 
   private int _numRows = 0;
+  private long _numUncompressedBytes = 0;
 
   public void run() throws Exception {
     if (_segmentDir == null && _dataFile == null) {
@@ -126,6 +135,8 @@ public class RawIndexBenchmark {
 
     SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
     config.setRawIndexCreationColumns(Collections.singletonList(_rawIndexColumn));
+    config.setRawIndexCompressionType(Collections.singletonMap(_rawIndexColumn,
+        ChunkCompressorFactory.CompressionType.valueOf(_compressionType)));
 
     config.setOutDir(SEGMENT_DIR_NAME);
     config.setSegmentName(SEGMENT_NAME);
@@ -147,6 +158,7 @@ public class RawIndexBenchmark {
       genericRow.init(map);
       rows.add(genericRow);
       _numRows++;
+      _numUncompressedBytes += value.getBytes(StandardCharsets.UTF_8).length;
 
       if (_numRows % 1000000 == 0) {
         System.out.println("Read rows: " + _numRows);
@@ -183,6 +195,10 @@ public class RawIndexBenchmark {
     System.out.println("Raw index size: " + toMegaBytes(rawIndexSize) + " MB.");
     System.out.println("Fwd index size: " + toMegaBytes(fwdIndexSize) + " MB.");
     System.out.println("Storage space saving: " + ((fwdIndexSize - rawIndexSize) * 100.0 / fwdIndexSize) + " %");
+    if (_numUncompressedBytes > 0) {
+      System.out.println(
+          "Raw index compression ratio (" + _compressionType + "): " + (double) _numUncompressedBytes / rawIndexSize);
+    }
   }
 
   /**
@@ -199,6 +215,9 @@ public class RawIndexBenchmark {
     System.out.println("Raw index lookup time: " + rawIndexTime);
     System.out.println("Fwd index lookup time: " + fwdIndexTime);
     System.out.println("Percentage change: " + ((fwdIndexTime - rawIndexTime) * 100.0 / rawIndexTime) + " %");
+    int numDocs = filteredDocIds.length;
+    System.out.println("Raw index lookup throughput: " + numDocs / Math.max(rawIndexTime, 1) + " docs/ms");
+    System.out.println("Fwd index lookup throughput: " + numDocs / Math.max(fwdIndexTime, 1) + " docs/ms");
   }
 
   /**
@@ -18,10 +18,13 @@ package com.linkedin.pinot.server.request;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.linkedin.pinot.common.exception.QueryException;
 import com.linkedin.pinot.common.metrics.ServerMeter;
 import com.linkedin.pinot.common.metrics.ServerMetrics;
 import com.linkedin.pinot.common.metrics.ServerQueryPhase;
 import com.linkedin.pinot.common.request.InstanceRequest;
+import com.linkedin.pinot.common.utils.DataTable;
+import com.linkedin.pinot.core.common.datatable.DataTableImplV2;
 import com.linkedin.pinot.core.query.request.ServerQueryRequest;
 import com.linkedin.pinot.core.query.scheduler.QueryScheduler;
 import com.linkedin.pinot.serde.SerDe;
@@ -29,7 +32,12 @@ import com.linkedin.pinot.transport.netty.NettyServer;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import java.net.InetSocketAddress;
+import javax.annotation.Nullable;
 import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TField;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TType;
+import org.apache.thrift.transport.TMemoryInputTransport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,7 +71,7 @@ public class ScheduledRequestHandler implements NettyServer.RequestHandler {
       LOGGER.error("Failed to deserialize query request from broker ip: {}",
           ((InetSocketAddress) channelHandlerContext.channel().remoteAddress()).getAddress().getHostAddress());
       serverMetrics.addMeteredGlobalValue(ServerMeter.REQUEST_DESERIALIZATION_EXCEPTIONS, 1);
-      return Futures.immediateFuture(null);
+      return Futures.immediateFuture(getDeserializationErrorResponse(byteArray));
     }
 
     ServerQueryRequest queryRequest = new ServerQueryRequest(instanceRequest, serverMetrics, queryArrivalTimeMs);
@@ -75,6 +83,49 @@ public class ScheduledRequestHandler implements NettyServer.RequestHandler {
     return queryScheduler.submit(queryRequest);
   }
 
+  /**
+   * Returns an error response stamped with the request id if it can be recovered from the serialized request, so that
+   * the broker can fail the request right away (multiplexed connections cannot correlate a response without request id
+   * to its request), or {@code null} if the request id cannot be recovered.
+   */
+  @Nullable
+  private static byte[] getDeserializationErrorResponse(byte[] requestBytes) {
+    Long requestId = extractRequestId(requestBytes);
+    if (requestId == null) {
+      return null;
+    }
+    DataTable dataTable = new DataTableImplV2();
+    dataTable.getMetadata().put(DataTable.REQUEST_ID_METADATA_KEY, Long.toString(requestId));
+    dataTable.addException(
+        QueryException.getException(QueryException.INTERNAL_ERROR, "Failed to deserialize query request"));
+    try {
+      return dataTable.toBytes();
+    } catch (Exception e) {
+      LOGGER.error("Caught exception while serializing error response for requestId: {}", requestId, e);
+      return null;
+    }
+  }
+
+  /**
+   * Reads the request id, which is the first field of the {@link InstanceRequest} serialized with
+   * {@link TCompactProtocol}, without de-serializing the rest of the request. Returns {@code null} if the request id
+   * cannot be read.
+   */
+  @Nullable
+  static Long extractRequestId(byte[] requestBytes) {
+    try {
+      TProtocol protocol = new TCompactProtocol(new TMemoryInputTransport(requestBytes));
+      protocol.readStructBegin();
+      TField field = protocol.readFieldBegin();
+      if (field.id == 1 && field.type == TType.I64) {
+        return protocol.readI64();
+      }
+    } catch (Exception e) {
+      // Fall through
+    }
+    return null;
+  }
+
   public void setScheduler(QueryScheduler scheduler) {
     Preconditions.checkNotNull(scheduler);
     LOGGER.info("Setting scheduler to {}", scheduler.name());
@@ -87,6 +87,11 @@ public class HelixInstanceDataManagerConfig implements InstanceDataManagerConfig
   //
   private static final String MAX_PARALLEL_REFRESH_THREADS = "max.parallel.refresh.threads";
 
+  // Maximum number of segments that can be loaded (converted, pre-processed and memory mapped) in parallel on each
+  // disk. Segments of all tables are loaded in parallel by the state transition threads, this bounds the random I/Os
+  // on each disk during server restart. A value of <= 0 indicates unlimited.
+  private static final String MAX_PARALLEL_SEGMENT_LOADS_PER_DISK = "max.parallel.segment.loads.per.disk";
+
   private final static String[] REQUIRED_KEYS = { INSTANCE_ID, INSTANCE_DATA_DIR, READ_MODE };
   private Configuration _instanceDataManagerConfiguration = null;
 
@@ -182,6 +187,11 @@ public class HelixInstanceDataManagerConfig implements InstanceDataManagerConfig
     return _instanceDataManagerConfiguration.getInt(MAX_PARALLEL_SEGMENT_BUILDS, 0);
   }
 
+  @Override
+  public int getMaxParallelSegmentLoadsPerDisk() {
+    return _instanceDataManagerConfiguration.getInt(MAX_PARALLEL_SEGMENT_LOADS_PER_DISK, 0);
+  }
+
   @Override
   public String toString() {
     String configString = "";
@@ -28,6 +28,8 @@ import com.linkedin.pinot.common.utils.NetUtil;
 import com.linkedin.pinot.common.utils.ServiceStatus;
 import com.linkedin.pinot.common.utils.ServiceStatus.Status;
 import com.linkedin.pinot.core.data.manager.InstanceDataManager;
+import com.linkedin.pinot.core.io.reader.impl.ChunkCache;
+import com.linkedin.pinot.core.operator.filter.FilterBitmapCache;
 import com.linkedin.pinot.core.segment.memory.PinotDataBuffer;
 import com.linkedin.pinot.filesystem.PinotFSFactory;
 import com.linkedin.pinot.server.conf.ServerConf;
@@ -63,7 +65,6 @@ import org.apache.helix.model.LiveInstance;
 import org.apache.helix.model.Message;
 import org.apache.helix.model.builder.HelixConfigScopeBuilder;
 import org.apache.helix.participant.StateMachineEngine;
-import org.apache.helix.participant.statemachine.StateModelFactory;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -90,6 +91,7 @@ public class HelixServerStarter {
   private final ServerInstance _serverInstance;
   private final AdminApiApplication _adminApiApplication;
   private final String _zkServers;
+  private final SegmentOnlineOfflineStateModelFactory _stateModelFactory;
 
   public HelixServerStarter(String helixClusterName, String zkServer, Configuration helixServerConfig)
       throws Exception {
@@ -137,6 +139,13 @@ public class HelixServerStarter {
     addInstanceTagIfNeeded(helixClusterName, _instanceId);
     ZkHelixPropertyStore<ZNRecord> propertyStore = _helixManager.getHelixPropertyStore();
 
+    // Need to do this before loading any segment
+    ChunkCache.init(_helixServerConfig.getLong(CommonConstants.Server.CONFIG_OF_CHUNK_CACHE_MAX_SIZE_IN_BYTES,
+        CommonConstants.Server.DEFAULT_CHUNK_CACHE_MAX_SIZE_IN_BYTES));
+    FilterBitmapCache.init(
+        _helixServerConfig.getLong(CommonConstants.Server.CONFIG_OF_FILTER_BITMAP_CACHE_MAX_SIZE_IN_BYTES,
+            CommonConstants.Server.DEFAULT_FILTER_BITMAP_CACHE_MAX_SIZE_IN_BYTES));
+
     LOGGER.info("Starting server instance");
     Utils.logVersions();
     ServerConf serverInstanceConfig = DefaultHelixStarterServerConfig.getDefaultHelixServerConfig(_helixServerConfig);
@@ -150,11 +159,14 @@ public class HelixServerStarter {
     // Register state model factory
     SegmentFetcherAndLoader fetcherAndLoader =
         new SegmentFetcherAndLoader(_helixServerConfig, _serverInstance.getInstanceDataManager(), propertyStore);
-    StateModelFactory<?> stateModelFactory =
+    int stateTransitionThreadPoolSize =
+        _helixServerConfig.getInt(CommonConstants.Server.CONFIG_OF_STATE_TRANSITION_THREAD_POOL_SIZE,
+            CommonConstants.Server.DEFAULT_STATE_TRANSITION_THREAD_POOL_SIZE);
+    _stateModelFactory =
         new SegmentOnlineOfflineStateModelFactory(_instanceId, _serverInstance.getInstanceDataManager(),
-            fetcherAndLoader, propertyStore);
+            fetcherAndLoader, propertyStore, stateTransitionThreadPoolSize);
     stateMachineEngine.registerStateModelFactory(SegmentOnlineOfflineStateModelFactory.getStateModelName(),
-        stateModelFactory);
+        _stateModelFactory);
 
     // Start restlet server for admin API endpoint
     int adminApiPort = _helixServerConfig.getInt(CommonConstants.Server.CONFIG_OF_ADMIN_API_PORT,
@@ -184,6 +196,7 @@ public class HelixServerStarter {
     ControllerLeaderLocator.create(_helixManager);
 
     waitForAllSegmentsLoaded();
+    preloadSegments(propertyStore, serverMetrics);
     setShuttingDownStatus(false);
     LOGGER.info("Pinot server ready");
 
@@ -193,10 +206,30 @@ public class HelixServerStarter {
     serverMetrics.addCallbackGauge("memory.mmapBufferCount", PinotDataBuffer::getMmapBufferCount);
     serverMetrics.addCallbackGauge("memory.mmapBufferUsage", PinotDataBuffer::getMmapBufferUsage);
     serverMetrics.addCallbackGauge("memory.allocationFailureCount", PinotDataBuffer::getAllocationFailureCount);
+
+    // Create metrics for the decompressed chunk cache
+    serverMetrics.addCallbackGauge("chunkCache.hitCount", ChunkCache::getHitCount);
+    serverMetrics.addCallbackGauge("chunkCache.missCount", ChunkCache::getMissCount);
+    serverMetrics.addCallbackGauge("chunkCache.evictionCount", ChunkCache::getEvictionCount);
+    serverMetrics.addCallbackGauge("chunkCache.sizeInBytes", ChunkCache::getSizeInBytes);
+
+    // Create metrics for the filter bitmap cache
+    serverMetrics.addCallbackGauge("filterBitmapCache.hitCount", FilterBitmapCache::getHitCount);
+    serverMetrics.addCallbackGauge("filterBitmapCache.missCount", FilterBitmapCache::getMissCount);
+    serverMetrics.addCallbackGauge("filterBitmapCache.evictionCount", FilterBitmapCache::getEvictionCount);
+    serverMetrics.addCallbackGauge("filterBitmapCache.sizeInBytes", FilterBitmapCache::getSizeInBytes);
   }
 
   private void waitForAllSegmentsLoaded() {
-    if (_helixServerConfig.getBoolean(CommonConstants.Server.CONFIG_OF_STARTER_ENABLE_SEGMENTS_LOADING_CHECK, CommonConstants.Server.DEFAULT_STARTER_ENABLE_SEGMENTS_LOADING_CHECK)) {
+    // Preloading only covers the segments already loaded, so also wait for the segments to be loaded when preload is
+    // enabled
+    boolean segmentsLoadingCheckEnabled =
+        _helixServerConfig.getBoolean(CommonConstants.Server.CONFIG_OF_STARTER_ENABLE_SEGMENTS_LOADING_CHECK,
+            CommonConstants.Server.DEFAULT_STARTER_ENABLE_SEGMENTS_LOADING_CHECK);
+    boolean segmentsPreloadEnabled =
+        _helixServerConfig.getBoolean(CommonConstants.Server.CONFIG_OF_STARTER_ENABLE_SEGMENTS_PRELOAD,
+            CommonConstants.Server.DEFAULT_STARTER_ENABLE_SEGMENTS_PRELOAD);
+    if (segmentsLoadingCheckEnabled || segmentsPreloadEnabled) {
       long startTime = System.currentTimeMillis();
       int serverStarterTimeout = _helixServerConfig.getInt(CommonConstants.Server.CONFIG_OF_STARTER_TIMEOUT_IN_SECONDS, CommonConstants.Server.DEFAULT_STARTER_TIMEOUT_IN_SECONDS);
       long endTime = startTime + TimeUnit.SECONDS.toMillis(serverStarterTimeout);
@@ -227,6 +260,29 @@ public class HelixServerStarter {
     }
   }
 
+  /**
+   * Preloads the loaded segments into memory before the instance is marked as not shutting down (and thus becomes
+   * routable by the brokers).
+   */
+  private void preloadSegments(ZkHelixPropertyStore<ZNRecord> propertyStore, ServerMetrics serverMetrics) {
+    if (!_helixServerConfig.getBoolean(CommonConstants.Server.CONFIG_OF_STARTER_ENABLE_SEGMENTS_PRELOAD,
+        CommonConstants.Server.DEFAULT_STARTER_ENABLE_SEGMENTS_PRELOAD)) {
+      return;
+    }
+    int parallelism = _helixServerConfig.getInt(CommonConstants.Server.CONFIG_OF_STARTER_SEGMENTS_PRELOAD_PARALLELISM,
+        CommonConstants.Server.DEFAULT_STARTER_SEGMENTS_PRELOAD_PARALLELISM);
+    long maxNumBytes = _helixServerConfig.getLong(CommonConstants.Server.CONFIG_OF_STARTER_SEGMENTS_PRELOAD_MAX_BYTES,
+        CommonConstants.Server.DEFAULT_STARTER_SEGMENTS_PRELOAD_MAX_BYTES);
+    SegmentPreloader segmentPreloader =
+        new SegmentPreloader(_serverInstance.getInstanceDataManager(), propertyStore, serverMetrics, parallelism,
+            maxNumBytes);
+    try {
+      segmentPreloader.preload();
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while preloading segments, continuing with server start", e);
+    }
+  }
+
   private int getNumSegmentLoaded() {
     InstanceDataManager instanceDataManager = _serverInstance.getInstanceDataManager();
     if (instanceDataManager == null) {
@@ -350,6 +406,7 @@ public class HelixServerStarter {
     }
     waitUntilNoIncomingQueries(System.currentTimeMillis(), endTime);
     _helixManager.disconnect();
+    _stateModelFactory.shutDown();
     _serverInstance.shutDown();
     waitUntilNoOnlineResources(System.currentTimeMillis(), endTime);
   }
@@ -22,13 +22,17 @@ import com.linkedin.pinot.common.metadata.ZKMetadataProvider;
 import com.linkedin.pinot.common.metadata.segment.RealtimeSegmentZKMetadata;
 import com.linkedin.pinot.common.utils.CommonConstants.Helix.TableType;
 import com.linkedin.pinot.common.utils.LLCSegmentName;
+import com.linkedin.pinot.common.utils.NamedThreadFactory;
 import com.linkedin.pinot.common.utils.SegmentName;
 import com.linkedin.pinot.core.data.manager.InstanceDataManager;
 import com.linkedin.pinot.core.data.manager.SegmentDataManager;
 import com.linkedin.pinot.core.data.manager.TableDataManager;
 import com.linkedin.pinot.core.data.manager.realtime.LLRealtimeSegmentDataManager;
 import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.locks.Lock;
+import javax.annotation.Nullable;
 import org.apache.commons.io.FileUtils;
 import org.apache.helix.NotificationContext;
 import org.apache.helix.ZNRecord;
@@ -53,13 +57,30 @@ public class SegmentOnlineOfflineStateModelFactory extends StateModelFactory<Sta
   private final InstanceDataManager _instanceDataManager;
   private final SegmentFetcherAndLoader _fetcherAndLoader;
   private final ZkHelixPropertyStore<ZNRecord> _propertyStore;
+  private final ExecutorService _stateTransitionExecutorService;
 
   public SegmentOnlineOfflineStateModelFactory(String instanceId, InstanceDataManager instanceDataManager,
       SegmentFetcherAndLoader fetcherAndLoader, ZkHelixPropertyStore<ZNRecord> propertyStore) {
+    this(instanceId, instanceDataManager, fetcherAndLoader, propertyStore, 0);
+  }
+
+  /**
+   * @param stateTransitionThreadPoolSize Number of threads shared by the state transitions of all tables, non-positive
+   *                                      value means using the default Helix thread pool
+   */
+  public SegmentOnlineOfflineStateModelFactory(String instanceId, InstanceDataManager instanceDataManager,
+      SegmentFetcherAndLoader fetcherAndLoader, ZkHelixPropertyStore<ZNRecord> propertyStore,
+      int stateTransitionThreadPoolSize) {
     _instanceId = instanceId;
     _instanceDataManager = instanceDataManager;
     _fetcherAndLoader = fetcherAndLoader;
     _propertyStore = propertyStore;
+    if (stateTransitionThreadPoolSize > 0) {
+      _stateTransitionExecutorService = Executors.newFixedThreadPool(stateTransitionThreadPoolSize,
+          new NamedThreadFactory("segment-state-transition"));
+    } else {
+      _stateTransitionExecutorService = null;
+    }
   }
 
   public static String getStateModelName() {
@@ -71,6 +92,25 @@ public class SegmentOnlineOfflineStateModelFactory extends StateModelFactory<Sta
     return new SegmentOnlineOfflineStateModel();
   }
 
+  /**
+   * Returns the thread pool used to execute the state transitions of the given table, or <code>null</code> to use the
+   * default Helix thread pool.
+   * <p>Segment loading (conversion, pre-processing and memory mapping) happens in the state transition threads, so the
+   * size of this thread pool bounds the number of segments loaded in parallel across all tables. Per-disk limits are
+   * enforced separately by the {@link com.linkedin.pinot.core.data.manager.SegmentLoadThrottler}.
+   */
+  @Nullable
+  @Override
+  public ExecutorService getExecutorService(String resourceName) {
+    return _stateTransitionExecutorService;
+  }
+
+  public void shutDown() {
+    if (_stateTransitionExecutorService != null) {
+      _stateTransitionExecutorService.shutdown();
+    }
+  }
+
   // Helix seems to need StateModelInfo annotation for 'initialState'. It does not use the 'states' field.
   // The transitions in the helix messages indicate the from/to states, and helix uses the
   // Transition annotations (but only if StateModelInfo is defined).
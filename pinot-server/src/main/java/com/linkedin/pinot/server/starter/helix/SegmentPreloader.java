@@ -0,0 +1,199 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.server.starter.helix;
+
+import com.linkedin.pinot.common.config.IndexingConfig;
+import com.linkedin.pinot.common.config.TableConfig;
+import com.linkedin.pinot.common.metadata.ZKMetadataProvider;
+import com.linkedin.pinot.common.metrics.ServerGauge;
+import com.linkedin.pinot.common.metrics.ServerMetrics;
+import com.linkedin.pinot.common.segment.SegmentMetadata;
+import com.linkedin.pinot.common.utils.NamedThreadFactory;
+import com.linkedin.pinot.core.data.manager.InstanceDataManager;
+import com.linkedin.pinot.core.data.manager.SegmentDataManager;
+import com.linkedin.pinot.core.data.manager.TableDataManager;
+import com.linkedin.pinot.core.indexsegment.IndexSegment;
+import com.linkedin.pinot.core.indexsegment.immutable.ImmutableSegment;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.helix.ZNRecord;
+import org.apache.helix.store.zk.ZkHelixPropertyStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>SegmentPreloader</code> class warms up the immutable segments served by the instance before the instance
+ * starts receiving queries, so that the first queries after a restart do not suffer from page faults on memory mapped
+ * indexes.
+ * <p>Segments are preloaded in parallel. Within a segment, the columns that are most likely to be queried are
+ * preloaded first: sorted columns, inverted index columns and bloom filter columns from the table config, then the
+ * time column, then the remaining columns. The total number of bytes preloaded is bounded so that preloading does not
+ * evict pages that were already preloaded.
+ * <p>The progress is reported through the {@link ServerGauge#SEGMENTS_TO_PRELOAD},
+ * {@link ServerGauge#SEGMENTS_PRELOADED} and {@link ServerGauge#BYTES_PRELOADED} gauges.
+ */
+public class SegmentPreloader {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SegmentPreloader.class);
+
+  private final InstanceDataManager _instanceDataManager;
+  private final ZkHelixPropertyStore<ZNRecord> _propertyStore;
+  private final ServerMetrics _serverMetrics;
+  private final int _parallelism;
+  private final long _maxNumBytes;
+
+  private final AtomicInteger _numSegmentsToPreload = new AtomicInteger();
+  private final AtomicInteger _numSegmentsPreloaded = new AtomicInteger();
+  private final AtomicLong _numBytesPreloaded = new AtomicLong();
+
+  public SegmentPreloader(@Nonnull InstanceDataManager instanceDataManager,
+      @Nonnull ZkHelixPropertyStore<ZNRecord> propertyStore, @Nonnull ServerMetrics serverMetrics, int parallelism,
+      long maxNumBytes) {
+    _instanceDataManager = instanceDataManager;
+    _propertyStore = propertyStore;
+    _serverMetrics = serverMetrics;
+    _parallelism = Math.max(parallelism, 1);
+    _maxNumBytes = maxNumBytes;
+  }
+
+  /**
+   * Preloads all the immutable segments currently served by the instance. Blocks until all segments are preloaded.
+   */
+  public void preload() {
+    long startTime = System.currentTimeMillis();
+    ExecutorService executorService =
+        Executors.newFixedThreadPool(_parallelism, new NamedThreadFactory("segment-preloader"));
+    List<Future> futures = new ArrayList<>();
+    List<TableDataManager> tableDataManagers = new ArrayList<>();
+    List<List<SegmentDataManager>> acquiredSegments = new ArrayList<>();
+    try {
+      for (String tableNameWithType : _instanceDataManager.getAllTables()) {
+        TableDataManager tableDataManager = _instanceDataManager.getTableDataManager(tableNameWithType);
+        if (tableDataManager == null) {
+          continue;
+        }
+        List<SegmentDataManager> segmentDataManagers = tableDataManager.acquireAllSegments();
+        tableDataManagers.add(tableDataManager);
+        acquiredSegments.add(segmentDataManagers);
+
+        TableConfig tableConfig = ZKMetadataProvider.getTableConfig(_propertyStore, tableNameWithType);
+        for (SegmentDataManager segmentDataManager : segmentDataManagers) {
+          IndexSegment segment = segmentDataManager.getSegment();
+          if (!(segment instanceof ImmutableSegment)) {
+            continue;
+          }
+          _numSegmentsToPreload.getAndIncrement();
+          List<String> columns = getColumnsInPriorityOrder(segment, tableConfig);
+          futures.add(executorService.submit(() -> preloadSegment((ImmutableSegment) segment, columns)));
+        }
+      }
+      _serverMetrics.setValueOfGlobalGauge(ServerGauge.SEGMENTS_TO_PRELOAD, _numSegmentsToPreload.get());
+      LOGGER.info("Preloading {} segments with parallelism: {}, max bytes: {}", _numSegmentsToPreload.get(),
+          _parallelism, _maxNumBytes);
+
+      for (Future future : futures) {
+        try {
+          future.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          LOGGER.warn("Interrupted while preloading segments");
+          return;
+        } catch (Exception e) {
+          LOGGER.warn("Caught exception while preloading segment", e);
+        }
+      }
+    } finally {
+      executorService.shutdownNow();
+      for (int i = 0; i < tableDataManagers.size(); i++) {
+        TableDataManager tableDataManager = tableDataManagers.get(i);
+        for (SegmentDataManager segmentDataManager : acquiredSegments.get(i)) {
+          tableDataManager.releaseSegment(segmentDataManager);
+        }
+      }
+    }
+    LOGGER.info("Preloaded {} segments ({} bytes) in {}ms", _numSegmentsPreloaded.get(), _numBytesPreloaded.get(),
+        System.currentTimeMillis() - startTime);
+  }
+
+  private void preloadSegment(ImmutableSegment segment, List<String> columns) {
+    if (_numBytesPreloaded.get() < _maxNumBytes) {
+      segment.prefetch(columns, this::reserveBytes);
+    }
+    int numSegmentsPreloaded = _numSegmentsPreloaded.incrementAndGet();
+    _serverMetrics.setValueOfGlobalGauge(ServerGauge.SEGMENTS_PRELOADED, numSegmentsPreloaded);
+    _serverMetrics.setValueOfGlobalGauge(ServerGauge.BYTES_PRELOADED, _numBytesPreloaded.get());
+    if (numSegmentsPreloaded % 100 == 0) {
+      LOGGER.info("Segments preloading progress: [ {} / {} ], {} bytes preloaded", numSegmentsPreloaded,
+          _numSegmentsToPreload.get(), _numBytesPreloaded.get());
+    }
+  }
+
+  /**
+   * Reserves the given number of bytes in the budget shared by the segments preloaded in parallel, so that parallel
+   * preloads never exceed the budget. Returns false without reserving anything if the budget would be exceeded.
+   */
+  private boolean reserveBytes(long numBytes) {
+    if (_numBytesPreloaded.addAndGet(numBytes) > _maxNumBytes) {
+      _numBytesPreloaded.addAndGet(-numBytes);
+      return false;
+    }
+    return true;
+  }
+
+  private static List<String> getColumnsInPriorityOrder(IndexSegment segment, @Nullable TableConfig tableConfig) {
+    Set<String> columns = new LinkedHashSet<>();
+    if (tableConfig != null) {
+      IndexingConfig indexingConfig = tableConfig.getIndexingConfig();
+      addAll(columns, indexingConfig.getSortedColumn());
+      addAll(columns, indexingConfig.getInvertedIndexColumns());
+      addAll(columns, indexingConfig.getBloomFilterColumns());
+    }
+    SegmentMetadata segmentMetadata = segment.getSegmentMetadata();
+    String timeColumn = segmentMetadata.getTimeColumn();
+    if (timeColumn != null) {
+      columns.add(timeColumn);
+    }
+    columns.addAll(segment.getPhysicalColumnNames());
+    return new ArrayList<>(columns);
+  }
+
+  private static void addAll(Set<String> columns, @Nullable List<String> columnsToAdd) {
+    if (columnsToAdd != null) {
+      columns.addAll(columnsToAdd);
+    }
+  }
+
+  public int getNumSegmentsToPreload() {
+    return _numSegmentsToPreload.get();
+  }
+
+  public int getNumSegmentsPreloaded() {
+    return _numSegmentsPreloaded.get();
+  }
+
+  public long getNumBytesPreloaded() {
+    return _numBytesPreloaded.get();
+  }
+}
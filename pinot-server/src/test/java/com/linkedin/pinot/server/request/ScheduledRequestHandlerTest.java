@@ -94,6 +94,21 @@ public class ScheduledRequestHandlerTest {
     Assert.assertNull(responseBytes);
   }
 
+  @Test
+  public void testTruncatedRequest() throws Exception {
+    ScheduledRequestHandler handler = new ScheduledRequestHandler(queryScheduler, serverMetrics);
+    byte[] requestData = new SerDe(new TCompactProtocol.Factory()).serialize(getInstanceRequest());
+    byte[] truncatedRequestData = Arrays.copyOf(requestData, requestData.length / 2);
+    ListenableFuture<byte[]> response =
+        handler.processRequest(channelHandlerContext, Unpooled.wrappedBuffer(truncatedRequestData));
+    // The request id is recovered, so an error response with the request id is returned right away
+    Assert.assertTrue(response.isDone());
+    DataTable dataTable = DataTableFactory.getDataTable(response.get());
+    Assert.assertEquals(dataTable.getMetadata().get(DataTable.REQUEST_ID_METADATA_KEY), "1");
+    Assert.assertTrue(dataTable.getMetadata()
+        .containsKey(DataTable.EXCEPTION_METADATA_KEY + QueryException.INTERNAL_ERROR_CODE));
+  }
+
   private InstanceRequest getInstanceRequest() {
     InstanceRequest request = new InstanceRequest();
     request.setRequestId(1);
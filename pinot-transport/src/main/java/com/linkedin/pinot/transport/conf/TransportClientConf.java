@@ -16,6 +16,7 @@
 package com.linkedin.pinot.transport.conf;
 
 import com.linkedin.pinot.transport.config.ConnectionPoolConfig;
+import com.linkedin.pinot.transport.config.MultiplexedConnectionConfig;
 import com.linkedin.pinot.transport.config.RoutingTableConfig;
 import org.apache.commons.configuration.Configuration;
 
@@ -31,6 +32,7 @@ public class TransportClientConf {
   public static final String CFG_BASED_ROUTING = "routing";
   public static final String HELIX_CONFIG = "helix";
   public static final String CONNECTION_POOL_CONFIG = "connPool";
+  public static final String MULTIPLEXED_CONNECTION_CONFIG = "multiplexedConn";
 
   // TODO: Revisit defaults
   private static final String DEFAULT_ROUTING_MODE = "CONFIG";
@@ -38,11 +40,13 @@ public class TransportClientConf {
   private RoutingMode _routingMode;
   private RoutingTableConfig _cfgBasedRouting;
   private ConnectionPoolConfig _connPool;
+  private MultiplexedConnectionConfig _multiplexedConn;
 
   public TransportClientConf() {
     _routingMode = RoutingMode.valueOf(DEFAULT_ROUTING_MODE);
     _cfgBasedRouting = new RoutingTableConfig();
     _connPool = new ConnectionPoolConfig();
+    _multiplexedConn = new MultiplexedConnectionConfig();
   }
 
   public void init(Configuration cfg) {
@@ -57,6 +61,11 @@ public class TransportClientConf {
     if (connPoolCfg != null) {
       _connPool.init(connPoolCfg);
     }
+
+    Configuration multiplexedConnCfg = cfg.subset(MULTIPLEXED_CONNECTION_CONFIG);
+    if (multiplexedConnCfg != null) {
+      _multiplexedConn.init(multiplexedConnCfg);
+    }
   }
 
   public RoutingMode getRoutingMode() {
@@ -70,4 +79,8 @@ public class TransportClientConf {
   public ConnectionPoolConfig getConnPool() {
     return _connPool;
   }
+
+  public MultiplexedConnectionConfig getMultiplexedConn() {
+    return _multiplexedConn;
+  }
 }
@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.transport.config;
+
+import org.apache.commons.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Config for the multiplexed connections, where the in-flight requests to a server share a single connection instead
+ * of checking out a pooled connection per request.
+ * <p>NOTE: a response without request id (e.g. the empty response sent by the server when it fails to process a
+ * request and cannot recover its request id) cannot be correlated to its request, so it fails all the requests in
+ * flight on the same connection and closes the connection. Such responses are counted in the
+ * {@code Unidentifiable-Responses} client metric.
+ */
+public class MultiplexedConnectionConfig {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MultiplexedConnectionConfig.class);
+
+  // Whether to send the requests on multiplexed connections instead of pooled connections
+  public static final String ENABLED_KEY = "enabled";
+
+  // Maximum number of in-flight requests on the connection to each server before requests start getting rejected
+  public static final String MAX_IN_FLIGHT_REQUESTS_PER_SERVER_KEY = "maxInFlightRequestsPerServer";
+
+  private static final boolean DEFAULT_ENABLED = false;
+  private static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS_PER_SERVER = 1000;
+
+  private boolean _enabled;
+  private int _maxInFlightRequestsPerServer;
+
+  public MultiplexedConnectionConfig() {
+    _enabled = DEFAULT_ENABLED;
+    _maxInFlightRequestsPerServer = DEFAULT_MAX_IN_FLIGHT_REQUESTS_PER_SERVER;
+  }
+
+  public void init(Configuration cfg) {
+    if (cfg.containsKey(ENABLED_KEY)) {
+      _enabled = cfg.getBoolean(ENABLED_KEY);
+    }
+
+    if (cfg.containsKey(MAX_IN_FLIGHT_REQUESTS_PER_SERVER_KEY)) {
+      _maxInFlightRequestsPerServer = cfg.getInt(MAX_IN_FLIGHT_REQUESTS_PER_SERVER_KEY);
+    }
+
+    if (_maxInFlightRequestsPerServer <= 0) {
+      LOGGER.warn("Invalid value for " + MAX_IN_FLIGHT_REQUESTS_PER_SERVER_KEY + "({}). Resetting to default.",
+          _maxInFlightRequestsPerServer);
+      _maxInFlightRequestsPerServer = DEFAULT_MAX_IN_FLIGHT_REQUESTS_PER_SERVER;
+    }
+
+    LOGGER.info(toString());
+  }
+
+  @Override
+  public String toString() {
+    return "enabled = " + _enabled + ", maxInFlightRequestsPerServer = " + _maxInFlightRequestsPerServer;
+  }
+
+  public boolean isEnabled() {
+    return _enabled;
+  }
+
+  public int getMaxInFlightRequestsPerServer() {
+    return _maxInFlightRequestsPerServer;
+  }
+}
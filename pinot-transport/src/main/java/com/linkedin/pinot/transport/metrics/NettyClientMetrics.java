@@ -33,6 +33,9 @@ public class NettyClientMetrics implements TransportClientMetrics {
   public static final String ERRORS = "errors";
   public static final String SEND_REQUEST_MS = "Send-Request-MS";
   public static final String RESPONSE_LATENCY_MS = "Latency-MS";
+  public static final String IN_FLIGHT_REQUESTS = "In-Flight-Requests";
+  public static final String REQUESTS_REJECTED = "Requests-Rejected";
+  public static final String UNIDENTIFIABLE_RESPONSES = "Unidentifiable-Responses";
 
   // Number of Requests Sent
   private final Counter _requestsSent;
@@ -52,6 +55,16 @@ public class NettyClientMetrics implements TransportClientMetrics {
   // Response Latency Ms
   private final Histogram _responseLatencyMsHistogram;
 
+  // Number of requests sent on multiplexed connections and waiting for response
+  private final Counter _inFlightRequests;
+
+  // Number of requests rejected because of too many in-flight requests on the multiplexed connection
+  private final Counter _requestsRejected;
+
+  // Number of responses without request id on the multiplexed connection, each of them fails all the requests pending
+  // on the connection
+  private final Counter _unidentifiableResponses;
+
   // Connect Time (MS)
   private final Gauge<Long> _connectMsGauge;
   private long _connectMs;
@@ -64,6 +77,10 @@ public class NettyClientMetrics implements TransportClientMetrics {
     _sendRequestMsHistogram = MetricsHelper.newHistogram(registry, new MetricName(group, "", SEND_REQUEST_MS), false);
     _responseLatencyMsHistogram =
         MetricsHelper.newHistogram(registry, new MetricName(group, "", RESPONSE_LATENCY_MS), false);
+    _inFlightRequests = MetricsHelper.newCounter(registry, new MetricName(group, "", IN_FLIGHT_REQUESTS));
+    _requestsRejected = MetricsHelper.newCounter(registry, new MetricName(group, "", REQUESTS_REJECTED));
+    _unidentifiableResponses =
+        MetricsHelper.newCounter(registry, new MetricName(group, "", UNIDENTIFIABLE_RESPONSES));
     _connectMsGauge = MetricsHelper.newGauge(registry, new MetricName(group, "", CONNECT_TIME), new ConnectMsGauge());
   }
 
@@ -84,6 +101,18 @@ public class NettyClientMetrics implements TransportClientMetrics {
     _connectMs = connectMs;
   }
 
+  public void addInFlightRequests(long numRequests) {
+    _inFlightRequests.inc(numRequests);
+  }
+
+  public void addRejectedRequest() {
+    _requestsRejected.inc();
+  }
+
+  public void addUnidentifiableResponse() {
+    _unidentifiableResponses.inc();
+  }
+
   public Counter getRequestsSent() {
     return _requestsSent;
   }
@@ -108,12 +137,26 @@ public class NettyClientMetrics implements TransportClientMetrics {
     return _responseLatencyMsHistogram;
   }
 
+  public Counter getInFlightRequests() {
+    return _inFlightRequests;
+  }
+
+  public Counter getRequestsRejected() {
+    return _requestsRejected;
+  }
+
+  public Counter getUnidentifiableResponses() {
+    return _unidentifiableResponses;
+  }
+
   @Override
   public String toString() {
     return "NettyClientMetric [_requestsSent=" + _requestsSent.count() + ", _bytesSent=" + _bytesSent.count()
         + ", _bytesReceived=" + _bytesReceived.count() + ", _errors=" + _errors.count() + ", _sendRequestMsGauge="
         + _sendRequestMsHistogram.count() + ", _responseLatencyMsGauge=" + _responseLatencyMsHistogram.count()
-        + ", _connectMsGauge=" + _connectMsGauge.value() + "]";
+        + ", _inFlightRequests=" + _inFlightRequests.count() + ", _requestsRejected=" + _requestsRejected.count()
+        + ", _unidentifiableResponses=" + _unidentifiableResponses.count() + ", _connectMsGauge="
+        + _connectMsGauge.value() + "]";
   }
 
   private class ConnectMsGauge extends Gauge<Long> {
@@ -0,0 +1,351 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.transport.netty;
+
+import com.linkedin.pinot.common.metrics.MetricsHelper;
+import com.linkedin.pinot.common.metrics.MetricsHelper.TimerContext;
+import com.linkedin.pinot.common.response.ServerInstance;
+import com.linkedin.pinot.transport.metrics.NettyClientMetrics;
+import com.linkedin.pinot.transport.netty.NettyClientConnection.ResponseFuture;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The {@code MultiplexedNettyClient} class sends requests to the servers on multiplexed connections.
+ * <p>Unlike the pooled {@link NettyTCPClientConnection} which allows only one outstanding request per connection, all
+ * the in-flight requests to a server share a single channel. Requests are pipelined on the channel, and the responses
+ * (which can arrive in any order) are correlated to the requests by the request id extracted from the response with
+ * the {@link ResponseRequestIdExtractor}. The request and response format is the same as the pooled connection (length
+ * prepended payload), so no change is required on the server side.
+ * <p>The OFFLINE and REALTIME requests of a query share the same request id, so they are sent on separate channels.
+ * <p>The number of in-flight requests per channel is bounded, and requests exceeding the bound are rejected right away
+ * instead of piling up on the server.
+ * <p>A response without a request id (e.g. the empty response sent by the server on unhandled errors) fails all the
+ * requests pending on its channel and closes the channel, because it cannot be correlated to one request.
+ */
+@ThreadSafe
+public class MultiplexedNettyClient {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MultiplexedNettyClient.class);
+
+  private final EventLoopGroup _eventLoopGroup;
+  private final Timer _timer;
+  private final NettyClientMetrics _clientMetrics;
+  private final ResponseRequestIdExtractor _requestIdExtractor;
+  private final int _maxInFlightRequestsPerServer;
+  private final ConcurrentHashMap<ChannelKey, MultiplexedChannel> _channelMap = new ConcurrentHashMap<>();
+
+  public MultiplexedNettyClient(EventLoopGroup eventLoopGroup, Timer timer, NettyClientMetrics clientMetrics,
+      ResponseRequestIdExtractor requestIdExtractor, int maxInFlightRequestsPerServer) {
+    _eventLoopGroup = eventLoopGroup;
+    _timer = timer;
+    _clientMetrics = clientMetrics;
+    _requestIdExtractor = requestIdExtractor;
+    _maxInFlightRequestsPerServer = maxInFlightRequestsPerServer;
+  }
+
+  /**
+   * API to send a request asynchronously. Connects to the server if there is no active channel to the server.
+   *
+   * @param server Server to send the request to
+   * @param isOfflineTable Whether the request targets an OFFLINE table, null if unknown
+   * @param serializedRequest Serialized payload of the request
+   * @param requestId Request id, which must be unique among the in-flight requests to the server
+   * @param timeoutMs Timeout in milliseconds
+   * @return Future to return the response returned from the server
+   */
+  public ResponseFuture sendRequest(ServerInstance server, @Nullable Boolean isOfflineTable,
+      ByteBuf serializedRequest, long requestId, long timeoutMs) {
+    return _channelMap.computeIfAbsent(new ChannelKey(server, isOfflineTable), MultiplexedChannel::new)
+        .sendRequest(serializedRequest, requestId, timeoutMs);
+  }
+
+  /**
+   * Returns the number of in-flight requests on all the channels.
+   */
+  public int getNumInFlightRequests() {
+    int numInFlightRequests = 0;
+    for (MultiplexedChannel channel : _channelMap.values()) {
+      numInFlightRequests += channel._numInFlightRequests.get();
+    }
+    return numInFlightRequests;
+  }
+
+  public void shutDown() {
+    for (MultiplexedChannel channel : _channelMap.values()) {
+      channel.close();
+    }
+    _channelMap.clear();
+  }
+
+  private static class ChannelKey {
+    final ServerInstance _server;
+    final Boolean _isOfflineTable;
+
+    ChannelKey(ServerInstance server, @Nullable Boolean isOfflineTable) {
+      _server = server;
+      _isOfflineTable = isOfflineTable;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ChannelKey)) {
+        return false;
+      }
+      ChannelKey that = (ChannelKey) o;
+      return _server.equals(that._server) && Objects.equals(_isOfflineTable, that._isOfflineTable);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * _server.hashCode() + Objects.hashCode(_isOfflineTable);
+    }
+  }
+
+  private static class PendingRequest {
+    final ResponseFuture _responseFuture;
+    final Channel _channel;
+    final long _requestSizeInBytes;
+    final TimerContext _sendRequestLatency;
+    final TimerContext _responseLatency;
+    volatile Timeout _timeout;
+
+    PendingRequest(ResponseFuture responseFuture, Channel channel, long requestSizeInBytes) {
+      _responseFuture = responseFuture;
+      _channel = channel;
+      _requestSizeInBytes = requestSizeInBytes;
+      _sendRequestLatency = MetricsHelper.startTimer();
+      _responseLatency = MetricsHelper.startTimer();
+    }
+  }
+
+  @ThreadSafe
+  private class MultiplexedChannel {
+    final ServerInstance _server;
+    final Bootstrap _bootstrap;
+    final ConcurrentHashMap<Long, PendingRequest> _pendingRequests = new ConcurrentHashMap<>();
+    final AtomicInteger _numInFlightRequests = new AtomicInteger();
+    Channel _channel;
+
+    MultiplexedChannel(ChannelKey channelKey) {
+      _server = channelKey._server;
+      _bootstrap = new Bootstrap().remoteAddress(_server.getHostname(), _server.getPort())
+          .group(_eventLoopGroup)
+          .channel(NioSocketChannel.class)
+          .option(ChannelOption.SO_KEEPALIVE, true)
+          .handler(new ChannelInitializer<SocketChannel>() {
+            @Override
+            protected void initChannel(SocketChannel ch) {
+              ch.pipeline()
+                  .addLast(new LengthFieldBasedFrameDecoder(Integer.MAX_VALUE, 0, 4, 0, 4),
+                      new LengthFieldPrepender(4), new ResponseHandler());
+            }
+          });
+    }
+
+    ResponseFuture sendRequest(ByteBuf serializedRequest, long requestId, long timeoutMs) {
+      String ctxt = "Server response future for reqId " + requestId + " to server " + _server;
+
+      // Backpressure: reject the request right away if there are too many in-flight requests to the server
+      if (_numInFlightRequests.incrementAndGet() > _maxInFlightRequestsPerServer) {
+        _numInFlightRequests.decrementAndGet();
+        serializedRequest.release();
+        _clientMetrics.addRejectedRequest();
+        return new ResponseFuture(_server, new IllegalStateException(
+            "Too many in-flight requests (" + _maxInFlightRequestsPerServer + ") to server " + _server), ctxt);
+      }
+
+      Channel channel;
+      try {
+        channel = getChannel();
+      } catch (Exception e) {
+        _numInFlightRequests.decrementAndGet();
+        serializedRequest.release();
+        LOGGER.warn("Failed to connect to server {}: {}", _server, e.getMessage());
+        return new ResponseFuture(_server, e, ctxt);
+      }
+
+      ResponseFuture responseFuture = new ResponseFuture(_server, ctxt);
+      PendingRequest pendingRequest =
+          new PendingRequest(responseFuture, channel, serializedRequest.readableBytes());
+      if (_pendingRequests.putIfAbsent(requestId, pendingRequest) != null) {
+        _numInFlightRequests.decrementAndGet();
+        serializedRequest.release();
+        return new ResponseFuture(_server,
+            new IllegalStateException("Request " + requestId + " is already in-flight to server " + _server), ctxt);
+      }
+      _clientMetrics.addInFlightRequests(1);
+      responseFuture.setCancellable(() -> completeRequest(requestId, pendingRequest) != null);
+
+      // Start the timer before sending the request so that both request writing and response waiting are bounded
+      pendingRequest._timeout = _timer.newTimeout(timeout -> {
+        PendingRequest timedOutRequest = completeRequest(requestId, pendingRequest);
+        if (timedOutRequest != null) {
+          LOGGER.warn("Request ({}) to server {} timed-out waiting for response", requestId, _server);
+          failRequest(timedOutRequest,
+              new TimeoutException("Request (" + requestId + ") to server " + _server + " timed-out"));
+        }
+      }, timeoutMs, TimeUnit.MILLISECONDS);
+
+      channel.writeAndFlush(serializedRequest).addListener(future -> {
+        pendingRequest._sendRequestLatency.stop();
+        if (!future.isSuccess()) {
+          PendingRequest failedRequest = completeRequest(requestId, pendingRequest);
+          if (failedRequest != null) {
+            LOGGER.warn("Failed to send request ({}) to server {}", requestId, _server, future.cause());
+            failRequest(failedRequest, future.cause());
+          }
+        }
+      });
+      return responseFuture;
+    }
+
+    synchronized Channel getChannel() throws Exception {
+      if (_channel == null || !_channel.isActive()) {
+        TimerContext timerContext = MetricsHelper.startTimer();
+        _channel = _bootstrap.connect().sync().channel();
+        timerContext.stop();
+        _clientMetrics.addConnectStats(timerContext.getLatencyMs());
+      }
+      return _channel;
+    }
+
+    synchronized void close() {
+      if (_channel != null) {
+        _channel.close();
+        _channel = null;
+      }
+    }
+
+    /**
+     * Removes the pending request if it is still pending. Only the caller which gets the pending request returned
+     * should complete its future.
+     */
+    @Nullable
+    PendingRequest completeRequest(long requestId, PendingRequest pendingRequest) {
+      if (!_pendingRequests.remove(requestId, pendingRequest)) {
+        return null;
+      }
+      Timeout timeout = pendingRequest._timeout;
+      if (timeout != null) {
+        timeout.cancel();
+      }
+      pendingRequest._responseLatency.stop();
+      _numInFlightRequests.decrementAndGet();
+      _clientMetrics.addInFlightRequests(-1);
+      return pendingRequest;
+    }
+
+    void failRequest(PendingRequest pendingRequest, Throwable error) {
+      _clientMetrics.addRequestResponseStats(pendingRequest._requestSizeInBytes, 1, 0, true,
+          pendingRequest._sendRequestLatency.getLatencyMs(), pendingRequest._responseLatency.getLatencyMs());
+      pendingRequest._responseFuture.onError(error);
+    }
+
+    /**
+     * Fails all the pending requests sent on the given channel, called when the channel is closed or broken.
+     */
+    void failAllRequests(Channel channel, Throwable error) {
+      for (Map.Entry<Long, PendingRequest> entry : _pendingRequests.entrySet()) {
+        if (entry.getValue()._channel == channel) {
+          PendingRequest pendingRequest = completeRequest(entry.getKey(), entry.getValue());
+          if (pendingRequest != null) {
+            failRequest(pendingRequest, error);
+          }
+        }
+      }
+    }
+
+    /**
+     * Channel handler for the responses, one instance per channel.
+     */
+    private class ResponseHandler extends ChannelInboundHandlerAdapter {
+      @Override
+      public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        ByteBuf responseByteBuf = (ByteBuf) msg;
+        byte[] responseBytes;
+        try {
+          responseBytes = new byte[responseByteBuf.readableBytes()];
+          responseByteBuf.readBytes(responseBytes);
+        } finally {
+          responseByteBuf.release();
+        }
+
+        long requestId;
+        try {
+          requestId = _requestIdExtractor.getRequestId(responseBytes);
+        } catch (Exception e) {
+          // The response cannot be correlated to a request (e.g. empty response returned by the server when it fails
+          // to process a request), so fail all the requests pending on the channel right away instead of letting one
+          // of them wait for the timeout. Close the channel first so that the later requests use a new channel
+          LOGGER.warn("Failed to extract request id from the response of {} bytes from server {}, closing the channel",
+              responseBytes.length, _server, e);
+          _clientMetrics.addUnidentifiableResponse();
+          ctx.close();
+          failAllRequests(ctx.channel(),
+              new Exception("Received unidentifiable response from server " + _server + ": " + e.getMessage()));
+          return;
+        }
+        PendingRequest pendingRequest = _pendingRequests.get(requestId);
+        if (pendingRequest == null || completeRequest(requestId, pendingRequest) == null) {
+          LOGGER.debug("Request {} to server {} is no longer pending, discarding the response", requestId, _server);
+          return;
+        }
+        _clientMetrics.addRequestResponseStats(pendingRequest._requestSizeInBytes, 1, responseBytes.length, false,
+            pendingRequest._sendRequestLatency.getLatencyMs(), pendingRequest._responseLatency.getLatencyMs());
+        pendingRequest._responseFuture.onSuccess(responseBytes);
+      }
+
+      @Override
+      public void channelInactive(ChannelHandlerContext ctx) {
+        LOGGER.info("Multiplexed channel to server {} is inactive (closed)", _server);
+        failAllRequests(ctx.channel(), new Exception("Channel to server " + _server + " is closed"));
+      }
+
+      @Override
+      public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        LOGGER.warn("Caught exception in the multiplexed channel to server {}: {}", _server, cause.getMessage());
+        failAllRequests(ctx.channel(), cause);
+        ctx.close();
+      }
+    }
+  }
+}
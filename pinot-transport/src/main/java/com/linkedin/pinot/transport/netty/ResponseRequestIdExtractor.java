@@ -0,0 +1,28 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.transport.netty;
+
+/**
+ * Extracts the request id from the serialized response, which is used to correlate the responses to the requests on
+ * a multiplexed connection (see {@link MultiplexedNettyClient}).
+ */
+public interface ResponseRequestIdExtractor {
+
+  /**
+   * Returns the id of the request for the given serialized response.
+   */
+  long getRequestId(byte[] response) throws Exception;
+}
@@ -23,6 +23,7 @@ import com.linkedin.pinot.common.response.ServerInstance;
 import com.linkedin.pinot.transport.common.CompositeFuture;
 import com.linkedin.pinot.transport.common.CompositeFuture.GatherModeOnError;
 import com.linkedin.pinot.transport.common.ServerResponseFuture;
+import com.linkedin.pinot.transport.netty.MultiplexedNettyClient;
 import com.linkedin.pinot.transport.netty.NettyClientConnection.ResponseFuture;
 import com.linkedin.pinot.transport.netty.PooledNettyClientResourceManager;
 import com.linkedin.pinot.transport.pool.KeyedPool;
@@ -47,16 +48,28 @@ import org.slf4j.LoggerFactory;
  *
  * Scatter-Gather implementation
  *
+ * <p>Requests are either sent on connections checked out from the connection pool (one outstanding request per
+ * connection), or on multiplexed connections shared by all the in-flight requests to a server when constructed with a
+ * {@link MultiplexedNettyClient}.
  */
 public class ScatterGatherImpl implements ScatterGather {
   private static final Logger LOGGER = LoggerFactory.getLogger(ScatterGatherImpl.class);
 
   private final KeyedPool<PooledNettyClientResourceManager.PooledClientConnection> _connPool;
+  private final MultiplexedNettyClient _multiplexedClient;
   private final ExecutorService _executorService;
 
   public ScatterGatherImpl(@Nonnull KeyedPool<PooledNettyClientResourceManager.PooledClientConnection> connPool,
       @Nonnull ExecutorService executorService) {
     _connPool = connPool;
+    _multiplexedClient = null;
+    _executorService = executorService;
+  }
+
+  public ScatterGatherImpl(@Nonnull MultiplexedNettyClient multiplexedClient,
+      @Nonnull ExecutorService executorService) {
+    _connPool = null;
+    _multiplexedClient = multiplexedClient;
     _executorService = executorService;
   }
 
@@ -91,6 +104,9 @@ public class ScatterGatherImpl implements ScatterGather {
   private CompositeFuture<byte[]> sendRequest(ScatterGatherRequestContext scatterGatherRequestContext,
       ScatterGatherStats scatterGatherStats, Boolean isOfflineTable, BrokerMetrics brokerMetrics)
       throws InterruptedException {
+    if (_multiplexedClient != null) {
+      return sendMultiplexedRequest(scatterGatherRequestContext, scatterGatherStats, isOfflineTable, brokerMetrics);
+    }
     ScatterGatherRequest scatterGatherRequest = scatterGatherRequestContext._request;
     Map<String, List<String>> routingTable = scatterGatherRequest.getRoutingTable();
     CountDownLatch requestDispatchLatch = new CountDownLatch(routingTable.size());
@@ -100,14 +116,7 @@ public class ScatterGatherImpl implements ScatterGather {
 
     for (Entry<String, List<String>> entry : routingTable.entrySet()) {
       ServerInstance serverInstance = ServerInstance.forInstanceName(entry.getKey());
-      String shortServerName = serverInstance.getShortHostName();
-      if (isOfflineTable != null) {
-        if (isOfflineTable) {
-          shortServerName += ScatterGatherStats.OFFLINE_TABLE_SUFFIX;
-        } else {
-          shortServerName += ScatterGatherStats.REALTIME_TABLE_SUFFIX;
-        }
-      }
+      String shortServerName = getShortServerName(serverInstance, isOfflineTable);
       scatterGatherStats.initServer(shortServerName);
       SingleRequestHandler handler =
           new SingleRequestHandler(_connPool, serverInstance, scatterGatherRequest, entry.getValue(),
@@ -129,14 +138,7 @@ public class ScatterGatherImpl implements ScatterGather {
       List<ServerResponseFuture<byte[]>> responseFutures = new ArrayList<>();
       for (SingleRequestHandler h : handlers) {
         responseFutures.add(h.getResponseFuture());
-        String shortServerName = h.getServer().getShortHostName();
-        if (isOfflineTable != null) {
-          if (isOfflineTable) {
-            shortServerName += ScatterGatherStats.OFFLINE_TABLE_SUFFIX;
-          } else {
-            shortServerName += ScatterGatherStats.REALTIME_TABLE_SUFFIX;
-          }
-        }
+        String shortServerName = getShortServerName(h.getServer(), isOfflineTable);
         scatterGatherStats.setSendStartTimeMillis(shortServerName, h.getConnStartTimeMillis());
         scatterGatherStats.setConnStartTimeMillis(shortServerName, h.getStartDelayMillis());
         scatterGatherStats.setSendCompletionTimeMillis(shortServerName, h.getSendCompletionTimeMillis());
@@ -160,6 +162,59 @@ public class ScatterGatherImpl implements ScatterGather {
     return response;
   }
 
+  /**
+   * Helper Function to send scatter-request on the multiplexed connections. Sending a request only writes to the
+   * shared channel of the server (connecting first if needed), so the requests are sent from the caller thread.
+   */
+  private CompositeFuture<byte[]> sendMultiplexedRequest(ScatterGatherRequestContext scatterGatherRequestContext,
+      ScatterGatherStats scatterGatherStats, Boolean isOfflineTable, BrokerMetrics brokerMetrics) {
+    ScatterGatherRequest scatterGatherRequest = scatterGatherRequestContext._request;
+    long requestId = scatterGatherRequest.getRequestId();
+    Map<String, List<String>> routingTable = scatterGatherRequest.getRoutingTable();
+    long startTimeMs = System.currentTimeMillis();
+
+    List<ServerResponseFuture<byte[]>> responseFutures = new ArrayList<>(routingTable.size());
+    for (Entry<String, List<String>> entry : routingTable.entrySet()) {
+      ServerInstance serverInstance = ServerInstance.forInstanceName(entry.getKey());
+      String shortServerName = getShortServerName(serverInstance, isOfflineTable);
+      scatterGatherStats.initServer(shortServerName);
+      long sendStartTimeMs = System.currentTimeMillis() - startTimeMs;
+      ResponseFuture responseFuture;
+      try {
+        ByteBuf req = Unpooled.wrappedBuffer(scatterGatherRequest.getRequestForService(entry.getValue()));
+        responseFuture = _multiplexedClient.sendRequest(serverInstance, isOfflineTable, req, requestId,
+            scatterGatherRequestContext.getRemainingTimeMs());
+      } catch (Exception e) {
+        LOGGER.error("Got exception sending request ({}) to server {}. Setting error future", requestId,
+            serverInstance, e);
+        brokerMetrics.addMeteredQueryValue(scatterGatherRequest.getBrokerRequest(),
+            BrokerMeter.REQUEST_DROPPED_DUE_TO_SEND_ERROR, 1);
+        responseFuture = new ResponseFuture(serverInstance, e, "Error Future for request " + requestId);
+      }
+      responseFutures.add(responseFuture);
+      scatterGatherStats.setSendStartTimeMillis(shortServerName, sendStartTimeMs);
+      scatterGatherStats.setConnStartTimeMillis(shortServerName, 0L);
+      scatterGatherStats.setSendCompletionTimeMillis(shortServerName, System.currentTimeMillis() - startTimeMs);
+    }
+
+    CompositeFuture<byte[]> response =
+        new CompositeFuture<>("scatterRequest " + requestId, GatherModeOnError.SHORTCIRCUIT_AND);
+    response.start(responseFutures);
+    return response;
+  }
+
+  private static String getShortServerName(ServerInstance serverInstance, @Nullable Boolean isOfflineTable) {
+    String shortServerName = serverInstance.getShortHostName();
+    if (isOfflineTable != null) {
+      if (isOfflineTable) {
+        shortServerName += ScatterGatherStats.OFFLINE_TABLE_SUFFIX;
+      } else {
+        shortServerName += ScatterGatherStats.REALTIME_TABLE_SUFFIX;
+      }
+    }
+    return shortServerName;
+  }
+
   private static class ScatterGatherRequestContext {
     private final ScatterGatherRequest _request;
     private final long _startTimeMs;
@@ -0,0 +1,217 @@
+/**
+ * Copyright (C) 2014-2018 LinkedIn Corp. (pinot-core@linkedin.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.linkedin.pinot.transport.netty;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.linkedin.pinot.common.response.ServerInstance;
+import com.linkedin.pinot.transport.metrics.NettyClientMetrics;
+import com.linkedin.pinot.transport.netty.NettyClientConnection.ResponseFuture;
+import com.yammer.metrics.core.MetricsRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.HashedWheelTimer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class MultiplexedNettyClientTest {
+  private static final ResponseRequestIdExtractor REQUEST_ID_EXTRACTOR =
+      response -> ByteBuffer.wrap(response).getLong();
+
+  private HoldingRequestHandler _requestHandler;
+  private NettyTCPServer _nettyTCPServer;
+  private ServerInstance _serverInstance;
+  private NioEventLoopGroup _eventLoopGroup;
+  private NettyClientMetrics _clientMetrics;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    _requestHandler = new HoldingRequestHandler();
+    _nettyTCPServer = new NettyTCPServer(NettyTestUtils.DEFAULT_PORT, () -> _requestHandler, null, 100, 1, 6);
+    Thread serverThread = new Thread(_nettyTCPServer, "NettyTCPServer");
+    serverThread.start();
+    // Wait for at most 10 seconds for server to start
+    NettyTestUtils.waitForServerStarted(_nettyTCPServer, 10 * 1000L);
+
+    _serverInstance = new ServerInstance("localhost", NettyTestUtils.DEFAULT_PORT);
+    _eventLoopGroup = new NioEventLoopGroup();
+    // Use a new registry for each test so that the counters do not accumulate across the tests
+    _clientMetrics = new NettyClientMetrics(new MetricsRegistry(), "multiplexed_");
+  }
+
+  @Test
+  public void testOutOfOrderResponses() throws Exception {
+    MultiplexedNettyClient client =
+        new MultiplexedNettyClient(_eventLoopGroup, new HashedWheelTimer(), _clientMetrics, REQUEST_ID_EXTRACTOR, 100);
+    int numRequests = 10;
+    List<ResponseFuture> responseFutures = new ArrayList<>(numRequests);
+    for (long requestId = 0; requestId < numRequests; requestId++) {
+      responseFutures.add(client.sendRequest(_serverInstance, null, getRequest(requestId), requestId, 10_000L));
+    }
+    _requestHandler.waitForRequests(numRequests);
+    Assert.assertEquals(client.getNumInFlightRequests(), numRequests);
+    Assert.assertEquals(_clientMetrics.getInFlightRequests().count(), numRequests);
+
+    // Respond in the reverse order
+    _requestHandler.respondInReverseOrder();
+    for (int i = 0; i < numRequests; i++) {
+      byte[] response = responseFutures.get(i).getOne(10, TimeUnit.SECONDS);
+      Assert.assertNotNull(response);
+      Assert.assertEquals(REQUEST_ID_EXTRACTOR.getRequestId(response), i);
+    }
+    Assert.assertEquals(client.getNumInFlightRequests(), 0);
+    Assert.assertEquals(_clientMetrics.getInFlightRequests().count(), 0);
+    Assert.assertEquals(_clientMetrics.getRequestsSent().count(), numRequests);
+    Assert.assertEquals(_clientMetrics.getErrors().count(), 0);
+    client.shutDown();
+  }
+
+  @Test
+  public void testInFlightRequestsLimit() throws Exception {
+    MultiplexedNettyClient client =
+        new MultiplexedNettyClient(_eventLoopGroup, new HashedWheelTimer(), _clientMetrics, REQUEST_ID_EXTRACTOR, 2);
+    ResponseFuture first = client.sendRequest(_serverInstance, true, getRequest(1L), 1L, 10_000L);
+    ResponseFuture second = client.sendRequest(_serverInstance, true, getRequest(2L), 2L, 10_000L);
+
+    // Request exceeding the limit should be rejected right away
+    ResponseFuture rejected = client.sendRequest(_serverInstance, true, getRequest(3L), 3L, 10_000L);
+    Assert.assertTrue(rejected.isDone());
+    Assert.assertNotNull(rejected.getError());
+    Assert.assertEquals(_clientMetrics.getRequestsRejected().count(), 1);
+
+    // Requests with the same request id to the REALTIME table go to a separate channel
+    ResponseFuture realtime = client.sendRequest(_serverInstance, false, getRequest(1L), 1L, 10_000L);
+
+    _requestHandler.waitForRequests(3);
+    _requestHandler.respondInReverseOrder();
+    Assert.assertEquals(REQUEST_ID_EXTRACTOR.getRequestId(first.getOne(10, TimeUnit.SECONDS)), 1L);
+    Assert.assertEquals(REQUEST_ID_EXTRACTOR.getRequestId(second.getOne(10, TimeUnit.SECONDS)), 2L);
+    Assert.assertEquals(REQUEST_ID_EXTRACTOR.getRequestId(realtime.getOne(10, TimeUnit.SECONDS)), 1L);
+    Assert.assertEquals(client.getNumInFlightRequests(), 0);
+    client.shutDown();
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    MultiplexedNettyClient client =
+        new MultiplexedNettyClient(_eventLoopGroup, new HashedWheelTimer(), _clientMetrics, REQUEST_ID_EXTRACTOR, 100);
+    ResponseFuture responseFuture = client.sendRequest(_serverInstance, null, getRequest(1L), 1L, 100L);
+    _requestHandler.waitForRequests(1);
+    Assert.assertNull(responseFuture.getOne(10, TimeUnit.SECONDS));
+    Assert.assertNotNull(responseFuture.getError());
+    Assert.assertEquals(client.getNumInFlightRequests(), 0);
+    Assert.assertEquals(_clientMetrics.getErrors().count(), 1);
+
+    // Late response should be discarded, and the channel should still be usable
+    _requestHandler.respondInReverseOrder();
+    responseFuture = client.sendRequest(_serverInstance, null, getRequest(2L), 2L, 10_000L);
+    _requestHandler.waitForRequests(1);
+    _requestHandler.respondInReverseOrder();
+    Assert.assertEquals(REQUEST_ID_EXTRACTOR.getRequestId(responseFuture.getOne(10, TimeUnit.SECONDS)), 2L);
+    client.shutDown();
+  }
+
+  @Test
+  public void testUnidentifiableResponse() throws Exception {
+    MultiplexedNettyClient client =
+        new MultiplexedNettyClient(_eventLoopGroup, new HashedWheelTimer(), _clientMetrics, REQUEST_ID_EXTRACTOR, 100);
+    ResponseFuture first = client.sendRequest(_serverInstance, null, getRequest(1L), 1L, 60_000L);
+    ResponseFuture second = client.sendRequest(_serverInstance, null, getRequest(2L), 2L, 60_000L);
+    _requestHandler.waitForRequests(2);
+
+    // The server sends empty responses on failures, which should fail the pending requests without waiting for the
+    // timeout
+    long startTime = System.currentTimeMillis();
+    _requestHandler.failAll();
+    Assert.assertNull(first.getOne(10, TimeUnit.SECONDS));
+    Assert.assertNotNull(first.getError());
+    Assert.assertNull(second.getOne(10, TimeUnit.SECONDS));
+    Assert.assertNotNull(second.getError());
+    Assert.assertTrue(System.currentTimeMillis() - startTime < 20_000L);
+    Assert.assertEquals(client.getNumInFlightRequests(), 0);
+    Assert.assertTrue(_clientMetrics.getUnidentifiableResponses().count() > 0);
+
+    // The later requests should be sent on a new channel
+    ResponseFuture responseFuture = client.sendRequest(_serverInstance, null, getRequest(3L), 3L, 10_000L);
+    _requestHandler.waitForRequests(1);
+    _requestHandler.respondInReverseOrder();
+    Assert.assertEquals(REQUEST_ID_EXTRACTOR.getRequestId(responseFuture.getOne(10, TimeUnit.SECONDS)), 3L);
+    client.shutDown();
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    _eventLoopGroup.shutdownGracefully();
+    NettyTestUtils.closeServerConnection(_nettyTCPServer);
+  }
+
+  private static ByteBuf getRequest(long requestId) {
+    return Unpooled.wrappedBuffer(ByteBuffer.allocate(Long.BYTES).putLong(0, requestId));
+  }
+
+  /**
+   * Request handler which echoes the requests, but holds the responses until asked to respond.
+   */
+  private static class HoldingRequestHandler implements NettyServer.RequestHandler {
+    private final List<byte[]> _requests = new ArrayList<>();
+    private final List<SettableFuture<byte[]>> _responseFutures = new ArrayList<>();
+
+    @Override
+    public synchronized ListenableFuture<byte[]> processRequest(ChannelHandlerContext channelHandlerContext,
+        ByteBuf request) {
+      byte[] bytes = new byte[request.readableBytes()];
+      request.readBytes(bytes);
+      SettableFuture<byte[]> responseFuture = SettableFuture.create();
+      _requests.add(bytes);
+      _responseFutures.add(responseFuture);
+      notifyAll();
+      return responseFuture;
+    }
+
+    synchronized void waitForRequests(int numRequests) throws InterruptedException {
+      long endTime = System.currentTimeMillis() + 10_000L;
+      while (_requests.size() < numRequests && System.currentTimeMillis() < endTime) {
+        wait(100L);
+      }
+      Assert.assertEquals(_requests.size(), numRequests);
+    }
+
+    synchronized void respondInReverseOrder() {
+      for (int i = _requests.size() - 1; i >= 0; i--) {
+        _responseFutures.get(i).set(_requests.get(i));
+      }
+      _requests.clear();
+      _responseFutures.clear();
+    }
+
+    synchronized void failAll() {
+      for (SettableFuture<byte[]> responseFuture : _responseFutures) {
+        responseFuture.setException(new Exception("Request failed"));
+      }
+      _requests.clear();
+      _responseFutures.clear();
+    }
+  }
+}